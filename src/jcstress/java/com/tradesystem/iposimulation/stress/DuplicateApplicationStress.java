@@ -0,0 +1,68 @@
+package com.tradesystem.iposimulation.stress;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.RealIPOClock;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.IIII_Result;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The same investor applying twice for the same listing at once: at most one record exists and the
+ * investor is charged at most once.
+ */
+@JCStressTest
+@Outcome(id = {"1, 0, 1, 90", "0, 1, 1, 90"}, expect = Expect.ACCEPTABLE, desc = "One application accepted, one rejected as duplicate")
+@Outcome(expect = Expect.FORBIDDEN, desc = "Duplicate record or double charge")
+@State
+public class DuplicateApplicationStress {
+
+    private static final LocalDateTime DEADLINE = LocalDateTime.now().plusYears(1);
+
+    private final DataRepository repository = new DataRepository(RealIPOClock.INSTANCE, false);
+    private final IPOService ipoService = new IPOService(repository, new InvestorService(repository));
+    private final Investor investor = new Investor("INV", "Investor", new BigDecimal("100"));
+    private final ApplyIPOForm first = form();
+    private final ApplyIPOForm second = form();
+
+    public DuplicateApplicationStress() {
+        repository.saveInvestor(investor);
+        repository.saveStock(new IPOStock("STK", "Stress Corp", "STR", BigDecimal.TEN, 1, DEADLINE, "Issuer"));
+    }
+
+    @Actor
+    public void first(IIII_Result r) {
+        r.r1 = ipoService.apply(first).isSuccess() ? 1 : 0;
+    }
+
+    @Actor
+    public void second(IIII_Result r) {
+        r.r2 = ipoService.apply(second).isSuccess() ? 1 : 0;
+    }
+
+    @Arbiter
+    public void records(IIII_Result r) {
+        r.r3 = repository.findRecordsByInvestor("INV").size();
+        r.r4 = investor.getBalance().intValueExact();
+        // Cancels the catalog's deadline timer so finished states can be collected.
+        repository.close();
+    }
+
+    private static ApplyIPOForm form() {
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId("INV");
+        form.setStockId("STK");
+        return form;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tradesystem.iposimulation.stress;
+
+import com.tradesystem.iposimulation.model.Investor;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance updates on {@link Investor} under contention: the balance never goes negative and no
+ * update is lost.
+ */
+public class InvestorBalanceStress {
+
+    private static final BigDecimal SIXTY = new BigDecimal("60");
+    private static final BigDecimal TWENTY = new BigDecimal("20");
+
+    /**
+     * Two deductions that each fit the balance but not together: exactly one may succeed.
+     */
+    @JCStressTest
+    @Outcome(id = {"1, 0, 40", "0, 1, 40"}, expect = Expect.ACCEPTABLE, desc = "Exactly one deduction succeeds")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Overspend or lost update")
+    @State
+    public static class CompetingDeductions {
+
+        private final Investor investor = new Investor("INV", "Investor", new BigDecimal("100"));
+
+        @Actor
+        public void first(III_Result r) {
+            r.r1 = investor.deductBalance(SIXTY) ? 1 : 0;
+        }
+
+        @Actor
+        public void second(III_Result r) {
+            r.r2 = investor.deductBalance(SIXTY) ? 1 : 0;
+        }
+
+        @Arbiter
+        public void balance(III_Result r) {
+            r.r3 = investor.getBalance().intValueExact();
+        }
+    }
+
+    /**
+     * A deduction racing a deposit: it succeeds only if the deposit landed first.
+     */
+    @JCStressTest
+    @Outcome(id = "1, 10", expect = Expect.ACCEPTABLE, desc = "Deposit first, deduction succeeds")
+    @Outcome(id = "0, 70", expect = Expect.ACCEPTABLE, desc = "Deduction first and rejected, deposit kept")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Negative balance or lost update")
+    @State
+    public static class DeductionRacingDeposit {
+
+        private final Investor investor = new Investor("INV", "Investor", new BigDecimal("50"));
+
+        @Actor
+        public void deduct(II_Result r) {
+            r.r1 = investor.deductBalance(SIXTY) ? 1 : 0;
+        }
+
+        @Actor
+        public void deposit() {
+            investor.addBalance(TWENTY);
+        }
+
+        @Arbiter
+        public void balance(II_Result r) {
+            r.r2 = investor.getBalance().intValueExact();
+        }
+    }
+}
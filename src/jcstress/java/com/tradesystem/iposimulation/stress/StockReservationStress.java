@@ -0,0 +1,80 @@
+package com.tradesystem.iposimulation.stress;
+
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.time.RealIPOClock;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * {@link DataRepository#reserveStockLots} and {@link DataRepository#releaseStockLots}: the counter
+ * never exceeds {@code maxLots} and never drops below zero.
+ */
+public class StockReservationStress {
+
+    private static final String STOCK = "STK";
+
+    /**
+     * Two reservations of 2 lots against a cap of 3, on a stock with no counter yet.
+     */
+    @JCStressTest
+    @Outcome(id = {"1, 0, 2", "0, 1, 2"}, expect = Expect.ACCEPTABLE, desc = "Exactly one reservation fits")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Oversold or lost reservation")
+    @State
+    public static class CompetingReservations {
+
+        private final DataRepository repository = new DataRepository(RealIPOClock.INSTANCE, false);
+
+        @Actor
+        public void first(III_Result r) {
+            r.r1 = repository.reserveStockLots(STOCK, 2, 3) ? 1 : 0;
+        }
+
+        @Actor
+        public void second(III_Result r) {
+            r.r2 = repository.reserveStockLots(STOCK, 2, 3) ? 1 : 0;
+        }
+
+        @Arbiter
+        public void reserved(III_Result r) {
+            r.r3 = repository.reservedLotsView().get(STOCK).intValue();
+        }
+    }
+
+    /**
+     * A reservation racing the release of the only reserved lot, with a cap of 1.
+     */
+    @JCStressTest
+    @Outcome(id = "1, 1", expect = Expect.ACCEPTABLE, desc = "Release first, reservation takes the freed lot")
+    @Outcome(id = "0, 0", expect = Expect.ACCEPTABLE, desc = "Reservation first and rejected, then released")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Counter above maxLots or below zero")
+    @State
+    public static class ReservationRacingRelease {
+
+        private final DataRepository repository = new DataRepository(RealIPOClock.INSTANCE, false);
+
+        public ReservationRacingRelease() {
+            repository.reserveStockLots(STOCK, 1, 1);
+        }
+
+        @Actor
+        public void reserve(II_Result r) {
+            r.r1 = repository.reserveStockLots(STOCK, 1, 1) ? 1 : 0;
+        }
+
+        @Actor
+        public void release() {
+            repository.releaseStockLots(STOCK, 1);
+        }
+
+        @Arbiter
+        public void reserved(II_Result r) {
+            r.r2 = repository.reservedLotsView().get(STOCK).intValue();
+        }
+    }
+}
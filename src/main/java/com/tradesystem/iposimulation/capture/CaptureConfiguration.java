@@ -0,0 +1,31 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.time.IPOClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Traffic capture is opt-in: {@code ipo.capture.enabled=true} records to {@code ipo.capture.file}.
+ */
+@Configuration
+public class CaptureConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "ipo.capture.enabled", havingValue = "true")
+    public TrafficRecorder trafficRecorder(@Value("${ipo.capture.file:ipo-traffic.cap}") String file,
+                                           @Value("${ipo.capture.buffer-size:65536}") int bufferSize,
+                                           IPOClock clock) throws IOException {
+        return new TrafficRecorder(Path.of(file), bufferSize, clock);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ipo.capture.enabled", havingValue = "false", matchIfMissing = true)
+    public TrafficCapture noTrafficCapture() {
+        return TrafficCapture.NOOP;
+    }
+}
@@ -0,0 +1,103 @@
+package com.tradesystem.iposimulation.capture;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes a capture written by {@link CaptureWriter}, one op at a time.
+ */
+public class CaptureReader implements Closeable {
+
+    private final DataInputStream in;
+    private final long startEpochMillis;
+    private final List<String> strings = new ArrayList<>();
+    private long lastNanos;
+
+    public CaptureReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] magic = new byte[CaptureWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, CaptureWriter.MAGIC)) {
+            throw new IOException("Not an IPO capture file");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != CaptureWriter.VERSION) {
+            throw new IOException("Unsupported capture version " + version);
+        }
+        this.startEpochMillis = this.in.readLong();
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * Returns the next op, or {@code null} at the end of the capture. A capture cut off mid-op, as
+     * after a crash, ends at the last complete op.
+     */
+    public CapturedOp next() throws IOException {
+        int opcode = in.read();
+        if (opcode < 0) {
+            return null;
+        }
+        try {
+            lastNanos += readVarLong();
+            long at = lastNanos;
+            return switch (opcode) {
+                case CaptureWriter.LOGIN -> new CapturedOp.Login(at, readString());
+                case CaptureWriter.REGISTER -> new CapturedOp.Register(at, readString(), readString(), readDecimal());
+                case CaptureWriter.DEPOSIT -> new CapturedOp.Deposit(at, readString(), readDecimal());
+                case CaptureWriter.PUBLISH -> new CapturedOp.Publish(at, readString(), readString(), readString(),
+                        readDecimal(), (int) readVarLong(), in.readLong(), readString());
+                case CaptureWriter.APPLY -> new CapturedOp.Apply(at, readString(), readString());
+                case CaptureWriter.DRAW -> new CapturedOp.Draw(at, readString(), in.readBoolean());
+                case CaptureWriter.WITHDRAW -> new CapturedOp.Withdraw(at, readString(), readString());
+                default -> throw new IOException("Unknown opcode " + opcode);
+            };
+        } catch (EOFException truncated) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        long ref = readVarLong();
+        if (ref == 0) {
+            String value = in.readUTF();
+            strings.add(value);
+            return value;
+        }
+        return strings.get((int) (ref - 1));
+    }
+
+    private BigDecimal readDecimal() throws IOException {
+        int scale = (int) readVarLong();
+        byte[] unscaled = new byte[(int) readVarLong()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,124 @@
+package com.tradesystem.iposimulation.capture;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes {@link CapturedOp}s into the capture file format:
+ * <pre>
+ * header: "IPOCAP" version:u8 startEpochMillis:i64
+ * op:     opcode:u8 deltaNanos:varlong fields...
+ * </pre>
+ * Timestamps are deltas from the previous op and integers are LEB128 varints. Strings are interned:
+ * the first occurrence is written inline and later ones as a back-reference, so the investor and
+ * stock ids that make up most of a capture cost a byte or two each. Not thread-safe.
+ */
+public class CaptureWriter implements Closeable {
+
+    static final byte[] MAGIC = {'I', 'P', 'O', 'C', 'A', 'P'};
+    static final int VERSION = 1;
+
+    static final int LOGIN = 1;
+    static final int REGISTER = 2;
+    static final int DEPOSIT = 3;
+    static final int PUBLISH = 4;
+    static final int APPLY = 5;
+    static final int DRAW = 6;
+    static final int WITHDRAW = 7;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private long lastNanos;
+
+    public CaptureWriter(OutputStream out, long startEpochMillis) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(startEpochMillis);
+    }
+
+    public void write(CapturedOp op) throws IOException {
+        if (op instanceof CapturedOp.Apply apply) {
+            header(APPLY, op);
+            writeString(apply.investorId());
+            writeString(apply.stockId());
+        } else if (op instanceof CapturedOp.Deposit deposit) {
+            header(DEPOSIT, op);
+            writeString(deposit.investorId());
+            writeDecimal(deposit.amount());
+        } else if (op instanceof CapturedOp.Login login) {
+            header(LOGIN, op);
+            writeString(login.investorId());
+        } else if (op instanceof CapturedOp.Register register) {
+            header(REGISTER, op);
+            writeString(register.investorId());
+            writeString(register.displayName());
+            writeDecimal(register.initialBalance());
+        } else if (op instanceof CapturedOp.Publish publish) {
+            header(PUBLISH, op);
+            writeString(publish.stockId());
+            writeString(publish.stockName());
+            writeString(publish.stockSymbol());
+            writeDecimal(publish.price());
+            writeVarLong(publish.totalQuantity());
+            out.writeLong(publish.deadlineEpochMilli());
+            writeString(publish.issuerName());
+        } else if (op instanceof CapturedOp.Draw draw) {
+            header(DRAW, op);
+            writeString(draw.stockId());
+            out.writeBoolean(draw.refundLosers());
+        } else if (op instanceof CapturedOp.Withdraw withdraw) {
+            header(WITHDRAW, op);
+            writeString(withdraw.investorId());
+            writeString(withdraw.stockId());
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void header(int opcode, CapturedOp op) throws IOException {
+        out.writeByte(opcode);
+        // Ops can reach the writer slightly out of order across threads; clamp rather than go negative.
+        long at = Math.max(op.atNanos(), lastNanos);
+        writeVarLong(at - lastNanos);
+        lastNanos = at;
+    }
+
+    private void writeString(String value) throws IOException {
+        Integer ref = strings.get(value);
+        if (ref != null) {
+            writeVarLong(ref + 1L);
+            return;
+        }
+        writeVarLong(0);
+        out.writeUTF(value);
+        strings.put(value, strings.size());
+    }
+
+    private void writeDecimal(BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(value.scale());
+        writeVarLong(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.tradesystem.iposimulation.capture;
+
+import java.math.BigDecimal;
+
+/**
+ * One captured operation. {@code atNanos} is the offset from the start of the capture in engine-clock
+ * time, the time base of the deadlines it carries.
+ */
+public sealed interface CapturedOp {
+
+    long atNanos();
+
+    record Login(long atNanos, String investorId) implements CapturedOp {
+    }
+
+    record Register(long atNanos, String investorId, String displayName, BigDecimal initialBalance) implements CapturedOp {
+    }
+
+    record Deposit(long atNanos, String investorId, BigDecimal amount) implements CapturedOp {
+    }
+
+    record Publish(long atNanos, String stockId, String stockName, String stockSymbol, BigDecimal price,
+                   int totalQuantity, long deadlineEpochMilli, String issuerName) implements CapturedOp {
+    }
+
+    record Apply(long atNanos, String investorId, String stockId) implements CapturedOp {
+    }
+
+    record Withdraw(long atNanos, String investorId, String stockId) implements CapturedOp {
+    }
+
+    record Draw(long atNanos, String stockId, boolean refundLosers) implements CapturedOp {
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Summary of a {@link TrafficReplayer} run.
+ *
+ * @param operations    ops replayed, by kind
+ * @param failures      ops whose service call threw, by kind (expected for e.g. duplicate registrations)
+ * @param applyOutcomes replayed applications by outcome
+ * @param capturedNanos span of the capture
+ * @param replayNanos   wall time of the replay
+ */
+public record ReplayReport(Map<String, Long> operations,
+                           Map<String, Long> failures,
+                           Map<ApplyOutcome, Long> applyOutcomes,
+                           long capturedNanos,
+                           long replayNanos) {
+
+    public long total() {
+        return operations.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Replayed %d ops spanning %.1f s in %.1f s (%.1fx)%n", total(),
+                capturedNanos / 1e9, replayNanos / 1e9, capturedNanos / (double) Math.max(replayNanos, 1)));
+        operations.forEach((kind, count) -> out.append(String.format("  %-10s %d (%d failed)%n",
+                kind, count, failures.getOrDefault(kind, 0L))));
+        out.append("Apply outcomes:");
+        applyOutcomes.forEach((outcome, count) -> out.append(' ').append(outcome.tag()).append('=').append(count));
+        return out.toString();
+    }
+
+    static final class Builder {
+
+        private final Map<String, Long> operations = new LinkedHashMap<>();
+        private final Map<String, Long> failures = new LinkedHashMap<>();
+        private final Map<ApplyOutcome, Long> applyOutcomes = new LinkedHashMap<>();
+        private long capturedNanos;
+
+        void executed(CapturedOp op, boolean failed) {
+            String kind = op.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+            operations.merge(kind, 1L, Long::sum);
+            if (failed) {
+                failures.merge(kind, 1L, Long::sum);
+            }
+        }
+
+        void outcome(ApplyOutcome outcome) {
+            applyOutcomes.merge(outcome, 1L, Long::sum);
+        }
+
+        void capturedNanos(long atNanos) {
+            capturedNanos = atNanos;
+        }
+
+        ReplayReport build(long replayNanos) {
+            return new ReplayReport(Collections.unmodifiableMap(operations), Collections.unmodifiableMap(failures),
+                    Collections.unmodifiableMap(applyOutcomes), capturedNanos, replayNanos);
+        }
+    }
+}
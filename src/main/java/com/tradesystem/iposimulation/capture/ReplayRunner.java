@@ -0,0 +1,62 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.time.IPOClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replay mode: {@code --ipo.replay.file=ipo-traffic.cap --ipo.replay.speed=10} replays a capture
+ * into a fresh repository at startup, logs the report and, unless {@code ipo.replay.exit=false}, exits.
+ */
+@Component
+@ConditionalOnProperty(name = "ipo.replay.file")
+public class ReplayRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayRunner.class);
+
+    private final ConfigurableApplicationContext context;
+    private final IPOClock clock;
+    private final Path file;
+    private final double speed;
+    private final boolean exit;
+
+    public ReplayRunner(ConfigurableApplicationContext context,
+                        IPOClock clock,
+                        @Value("${ipo.replay.file}") String file,
+                        @Value("${ipo.replay.speed:1}") String speed,
+                        @Value("${ipo.replay.exit:true}") boolean exit) {
+        this.context = context;
+        this.clock = clock;
+        this.file = Path.of(file);
+        this.speed = TrafficReplayer.parseSpeed(speed);
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(String... args) throws IOException {
+        DataRepository repository = new DataRepository(clock);
+        ReplayReport report;
+        try (CaptureReader reader = new CaptureReader(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            log.info("Replaying {} at {}", file, speed == Double.POSITIVE_INFINITY ? "max speed" : speed + "x");
+            report = new TrafficReplayer(repository, speed).replay(reader);
+        } finally {
+            repository.close();
+        }
+        log.info("{}", report.format());
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
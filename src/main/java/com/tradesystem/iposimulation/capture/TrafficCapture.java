@@ -0,0 +1,36 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives every state-changing operation as it enters the service layer, so it can be replayed
+ * later. Implementations must not block the caller.
+ */
+public interface TrafficCapture {
+
+    TrafficCapture NOOP = new TrafficCapture() {
+    };
+
+    default void login(String investorId) {
+    }
+
+    default void register(String investorId, String displayName, BigDecimal initialBalance) {
+    }
+
+    default void deposit(String investorId, BigDecimal amount) {
+    }
+
+    default void publish(IPOStock stock) {
+    }
+
+    default void apply(String investorId, String stockId) {
+    }
+
+    default void draw(String stockId, boolean refundLosers) {
+    }
+
+    default void withdraw(String investorId, String stockId) {
+    }
+}
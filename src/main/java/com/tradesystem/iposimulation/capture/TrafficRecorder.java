@@ -0,0 +1,137 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.time.IPOClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captures operations to a file. Callers only enqueue; a single background thread encodes and writes,
+ * so request threads never touch the disk. When the queue is full the op is dropped and counted
+ * rather than stalling the request.
+ * <p>
+ * Operations are stamped on the engine clock, the same time base as the listing deadlines they
+ * carry, so a capture taken on an accelerated clock replays with its deadlines where they were.
+ */
+public class TrafficRecorder implements TrafficCapture {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficRecorder.class);
+
+    private final Path file;
+    private final BlockingQueue<CapturedOp> queue;
+    private final IPOClock clock;
+    private final long startMillis;
+    private final AtomicLong dropped = new AtomicLong();
+    private final CaptureWriter writer;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public TrafficRecorder(Path file, int bufferSize, IPOClock clock) throws IOException {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.clock = clock;
+        this.startMillis = clock.millis();
+        this.writer = new CaptureWriter(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16), startMillis);
+        this.thread = new Thread(this::drain, "ipo-capture-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        log.info("Capturing traffic to {}", file.toAbsolutePath());
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void login(String investorId) {
+        enqueue(new CapturedOp.Login(now(), investorId));
+    }
+
+    @Override
+    public void register(String investorId, String displayName, BigDecimal initialBalance) {
+        enqueue(new CapturedOp.Register(now(), investorId, displayName, initialBalance));
+    }
+
+    @Override
+    public void deposit(String investorId, BigDecimal amount) {
+        enqueue(new CapturedOp.Deposit(now(), investorId, amount));
+    }
+
+    @Override
+    public void publish(IPOStock stock) {
+        enqueue(new CapturedOp.Publish(now(), stock.getStockId(), stock.getStockName(), stock.getStockSymbol(),
+                stock.getPrice(), stock.getTotalQuantity(), stock.getDeadlineEpochMilli(), stock.getIssuerName()));
+    }
+
+    @Override
+    public void apply(String investorId, String stockId) {
+        enqueue(new CapturedOp.Apply(now(), investorId, stockId));
+    }
+
+    @Override
+    public void draw(String stockId, boolean refundLosers) {
+        enqueue(new CapturedOp.Draw(now(), stockId, refundLosers));
+    }
+
+    @Override
+    public void withdraw(String investorId, String stockId) {
+        enqueue(new CapturedOp.Withdraw(now(), investorId, stockId));
+    }
+
+    /**
+     * Writes everything still queued and closes the file.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join();
+        if (dropped.get() > 0) {
+            log.warn("Traffic capture {} dropped {} operations", file, dropped.get());
+        }
+    }
+
+    private long now() {
+        return (clock.millis() - startMillis) * 1_000_000L;
+    }
+
+    private void enqueue(CapturedOp op) {
+        if (!queue.offer(op)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        List<CapturedOp> batch = new ArrayList<>(256);
+        try (writer) {
+            while (running || !queue.isEmpty()) {
+                CapturedOp first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    writer.flush();
+                    continue;
+                }
+                writer.write(first);
+                queue.drainTo(batch, 255);
+                for (CapturedOp op : batch) {
+                    writer.write(op);
+                }
+                batch.clear();
+            }
+        } catch (IOException ex) {
+            log.error("Traffic capture to {} failed; further operations are discarded", file, ex);
+            running = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.service.ApplyRejectedException;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds a capture back through the services, in captured order, against the given repository.
+ * <p>
+ * At a finite speed the original gaps, in engine-clock time, are divided by the speed factor and
+ * waited out on the replay repository's clock; listing deadlines are compressed by the same factor. At max speed ops are issued back to back. In both modes a replayed
+ * listing is closed as soon as the replay passes its captured deadline, so late applications are
+ * rejected and draws succeed exactly as they did when the capture was taken.
+ */
+public class TrafficReplayer {
+
+    private final IPORepository repository;
+    private final InvestorService investorService;
+    private final IPOService ipoService;
+    private final double speed;
+
+    public TrafficReplayer(IPORepository repository, double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive");
+        }
+        this.repository = repository;
+        this.investorService = new InvestorService(repository);
+        this.ipoService = new IPOService(repository, investorService);
+        this.speed = speed;
+    }
+
+    /**
+     * Parses {@code 1}, {@code 10}, {@code 2.5} or {@code max}.
+     */
+    public static double parseSpeed(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("max")) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.parseDouble(normalized.endsWith("x") ? normalized.substring(0, normalized.length() - 1) : normalized);
+    }
+
+    public ReplayReport replay(CaptureReader reader) throws IOException {
+        long captureStartMillis = reader.getStartEpochMillis();
+        long replayStartNanos = System.nanoTime();
+        double clockRate = repository.clock().rate();
+        PriorityQueue<OpenListing> open = new PriorityQueue<>(Comparator.comparingLong(OpenListing::capturedDeadlineNanos));
+        ReplayReport.Builder report = new ReplayReport.Builder();
+
+        CapturedOp op;
+        while ((op = reader.next()) != null) {
+            if (speed != Double.POSITIVE_INFINITY) {
+                long due = replayStartNanos + (long) (op.atNanos() / speed / clockRate);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            closeListings(open, op.atNanos());
+            boolean failed = false;
+            try {
+                dispatch(op, captureStartMillis, open, report);
+            } catch (RuntimeException ex) {
+                failed = true;
+            }
+            report.executed(op, failed);
+            report.capturedNanos(op.atNanos());
+        }
+        return report.build(System.nanoTime() - replayStartNanos);
+    }
+
+    private void dispatch(CapturedOp op, long captureStartMillis, PriorityQueue<OpenListing> open,
+                          ReplayReport.Builder report) {
+        if (op instanceof CapturedOp.Apply apply) {
+            ApplyIPOForm form = new ApplyIPOForm();
+            form.setInvestorId(apply.investorId());
+            form.setStockId(apply.stockId());
+            try {
+                report.outcome(ipoService.apply(form).getOutcome());
+            } catch (ApplyRejectedException ex) {
+                report.outcome(ex.getOutcome());
+            } catch (RuntimeException ex) {
+                report.outcome(ApplyOutcome.ERROR);
+            }
+        } else if (op instanceof CapturedOp.Deposit deposit) {
+            investorService.deposit(deposit.investorId(), deposit.amount());
+        } else if (op instanceof CapturedOp.Login login) {
+            investorService.loginOrCreate(login.investorId());
+        } else if (op instanceof CapturedOp.Register register) {
+            investorService.registerInvestor(register.investorId(), register.displayName(), register.initialBalance());
+        } else if (op instanceof CapturedOp.Publish publish) {
+            long capturedDeadlineNanos = (publish.deadlineEpochMilli() - captureStartMillis) * 1_000_000L;
+            double factor = speed == Double.POSITIVE_INFINITY ? 1 : speed;
+            long remainingMillis = (long) ((capturedDeadlineNanos - publish.atNanos()) / factor / 1_000_000L);
+            IPOStock stock = new IPOStock(publish.stockId(), publish.stockName(), publish.stockSymbol(),
+                    publish.price(), publish.totalQuantity(), at(repository.clock().millis() + remainingMillis),
+                    publish.issuerName());
+            repository.saveStock(stock);
+            open.add(new OpenListing(capturedDeadlineNanos, stock));
+        } else if (op instanceof CapturedOp.Draw draw) {
+            ipoService.executeDraw(draw.stockId(), draw.refundLosers());
+        } else if (op instanceof CapturedOp.Withdraw withdraw) {
+            try {
+                ipoService.withdraw(withdraw.investorId(), withdraw.stockId());
+            } catch (RuntimeException rejected) {
+                // Rejected when captured too, e.g. after the deadline; replay keeps going.
+            }
+        }
+    }
+
+    private void closeListings(PriorityQueue<OpenListing> open, long capturedNanos) {
+        while (!open.isEmpty() && open.peek().capturedDeadlineNanos() < capturedNanos) {
+            IPOStock stock = open.poll().stock();
+            long now = repository.clock().millis();
+            if (!stock.isDrawExecuted() && !stock.isExpired(now)) {
+                repository.saveStock(new IPOStock(stock.getStockId(), stock.getStockName(), stock.getStockSymbol(),
+                        stock.getPrice(), stock.getTotalQuantity(), at(now - 1), stock.getIssuerName()));
+            }
+        }
+    }
+
+    private static LocalDateTime at(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    private record OpenListing(long capturedDeadlineNanos, IPOStock stock) {
+    }
+}
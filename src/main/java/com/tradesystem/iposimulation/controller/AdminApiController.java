@@ -0,0 +1,146 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.tradesystem.iposimulation.dto.ApplicationQuery;
+import com.tradesystem.iposimulation.dto.ApplicationQueryResult;
+import com.tradesystem.iposimulation.dto.DrawResult;
+import com.tradesystem.iposimulation.dto.PublishIPOForm;
+import com.tradesystem.iposimulation.dto.SubscriptionReport;
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.model.Administrator;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.sandbox.Sandbox;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import com.tradesystem.iposimulation.time.IPOClock;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Admin JSON API for publishing listings, running draws, releasing held escrow, reporting on
+ * subscriptions and querying applications; requires an admin session.
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminApiController {
+
+    private final SandboxRegistry sandboxes;
+    private final IPOClock clock;
+
+    public AdminApiController(SandboxRegistry sandboxes, IPOClock clock) {
+        this.sandboxes = sandboxes;
+        this.clock = clock;
+    }
+
+    @PostMapping("/ipos")
+    public void publish(@RequestBody @Valid PublishIPOForm form,
+                        HttpSession session,
+                        HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        if (requireAdmin(session, writer, response) == null) {
+            return;
+        }
+        IPOStock stock = sandbox.ipoService().publishIPO(form);
+        long now = clock.millis();
+        writer.write(response, HttpServletResponse.SC_CREATED, json -> writer.writeStock(json, stock, now));
+    }
+
+    @PostMapping("/ipos/{stockId}/draw")
+    public void draw(@PathVariable String stockId,
+                     @RequestParam(value = "refund", defaultValue = "false") boolean refund,
+                     HttpSession session,
+                     HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        Administrator admin = requireAdmin(session, writer, response);
+        if (admin == null) {
+            return;
+        }
+        DrawResult result;
+        try {
+            result = admin.executeDraw(stockId, refund, sandbox.ipoService());
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_NOT_FOUND, false, ex.getMessage());
+            return;
+        } catch (IllegalStateException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_CONFLICT, false, ex.getMessage());
+            return;
+        }
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeDrawResult(json, stockId, result));
+    }
+
+    @PostMapping("/ipos/{stockId}/escrow/release")
+    public void releaseEscrow(@PathVariable String stockId,
+                              HttpSession session,
+                              HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        if (requireAdmin(session, writer, response) == null) {
+            return;
+        }
+        int released;
+        try {
+            released = sandbox.ipoService().releaseEscrow(stockId);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_NOT_FOUND, false, ex.getMessage());
+            return;
+        } catch (IllegalStateException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_CONFLICT, false, ex.getMessage());
+            return;
+        }
+        writer.writeMessage(response, HttpServletResponse.SC_OK, true, "Released escrow of " + released + " applications");
+    }
+
+    /**
+     * Applications per listing and investors' cash at one pinned version; see
+     * {@link com.tradesystem.iposimulation.service.IPOService#subscriptionReport()}.
+     */
+    @GetMapping("/reports/subscriptions")
+    public void subscriptionReport(HttpSession session, HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        if (requireAdmin(session, writer, response) == null) {
+            return;
+        }
+        SubscriptionReport report = sandbox.ipoService().subscriptionReport();
+        response.setHeader("Server-Timing", String.format("report;dur=%.3f", report.getElapsedNanos() / 1e6));
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeSubscriptionReport(json, report));
+    }
+
+    /**
+     * Applications matching every given filter, answered from the sandbox's bitmap indexes; see
+     * {@link com.tradesystem.iposimulation.query.ApplicationIndex}.
+     */
+    @GetMapping("/applications")
+    public void queryApplications(@ModelAttribute ApplicationQuery query,
+                                  HttpSession session,
+                                  HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        if (requireAdmin(session, writer, response) == null) {
+            return;
+        }
+        ApplicationQueryResult result = sandbox.applicationIndex().query(query);
+        response.setHeader("Server-Timing", String.format("query;dur=%.3f", result.getElapsedNanos() / 1e6));
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeQueryResult(json, result));
+    }
+
+    private Administrator requireAdmin(HttpSession session, JsonResponseWriter writer, HttpServletResponse response)
+            throws IOException {
+        Administrator admin = (Administrator) session.getAttribute("CURRENT_ADMIN");
+        if (admin == null) {
+            writer.writeMessage(response, HttpServletResponse.SC_UNAUTHORIZED, false, "Admin login required");
+        }
+        return admin;
+    }
+}
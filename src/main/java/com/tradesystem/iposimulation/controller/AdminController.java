@@ -3,6 +3,7 @@ package com.tradesystem.iposimulation.controller;
 import com.tradesystem.iposimulation.dto.DrawResult;
 import com.tradesystem.iposimulation.dto.PublishIPOForm;
 import com.tradesystem.iposimulation.model.Administrator;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
 import com.tradesystem.iposimulation.service.IPOService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
@@ -19,10 +20,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequestMapping("/admin")
 public class AdminController {
 
-    private final IPOService ipoService;
+    private final SandboxRegistry sandboxes;
 
-    public AdminController(IPOService ipoService) {
-        this.ipoService = ipoService;
+    public AdminController(SandboxRegistry sandboxes) {
+        this.sandboxes = sandboxes;
     }
 
     @GetMapping
@@ -32,7 +33,7 @@ public class AdminController {
             return "redirect:/login";
         }
         model.addAttribute("publishForm", new PublishIPOForm());
-        model.addAttribute("ipos", ipoService.listAllIPOs());
+        model.addAttribute("ipos", sandboxes.of(session).ipoService().listIPOsForDisplay());
         return "admin/dashboard";
     }
 
@@ -45,8 +46,9 @@ public class AdminController {
         if (admin == null) {
             return "redirect:/login";
         }
+        IPOService ipoService = sandboxes.of(session).ipoService();
         if (bindingResult.hasErrors()) {
-            model.addAttribute("ipos", ipoService.listAllIPOs());
+            model.addAttribute("ipos", ipoService.listIPOsForDisplay());
             return "admin/dashboard";
         }
         admin.publishIPO(form, ipoService);
@@ -63,7 +65,7 @@ public class AdminController {
         if (admin == null) {
             return "redirect:/login";
         }
-        DrawResult result = admin.executeDraw(stockId, refund, ipoService);
+        DrawResult result = admin.executeDraw(stockId, refund, sandboxes.of(session).ipoService());
         model.addAttribute("flashMessage", "Draw completed: " + result.getWinners() + " winners, " + result.getLosers() + " losers");
         return "redirect:/admin";
     }
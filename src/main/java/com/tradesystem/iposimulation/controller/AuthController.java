@@ -1,6 +1,7 @@
 package com.tradesystem.iposimulation.controller;
 
 import com.tradesystem.iposimulation.model.Administrator;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
 import com.tradesystem.iposimulation.service.InvestorService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.constraints.NotBlank;
@@ -17,10 +18,10 @@ import java.math.BigDecimal;
 @Validated
 public class AuthController {
 
-    private final InvestorService investorService;
+    private final SandboxRegistry sandboxes;
 
-    public AuthController(InvestorService investorService) {
-        this.investorService = investorService;
+    public AuthController(SandboxRegistry sandboxes) {
+        this.sandboxes = sandboxes;
     }
 
     @GetMapping("/login")
@@ -38,7 +39,7 @@ public class AuthController {
         }
         session.removeAttribute("CURRENT_ADMIN");
         session.setAttribute("CURRENT_USER", userId);
-        investorService.loginOrCreate(userId);
+        sandboxes.of(session).investorService().loginOrCreate(userId);
         return "redirect:/ipo/list";
     }
 
@@ -52,6 +53,7 @@ public class AuthController {
                              @RequestParam("displayName") @NotBlank String displayName,
                              HttpSession session,
                              Model model) {
+        InvestorService investorService = sandboxes.of(session).investorService();
         if (investorService.findInvestor(userId).isPresent()) {
             model.addAttribute("error", "User ID already exists. Please choose another.");
             model.addAttribute("userId", userId);
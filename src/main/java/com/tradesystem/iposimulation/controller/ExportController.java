@@ -0,0 +1,94 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.tradesystem.iposimulation.export.RecordExporter;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.sandbox.Sandbox;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Streams draw allocations and application histories as CSV or JSON without materializing them.
+ */
+@Controller
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final SandboxRegistry sandboxes;
+
+    public ExportController(SandboxRegistry sandboxes) {
+        this.sandboxes = sandboxes;
+    }
+
+    @GetMapping("/admin/export/stocks/{stockId}/allocations.{format}")
+    public ResponseEntity<StreamingResponseBody> allocations(@PathVariable String stockId,
+                                                             @PathVariable String format,
+                                                             HttpSession session) {
+        if (session.getAttribute("CURRENT_ADMIN") == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Sandbox sandbox = sandboxes.of(session);
+        IPORepository repository = sandbox.repository();
+        // The name dictionary also covers archived listings, whose records are read back from disk.
+        if (!repository.stockNameDictionary().containsKey(stockId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return stream(sandbox.exporter(), format, stockId + "-allocations",
+                () -> repository.iterateRecordsByStock(stockId));
+    }
+
+    @GetMapping("/admin/export/investors/{investorId}/history.{format}")
+    public ResponseEntity<StreamingResponseBody> investorHistory(@PathVariable String investorId,
+                                                                 @PathVariable String format,
+                                                                 HttpSession session) {
+        if (session.getAttribute("CURRENT_ADMIN") == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return history(sandboxes.of(session), investorId, format);
+    }
+
+    @GetMapping("/ipo/records/export.{format}")
+    public ResponseEntity<StreamingResponseBody> myHistory(@PathVariable String format, HttpSession session) {
+        String investorId = (String) session.getAttribute("CURRENT_USER");
+        if (investorId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return history(sandboxes.of(session), investorId, format);
+    }
+
+    private ResponseEntity<StreamingResponseBody> history(Sandbox sandbox, String investorId, String format) {
+        return stream(sandbox.exporter(), format, investorId + "-history",
+                () -> sandbox.repository().investorView(investorId).iterateAll());
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(RecordExporter exporter, String format, String baseName,
+                                                         Supplier<Iterator<IPORecord>> records) {
+        boolean csv = "csv".equals(format);
+        if (!csv && !"json".equals(format)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = csv
+                ? out -> exporter.writeCsv(records.get(), out)
+                : out -> exporter.writeJson(records.get(), out);
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(baseName + "." + format)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
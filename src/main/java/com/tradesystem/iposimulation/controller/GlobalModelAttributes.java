@@ -1,21 +1,44 @@
 package com.tradesystem.iposimulation.controller;
 
 import com.tradesystem.iposimulation.model.Investor;
-import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.sandbox.Sandbox;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import com.tradesystem.iposimulation.time.IPOClock;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
+import java.time.LocalDateTime;
+
 /**
  * Supplies common model attributes to every Thymeleaf view.
  */
 @ControllerAdvice
 public class GlobalModelAttributes {
 
-    private final InvestorService investorService;
+    private final SandboxRegistry sandboxes;
+    private final IPOClock clock;
+
+    public GlobalModelAttributes(SandboxRegistry sandboxes, IPOClock clock) {
+        this.sandboxes = sandboxes;
+        this.clock = clock;
+    }
+
+    /**
+     * Engine time, so templates compare deadlines against the same clock as the services.
+     */
+    @ModelAttribute("now")
+    public LocalDateTime now() {
+        return clock.now();
+    }
 
-    public GlobalModelAttributes(InvestorService investorService) {
-        this.investorService = investorService;
+    /**
+     * Name of the sandbox the session is bound to, or {@code null} on the main dataset.
+     */
+    @ModelAttribute("currentSandbox")
+    public String currentSandbox(HttpSession session) {
+        Sandbox sandbox = sandboxes.of(session);
+        return sandbox.isMain() ? null : sandbox.getName();
     }
 
     @ModelAttribute("currentUserName")
@@ -27,7 +50,7 @@ public class GlobalModelAttributes {
         if (userId == null) {
             return null;
         }
-        return investorService.findInvestor(userId)
+        return sandboxes.of(session).investorService().findInvestor(userId)
                 .map(Investor::getDisplayName)
                 .orElse(userId);
     }
@@ -0,0 +1,210 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.DepositRequest;
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.dto.HistoryQuery;
+import com.tradesystem.iposimulation.dto.IPOApplicationResult;
+import com.tradesystem.iposimulation.dto.LoginRequest;
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.model.Administrator;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.sandbox.Sandbox;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import com.tradesystem.iposimulation.service.ApplyRejectedException;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.time.IPOClock;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Investor-facing JSON API. Authentication mirrors the web UI: {@code POST /api/v1/session} binds the
+ * caller's session to a user id, and {@code /me} resources act on that investor.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class IPOApiController {
+
+    private final SandboxRegistry sandboxes;
+    private final IPOClock clock;
+
+    public IPOApiController(SandboxRegistry sandboxes, IPOClock clock) {
+        this.sandboxes = sandboxes;
+        this.clock = clock;
+    }
+
+    @PostMapping("/session")
+    public void login(@RequestBody @Valid LoginRequest request, HttpSession session, HttpServletResponse response) {
+        String userId = request.getUserId();
+        if ("admin".equals(userId)) {
+            session.setAttribute("CURRENT_ADMIN", new Administrator("admin", "Administrator"));
+            session.removeAttribute("CURRENT_USER");
+        } else {
+            session.removeAttribute("CURRENT_ADMIN");
+            session.setAttribute("CURRENT_USER", userId);
+            sandboxes.of(session).investorService().loginOrCreate(userId);
+        }
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    @GetMapping("/ipos")
+    public void listIPOs(@RequestParam(value = "state", defaultValue = "all") String state,
+                         HttpSession session,
+                         HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        IPOService ipoService = sandbox.ipoService();
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        List<IPOStock> stocks = switch (state) {
+            case "open" -> ipoService.listOpenIPOs();
+            case "closed" -> ipoService.listClosedIPOs();
+            default -> ipoService.listIPOsForDisplay();
+        };
+        long now = clock.millis();
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeStocks(json, stocks, now));
+    }
+
+    @GetMapping("/me")
+    public void me(HttpSession session, HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        String investorId = currentInvestor(session, writer, response);
+        if (investorId == null) {
+            return;
+        }
+        Investor investor = sandbox.investorService().loginOrCreate(investorId);
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeInvestor(json, investor));
+    }
+
+    @PostMapping("/me/deposits")
+    public void deposit(@RequestBody @Valid DepositRequest request,
+                        HttpSession session,
+                        HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        String investorId = currentInvestor(session, writer, response);
+        if (investorId == null) {
+            return;
+        }
+        try {
+            sandbox.investorService().deposit(investorId, request.getAmount());
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_BAD_REQUEST, false, ex.getMessage());
+            return;
+        }
+        Investor investor = sandbox.investorService().loginOrCreate(investorId);
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeInvestor(json, investor));
+    }
+
+    @PostMapping("/me/applications")
+    public void apply(@RequestBody @Valid ApplyIPOForm form,
+                      HttpSession session,
+                      HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        String investorId = currentInvestor(session, writer, response);
+        if (investorId == null) {
+            return;
+        }
+        form.setInvestorId(investorId);
+        long started = System.nanoTime();
+        IPOApplicationResult result;
+        int status;
+        try {
+            result = sandbox.ipoService().apply(form);
+            status = statusFor(result);
+        } catch (ApplyRejectedException ex) {
+            result = new IPOApplicationResult(ex.getOutcome(), ex.getMessage(), null);
+            status = statusFor(result);
+        }
+        response.setHeader("Server-Timing", String.format("apply;dur=%.3f", (System.nanoTime() - started) / 1e6));
+        IPOApplicationResult outcome = result;
+        writer.write(response, status, json -> {
+            json.writeStartObject();
+            json.writeBooleanField("success", outcome.isSuccess());
+            json.writeStringField("message", outcome.getMessage());
+            if (outcome.getRecord() != null) {
+                json.writeFieldName("record");
+                writer.writeRecord(json, outcome.getRecord());
+            }
+            json.writeEndObject();
+        });
+    }
+
+    @DeleteMapping("/me/applications/{stockId}")
+    public void withdraw(@PathVariable String stockId,
+                         HttpSession session,
+                         HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        String investorId = currentInvestor(session, writer, response);
+        if (investorId == null) {
+            return;
+        }
+        IPORecord record;
+        try {
+            record = sandbox.ipoService().withdraw(investorId, stockId);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_NOT_FOUND, false, ex.getMessage());
+            return;
+        } catch (IllegalStateException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_CONFLICT, false, ex.getMessage());
+            return;
+        }
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeRecord(json, record));
+    }
+
+    @GetMapping("/me/applications")
+    public void history(@ModelAttribute HistoryQuery query,
+                        HttpSession session,
+                        HttpServletResponse response) throws IOException {
+        Sandbox sandbox = sandboxes.of(session);
+        JsonResponseWriter writer = sandbox.jsonWriter();
+        String investorId = currentInvestor(session, writer, response);
+        if (investorId == null) {
+            return;
+        }
+        HistoryPage page;
+        try {
+            page = sandbox.ipoService().getHistoryPage(investorId, query);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_BAD_REQUEST, false, ex.getMessage());
+            return;
+        }
+        writer.write(response, HttpServletResponse.SC_OK, json -> writer.writeHistoryPage(json, page));
+    }
+
+    private String currentInvestor(HttpSession session, JsonResponseWriter writer, HttpServletResponse response)
+            throws IOException {
+        String investorId = (String) session.getAttribute("CURRENT_USER");
+        if (investorId == null) {
+            writer.writeMessage(response, HttpServletResponse.SC_UNAUTHORIZED, false, "Login required");
+        }
+        return investorId;
+    }
+
+    private static int statusFor(IPOApplicationResult result) {
+        return switch (result.getOutcome()) {
+            case SUCCESS -> HttpServletResponse.SC_CREATED;
+            case NOT_FOUND -> HttpServletResponse.SC_NOT_FOUND;
+            case DUPLICATE -> HttpServletResponse.SC_CONFLICT;
+            case EXPIRED -> HttpServletResponse.SC_GONE;
+            case INSUFFICIENT_FUNDS -> 422;
+            case ERROR -> HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        };
+    }
+}
@@ -1,14 +1,18 @@
 package com.tradesystem.iposimulation.controller;
 
 import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.dto.HistoryQuery;
 import com.tradesystem.iposimulation.dto.IPOApplicationResult;
-import com.tradesystem.iposimulation.model.IPORecord;
 import com.tradesystem.iposimulation.model.Investor;
 import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.InvestorRecordView;
+import com.tradesystem.iposimulation.sandbox.Sandbox;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
 import com.tradesystem.iposimulation.service.IPOService;
-import com.tradesystem.iposimulation.service.InvestorService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,33 +20,35 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Controller
 public class IPOController {
 
-    private final IPOService ipoService;
-    private final InvestorService investorService;
+    private static final HistoryQuery RECENT_HISTORY = recentHistory();
 
-    public IPOController(IPOService ipoService, InvestorService investorService) {
-        this.ipoService = ipoService;
-        this.investorService = investorService;
+    private final SandboxRegistry sandboxes;
+
+    public IPOController(SandboxRegistry sandboxes) {
+        this.sandboxes = sandboxes;
     }
 
     @GetMapping("/ipo/list")
-    public String list(Model model, HttpSession session) {
-        String redirect = requireUser(session);
+    public String list(Model model, HttpSession session, ServletWebRequest webRequest) {
+        Sandbox sandbox = sandboxes.of(session);
+        String currentUser = (String) session.getAttribute("CURRENT_USER");
+        if (currentUser != null && notModified(webRequest, sandbox, currentUser)) {
+            return null;
+        }
+        String redirect = requireUser(session, sandbox);
         if (redirect != null) {
             return redirect;
         }
-        String currentUser = (String) session.getAttribute("CURRENT_USER");
-        populateListModel(model, currentUser);
+        populateListModel(model, sandbox, currentUser);
         return "ipo/list";
     }
 
@@ -52,11 +58,13 @@ public class IPOController {
                         Model model,
                         HttpSession session,
                         RedirectAttributes redirectAttributes) {
+        Sandbox sandbox = sandboxes.of(session);
+        IPOService ipoService = sandbox.ipoService();
         if (bindingResult.hasErrors()) {
             model.addAttribute("ipos", ipoService.listIPOsForDisplay());
             return "ipo/list";
         }
-        String redirect = requireUser(session);
+        String redirect = requireUser(session, sandbox);
         if (redirect != null) {
             return redirect;
         }
@@ -66,7 +74,7 @@ public class IPOController {
             IPOApplicationResult result = ipoService.apply(form);
             if (!result.isSuccess()) {
                 model.addAttribute("flashError", result.getMessage());
-                populateListModel(model, currentUser);
+                populateListModel(model, sandbox, currentUser);
                 return "ipo/list";
             }
             redirectAttributes.addFlashAttribute("flashMessage", result.getMessage());
@@ -77,15 +85,52 @@ public class IPOController {
         }
     }
 
-    @GetMapping("/ipo/records")
-    public String records(Model model, HttpSession session) {
-        String redirect = requireUser(session);
+    @PostMapping("/ipo/withdraw")
+    public String withdraw(@RequestParam("stockId") String stockId,
+                           HttpSession session,
+                           RedirectAttributes redirectAttributes) {
+        Sandbox sandbox = sandboxes.of(session);
+        String redirect = requireUser(session, sandbox);
         if (redirect != null) {
             return redirect;
         }
         String currentUser = (String) session.getAttribute("CURRENT_USER");
-        List<IPORecord> history = ipoService.getHistory(currentUser);
-        model.addAttribute("records", history);
+        try {
+            sandbox.ipoService().withdraw(currentUser, stockId);
+            redirectAttributes.addFlashAttribute("flashMessage", "Application withdrawn; funds returned");
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            redirectAttributes.addFlashAttribute("flashError", ex.getMessage());
+        }
+        return "redirect:/ipo/records";
+    }
+
+    @GetMapping("/ipo/records")
+    public String records(@ModelAttribute("filter") HistoryQuery filter,
+                          Model model,
+                          HttpSession session,
+                          ServletWebRequest webRequest) {
+        Sandbox sandbox = sandboxes.of(session);
+        IPOService ipoService = sandbox.ipoService();
+        String currentUser = (String) session.getAttribute("CURRENT_USER");
+        if (currentUser != null && notModified(webRequest, sandbox, currentUser)) {
+            return null;
+        }
+        String redirect = requireUser(session, sandbox);
+        if (redirect != null) {
+            return redirect;
+        }
+        HistoryPage page;
+        try {
+            page = ipoService.getHistoryPage(currentUser, filter);
+        } catch (IllegalArgumentException ex) {
+            filter.setCursor(null);
+            model.addAttribute("flashError", ex.getMessage());
+            page = ipoService.getHistoryPage(currentUser, filter);
+        }
+        model.addAttribute("page", page);
+        model.addAttribute("records", page.getRecords());
+        model.addAttribute("statuses", Status.values());
+        model.addAttribute("stockNames", ipoService.stockNames());
         return "ipo/records";
     }
 
@@ -93,13 +138,14 @@ public class IPOController {
     public String deposit(@RequestParam("amount") BigDecimal amount,
                           HttpSession session,
                           RedirectAttributes redirectAttributes) {
-        String redirect = requireUser(session);
+        Sandbox sandbox = sandboxes.of(session);
+        String redirect = requireUser(session, sandbox);
         if (redirect != null) {
             return redirect;
         }
         String currentUser = (String) session.getAttribute("CURRENT_USER");
         try {
-            investorService.deposit(currentUser, amount);
+            sandbox.investorService().deposit(currentUser, amount);
             redirectAttributes.addFlashAttribute("flashMessage", "Deposit successful");
         } catch (IllegalArgumentException ex) {
             redirectAttributes.addFlashAttribute("flashError", ex.getMessage());
@@ -107,32 +153,48 @@ public class IPOController {
         return "redirect:/ipo/list";
     }
 
-    private String requireUser(HttpSession session) {
+    /**
+     * Answers a conditional GET from version stamps alone, before any model or template work.
+     */
+    private boolean notModified(ServletWebRequest webRequest, Sandbox sandbox, String investorId) {
+        if (RequestContextUtils.getInputFlashMap(webRequest.getRequest()) != null) {
+            // Flash messages are one-shot and must be rendered.
+            return false;
+        }
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return webRequest.checkNotModified(sandbox.pageVersionTag(investorId));
+    }
+
+    private String requireUser(HttpSession session, Sandbox sandbox) {
         String userId = (String) session.getAttribute("CURRENT_USER");
         if (userId == null) {
             return "redirect:/login";
         }
-        investorService.loginOrCreate(userId);
+        sandbox.investorService().loginOrCreate(userId);
         return null;
     }
 
-    private void populateListModel(Model model, String investorId) {
-        Investor investor = investorService.findInvestor(investorId)
+    private static HistoryQuery recentHistory() {
+        HistoryQuery query = new HistoryQuery();
+        query.setSize(10);
+        return query;
+    }
+
+    private void populateListModel(Model model, Sandbox sandbox, String investorId) {
+        IPOService ipoService = sandbox.ipoService();
+        Investor investor = sandbox.investorService().findInvestor(investorId)
                 .orElseThrow(() -> new IllegalStateException("Investor not found"));
-        List<IPORecord> existingRecords = ipoService.getHistory(investorId);
-        Set<String> appliedStockIds = existingRecords.stream()
-                .filter(record -> record.getStatus() == Status.PENDING || record.getStatus() == Status.WON)
-                .map(IPORecord::getStockId)
-                .collect(Collectors.toSet());
-        List<com.tradesystem.iposimulation.model.IPOStock> ipos = ipoService.listIPOsForDisplay();
-        Map<String, String> stockNames = ipos.stream()
-                .collect(Collectors.toMap(stock -> stock.getStockId(), stock -> stock.getStockName()));
-
-        model.addAttribute("ipos", ipos);
+        InvestorRecordView view = ipoService.getInvestorView(investorId);
+
+        model.addAttribute("ipos", ipoService.listIPOsForDisplay());
         model.addAttribute("applyForm", new ApplyIPOForm());
-        model.addAttribute("appliedStockIds", appliedStockIds);
+        model.addAttribute("appliedStockIds", view.getAppliedStockIds());
         model.addAttribute("investor", investor);
-        model.addAttribute("myRecords", existingRecords);
-        model.addAttribute("stockNames", stockNames);
+        model.addAttribute("myRecords", ipoService.getHistoryPage(investorId, RECENT_HISTORY).getRecords());
+        model.addAttribute("recordCounts", view);
+        model.addAttribute("stockNames", ipoService.stockNames());
+        model.addAttribute("demand", ipoService.demandByStock());
     }
 }
@@ -0,0 +1,41 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.tradesystem.iposimulation.event.IPOEventHub;
+import com.tradesystem.iposimulation.event.SseEventSink;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live feed for the investor pages: listings published and closed, throttled demand counters,
+ * draw completions and the current investor's own draw outcomes.
+ */
+@Controller
+public class IPOEventController {
+
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final IPOEventHub hub;
+
+    public IPOEventController(IPOEventHub hub) {
+        this.hub = hub;
+    }
+
+    @GetMapping(path = "/ipo/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(HttpSession session) {
+        String investorId = (String) session.getAttribute("CURRENT_USER");
+        if (investorId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        IPOEventHub.Subscription subscription = hub.subscribe(investorId, new SseEventSink(emitter));
+        emitter.onCompletion(() -> hub.unsubscribe(subscription));
+        emitter.onTimeout(() -> hub.unsubscribe(subscription));
+        emitter.onError(ex -> hub.unsubscribe(subscription));
+        return ResponseEntity.ok(emitter);
+    }
+}
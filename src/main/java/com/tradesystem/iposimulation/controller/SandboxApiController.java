@@ -0,0 +1,198 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.repository.RepositorySnapshot;
+import com.tradesystem.iposimulation.sandbox.Sandbox;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * JSON API for simulation sandboxes: create or fork them, snapshot them, and bind the caller's
+ * session to one. Every other page and API call of a bound session acts on that sandbox. Listing and
+ * binding require a logged-in user or admin; creating, snapshotting and removing require an admin.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class SandboxApiController {
+
+    private final SandboxRegistry sandboxes;
+    private final JsonResponseWriter writer;
+
+    public SandboxApiController(SandboxRegistry sandboxes, JsonResponseWriter writer) {
+        this.sandboxes = sandboxes;
+        this.writer = writer;
+    }
+
+    @GetMapping("/sandboxes")
+    public void list(HttpSession session, HttpServletResponse response) throws IOException {
+        if (!requireLogin(session, response)) {
+            return;
+        }
+        String current = sandboxes.of(session).getName();
+        writer.write(response, HttpServletResponse.SC_OK, json -> {
+            json.writeStartObject();
+            json.writeStringField("current", current);
+            json.writeArrayFieldStart("sandboxes");
+            for (Sandbox sandbox : sandboxes.sandboxes()) {
+                writeSandbox(json, sandbox);
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("snapshots");
+            for (Map.Entry<String, RepositorySnapshot> snapshot : sandboxes.snapshots().entrySet()) {
+                writeSnapshot(json, snapshot.getKey(), snapshot.getValue());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        });
+    }
+
+    /**
+     * Creates a sandbox from demo data or, with {@code from}, forks it from that snapshot.
+     */
+    @PostMapping("/sandboxes/{name}")
+    public void create(@PathVariable String name,
+                       @RequestParam(value = "from", required = false) String from,
+                       HttpSession session,
+                       HttpServletResponse response) throws IOException {
+        if (!requireAdmin(session, response)) {
+            return;
+        }
+        long started = System.nanoTime();
+        Sandbox sandbox;
+        try {
+            sandbox = from == null ? sandboxes.create(name) : sandboxes.fork(from, name);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_BAD_REQUEST, false, ex.getMessage());
+            return;
+        } catch (IllegalStateException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_CONFLICT, false, ex.getMessage());
+            return;
+        }
+        response.setHeader("Server-Timing", String.format("create;dur=%.3f", (System.nanoTime() - started) / 1e6));
+        writer.write(response, HttpServletResponse.SC_CREATED, json -> writeSandbox(json, sandbox));
+    }
+
+    @DeleteMapping("/sandboxes/{name}")
+    public void remove(@PathVariable String name, HttpSession session, HttpServletResponse response)
+            throws IOException {
+        if (!requireAdmin(session, response)) {
+            return;
+        }
+        boolean removed;
+        try {
+            removed = sandboxes.remove(name);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_CONFLICT, false, ex.getMessage());
+            return;
+        }
+        writer.writeMessage(response, removed ? HttpServletResponse.SC_OK : HttpServletResponse.SC_NOT_FOUND,
+                removed, removed ? "Sandbox removed" : "No sandbox named " + name);
+    }
+
+    @PostMapping("/sandboxes/{name}/snapshots/{snapshot}")
+    public void snapshot(@PathVariable String name,
+                         @PathVariable String snapshot,
+                         HttpSession session,
+                         HttpServletResponse response) throws IOException {
+        if (!requireAdmin(session, response)) {
+            return;
+        }
+        long started = System.nanoTime();
+        RepositorySnapshot taken;
+        try {
+            taken = sandboxes.snapshot(name, snapshot);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_BAD_REQUEST, false, ex.getMessage());
+            return;
+        } catch (IllegalStateException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_CONFLICT, false, ex.getMessage());
+            return;
+        }
+        response.setHeader("Server-Timing", String.format("snapshot;dur=%.3f", (System.nanoTime() - started) / 1e6));
+        writer.write(response, HttpServletResponse.SC_CREATED, json -> writeSnapshot(json, snapshot, taken));
+    }
+
+    @DeleteMapping("/snapshots/{name}")
+    public void removeSnapshot(@PathVariable String name, HttpSession session, HttpServletResponse response)
+            throws IOException {
+        if (!requireAdmin(session, response)) {
+            return;
+        }
+        boolean removed = sandboxes.removeSnapshot(name);
+        writer.writeMessage(response, removed ? HttpServletResponse.SC_OK : HttpServletResponse.SC_NOT_FOUND,
+                removed, removed ? "Snapshot removed" : "No snapshot named " + name);
+    }
+
+    /**
+     * Binds the session to the sandbox; binding {@code main} returns it to the main dataset.
+     */
+    @PutMapping("/session/sandbox/{name}")
+    public void bind(@PathVariable String name, HttpSession session, HttpServletResponse response)
+            throws IOException {
+        if (!requireLogin(session, response)) {
+            return;
+        }
+        Sandbox sandbox;
+        try {
+            sandbox = sandboxes.bind(session, name);
+        } catch (IllegalArgumentException ex) {
+            writer.writeMessage(response, HttpServletResponse.SC_NOT_FOUND, false, ex.getMessage());
+            return;
+        }
+        String investorId = (String) session.getAttribute("CURRENT_USER");
+        if (investorId != null) {
+            sandbox.investorService().loginOrCreate(investorId);
+        }
+        writer.write(response, HttpServletResponse.SC_OK, json -> writeSandbox(json, sandbox));
+    }
+
+    private static void writeSandbox(JsonGenerator json, Sandbox sandbox) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", sandbox.getName());
+        if (sandbox.getOrigin() != null) {
+            json.writeStringField("origin", sandbox.getOrigin());
+        }
+        json.writeNumberField("stocks", sandbox.repository().countStocks());
+        json.writeNumberField("records", sandbox.repository().countRecords());
+        json.writeEndObject();
+    }
+
+    private static void writeSnapshot(JsonGenerator json, String name, RepositorySnapshot snapshot) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", name);
+        json.writeNumberField("takenAt", snapshot.getTakenAtMillis());
+        json.writeNumberField("investors", snapshot.countInvestors());
+        json.writeNumberField("stocks", snapshot.countStocks());
+        json.writeNumberField("records", snapshot.countRecords());
+        json.writeEndObject();
+    }
+
+    private boolean requireLogin(HttpSession session, HttpServletResponse response) throws IOException {
+        if (session.getAttribute("CURRENT_USER") == null && session.getAttribute("CURRENT_ADMIN") == null) {
+            writer.writeMessage(response, HttpServletResponse.SC_UNAUTHORIZED, false, "Login required");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean requireAdmin(HttpSession session, HttpServletResponse response) throws IOException {
+        if (session.getAttribute("CURRENT_ADMIN") == null) {
+            writer.writeMessage(response, HttpServletResponse.SC_UNAUTHORIZED, false, "Admin login required");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tradesystem.iposimulation.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.time.Duration;
+
+/**
+ * Marks static assets public for a year, but only when requested through their current content-hashed
+ * URL; the plain path and any stale hash get no Cache-Control and are revalidated.
+ */
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    private static final CacheControl HASHED_ASSET_CACHE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic();
+    private static final ContentVersionStrategy HASHED_NAMES = new ContentVersionStrategy();
+
+    private final ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
+    public StaticResourceConfiguration(ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+                String version = HASHED_NAMES.extractVersion(path);
+                ResourceUrlProvider urls = resourceUrlProvider.getIfAvailable();
+                if (version != null && urls != null
+                        && path.equals(urls.getForLookupPath(HASHED_NAMES.removeVersion(path, version)))) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, HASHED_ASSET_CACHE.getHeaderValue());
+                }
+                return true;
+            }
+        }).addPathPatterns("/css/**");
+    }
+}
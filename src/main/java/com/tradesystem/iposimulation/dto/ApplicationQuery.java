@@ -0,0 +1,125 @@
+package com.tradesystem.iposimulation.dto;
+
+import com.tradesystem.iposimulation.model.Status;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ad-hoc filter over all application records; every criterion left unset matches everything.
+ */
+public class ApplicationQuery {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private Status status;
+
+    private String stockId;
+
+    /**
+     * Only listings whose deadline falls on this day.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate closingOn;
+
+    /**
+     * Exclusive lower bound on the price per lot.
+     */
+    private BigDecimal priceAbove;
+
+    /**
+     * Inclusive upper bound on the price per lot.
+     */
+    private BigDecimal priceAtMost;
+
+    /**
+     * Only records of investors who have made at least this many applications, not counting withdrawn ones.
+     */
+    private int minInvestorApplications;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate appliedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate appliedTo;
+
+    private int limit = DEFAULT_LIMIT;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getStockId() {
+        return stockId;
+    }
+
+    public void setStockId(String stockId) {
+        this.stockId = stockId;
+    }
+
+    public LocalDate getClosingOn() {
+        return closingOn;
+    }
+
+    public void setClosingOn(LocalDate closingOn) {
+        this.closingOn = closingOn;
+    }
+
+    public BigDecimal getPriceAbove() {
+        return priceAbove;
+    }
+
+    public void setPriceAbove(BigDecimal priceAbove) {
+        this.priceAbove = priceAbove;
+    }
+
+    public BigDecimal getPriceAtMost() {
+        return priceAtMost;
+    }
+
+    public void setPriceAtMost(BigDecimal priceAtMost) {
+        this.priceAtMost = priceAtMost;
+    }
+
+    public int getMinInvestorApplications() {
+        return minInvestorApplications;
+    }
+
+    public void setMinInvestorApplications(int minInvestorApplications) {
+        this.minInvestorApplications = minInvestorApplications;
+    }
+
+    public LocalDate getAppliedFrom() {
+        return appliedFrom;
+    }
+
+    public void setAppliedFrom(LocalDate appliedFrom) {
+        this.appliedFrom = appliedFrom;
+    }
+
+    public LocalDate getAppliedTo() {
+        return appliedTo;
+    }
+
+    public void setAppliedTo(LocalDate appliedTo) {
+        this.appliedTo = appliedTo;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int effectiveLimit() {
+        return Math.max(0, Math.min(limit, MAX_LIMIT));
+    }
+}
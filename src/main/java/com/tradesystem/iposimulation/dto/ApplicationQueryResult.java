@@ -0,0 +1,36 @@
+package com.tradesystem.iposimulation.dto;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+
+import java.util.List;
+
+/**
+ * How many records matched an {@link ApplicationQuery}, and the first of them in record order.
+ */
+public class ApplicationQueryResult {
+
+    private final long matches;
+    private final List<IPORecord> records;
+    private final long elapsedNanos;
+
+    public ApplicationQueryResult(long matches, List<IPORecord> records, long elapsedNanos) {
+        this.matches = matches;
+        this.records = List.copyOf(records);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     * At most {@link ApplicationQuery#effectiveLimit()} of the matching records.
+     */
+    public List<IPORecord> getRecords() {
+        return records;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tradesystem.iposimulation.dto;
+
+import java.util.Locale;
+
+/**
+ * Why an application was accepted or rejected; used as the {@code outcome} metric tag. {@link #ERROR}
+ * marks an application that failed unexpectedly rather than being rejected.
+ */
+public enum ApplyOutcome {
+    SUCCESS,
+    NOT_FOUND,
+    DUPLICATE,
+    EXPIRED,
+    INSUFFICIENT_FUNDS,
+    ERROR;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String tag() {
+        return tag;
+    }
+}
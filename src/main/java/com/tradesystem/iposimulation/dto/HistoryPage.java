@@ -0,0 +1,48 @@
+package com.tradesystem.iposimulation.dto;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.mvcc.ReadView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One newest-first page of application history plus the opaque cursor for the following page.
+ */
+public class HistoryPage {
+
+    private final List<IPORecord> records;
+    private final String nextCursor;
+
+    public HistoryPage(List<IPORecord> records, String nextCursor) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<IPORecord> getRecords() {
+        return records;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * The page with every record as of the view's version; records created after it are left out.
+     */
+    public HistoryPage asOf(ReadView view) {
+        List<IPORecord> pinned = new ArrayList<>(records.size());
+        for (IPORecord record : records) {
+            IPORecord at = record.asOf(view);
+            if (at != null) {
+                pinned.add(at);
+            }
+        }
+        return new HistoryPage(Collections.unmodifiableList(pinned), nextCursor);
+    }
+}
@@ -4,18 +4,22 @@ import com.tradesystem.iposimulation.model.IPORecord;
 
 public class IPOApplicationResult {
 
-    private final boolean success;
+    private final ApplyOutcome outcome;
     private final String message;
     private final IPORecord record;
 
-    public IPOApplicationResult(boolean success, String message, IPORecord record) {
-        this.success = success;
+    public IPOApplicationResult(ApplyOutcome outcome, String message, IPORecord record) {
+        this.outcome = outcome;
         this.message = message;
         this.record = record;
     }
 
     public boolean isSuccess() {
-        return success;
+        return outcome == ApplyOutcome.SUCCESS;
+    }
+
+    public ApplyOutcome getOutcome() {
+        return outcome;
     }
 
     public String getMessage() {
@@ -0,0 +1,106 @@
+package com.tradesystem.iposimulation.dto;
+
+import com.tradesystem.iposimulation.model.Status;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applications per listing and investors' cash, all as of one committed version.
+ */
+public class SubscriptionReport {
+
+    private final long version;
+    private final int investors;
+    private final BigDecimal availableCash;
+    private final BigDecimal escrowedCash;
+    private final List<Listing> listings;
+    private final long elapsedNanos;
+
+    public SubscriptionReport(long version, int investors, BigDecimal availableCash, BigDecimal escrowedCash,
+                              List<Listing> listings, long elapsedNanos) {
+        this.version = version;
+        this.investors = investors;
+        this.availableCash = availableCash;
+        this.escrowedCash = escrowedCash;
+        this.listings = List.copyOf(listings);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * The version the report was read at.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getInvestors() {
+        return investors;
+    }
+
+    public BigDecimal getAvailableCash() {
+        return availableCash;
+    }
+
+    /**
+     * Cash investors hold in listing escrow.
+     */
+    public BigDecimal getEscrowedCash() {
+        return escrowedCash;
+    }
+
+    public List<Listing> getListings() {
+        return listings;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * One listing's applications by status.
+     */
+    public static class Listing {
+
+        private final String stockId;
+        private final int[] counts = new int[Status.values().length];
+        private final int[] lots = new int[Status.values().length];
+        private final BigDecimal[] amounts = new BigDecimal[Status.values().length];
+
+        public Listing(String stockId) {
+            this.stockId = stockId;
+            Arrays.fill(amounts, BigDecimal.ZERO);
+        }
+
+        public void add(Status status, int quantity, BigDecimal amount) {
+            counts[status.ordinal()]++;
+            lots[status.ordinal()] += quantity;
+            amounts[status.ordinal()] = amounts[status.ordinal()].add(amount);
+        }
+
+        public String getStockId() {
+            return stockId;
+        }
+
+        public int getApplications() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        public int count(Status status) {
+            return counts[status.ordinal()];
+        }
+
+        public int lots(Status status) {
+            return lots[status.ordinal()];
+        }
+
+        public BigDecimal amount(Status status) {
+            return amounts[status.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tradesystem.iposimulation.event;
+
+import java.io.IOException;
+
+/**
+ * Transport a subscriber's events are written to; an {@code SseEmitter} in production.
+ */
+public interface EventSink {
+
+    void send(IPOEvent event) throws IOException;
+
+    void complete();
+}
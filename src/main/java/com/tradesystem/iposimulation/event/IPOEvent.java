@@ -0,0 +1,25 @@
+package com.tradesystem.iposimulation.event;
+
+import java.util.Map;
+
+/**
+ * One incremental update pushed to live pages.
+ *
+ * @param id         monotonically increasing sequence, used as the SSE event id
+ * @param type       SSE event name, e.g. {@code published} or {@code demand}
+ * @param investorId recipient, or {@code null} to broadcast
+ * @param data       JSON-serializable payload
+ */
+public record IPOEvent(long id, String type, String investorId, Map<String, Object> data) {
+
+    public static final String PUBLISHED = "published";
+    public static final String CLOSED = "closed";
+    public static final String DEMAND = "demand";
+    public static final String DRAW_COMPLETED = "draw-completed";
+    public static final String DRAW_RESULT = "draw-result";
+    public static final String RESYNC = "resync";
+
+    public boolean isBroadcast() {
+        return investorId == null;
+    }
+}
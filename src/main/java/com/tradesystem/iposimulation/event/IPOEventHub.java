@@ -0,0 +1,230 @@
+package com.tradesystem.iposimulation.event;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.repository.RepositoryListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans repository changes out to live subscribers (SSE connections).
+ * <p>
+ * Publishing never blocks on a subscriber: each subscription owns a bounded buffer drained by a
+ * shared delivery pool, and a subscriber that falls a full buffer behind has its backlog replaced by
+ * a single {@code resync} event. Demand updates are coalesced per stock and flushed on a fixed
+ * interval, so a rush of applications costs one event per stock per interval. Subscriptions are also
+ * indexed by investor, so a draw pays for each outcome only if that investor is listening.
+ */
+@Component
+public class IPOEventHub implements RepositoryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IPOEventHub.class);
+    private static final CopyOnWriteArrayList<Subscription> EMPTY = new CopyOnWriteArrayList<>();
+
+    private final IPORepository repository;
+    private final int bufferSize;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Subscription>> subscriptionsByInvestor =
+            new ConcurrentHashMap<>();
+    private final Set<String> dirtyDemand = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService throttle;
+    private final ExecutorService delivery;
+
+    public IPOEventHub(IPORepository repository,
+                       @Value("${ipo.events.buffer-size:256}") int bufferSize,
+                       @Value("${ipo.events.demand-interval-ms:500}") long demandIntervalMs,
+                       @Value("${ipo.events.delivery-threads:2}") int deliveryThreads) {
+        this.repository = repository;
+        this.bufferSize = bufferSize;
+        this.throttle = Executors.newSingleThreadScheduledExecutor(daemon("ipo-events-throttle"));
+        this.delivery = Executors.newFixedThreadPool(deliveryThreads, daemon("ipo-events-delivery"));
+        throttle.scheduleAtFixedRate(this::flushDemand, demandIntervalMs, demandIntervalMs, TimeUnit.MILLISECONDS);
+        repository.addListener(this);
+    }
+
+    /**
+     * Registers a subscriber.
+     *
+     * @param investorId receives that investor's draw outcomes in addition to broadcasts; may be {@code null}
+     */
+    public Subscription subscribe(String investorId, EventSink sink) {
+        Subscription subscription = new Subscription(investorId, sink);
+        subscriptions.add(subscription);
+        if (investorId != null) {
+            subscriptionsByInvestor.computeIfAbsent(investorId, key -> new CopyOnWriteArrayList<>()).add(subscription);
+        }
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            if (subscription.investorId != null) {
+                subscriptionsByInvestor.computeIfPresent(subscription.investorId, (key, investorSubscriptions) -> {
+                    investorSubscriptions.remove(subscription);
+                    return investorSubscriptions.isEmpty() ? null : investorSubscriptions;
+                });
+            }
+            subscription.sink.complete();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void onStockSaved(IPOStock stock) {
+        publish(IPOEvent.PUBLISHED, null, stockPayload(stock));
+    }
+
+    @Override
+    public void onSubscriptionClosed(IPOStock stock) {
+        publish(IPOEvent.CLOSED, null, stockPayload(stock));
+    }
+
+    @Override
+    public void onDrawExecuted(IPOStock stock) {
+        publish(IPOEvent.DRAW_COMPLETED, null, stockPayload(stock));
+    }
+
+    @Override
+    public void onRecordSaved(IPORecord record) {
+        dirtyDemand.add(record.getStockId());
+    }
+
+    @Override
+    public void onRecordStatusChanged(IPORecord record, Status previous) {
+        Status status = record.getStatus();
+        if (status != Status.WON && status != Status.LOST
+                || !subscriptionsByInvestor.containsKey(record.getInvestorId())) {
+            return;
+        }
+        publish(IPOEvent.DRAW_RESULT, record.getInvestorId(), Map.of(
+                "stockId", record.getStockId(),
+                "stockName", repository.stockNameDictionary().getOrDefault(record.getStockId(), record.getStockId()),
+                "recordId", record.getRecordId(),
+                "status", status.name()));
+    }
+
+    void flushDemand() {
+        Iterator<String> dirty = dirtyDemand.iterator();
+        while (dirty.hasNext()) {
+            String stockId = dirty.next();
+            dirty.remove();
+            Number lots = repository.reservedLotsView().get(stockId);
+            publish(IPOEvent.DEMAND, null, Map.of("stockId", stockId, "lots", lots == null ? 0 : lots.intValue()));
+        }
+    }
+
+    private void publish(String type, String investorId, Map<String, Object> data) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        IPOEvent event = new IPOEvent(sequence.incrementAndGet(), type, investorId, data);
+        List<Subscription> targets = event.isBroadcast() ? subscriptions
+                : subscriptionsByInvestor.getOrDefault(investorId, EMPTY);
+        for (Subscription subscription : targets) {
+            subscription.enqueue(event);
+        }
+    }
+
+    private static Map<String, Object> stockPayload(IPOStock stock) {
+        return Map.of("stockId", stock.getStockId(), "stockName", stock.getStockName());
+    }
+
+    @PreDestroy
+    public void close() {
+        repository.removeListener(this);
+        throttle.shutdownNow();
+        delivery.shutdownNow();
+        subscriptions.forEach(this::unsubscribe);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A subscriber's bounded buffer; at most one delivery task drains it at a time.
+     */
+    public final class Subscription {
+
+        private final String investorId;
+        private final EventSink sink;
+        private final ArrayBlockingQueue<IPOEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong overflows = new AtomicLong();
+
+        private Subscription(String investorId, EventSink sink) {
+            this.investorId = investorId;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        public long getOverflows() {
+            return overflows.get();
+        }
+
+        private void enqueue(IPOEvent event) {
+            if (!buffer.offer(event)) {
+                // Too far behind to catch up incrementally; the page reloads instead.
+                buffer.clear();
+                overflows.incrementAndGet();
+                buffer.offer(new IPOEvent(sequence.incrementAndGet(), IPOEvent.RESYNC, investorId, Map.of()));
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                IPOEvent event;
+                while ((event = buffer.poll()) != null) {
+                    sink.send(event);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Dropping event subscriber: {}", ex.getMessage());
+                draining.set(false);
+                unsubscribe(this);
+                return;
+            }
+            draining.set(false);
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
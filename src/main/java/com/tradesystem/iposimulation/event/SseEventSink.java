@@ -0,0 +1,31 @@
+package com.tradesystem.iposimulation.event;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Writes hub events to a Server-Sent Events connection.
+ */
+public class SseEventSink implements EventSink {
+
+    private final SseEmitter emitter;
+
+    public SseEventSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(IPOEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(event.id()))
+                .name(event.type())
+                .data(event.data(), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void complete() {
+        emitter.complete();
+    }
+}
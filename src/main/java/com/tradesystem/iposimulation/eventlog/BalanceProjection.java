@@ -0,0 +1,63 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Debited;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Deposited;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.InvestorRegistered;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Refunded;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Withdrawn;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cash balance per investor, partitioned by investor id.
+ */
+public class BalanceProjection implements Projection {
+
+    private final ConcurrentHashMap<String, BigDecimal> balances = new ConcurrentHashMap<>();
+
+    @Override
+    public String partitionKey(DomainEvent event) {
+        if (event instanceof InvestorRegistered registered) {
+            return registered.investorId();
+        } else if (event instanceof Deposited deposited) {
+            return deposited.investorId();
+        } else if (event instanceof Debited debited) {
+            return debited.investorId();
+        } else if (event instanceof Refunded refunded) {
+            return refunded.investorId();
+        } else if (event instanceof Withdrawn withdrawn) {
+            return withdrawn.investorId();
+        }
+        return null;
+    }
+
+    @Override
+    public void apply(DomainEvent event) {
+        if (event instanceof InvestorRegistered registered) {
+            balances.put(registered.investorId(), registered.initialBalance());
+        } else if (event instanceof Deposited deposited) {
+            balances.merge(deposited.investorId(), deposited.amount(), BigDecimal::add);
+        } else if (event instanceof Debited debited) {
+            balances.merge(debited.investorId(), debited.amount().negate(), BigDecimal::add);
+        } else if (event instanceof Refunded refunded) {
+            balances.merge(refunded.investorId(), refunded.amount(), BigDecimal::add);
+        } else if (event instanceof Withdrawn withdrawn) {
+            balances.merge(withdrawn.investorId(), withdrawn.amount(), BigDecimal::add);
+        }
+    }
+
+    @Override
+    public void reset() {
+        balances.clear();
+    }
+
+    public BigDecimal balance(String investorId) {
+        return balances.getOrDefault(investorId, BigDecimal.ZERO);
+    }
+
+    public Map<String, BigDecimal> balances() {
+        return Map.copyOf(balances);
+    }
+}
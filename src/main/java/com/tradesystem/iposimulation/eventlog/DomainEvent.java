@@ -0,0 +1,50 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import java.math.BigDecimal;
+
+/**
+ * One immutable state change, in the order it was appended to the {@link EventLog}. {@code atMillis}
+ * is engine clock time.
+ */
+public sealed interface DomainEvent {
+
+    long atMillis();
+
+    record InvestorRegistered(long atMillis, String investorId, String displayName, BigDecimal initialBalance)
+            implements DomainEvent {
+    }
+
+    record Deposited(long atMillis, String investorId, BigDecimal amount) implements DomainEvent {
+    }
+
+    record IPOPublished(long atMillis, String stockId, String stockName, String stockSymbol, BigDecimal price,
+                        int totalQuantity, long deadlineEpochMilli, String issuerName) implements DomainEvent {
+    }
+
+    record Applied(long atMillis, String recordId, String investorId, String stockId, int quantity,
+                   BigDecimal pricePerLot) implements DomainEvent {
+    }
+
+    record Debited(long atMillis, String investorId, String recordId, BigDecimal amount) implements DomainEvent {
+    }
+
+    /**
+     * The draw decided one application: {@code won} lots were allocated, or none.
+     */
+    record Allocated(long atMillis, String recordId, String investorId, String stockId, boolean won)
+            implements DomainEvent {
+    }
+
+    record Refunded(long atMillis, String investorId, String recordId, BigDecimal amount) implements DomainEvent {
+    }
+
+    /**
+     * The investor withdrew a pending application before the deadline and got {@code amount} back.
+     */
+    record Withdrawn(long atMillis, String recordId, String investorId, String stockId, BigDecimal amount)
+            implements DomainEvent {
+    }
+
+    record DrawCompleted(long atMillis, String stockId, int winners, int losers) implements DomainEvent {
+    }
+}
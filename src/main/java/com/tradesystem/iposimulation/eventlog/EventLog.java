@@ -0,0 +1,218 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Single append-only, in-memory log of every {@link DomainEvent}, totally ordered by append.
+ * <p>
+ * Events are stored in fixed-size segments, so appends never copy earlier events and readers see a
+ * stable prefix without locking: the volatile size is written after the slot, so any index below a
+ * size read is fully published.
+ * <p>
+ * {@link #rebuild(Projection, int)} replays into a projection on several threads. A parallel pass
+ * over contiguous chunks of the log sorts the positions of each chunk's events into one list per
+ * bucket; each worker then walks its bucket's lists chunk by chunk, touching only its own events.
+ * Events with the same partition key always land in the same bucket and are applied in log order,
+ * while distinct keys proceed on all cores.
+ * <p>
+ * The log is never trimmed, not even when listings are archived: projections rebuild from the first
+ * event, so a balance replayed without an archived listing's debits and refunds would be wrong. Heap
+ * use grows with the number of events for as long as the log is enabled.
+ */
+public class EventLog implements EventRecorder {
+
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+    private volatile DomainEvent[][] segments = new DomainEvent[16][];
+    private volatile int size;
+
+    @Override
+    public void record(DomainEvent event) {
+        append(event);
+    }
+
+    /**
+     * Appends an event and returns its position.
+     */
+    public synchronized long append(DomainEvent event) {
+        int position = size;
+        if (position == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Event log is full");
+        }
+        int segment = position >>> SEGMENT_BITS;
+        DomainEvent[][] current = segments;
+        if (segment == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            segments = current;
+        }
+        if (current[segment] == null) {
+            current[segment] = new DomainEvent[SEGMENT_SIZE];
+        }
+        current[segment][position & (SEGMENT_SIZE - 1)] = event;
+        size = position + 1;
+        return position;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public DomainEvent get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return segments[position >>> SEGMENT_BITS][position & (SEGMENT_SIZE - 1)];
+    }
+
+    /**
+     * Visits events {@code [from, to)} in log order.
+     */
+    public void forEach(int from, int to, Consumer<DomainEvent> action) {
+        DomainEvent[][] current = segments;
+        for (int position = from; position < to; position++) {
+            action.accept(current[position >>> SEGMENT_BITS][position & (SEGMENT_SIZE - 1)]);
+        }
+    }
+
+    /**
+     * Resets the projection and replays the log into it on one thread.
+     *
+     * @return the number of events replayed
+     */
+    public int replay(Projection projection) {
+        projection.reset();
+        int end = size;
+        forEach(0, end, event -> {
+            if (projection.partitionKey(event) != null) {
+                projection.apply(event);
+            }
+        });
+        return end;
+    }
+
+    /**
+     * Resets the projection and replays the log into it on {@code parallelism} threads, preserving
+     * log order within each partition key. Events appended during the rebuild are not included.
+     *
+     * @return the number of events replayed
+     */
+    public int rebuild(Projection projection, int parallelism) throws InterruptedException {
+        if (parallelism <= 1) {
+            return replay(projection);
+        }
+        projection.reset();
+        int end = size;
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, new RebuildThreadFactory());
+        try {
+            List<Callable<Positions[]>> tagging = new ArrayList<>(parallelism);
+            int chunk = (end + parallelism - 1) / parallelism;
+            for (int w = 0; w < parallelism; w++) {
+                int from = Math.min(end, w * chunk);
+                int to = Math.min(end, from + chunk);
+                tagging.add(() -> tag(projection, from, to, parallelism));
+            }
+            List<Positions[]> chunks = run(pool, tagging);
+
+            List<Callable<Void>> applying = new ArrayList<>(parallelism);
+            for (int w = 0; w < parallelism; w++) {
+                int bucket = w;
+                applying.add(() -> {
+                    applyBucket(projection, chunks, bucket);
+                    return null;
+                });
+            }
+            run(pool, applying);
+        } finally {
+            pool.shutdownNow();
+        }
+        return end;
+    }
+
+    /**
+     * Positions of the projection's events in {@code [from, to)}, split by bucket and in log order.
+     */
+    private Positions[] tag(Projection projection, int from, int to, int workers) {
+        Positions[] byBucket = new Positions[workers];
+        for (int bucket = 0; bucket < workers; bucket++) {
+            byBucket[bucket] = new Positions((to - from) / workers + 1);
+        }
+        DomainEvent[][] current = segments;
+        for (int position = from; position < to; position++) {
+            String key = projection.partitionKey(current[position >>> SEGMENT_BITS][position & (SEGMENT_SIZE - 1)]);
+            if (key != null) {
+                byBucket[(key.hashCode() & Integer.MAX_VALUE) % workers].add(position);
+            }
+        }
+        return byBucket;
+    }
+
+    private void applyBucket(Projection projection, List<Positions[]> chunks, int bucket) {
+        DomainEvent[][] current = segments;
+        for (Positions[] chunk : chunks) {
+            Positions positions = chunk[bucket];
+            for (int i = 0; i < positions.size; i++) {
+                int position = positions.values[i];
+                projection.apply(current[position >>> SEGMENT_BITS][position & (SEGMENT_SIZE - 1)]);
+            }
+        }
+    }
+
+    private static <T> List<T> run(ExecutorService pool, List<Callable<T>> tasks) throws InterruptedException {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("Projection rebuild failed", cause);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Growable list of log positions.
+     */
+    private static final class Positions {
+
+        private int[] values;
+        private int size;
+
+        Positions(int capacity) {
+            values = new int[Math.max(capacity, 16)];
+        }
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    private static final class RebuildThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "eventlog-rebuild-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
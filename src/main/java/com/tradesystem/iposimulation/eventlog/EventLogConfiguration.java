@@ -0,0 +1,25 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The event log is opt-in, {@code ipo.eventlog.enabled=true}, since it keeps every event in memory
+ * and archiving does not trim it.
+ */
+@Configuration
+public class EventLogConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "ipo.eventlog.enabled", havingValue = "true")
+    public EventLog eventLog() {
+        return new EventLog();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ipo.eventlog.enabled", havingValue = "false", matchIfMissing = true)
+    public EventRecorder noEventRecorder() {
+        return EventRecorder.NOOP;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tradesystem.iposimulation.eventlog;
+
+/**
+ * Receives every state change as a {@link DomainEvent} once the service layer has applied it.
+ * Implementations must be cheap; they run on the request thread.
+ */
+public interface EventRecorder {
+
+    EventRecorder NOOP = event -> {
+    };
+
+    void record(DomainEvent event);
+}
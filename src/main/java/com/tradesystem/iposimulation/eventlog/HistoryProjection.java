@@ -0,0 +1,63 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Allocated;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Applied;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Withdrawn;
+import com.tradesystem.iposimulation.model.Status;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each investor's applications with their current status, oldest first; partitioned by investor id.
+ */
+public class HistoryProjection implements Projection {
+
+    private final ConcurrentHashMap<String, Map<String, Entry>> histories = new ConcurrentHashMap<>();
+
+    @Override
+    public String partitionKey(DomainEvent event) {
+        if (event instanceof Applied applied) {
+            return applied.investorId();
+        } else if (event instanceof Allocated allocated) {
+            return allocated.investorId();
+        } else if (event instanceof Withdrawn withdrawn) {
+            return withdrawn.investorId();
+        }
+        return null;
+    }
+
+    @Override
+    public void apply(DomainEvent event) {
+        if (event instanceof Applied applied) {
+            historyOf(applied.investorId())
+                    .put(applied.recordId(), new Entry(applied.recordId(), applied.stockId(), Status.PENDING));
+        } else if (event instanceof Allocated allocated) {
+            historyOf(allocated.investorId()).put(allocated.recordId(), new Entry(allocated.recordId(),
+                    allocated.stockId(), allocated.won() ? Status.WON : Status.LOST));
+        } else if (event instanceof Withdrawn withdrawn) {
+            historyOf(withdrawn.investorId()).put(withdrawn.recordId(), new Entry(withdrawn.recordId(),
+                    withdrawn.stockId(), Status.WITHDRAWN));
+        }
+    }
+
+    private Map<String, Entry> historyOf(String investorId) {
+        // Only the investor's partition thread touches its map; re-putting a key keeps its position.
+        return histories.computeIfAbsent(investorId, key -> new LinkedHashMap<>());
+    }
+
+    @Override
+    public void reset() {
+        histories.clear();
+    }
+
+    public List<Entry> history(String investorId) {
+        Map<String, Entry> history = histories.get(investorId);
+        return history == null ? List.of() : List.copyOf(history.values());
+    }
+
+    public record Entry(String recordId, String stockId, Status status) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Allocated;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Applied;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.DrawCompleted;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.IPOPublished;
+import com.tradesystem.iposimulation.eventlog.DomainEvent.Withdrawn;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applications awaiting a draw per stock, in application order, and which stocks have been drawn;
+ * partitioned by stock id.
+ */
+public class PendingProjection implements Projection {
+
+    private final ConcurrentHashMap<String, Set<String>> pending = new ConcurrentHashMap<>();
+    private final Set<String> drawn = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String partitionKey(DomainEvent event) {
+        if (event instanceof IPOPublished published) {
+            return published.stockId();
+        } else if (event instanceof Applied applied) {
+            return applied.stockId();
+        } else if (event instanceof Allocated allocated) {
+            return allocated.stockId();
+        } else if (event instanceof DrawCompleted completed) {
+            return completed.stockId();
+        } else if (event instanceof Withdrawn withdrawn) {
+            return withdrawn.stockId();
+        }
+        return null;
+    }
+
+    @Override
+    public void apply(DomainEvent event) {
+        if (event instanceof IPOPublished published) {
+            pending.putIfAbsent(published.stockId(), new LinkedHashSet<>());
+        } else if (event instanceof Applied applied) {
+            pendingOf(applied.stockId()).add(applied.recordId());
+        } else if (event instanceof Allocated allocated) {
+            pendingOf(allocated.stockId()).remove(allocated.recordId());
+        } else if (event instanceof Withdrawn withdrawn) {
+            pendingOf(withdrawn.stockId()).remove(withdrawn.recordId());
+        } else if (event instanceof DrawCompleted completed) {
+            drawn.add(completed.stockId());
+        }
+    }
+
+    private Set<String> pendingOf(String stockId) {
+        // Only the stock's partition thread touches its set, so a plain set is enough.
+        return pending.computeIfAbsent(stockId, key -> new LinkedHashSet<>());
+    }
+
+    @Override
+    public void reset() {
+        pending.clear();
+        drawn.clear();
+    }
+
+    /**
+     * Record ids still pending for the stock, in application order.
+     */
+    public List<String> pending(String stockId) {
+        Set<String> ids = pending.get(stockId);
+        return ids == null ? List.of() : List.copyOf(ids);
+    }
+
+    public boolean isDrawn(String stockId) {
+        return drawn.contains(stockId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tradesystem.iposimulation.eventlog;
+
+/**
+ * A view derived purely from the event log. Events sharing a partition key are applied in log order
+ * by one thread; events with different keys may be applied concurrently, so state must be kept per
+ * key in thread-safe containers.
+ */
+public interface Projection {
+
+    /**
+     * The key whose events must be applied in order, or {@code null} if this projection ignores the event.
+     */
+    String partitionKey(DomainEvent event);
+
+    void apply(DomainEvent event);
+
+    /**
+     * Discards all state before a rebuild.
+     */
+    void reset();
+}
@@ -0,0 +1,149 @@
+package com.tradesystem.iposimulation.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.tradesystem.iposimulation.dto.ApplicationQueryResult;
+import com.tradesystem.iposimulation.dto.DrawResult;
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.dto.SubscriptionReport;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.Status;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Serializes API responses with a streaming {@link JsonGenerator} directly onto the servlet output
+ * stream, reading domain objects and repository views in place rather than mapping them to DTOs.
+ */
+@Component
+public class JsonResponseWriter {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final RecordExporter recordExporter;
+
+    public JsonResponseWriter(RecordExporter recordExporter) {
+        this.recordExporter = recordExporter;
+    }
+
+    public void write(HttpServletResponse response, int status, JsonBody body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = jsonFactory.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            body.write(json);
+        }
+    }
+
+    public void writeMessage(HttpServletResponse response, int status, boolean success, String message)
+            throws IOException {
+        write(response, status, json -> {
+            json.writeStartObject();
+            json.writeBooleanField("success", success);
+            json.writeStringField("message", message);
+            json.writeEndObject();
+        });
+    }
+
+    public void writeStocks(JsonGenerator json, Collection<IPOStock> stocks, long now) throws IOException {
+        json.writeStartArray();
+        for (IPOStock stock : stocks) {
+            writeStock(json, stock, now);
+        }
+        json.writeEndArray();
+    }
+
+    public void writeStock(JsonGenerator json, IPOStock stock, long now) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("stockId", stock.getStockId());
+        json.writeStringField("stockName", stock.getStockName());
+        json.writeStringField("stockSymbol", stock.getStockSymbol());
+        json.writeStringField("issuerName", stock.getIssuerName());
+        json.writeNumberField("price", stock.getPrice());
+        json.writeNumberField("totalQuantity", stock.getTotalQuantity());
+        json.writeStringField("deadline", stock.getDeadline().toString());
+        json.writeStringField("state", stock.isDrawExecuted() ? "DRAWN" : stock.isExpired(now) ? "CLOSED" : "OPEN");
+        json.writeEndObject();
+    }
+
+    public void writeRecord(JsonGenerator json, IPORecord record) throws IOException {
+        recordExporter.writeRecord(json, record);
+    }
+
+    public void writeHistoryPage(JsonGenerator json, HistoryPage page) throws IOException {
+        json.writeStartObject();
+        json.writeArrayFieldStart("records");
+        for (IPORecord record : page.getRecords()) {
+            writeRecord(json, record);
+        }
+        json.writeEndArray();
+        json.writeStringField("nextCursor", page.getNextCursor());
+        json.writeBooleanField("hasNext", page.isHasNext());
+        json.writeEndObject();
+    }
+
+    public void writeInvestor(JsonGenerator json, Investor investor) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("investorId", investor.getInvestorId());
+        json.writeStringField("displayName", investor.getDisplayName());
+        json.writeNumberField("balance", investor.getBalance());
+        json.writeNumberField("lockedBalance", investor.getLockedBalance());
+        json.writeEndObject();
+    }
+
+    public void writeDrawResult(JsonGenerator json, String stockId, DrawResult result) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("stockId", stockId);
+        json.writeNumberField("allocatedLots", result.getAllocatedLots());
+        json.writeNumberField("totalPending", result.getTotalPending());
+        json.writeNumberField("winners", result.getWinners());
+        json.writeNumberField("losers", result.getLosers());
+        json.writeEndObject();
+    }
+
+    public void writeSubscriptionReport(JsonGenerator json, SubscriptionReport report) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("version", report.getVersion());
+        json.writeNumberField("investors", report.getInvestors());
+        json.writeNumberField("availableCash", report.getAvailableCash());
+        json.writeNumberField("escrowedCash", report.getEscrowedCash());
+        json.writeArrayFieldStart("listings");
+        for (SubscriptionReport.Listing listing : report.getListings()) {
+            json.writeStartObject();
+            json.writeStringField("stockId", listing.getStockId());
+            json.writeNumberField("applications", listing.getApplications());
+            for (Status status : Status.values()) {
+                json.writeObjectFieldStart(status.name());
+                json.writeNumberField("count", listing.count(status));
+                json.writeNumberField("lots", listing.lots(status));
+                json.writeNumberField("amount", listing.amount(status));
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    public void writeQueryResult(JsonGenerator json, ApplicationQueryResult result) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("matches", result.getMatches());
+        json.writeArrayFieldStart("records");
+        for (IPORecord record : result.getRecords()) {
+            writeRecord(json, record);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    @FunctionalInterface
+    public interface JsonBody {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
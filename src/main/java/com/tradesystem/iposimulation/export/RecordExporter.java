@@ -0,0 +1,144 @@
+package com.tradesystem.iposimulation.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.mvcc.ReadView;
+import com.tradesystem.iposimulation.mvcc.Versions;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writes application records as CSV or JSON straight from repository iterators.
+ * <p>
+ * Rows are encoded one at a time and flushed in fixed-size batches, so memory use is constant in
+ * the number of records and the client starts receiving data immediately. Each export reads at one
+ * pinned version: a draw that runs while it streams shows up in none of its rows, and applications
+ * made meanwhile are left out. Iterators that hold a file open ({@link Closeable}) are closed
+ * when the export ends, including when the client disconnects.
+ */
+@Component
+public class RecordExporter {
+
+    private static final int FLUSH_EVERY = 1024;
+    private static final String CSV_HEADER =
+            "recordId,investorId,stockId,stockName,quantity,pricePerLot,status,applyTime\n";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, String> stockNames;
+
+    public RecordExporter(IPORepository repository) {
+        this.stockNames = repository.stockNameDictionary();
+    }
+
+    public long writeCsv(Iterator<IPORecord> records, OutputStream out) throws IOException {
+        try (ReadView view = Versions.pin()) {
+            return writeCsv(records, view, out);
+        } finally {
+            release(records);
+        }
+    }
+
+    public long writeCsv(Iterator<IPORecord> records, ReadView view, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        long rows = 0;
+        while (records.hasNext()) {
+            IPORecord record = records.next().asOf(view);
+            if (record == null) {
+                continue;
+            }
+            writer.write(record.getRecordId());
+            writer.write(',');
+            writeCsvField(writer, record.getInvestorId());
+            writer.write(',');
+            writer.write(record.getStockId());
+            writer.write(',');
+            writeCsvField(writer, stockNames.getOrDefault(record.getStockId(), ""));
+            writer.write(',');
+            writer.write(Integer.toString(record.getQuantity()));
+            writer.write(',');
+            writer.write(record.getPricePerLot().toPlainString());
+            writer.write(',');
+            writer.write(record.getStatus().name());
+            writer.write(',');
+            writer.write(record.getApplyTime().toString());
+            writer.write('\n');
+            if (++rows % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    public long writeJson(Iterator<IPORecord> records, OutputStream out) throws IOException {
+        try (ReadView view = Versions.pin()) {
+            return writeJson(records, view, out);
+        } finally {
+            release(records);
+        }
+    }
+
+    public long writeJson(Iterator<IPORecord> records, ReadView view, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartArray();
+            while (records.hasNext()) {
+                IPORecord record = records.next().asOf(view);
+                if (record == null) {
+                    continue;
+                }
+                writeRecord(json, record);
+                if (++rows % FLUSH_EVERY == 0) {
+                    json.flush();
+                }
+            }
+            json.writeEndArray();
+        }
+        return rows;
+    }
+
+    /**
+     * Writes one record as a JSON object; shared with the REST API so both emit the same shape.
+     */
+    public void writeRecord(JsonGenerator json, IPORecord record) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("recordId", record.getRecordId());
+        json.writeStringField("investorId", record.getInvestorId());
+        json.writeStringField("stockId", record.getStockId());
+        json.writeStringField("stockName", stockNames.getOrDefault(record.getStockId(), record.getStockId()));
+        json.writeNumberField("quantity", record.getQuantity());
+        json.writeNumberField("pricePerLot", record.getPricePerLot());
+        json.writeStringField("status", record.getStatus().name());
+        json.writeStringField("applyTime", record.getApplyTime().toString());
+        json.writeEndObject();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void release(Iterator<IPORecord> records) throws IOException {
+        if (records instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.tradesystem.iposimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code IPOService.apply} call; the event duration is the full call.
+ */
+@Name("tradesystem.ipo.Apply")
+@Label("IPO Apply")
+@Category({"Trade System", "IPO"})
+@Description("An investor application for an IPO listing")
+@StackTrace(false)
+public class ApplyEvent extends jdk.jfr.Event {
+
+    @Label("Investor")
+    public String investorId;
+
+    @Label("Stock")
+    public String stockId;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+}
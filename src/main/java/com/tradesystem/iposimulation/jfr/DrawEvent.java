@@ -0,0 +1,46 @@
+package com.tradesystem.iposimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One lottery draw, with the time spent in each phase.
+ */
+@Name("tradesystem.ipo.Draw")
+@Label("IPO Draw")
+@Category({"Trade System", "IPO"})
+@Description("A lottery draw over the pending applications of one listing")
+@StackTrace(false)
+public class DrawEvent extends jdk.jfr.Event {
+
+    @Label("Stock")
+    public String stockId;
+
+    @Label("Pending")
+    public int pending;
+
+    @Label("Winners")
+    public int winners;
+
+    @Label("Losers")
+    public int losers;
+
+    @Label("Select Time")
+    @Description("Loading and shuffling pending applications")
+    @Timespan(Timespan.NANOSECONDS)
+    public long selectTime;
+
+    @Label("Allocate Time")
+    @Description("Marking winners and collecting losers")
+    @Timespan(Timespan.NANOSECONDS)
+    public long allocateTime;
+
+    @Label("Settle Time")
+    @Description("Refunding and marking losers, then closing the listing")
+    @Timespan(Timespan.NANOSECONDS)
+    public long settleTime;
+}
@@ -0,0 +1,61 @@
+package com.tradesystem.iposimulation.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Records the application for its whole lifetime with the shipped {@code jfr/ipo.jfc} profile and
+ * writes the recording on shutdown. Enabled with {@code ipo.jfr.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "ipo.jfr.enabled", havingValue = "true")
+public class IPOFlightRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(IPOFlightRecorder.class);
+
+    private final Resource settings;
+    private final Path destination;
+    private Recording recording;
+
+    public IPOFlightRecorder(@Value("${ipo.jfr.settings:classpath:jfr/ipo.jfc}") Resource settings,
+                             @Value("${ipo.jfr.file:ipo-recording.jfr}") String destination) {
+        this.settings = settings;
+        this.destination = Path.of(destination);
+    }
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        try (Reader reader = new InputStreamReader(settings.getInputStream(), StandardCharsets.UTF_8)) {
+            recording = new Recording(Configuration.create(reader));
+        }
+        recording.setName("ipo");
+        recording.setToDisk(true);
+        recording.setDestination(destination);
+        recording.start();
+        log.info("Flight recording started with {}; writing to {} on shutdown", settings.getDescription(),
+                destination.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.tradesystem.iposimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Refunds paid to the losing applicants of one draw.
+ */
+@Name("tradesystem.ipo.RefundBatch")
+@Label("IPO Refund Batch")
+@Category({"Trade System", "IPO"})
+@Description("Refunds paid to the losing applicants of a draw")
+@StackTrace(false)
+public class RefundBatchEvent extends jdk.jfr.Event {
+
+    @Label("Stock")
+    public String stockId;
+
+    @Label("Refunds")
+    public int count;
+
+    @Label("Amount")
+    public String amount;
+}
@@ -0,0 +1,55 @@
+package com.tradesystem.iposimulation.ledger;
+
+import java.util.Objects;
+
+/**
+ * A ledger account: an investor's cash, a listing's subscription escrow, the listing issuer's
+ * proceeds, or the single external account that deposits come from.
+ */
+public record Account(Type type, String owner) {
+
+    public static final Account EXTERNAL = new Account(Type.EXTERNAL, "world");
+
+    public enum Type {
+        EXTERNAL,
+        CASH,
+        ESCROW,
+        ISSUER
+    }
+
+    public Account {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(owner, "owner");
+    }
+
+    public static Account cash(String investorId) {
+        return new Account(Type.CASH, investorId);
+    }
+
+    public static Account escrow(String stockId) {
+        return new Account(Type.ESCROW, stockId);
+    }
+
+    /**
+     * Proceeds owed to the issuer of a listing, keyed by the listing.
+     */
+    public static Account issuer(String stockId) {
+        return new Account(Type.ISSUER, stockId);
+    }
+
+    /**
+     * Parses {@link #toString()}.
+     */
+    public static Account parse(String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Not an account: " + value);
+        }
+        return new Account(Type.valueOf(value.substring(0, separator).toUpperCase()), value.substring(separator + 1));
+    }
+
+    @Override
+    public String toString() {
+        return type.name().toLowerCase() + ":" + owner;
+    }
+}
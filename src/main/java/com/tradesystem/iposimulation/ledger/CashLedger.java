@@ -0,0 +1,15 @@
+package com.tradesystem.iposimulation.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives every cash movement once the service layer has applied it to the investor's balance.
+ * Implementations must be cheap; they run on the request thread.
+ */
+public interface CashLedger {
+
+    CashLedger NOOP = (kind, from, to, amount, reference) -> {
+    };
+
+    void post(JournalEntry.Kind kind, Account from, Account to, BigDecimal amount, String reference);
+}
@@ -0,0 +1,29 @@
+package com.tradesystem.iposimulation.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * One committed movement of {@code amount} out of {@code from} and into {@code to}. The two legs are
+ * always equal and opposite, so the balances of all accounts sum to zero.
+ *
+ * @param sequence  position in the journal, from 1
+ * @param reference the record or listing that caused the movement
+ */
+public record JournalEntry(long sequence, long atMillis, Kind kind, Account from, Account to, BigDecimal amount,
+                           String reference) {
+
+    public enum Kind {
+        /** External funds an investor registered with. */
+        OPENING,
+        /** External funds added to an investor's cash. */
+        DEPOSIT,
+        /** Cash moved into a listing's escrow by an application. */
+        SUBSCRIPTION,
+        /** Escrow paid to the issuer for a winning application. */
+        SETTLEMENT,
+        /** Escrow returned to a losing applicant. */
+        REFUND,
+        /** Escrow returned for an application withdrawn before the deadline. */
+        WITHDRAWAL
+    }
+}
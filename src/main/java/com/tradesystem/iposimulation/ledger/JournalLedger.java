@@ -0,0 +1,106 @@
+package com.tradesystem.iposimulation.ledger;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.time.IPOClock;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Double-entry cash ledger. Each posting updates the running totals of both accounts on the calling
+ * thread, so {@link #balance(Account)} is current at once, and is queued for the journal file, which
+ * a background writer group-commits in batches (see {@link JournalWriter}).
+ * <p>
+ * The journal is rewritten with each run. It opens with the cash investors already hold
+ * ({@link #openFrom}), e.g. everything a file-backed JDBC repository loaded, and covers movements
+ * made through the services from then on. {@link JournalReader} reads it back for audits.
+ */
+public class JournalLedger implements CashLedger, AutoCloseable {
+
+    private final IPOClock clock;
+    private final JournalWriter writer;
+    private final ConcurrentHashMap<Account, BigDecimal> totals = new ConcurrentHashMap<>();
+
+    public JournalLedger(IPOClock clock, Path file, int batchSize, boolean fsync) throws IOException {
+        this.clock = clock;
+        this.writer = new JournalWriter(file, batchSize, fsync);
+    }
+
+    @Override
+    public void post(JournalEntry.Kind kind, Account from, Account to, BigDecimal amount, String reference) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Posting amount must be positive");
+        }
+        // Submitted first, so a journal that has stopped accepting postings leaves the totals alone.
+        writer.submit(new Posting(clock.millis(), kind, from, to, amount, reference));
+        totals.merge(from, amount.negate(), BigDecimal::add);
+        totals.merge(to, amount, BigDecimal::add);
+    }
+
+    /**
+     * Posts what investors already hold before any service movement: an {@code OPENING} entry for
+     * each investor's available and escrowed cash, then a {@code SUBSCRIPTION} into the listing's
+     * escrow for every record still holding money there. Call it once, before the services post.
+     */
+    public void openFrom(IPORepository repository) {
+        for (Investor investor : repository.findAllInvestors()) {
+            String investorId = investor.getInvestorId();
+            BigDecimal cash = investor.getBalance().add(investor.getLockedBalance());
+            if (cash.signum() > 0) {
+                post(JournalEntry.Kind.OPENING, Account.EXTERNAL, Account.cash(investorId), cash, investorId);
+            }
+            for (IPORecord record : repository.findRecordsByInvestor(investorId)) {
+                if (record.getStatus() == Status.PENDING || record.isEscrowHeld()) {
+                    post(JournalEntry.Kind.SUBSCRIPTION, Account.cash(investorId), Account.escrow(record.getStockId()),
+                            record.getAmount(), record.getRecordId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Running total of the account; the external account goes negative by everything deposited.
+     */
+    public BigDecimal balance(Account account) {
+        return totals.getOrDefault(account, BigDecimal.ZERO);
+    }
+
+    /**
+     * Snapshot of every account's running total.
+     */
+    public Map<Account, BigDecimal> balances() {
+        return Map.copyOf(totals);
+    }
+
+    /**
+     * Blocks until every posting made before this call is in the journal file.
+     */
+    public void awaitCommitted() {
+        writer.awaitCommitted();
+    }
+
+    /**
+     * How many group commits the journal has taken so far.
+     */
+    public long getCommittedBatches() {
+        return writer.getBatches();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    /**
+     * A posting awaiting its sequence number, which the writer assigns in file order.
+     */
+    record Posting(long atMillis, JournalEntry.Kind kind, Account from, Account to, BigDecimal amount,
+                   String reference) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.tradesystem.iposimulation.ledger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads a journal written by {@link JournalLedger}: one tab-separated line per entry,
+ * {@code sequence atMillis kind from to amount reference}.
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    public static void forEach(Path file, Consumer<JournalEntry> action) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t", 7);
+                if (fields.length != 7) {
+                    throw new IOException("Malformed journal line: " + line);
+                }
+                action.accept(new JournalEntry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        JournalEntry.Kind.valueOf(fields[2]), Account.parse(fields[3]), Account.parse(fields[4]),
+                        new BigDecimal(fields[5]), fields[6]));
+            }
+        }
+    }
+
+    /**
+     * Replays the journal into fresh running totals, for reconciling against a live ledger.
+     */
+    public static Map<Account, BigDecimal> balances(Path file) throws IOException {
+        Map<Account, BigDecimal> totals = new HashMap<>();
+        forEach(file, entry -> {
+            totals.merge(entry.from(), entry.amount().negate(), BigDecimal::add);
+            totals.merge(entry.to(), entry.amount(), BigDecimal::add);
+        });
+        return totals;
+    }
+}
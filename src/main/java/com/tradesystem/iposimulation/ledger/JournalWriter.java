@@ -0,0 +1,196 @@
+package com.tradesystem.iposimulation.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group commit for {@link JournalLedger}: posting threads enqueue and return at once; a single writer
+ * thread drains whatever has accumulated (up to {@code batchSize}), numbers the entries in file
+ * order, writes them and, with {@code fsync}, forces the file once for the whole batch. Under load
+ * many postings share one flush; when idle each posting is flushed on its own.
+ * <p>
+ * A failed batch is rewritten at the same file offset a few times. If it still fails, the writer
+ * stops: the journal ends at the last committed batch with no gap in its sequence numbers, queued
+ * postings are discarded with an error, and later postings are rejected.
+ */
+final class JournalWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalWriter.class);
+
+    private static final Object STOP = new Object();
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_NANOS = 100_000_000L;
+
+    private final FileChannel channel;
+    private final int batchSize;
+    private final boolean fsync;
+
+    private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final Object flushed = new Object();
+    private volatile long committed;
+    private volatile long batches;
+    private volatile IOException failure;
+    private long sequence;
+    private long written;
+    private final Thread thread;
+
+    JournalWriter(Path file, int batchSize, boolean fsync) throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.batchSize = batchSize;
+        this.fsync = fsync;
+        this.thread = new Thread(this::run, "ipo-ledger-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @throws IllegalStateException once a batch has failed for good
+     */
+    void submit(JournalLedger.Posting posting) {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IllegalStateException("Journal write failed; no further postings are accepted", failed);
+        }
+        submitted.incrementAndGet();
+        queue.add(posting);
+    }
+
+    long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Blocks until everything enqueued before this call is on disk.
+     *
+     * @throws IllegalStateException if a batch could not be written, even after retries
+     */
+    void awaitCommitted() {
+        long target = submitted.get();
+        if (committed < target) {
+            synchronized (flushed) {
+                while (committed < target) {
+                    try {
+                        flushed.wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted waiting for journal writes", ex);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Journal write failed", failure);
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            stopping = batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                if (failure == null) {
+                    failure = writeWithRetry(batch);
+                } else {
+                    log.error("Discarding {} journal entries after an earlier write failure", batch.size());
+                }
+            }
+            synchronized (flushed) {
+                committed += batch.size();
+                flushed.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * @return {@code null} once the batch is on disk, or the last error after {@link #MAX_ATTEMPTS}
+     */
+    private IOException writeWithRetry(List<Object> batch) {
+        ByteBuffer lines = encode(batch);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Each attempt rewrites the batch from the same offset, over whatever part of it landed.
+                lines.rewind();
+                long position = written;
+                while (lines.hasRemaining()) {
+                    position += channel.write(lines, position);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                written = position;
+                sequence += batch.size();
+                batches++;
+                return null;
+            } catch (IOException ex) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Failed to write batch of {} journal entries after {} attempts; rejecting further "
+                            + "postings", batch.size(), attempt, ex);
+                    return ex;
+                }
+                log.warn("Failed to write batch of {} journal entries (attempt {} of {}): {}", batch.size(), attempt,
+                        MAX_ATTEMPTS, ex.toString());
+                LockSupport.parkNanos(RETRY_BACKOFF_NANOS * attempt);
+            }
+        }
+    }
+
+    private ByteBuffer encode(List<Object> batch) {
+        StringBuilder lines = new StringBuilder(batch.size() * 96);
+        long next = sequence;
+        for (Object item : batch) {
+            JournalLedger.Posting posting = (JournalLedger.Posting) item;
+            lines.append(++next).append('\t')
+                    .append(posting.atMillis()).append('\t')
+                    .append(posting.kind().name()).append('\t')
+                    .append(posting.from()).append('\t')
+                    .append(posting.to()).append('\t')
+                    .append(posting.amount().toPlainString()).append('\t')
+                    .append(posting.reference()).append('\n');
+        }
+        return ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Commits everything still queued, then stops the writer and closes the file.
+     */
+    @Override
+    public void close() {
+        // A sentinel rather than an interrupt: interrupting a thread in FileChannel I/O closes the channel.
+        queue.add(STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            log.warn("Failed to close journal", ex);
+        }
+    }
+}
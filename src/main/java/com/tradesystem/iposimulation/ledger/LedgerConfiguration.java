@@ -0,0 +1,37 @@
+package com.tradesystem.iposimulation.ledger;
+
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.time.IPOClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The cash ledger is opt-in: {@code ipo.ledger.enabled=true} journals to {@code ipo.ledger.file},
+ * opening with the balances the repository starts with.
+ */
+@Configuration
+public class LedgerConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "ipo.ledger.enabled", havingValue = "true")
+    public JournalLedger journalLedger(IPOClock clock,
+                                       IPORepository repository,
+                                       @Value("${ipo.ledger.file:ipo-ledger.journal}") String file,
+                                       @Value("${ipo.ledger.batch-size:1024}") int batchSize,
+                                       @Value("${ipo.ledger.fsync:true}") boolean fsync) throws IOException {
+        JournalLedger ledger = new JournalLedger(clock, Path.of(file), batchSize, fsync);
+        ledger.openFrom(repository);
+        return ledger;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ipo.ledger.enabled", havingValue = "false", matchIfMissing = true)
+    public CashLedger noCashLedger() {
+        return CashLedger.NOOP;
+    }
+}
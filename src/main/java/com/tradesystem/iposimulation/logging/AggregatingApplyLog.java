@@ -0,0 +1,79 @@
+package com.tradesystem.iposimulation.logging;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts outcomes per stock and logs one summary line per active stock per interval. The request
+ * thread only increments a striped counter; formatting and I/O happen on the flush thread.
+ */
+public class AggregatingApplyLog implements ApplyLog {
+
+    private static final ApplyOutcome[] OUTCOMES = ApplyOutcome.values();
+
+    private final long intervalMillis;
+    private final ConcurrentHashMap<String, LongAdder[]> counts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public AggregatingApplyLog(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ipo-apply-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void completed(ApplyOutcome outcome, String investorId, String stockId) {
+        counts.computeIfAbsent(stockId == null ? "?" : stockId, key -> newCounters())[outcome.ordinal()].increment();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+
+    void flush() {
+        for (Map.Entry<String, LongAdder[]> entry : counts.entrySet()) {
+            long[] window = new long[OUTCOMES.length];
+            long total = 0;
+            for (int i = 0; i < window.length; i++) {
+                window[i] = entry.getValue()[i].sumThenReset();
+                total += window[i];
+            }
+            if (total == 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder(96)
+                    .append("Applications stock=").append(entry.getKey())
+                    .append(" window=").append(intervalMillis).append("ms total=").append(total);
+            for (ApplyOutcome outcome : OUTCOMES) {
+                if (window[outcome.ordinal()] > 0) {
+                    line.append(' ').append(outcome.tag()).append('=').append(window[outcome.ordinal()]);
+                }
+            }
+            if (window[ApplyOutcome.INSUFFICIENT_FUNDS.ordinal()] > 0 || window[ApplyOutcome.ERROR.ordinal()] > 0) {
+                LOG.warn(line.toString());
+            } else {
+                LOG.info(line.toString());
+            }
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[OUTCOMES.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
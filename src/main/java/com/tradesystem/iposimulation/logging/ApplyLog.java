@@ -0,0 +1,38 @@
+package com.tradesystem.iposimulation.logging;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logging policy for application outcomes, called once per {@code IPOService.apply}. Implementations
+ * must not block; the aggregating one only bumps counters on the caller's thread.
+ */
+public interface ApplyLog {
+
+    /**
+     * Category for all apply-path logging, so it can be tuned independently of the rest of the service.
+     */
+    Logger LOG = LoggerFactory.getLogger("com.tradesystem.iposimulation.apply");
+
+    /**
+     * One line per application: accepted at INFO, insufficient funds and errors at WARN, other rejections
+     * at DEBUG.
+     */
+    ApplyLog EACH = (outcome, investorId, stockId) -> {
+        switch (outcome) {
+            case SUCCESS -> LOG.info("Investor {} applied for {}", investorId, stockId);
+            case INSUFFICIENT_FUNDS -> LOG.warn("FAILED_FUNDS investor={} stock={}", investorId, stockId);
+            case ERROR -> LOG.warn("Application failed investor={} stock={}", investorId, stockId);
+            default -> LOG.debug("Rejected application investor={} stock={} outcome={}", investorId, stockId, outcome.tag());
+        }
+    };
+
+    void completed(ApplyOutcome outcome, String investorId, String stockId);
+
+    /**
+     * Flushes anything buffered and stops background work.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.tradesystem.iposimulation.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Apply-path logging mode, {@code ipo.logging.apply}: {@code aggregate} (default; one summary line
+ * per stock per {@code ipo.logging.aggregate-interval-ms}), {@code sample} (one in
+ * {@code ipo.logging.sample-rate} per outcome) or {@code each}.
+ */
+@Configuration
+public class LoggingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ApplyLog applyLog(@Value("${ipo.logging.apply:aggregate}") String mode,
+                             @Value("${ipo.logging.sample-rate:100}") int sampleRate,
+                             @Value("${ipo.logging.aggregate-interval-ms:1000}") long intervalMillis) {
+        return switch (mode) {
+            case "aggregate" -> new AggregatingApplyLog(intervalMillis);
+            case "sample" -> new SampledApplyLog(sampleRate);
+            case "each" -> ApplyLog.EACH;
+            default -> throw new IllegalArgumentException("Unknown ipo.logging.apply " + mode);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.tradesystem.iposimulation.logging;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Logs one in every {@code rate} applications per outcome, so rare outcomes are still seen while
+ * the common ones are thinned out.
+ */
+public class SampledApplyLog implements ApplyLog {
+
+    private final int rate;
+    private final AtomicLongArray counts = new AtomicLongArray(ApplyOutcome.values().length);
+
+    public SampledApplyLog(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be at least 1");
+        }
+        this.rate = rate;
+    }
+
+    @Override
+    public void completed(ApplyOutcome outcome, String investorId, String stockId) {
+        long seen = counts.incrementAndGet(outcome.ordinal());
+        if (seen % rate != 1 % rate) {
+            return;
+        }
+        if (outcome == ApplyOutcome.INSUFFICIENT_FUNDS) {
+            LOG.warn("FAILED_FUNDS investor={} stock={} (sampled 1/{}, {} so far)", investorId, stockId, rate, seen);
+        } else if (outcome == ApplyOutcome.ERROR) {
+            LOG.warn("Application failed investor={} stock={} (sampled 1/{}, {} so far)", investorId, stockId, rate, seen);
+        } else {
+            LOG.info("Application investor={} stock={} outcome={} (sampled 1/{}, {} so far)",
+                    investorId, stockId, outcome.tag(), rate, seen);
+        }
+    }
+}
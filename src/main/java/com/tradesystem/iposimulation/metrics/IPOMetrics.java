@@ -0,0 +1,28 @@
+package com.tradesystem.iposimulation.metrics;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+
+/**
+ * Measurement hooks on the apply and draw paths. Callers pass raw nanosecond readings so an
+ * implementation decides how, or whether, to aggregate them.
+ */
+public interface IPOMetrics {
+
+    IPOMetrics NOOP = new IPOMetrics() {
+    };
+
+    default void applyCompleted(ApplyOutcome outcome, long elapsedNanos) {
+    }
+
+    /**
+     * Time spent waiting to enter the per-investor-per-stock mutex.
+     */
+    default void lockAcquired(long waitNanos) {
+    }
+
+    default void drawCompleted(int records, long elapsedNanos) {
+    }
+
+    default void refunded(int count) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.tradesystem.iposimulation.metrics;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link IPOMetrics} to Micrometer. Meters are resolved once at construction so the hot
+ * path never goes through the registry lookup. Percentiles, histogram buckets and SLO boundaries are
+ * left to {@code management.metrics.distribution.*} properties.
+ */
+@Component
+public class MicrometerIPOMetrics implements IPOMetrics {
+
+    private final Map<ApplyOutcome, Timer> applyTimers = new EnumMap<>(ApplyOutcome.class);
+    private final Timer lockWait;
+    private final Timer drawDuration;
+    private final DistributionSummary drawThroughput;
+    private final Counter drawRecords;
+    private final Counter refunds;
+
+    public MicrometerIPOMetrics(MeterRegistry registry, IPORepository repository) {
+        for (ApplyOutcome outcome : ApplyOutcome.values()) {
+            applyTimers.put(outcome, Timer.builder("ipo.apply")
+                    .description("Latency of IPO applications")
+                    .tag("outcome", outcome.tag())
+                    .register(registry));
+        }
+        lockWait = Timer.builder("ipo.apply.lock.wait")
+                .description("Time spent waiting for the per-investor-per-stock apply lock")
+                .register(registry);
+        drawDuration = Timer.builder("ipo.draw")
+                .description("Duration of lottery draws")
+                .register(registry);
+        drawThroughput = DistributionSummary.builder("ipo.draw.throughput")
+                .description("Pending records settled per second by a draw")
+                .baseUnit("records/s")
+                .register(registry);
+        drawRecords = Counter.builder("ipo.draw.records")
+                .description("Pending records settled by draws")
+                .register(registry);
+        refunds = Counter.builder("ipo.refunds")
+                .description("Losing applications refunded")
+                .register(registry);
+
+        Gauge.builder("ipo.repository.size", repository, IPORepository::countInvestors)
+                .tag("entity", "investors").register(registry);
+        Gauge.builder("ipo.repository.size", repository, IPORepository::countStocks)
+                .tag("entity", "stocks").register(registry);
+        Gauge.builder("ipo.repository.size", repository, IPORepository::countRecords)
+                .tag("entity", "records").register(registry);
+    }
+
+    @Override
+    public void applyCompleted(ApplyOutcome outcome, long elapsedNanos) {
+        applyTimers.get(outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void lockAcquired(long waitNanos) {
+        lockWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void drawCompleted(int records, long elapsedNanos) {
+        drawDuration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        drawRecords.increment(records);
+        if (elapsedNanos > 0) {
+            drawThroughput.record(records * 1e9 / elapsedNanos);
+        }
+    }
+
+    @Override
+    public void refunded(int count) {
+        refunds.increment(count);
+    }
+}
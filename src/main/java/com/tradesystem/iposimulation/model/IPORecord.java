@@ -1,11 +1,19 @@
 package com.tradesystem.iposimulation.model;
 
+import com.tradesystem.iposimulation.mvcc.ReadView;
+import com.tradesystem.iposimulation.mvcc.VersionedValue;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Objects;
 
 /**
  * An investor's IPO application record.
+ * <p>
+ * Status and failure reason are versioned: reports read them as of a pinned
+ * {@link com.tradesystem.iposimulation.mvcc.Versions version}, and a record created in a write
+ * transaction does not exist for readers until it commits.
  */
 public class IPORecord {
 
@@ -15,8 +23,9 @@ public class IPORecord {
     private final int quantity;
     private final BigDecimal pricePerLot;
     private final LocalDateTime applyTime;
-    private volatile Status status;
-    private volatile String failureReason;
+    private final long applyEpochMilli;
+    private final VersionedValue<State> state;
+    private volatile boolean escrowHeld;
 
     public IPORecord(
             String recordId,
@@ -31,8 +40,33 @@ public class IPORecord {
         this.stockId = Objects.requireNonNull(stockId, "stockId");
         this.quantity = quantity;
         this.pricePerLot = pricePerLot == null ? BigDecimal.ZERO : pricePerLot;
-        this.applyTime = applyTime == null ? LocalDateTime.now() : applyTime;
-        this.status = initialStatus == null ? Status.PENDING : initialStatus;
+        this.applyTime = Objects.requireNonNull(applyTime, "applyTime");
+        this.applyEpochMilli = this.applyTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.state = new VersionedValue<>(State.of(initialStatus == null ? Status.PENDING : initialStatus, null));
+    }
+
+    private IPORecord(IPORecord source) {
+        this.recordId = source.recordId;
+        this.investorId = source.investorId;
+        this.stockId = source.stockId;
+        this.quantity = source.quantity;
+        this.pricePerLot = source.pricePerLot;
+        this.applyTime = source.applyTime;
+        this.applyEpochMilli = source.applyEpochMilli;
+        this.state = VersionedValue.existing(source.state.latest());
+        this.escrowHeld = source.escrowHeld;
+    }
+
+    private IPORecord(IPORecord source, State state) {
+        this.recordId = source.recordId;
+        this.investorId = source.investorId;
+        this.stockId = source.stockId;
+        this.quantity = source.quantity;
+        this.pricePerLot = source.pricePerLot;
+        this.applyTime = source.applyTime;
+        this.applyEpochMilli = source.applyEpochMilli;
+        this.state = VersionedValue.existing(state);
+        this.escrowHeld = source.escrowHeld;
     }
 
     public String getRecordId() {
@@ -59,26 +93,102 @@ public class IPORecord {
         return applyTime;
     }
 
+    /**
+     * Apply time in epoch-millis; the ordering key for history pagination.
+     */
+    public long getApplyEpochMilli() {
+        return applyEpochMilli;
+    }
+
     public Status getStatus() {
-        return status;
+        return state.latest().status();
     }
 
     public String getFailureReason() {
-        return failureReason;
+        return state.latest().failureReason();
+    }
+
+    /**
+     * The status as of the view's version, or {@code null} if the record did not exist yet.
+     */
+    public Status statusAt(ReadView view) {
+        State at = state.at(view);
+        return at == null ? null : at.status();
+    }
+
+    /**
+     * The record as of the view's version: itself if it has not changed since, a detached copy
+     * otherwise, or {@code null} if it did not exist yet.
+     */
+    public IPORecord asOf(ReadView view) {
+        State at = state.at(view);
+        if (at == null) {
+            return null;
+        }
+        return at == state.latest() ? this : new IPORecord(this, at);
+    }
+
+    /**
+     * Price times quantity: the funds the application holds in escrow while pending.
+     */
+    public BigDecimal getAmount() {
+        return pricePerLot.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    /**
+     * A detached copy with the same id and current state, for repositories forked from a snapshot.
+     */
+    public IPORecord copy() {
+        return new IPORecord(this);
     }
 
     public void markWon() {
-        this.status = Status.WON;
-        this.failureReason = null;
+        state.set(State.of(Status.WON, null));
     }
 
     public void markLost() {
-        this.status = Status.LOST;
-        this.failureReason = null;
+        markLost(false);
+    }
+
+    /**
+     * @param escrowHeld whether the draw keeps the subscription money in escrow instead of refunding it
+     */
+    public void markLost(boolean escrowHeld) {
+        this.escrowHeld = escrowHeld;
+        state.set(State.of(Status.LOST, null));
+    }
+
+    /**
+     * Whether this losing application's money is still in escrow, left there by a draw without refunds.
+     */
+    public boolean isEscrowHeld() {
+        return escrowHeld;
+    }
+
+    public void markEscrowReleased() {
+        escrowHeld = false;
+    }
+
+    public void markWithdrawn() {
+        state.set(State.of(Status.WITHDRAWN, null));
     }
 
     public void markFailed(Status failureStatus, String reason) {
-        this.status = failureStatus;
-        this.failureReason = reason;
+        state.set(State.of(failureStatus, reason));
+    }
+
+    private record State(Status status, String failureReason) {
+
+        private static final State[] PLAIN = new State[Status.values().length];
+
+        static {
+            for (Status status : Status.values()) {
+                PLAIN[status.ordinal()] = new State(status, null);
+            }
+        }
+
+        static State of(Status status, String failureReason) {
+            return failureReason == null ? PLAIN[status.ordinal()] : new State(status, failureReason);
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.tradesystem.iposimulation.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Objects;
 
 /**
@@ -15,6 +16,7 @@ public class IPOStock {
     private final BigDecimal price;
     private final int totalQuantity;
     private final LocalDateTime deadline;
+    private final long deadlineEpochMilli;
     private final String issuerName;
     private volatile boolean drawExecuted;
 
@@ -32,6 +34,7 @@ public class IPOStock {
         this.price = price == null ? BigDecimal.ZERO : price;
         this.totalQuantity = totalQuantity;
         this.deadline = Objects.requireNonNull(deadline, "deadline");
+        this.deadlineEpochMilli = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
         this.issuerName = Objects.requireNonNull(issuerName, "issuerName");
         this.drawExecuted = false;
     }
@@ -60,6 +63,14 @@ public class IPOStock {
         return deadline;
     }
 
+    /**
+     * Deadline in epoch-millis, precomputed so hot paths compare primitives instead of
+     * {@link LocalDateTime} instances.
+     */
+    public long getDeadlineEpochMilli() {
+        return deadlineEpochMilli;
+    }
+
     public String getIssuerName() {
         return issuerName;
     }
@@ -72,11 +83,28 @@ public class IPOStock {
         return now.isAfter(deadline);
     }
 
+    public boolean isExpired(long nowEpochMilli) {
+        return nowEpochMilli > deadlineEpochMilli;
+    }
+
     public boolean isOpen(LocalDateTime now) {
         return !drawExecuted && now.isBefore(deadline);
     }
 
+    public boolean isOpen(long nowEpochMilli) {
+        return !drawExecuted && nowEpochMilli < deadlineEpochMilli;
+    }
+
     public void markDrawExecuted() {
         this.drawExecuted = true;
     }
+
+    /**
+     * A detached copy with the same id and draw state, for repositories forked from a snapshot.
+     */
+    public IPOStock copy() {
+        IPOStock copy = new IPOStock(stockId, stockName, stockSymbol, price, totalQuantity, deadline, issuerName);
+        copy.drawExecuted = drawExecuted;
+        return copy;
+    }
 }
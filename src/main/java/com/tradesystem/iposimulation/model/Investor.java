@@ -1,24 +1,33 @@
 package com.tradesystem.iposimulation.model;
 
+import com.tradesystem.iposimulation.mvcc.ReadView;
+import com.tradesystem.iposimulation.mvcc.VersionedTotal;
+
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Represents an investor participating in IPO subscriptions.
+ * Represents an investor participating in IPO subscriptions. {@code balance} is available cash;
+ * {@code lockedBalance} is held in listing escrow by pending applications until their draw. The
+ * investor's applications live in the repository's
+ * {@link com.tradesystem.iposimulation.repository.InvestorRecordView}.
+ * <p>
+ * Every change of either is also recorded as a versioned delta, so reports can read both as of a
+ * pinned {@link com.tradesystem.iposimulation.mvcc.Versions version} with {@link #fundsAt}.
  */
 public class Investor {
 
     private final String investorId;
     private final String displayName;
     private BigDecimal balance;
-    private final CopyOnWriteArrayList<IPORecord> applyHistory = new CopyOnWriteArrayList<>();
+    private BigDecimal lockedBalance = BigDecimal.ZERO;
+    private final VersionedTotal<Funds> funds;
 
     public Investor(String investorId, String displayName, BigDecimal balance) {
         this.investorId = Objects.requireNonNull(investorId, "investorId");
         this.displayName = Objects.requireNonNull(displayName, "displayName");
         this.balance = balance == null ? BigDecimal.ZERO : balance;
+        this.funds = new VersionedTotal<>(new Funds(this.balance, BigDecimal.ZERO), Funds::plus);
     }
 
     public String getInvestorId() {
@@ -38,6 +47,7 @@ public class Investor {
             return;
         }
         balance = balance.add(amount);
+        funds.add(new Funds(amount, BigDecimal.ZERO));
     }
 
     /**
@@ -53,16 +63,90 @@ public class Investor {
             return false;
         }
         balance = balance.subtract(amount);
+        funds.add(new Funds(amount.negate(), BigDecimal.ZERO));
         return true;
     }
 
-    public void appendRecord(IPORecord record) {
-        if (record != null) {
-            applyHistory.add(record);
+    public synchronized BigDecimal getLockedBalance() {
+        return lockedBalance;
+    }
+
+    /**
+     * Moves funds from the available balance into escrow.
+     *
+     * @return {@code false}, changing nothing, if the available balance is short.
+     */
+    public synchronized boolean lockFunds(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return true;
+        }
+        if (balance.compareTo(amount) < 0) {
+            return false;
+        }
+        balance = balance.subtract(amount);
+        lockedBalance = lockedBalance.add(amount);
+        funds.add(new Funds(amount.negate(), amount));
+        return true;
+    }
+
+    /**
+     * Returns escrowed funds to the available balance.
+     */
+    public synchronized void releaseFunds(BigDecimal amount) {
+        BigDecimal released = unlock(amount);
+        if (released.signum() > 0) {
+            balance = balance.add(released);
+            funds.add(new Funds(released, released.negate()));
         }
     }
 
-    public List<IPORecord> getApplyHistorySnapshot() {
-        return List.copyOf(applyHistory);
+    /**
+     * Pays escrowed funds out, e.g. to the issuer of a won allocation.
+     */
+    public synchronized void settleFunds(BigDecimal amount) {
+        BigDecimal settled = unlock(amount);
+        if (settled.signum() > 0) {
+            funds.add(new Funds(BigDecimal.ZERO, settled.negate()));
+        }
+    }
+
+    /**
+     * Re-establishes escrow for applications still pending when state is loaded from storage, where
+     * the stored balance already excludes it.
+     */
+    public synchronized void restoreLockedFunds(BigDecimal amount) {
+        if (amount != null && amount.signum() > 0) {
+            lockedBalance = lockedBalance.add(amount);
+            funds.add(new Funds(BigDecimal.ZERO, amount));
+        }
+    }
+
+    /**
+     * Available and escrowed cash as of the view's version, or {@code null} if the investor did not
+     * exist yet.
+     */
+    public Funds fundsAt(ReadView view) {
+        return funds.at(view);
+    }
+
+    private BigDecimal unlock(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        if (lockedBalance.compareTo(amount) < 0) {
+            throw new IllegalStateException("Escrow of " + investorId + " is below " + amount);
+        }
+        lockedBalance = lockedBalance.subtract(amount);
+        return amount;
+    }
+
+    /**
+     * Available ({@code balance}) and escrowed ({@code locked}) cash.
+     */
+    public record Funds(BigDecimal balance, BigDecimal locked) {
+
+        Funds plus(Funds other) {
+            return new Funds(balance.add(other.balance), locked.add(other.locked));
+        }
     }
 }
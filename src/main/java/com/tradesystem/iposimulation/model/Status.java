@@ -7,5 +7,7 @@ public enum Status {
     PENDING,
     WON,
     LOST,
-    FAILED_FUNDS
+    FAILED_FUNDS,
+    /** Cancelled by the investor before the deadline; the funds were returned. */
+    WITHDRAWN
 }
@@ -0,0 +1,37 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A reader's pinned version, from {@link Versions#pin()}. Versioned values read through it show
+ * their state as of that version until it is closed.
+ */
+public final class ReadView implements AutoCloseable {
+
+    private final long version;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ReadView(long version) {
+        this.version = version;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    void checkOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Read view of version " + version + " is closed");
+        }
+    }
+
+    /**
+     * Releases the pin; old versions only this view still needed become garbage. Idempotent.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            Versions.release(this);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A write transaction: every version it installs carries it, and all of them become visible
+ * together once it commits with its version number.
+ */
+final class Transaction {
+
+    private static final long ACTIVE = Long.MAX_VALUE;
+    private static final long COMMITTING = Long.MAX_VALUE - 1;
+
+    private volatile long version = ACTIVE;
+
+    /**
+     * Marks the transaction as committing before drawing its version, so a reader whose pinned
+     * version may end up at or above that number waits for it instead of skipping the writes.
+     */
+    void commit(AtomicLong clock) {
+        version = COMMITTING;
+        version = clock.incrementAndGet();
+    }
+
+    /**
+     * Whether the transaction's writes belong to the state as of {@code readVersion}. {@code null}
+     * stands for data that predates versioning, which every reader sees.
+     */
+    static boolean visible(Transaction txn, long readVersion) {
+        if (txn == null) {
+            return true;
+        }
+        long stamp;
+        int spins = 0;
+        // The committing window is two volatile writes long.
+        while ((stamp = txn.version) == COMMITTING) {
+            if (++spins < 64) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return stamp <= readVersion;
+    }
+}
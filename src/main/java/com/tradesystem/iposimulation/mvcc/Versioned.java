@@ -0,0 +1,29 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Versioned state that {@link Versions} prunes on behalf of released readers.
+ */
+abstract class Versioned {
+
+    private static final AtomicIntegerFieldUpdater<Versioned> QUEUED =
+            AtomicIntegerFieldUpdater.newUpdater(Versioned.class, "queued");
+
+    private volatile int queued;
+
+    /**
+     * Drops the versions that no reader pinned at or after {@code horizon} can see.
+     *
+     * @return whether anything besides the current version is left
+     */
+    abstract boolean prune(long horizon);
+
+    final boolean markQueued() {
+        return QUEUED.compareAndSet(this, 0, 1);
+    }
+
+    final void clearQueued() {
+        queued = 0;
+    }
+}
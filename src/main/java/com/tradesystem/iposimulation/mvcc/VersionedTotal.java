@@ -0,0 +1,144 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BinaryOperator;
+
+/**
+ * A running total kept as a base plus the recent deltas, each tagged with its transaction. Readers
+ * add up the deltas visible at their version.
+ * <p>
+ * Unlike a {@link VersionedValue}, concurrent transactions may write it in any interleaving: a delta
+ * does not depend on the value it was added to, so a reader never sees one transaction's change
+ * through another's. Deltas every reader can see are folded into the base as the total is written,
+ * unless a pinned reader holds the horizon back.
+ */
+public final class VersionedTotal<T> extends Versioned {
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(VersionedTotal.class, "state", State.class);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final BinaryOperator<T> plus;
+    private final Transaction born;
+    private volatile State<T> state;
+
+    /**
+     * Creates the total in the calling thread's transaction, if any: readers pinned before it
+     * commits do not see it at all.
+     */
+    public VersionedTotal(T initial, BinaryOperator<T> plus) {
+        this(initial, plus, Versions.current());
+    }
+
+    private VersionedTotal(T initial, BinaryOperator<T> plus, Transaction born) {
+        this.plus = plus;
+        this.born = born;
+        this.state = new State<>(initial, null, 0);
+    }
+
+    /**
+     * Creates the total as existing for every reader, e.g. for copies of existing state.
+     */
+    public static <T> VersionedTotal<T> existing(T initial, BinaryOperator<T> plus) {
+        return new VersionedTotal<>(initial, plus, null);
+    }
+
+    /**
+     * The total as of the view's version, or {@code null} if it did not exist yet.
+     */
+    public T at(ReadView view) {
+        view.checkOpen();
+        long version = view.version();
+        if (!Transaction.visible(born, version)) {
+            return null;
+        }
+        State<T> current = state;
+        T total = current.base;
+        for (Delta<T> delta = current.deltas; delta != null; delta = delta.next) {
+            if (Transaction.visible(delta.txn, version)) {
+                total = plus.apply(total, delta.value);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Adds the delta in the calling thread's transaction, or as a transaction of its own.
+     */
+    public void add(T delta) {
+        Transaction txn = Versions.current();
+        boolean standalone = txn == null;
+        if (standalone) {
+            txn = new Transaction();
+        }
+        long horizon = Versions.horizon();
+        State<T> current;
+        State<T> next;
+        do {
+            current = state;
+            State<T> folded = fold(current, horizon);
+            next = new State<>(folded.base, new Delta<>(delta, txn, folded.deltas), folded.foldedAt);
+        } while (!STATE.compareAndSet(this, current, next));
+        if (standalone) {
+            Versions.commit(txn);
+        }
+        Versions.retained(this);
+    }
+
+    @Override
+    boolean prune(long horizon) {
+        State<T> current;
+        State<T> next;
+        do {
+            current = state;
+            next = fold(current, horizon);
+        } while (next != current && !STATE.compareAndSet(this, current, next));
+        return next.deltas != null;
+    }
+
+    /**
+     * Number of deltas not folded into the base yet.
+     */
+    int depth() {
+        int depth = 0;
+        for (Delta<T> delta = state.deltas; delta != null; delta = delta.next) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Folds the deltas visible at the horizon into the base. Deltas still invisible then commit
+     * above it, so the walk is only repeated once the horizon has moved.
+     */
+    private State<T> fold(State<T> current, long horizon) {
+        if (current.deltas == null || horizon <= current.foldedAt) {
+            return current;
+        }
+        T base = current.base;
+        Delta<T> kept = null;
+        boolean folded = false;
+        for (Delta<T> delta = current.deltas; delta != null; delta = delta.next) {
+            if (Transaction.visible(delta.txn, horizon)) {
+                base = plus.apply(base, delta.value);
+                folded = true;
+            } else {
+                kept = new Delta<>(delta.value, delta.txn, kept);
+            }
+        }
+        return new State<>(base, folded ? kept : current.deltas, horizon);
+    }
+
+    private record State<T>(T base, Delta<T> deltas, long foldedAt) {
+    }
+
+    private record Delta<T>(T value, Transaction txn, Delta<T> next) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A value with its recent versions, newest first. Writers replace it; readers see it as of their
+ * {@link ReadView}, or not at all if it was created after their version.
+ */
+public final class VersionedValue<T> extends Versioned {
+
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(VersionedValue.class, "head", Node.class);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private volatile Node<T> head;
+
+    /**
+     * Creates the value in the calling thread's transaction, if any: readers pinned before it
+     * commits do not see the value at all.
+     */
+    public VersionedValue(T initial) {
+        this(initial, Versions.current());
+    }
+
+    private VersionedValue(T initial, Transaction txn) {
+        this.head = new Node<>(initial, txn, null);
+    }
+
+    /**
+     * Creates the value as existing for every reader, e.g. for copies of existing state.
+     */
+    public static <T> VersionedValue<T> existing(T initial) {
+        return new VersionedValue<>(initial, null);
+    }
+
+    /**
+     * The latest value, committed or not; what writers act on.
+     */
+    public T latest() {
+        return head.value;
+    }
+
+    /**
+     * The value as of the view's version, or {@code null} if it did not exist yet.
+     */
+    public T at(ReadView view) {
+        view.checkOpen();
+        long version = view.version();
+        for (Node<T> node = head; node != null; node = node.prev) {
+            if (Transaction.visible(node.txn, version)) {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the value in the calling thread's transaction, or as a transaction of its own.
+     */
+    public void set(T value) {
+        Transaction txn = Versions.current();
+        boolean standalone = txn == null;
+        if (standalone) {
+            txn = new Transaction();
+        }
+        Node<T> current;
+        Node<T> next;
+        do {
+            current = head;
+            // A transaction that rewrites its own version replaces it; readers never saw it.
+            next = current.txn == txn ? new Node<>(value, txn, current.prev) : new Node<>(value, txn, current);
+        } while (!HEAD.compareAndSet(this, current, next));
+        if (standalone) {
+            Versions.commit(txn);
+        }
+        if (prune(Versions.horizon())) {
+            Versions.retained(this);
+        }
+    }
+
+    @Override
+    boolean prune(long horizon) {
+        for (Node<T> node = head; node != null; node = node.prev) {
+            if (Transaction.visible(node.txn, horizon)) {
+                node.prev = null;
+                return node != head;
+            }
+        }
+        return head.prev != null;
+    }
+
+    /**
+     * Number of versions kept.
+     */
+    int depth() {
+        int depth = 0;
+        for (Node<T> node = head; node != null; node = node.prev) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static final class Node<T> {
+
+        final T value;
+        final Transaction txn;
+        volatile Node<T> prev;
+
+        Node(T value, Transaction txn, Node<T> prev) {
+            this.value = value;
+            this.txn = txn;
+            this.prev = prev;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Multi-version reads for reports that must not observe a draw or an application half done.
+ * <p>
+ * Model state that reports aggregate ({@link VersionedValue}, {@link VersionedTotal}) keeps the
+ * versions writers install, each tagged with the writing transaction. {@link #write} groups the
+ * writes of one business operation into a transaction that becomes visible atomically when it
+ * commits; a write outside one commits on its own. Commits draw consecutive numbers from one
+ * process-wide counter.
+ * <p>
+ * {@link #pin()} hands a reader the latest committed version. The reader then sees every value as
+ * of that version, without locks, however long it runs and however much is written meanwhile.
+ * Writers never wait for readers; they keep the versions that the oldest pinned reader may still
+ * need and drop the rest as they write. Whatever readers held back is pruned when the oldest of
+ * them releases its pin.
+ */
+public final class Versions {
+
+    private static final long NO_READERS = Long.MAX_VALUE;
+    private static final long PINNING = 0;
+
+    private static final AtomicLong CLOCK = new AtomicLong();
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+    // Pinned version to number of readers; guarded by itself.
+    private static final TreeMap<Long, Integer> PINS = new TreeMap<>();
+    private static final ConcurrentLinkedQueue<Versioned> RETAINED = new ConcurrentLinkedQueue<>();
+    private static volatile long oldestPin = NO_READERS;
+
+    private Versions() {
+    }
+
+    /**
+     * Runs the work as one transaction: what it writes becomes visible to readers all at once, when
+     * it returns or throws. Nested calls join the outermost transaction.
+     */
+    public static <T> T write(Supplier<T> work) {
+        if (CURRENT.get() != null) {
+            return work.get();
+        }
+        Transaction txn = new Transaction();
+        CURRENT.set(txn);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.remove();
+            txn.commit(CLOCK);
+        }
+    }
+
+    public static void write(Runnable work) {
+        write(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Pins the latest committed version for a reader; close the view to release it.
+     */
+    public static ReadView pin() {
+        synchronized (PINS) {
+            // Writers that read the old horizon before this point read the clock before it too.
+            oldestPin = PINNING;
+            long version = CLOCK.get();
+            PINS.merge(version, 1, Integer::sum);
+            oldestPin = PINS.firstKey();
+            return new ReadView(version);
+        }
+    }
+
+    /**
+     * Number of readers currently holding a pinned version.
+     */
+    public static int pinnedReaders() {
+        synchronized (PINS) {
+            int readers = 0;
+            for (int count : PINS.values()) {
+                readers += count;
+            }
+            return readers;
+        }
+    }
+
+    /**
+     * The latest committed version.
+     */
+    public static long committedVersion() {
+        return CLOCK.get();
+    }
+
+    static void release(ReadView view) {
+        long before;
+        long after;
+        synchronized (PINS) {
+            before = oldestPin;
+            PINS.computeIfPresent(view.version(), (version, count) -> count == 1 ? null : count - 1);
+            after = PINS.isEmpty() ? NO_READERS : PINS.firstKey();
+            oldestPin = after;
+        }
+        if (after != before) {
+            reclaim();
+        }
+    }
+
+    /**
+     * The transaction the calling thread writes in, or {@code null} outside {@link #write}.
+     */
+    static Transaction current() {
+        return CURRENT.get();
+    }
+
+    static void commit(Transaction txn) {
+        txn.commit(CLOCK);
+    }
+
+    /**
+     * The oldest version a reader may still ask for: versions superseded at or below it are garbage.
+     */
+    static long horizon() {
+        long now = CLOCK.get();
+        return Math.min(now, oldestPin);
+    }
+
+    /**
+     * Queues a value whose old versions are held back by a pinned reader, to prune once it goes.
+     * Without readers there is nothing to queue: the value prunes itself on its next write.
+     */
+    static void retained(Versioned value) {
+        if (oldestPin != NO_READERS && value.markQueued()) {
+            RETAINED.add(value);
+        }
+    }
+
+    private static void reclaim() {
+        List<Versioned> still = new ArrayList<>();
+        Versioned value;
+        while ((value = RETAINED.poll()) != null) {
+            value.clearQueued();
+            if (value.prune(horizon()) && oldestPin != NO_READERS) {
+                still.add(value);
+            }
+        }
+        for (Versioned kept : still) {
+            retained(kept);
+        }
+    }
+}
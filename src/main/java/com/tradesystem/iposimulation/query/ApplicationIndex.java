@@ -0,0 +1,692 @@
+package com.tradesystem.iposimulation.query;
+
+import com.tradesystem.iposimulation.dto.ApplicationQuery;
+import com.tradesystem.iposimulation.dto.ApplicationQueryResult;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.repository.RepositoryListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bitmap indexes over a repository's application records, for ad-hoc admin filters that would
+ * otherwise scan every record.
+ * <p>
+ * Each record is identified by an {@code int} ordinal: the {@code n} of a {@code REC-<n>} id, or one
+ * drawn from the negative range for any other id. Every dimension maps each of its values to a
+ * {@link RoaringBitmap} of ordinals: status, stock, how many applications the record's investor has
+ * made (withdrawn ones not counted), price-per-lot band, and apply day. A query ORs the bitmaps of the
+ * values it accepts in each dimension and intersects the dimensions smallest first, so its cost
+ * follows the size of those bitmaps rather than the number of records. Only a price bound that falls
+ * inside a band checks the candidates one by one, against their listing's price.
+ * <p>
+ * The index holds no records: an ordinal maps to its listing (stock id and price per lot), and only
+ * the records a query returns are loaded from the repository, a listing's worth at a time. A listing
+ * archived by the repository drops out of the index.
+ * <p>
+ * The index is built by the first query. From then on repository changes are queued without locking
+ * and folded in by the next query, or by the writer that finds the queue long, so applications and
+ * draws never wait for a query. A query sees every change made before it started. Statuses are the
+ * latest ones, not a pinned {@link com.tradesystem.iposimulation.mvcc.Versions version}.
+ */
+public class ApplicationIndex implements RepositoryListener {
+
+    /**
+     * Investors with this many applications or more share the last bucket.
+     */
+    static final int EXACT_APPLICATIONS = 16;
+    private static final int DRAIN_BACKLOG = 4096;
+    private static final int PAGE_BITS = 16;
+    private static final String RECORD_PREFIX = "REC-";
+    // Lower edges of the price bands in minor units: 0, then 1-2-5 steps from 1.00 to 5,000,000,000.00.
+    private static final long[] BAND_EDGES = bandEdges();
+
+    private final IPORepository repository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<Change> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private volatile boolean built;
+
+    // Guarded by lock.
+    private final EnumMap<Status, RoaringBitmap> byStatus = new EnumMap<>(Status.class);
+    private final HashMap<String, RoaringBitmap> byStock = new HashMap<>();
+    private final RoaringBitmap[] byApplications = new RoaringBitmap[EXACT_APPLICATIONS + 1];
+    private final RoaringBitmap[] byPriceBand = new RoaringBitmap[BAND_EDGES.length];
+    private final TreeMap<Long, RoaringBitmap> byApplyDay = new TreeMap<>();
+    private final HashMap<String, InvestorOrdinals> investors = new HashMap<>();
+    private final List<InvestorOrdinals> frequentInvestors = new ArrayList<>();
+    // Per ordinal, its listing's position in listings plus one; 0 for an ordinal not indexed.
+    private final HashMap<Integer, int[]> listingPages = new HashMap<>();
+    private final List<Listing> listings = new ArrayList<>();
+    private final HashMap<Listing, Integer> listingPositions = new HashMap<>();
+    private final HashMap<String, Integer> otherIds = new HashMap<>();
+    private final HashMap<Integer, String> otherRecordIds = new HashMap<>();
+    private int nextOtherOrdinal = Integer.MIN_VALUE;
+
+    public ApplicationIndex(IPORepository repository) {
+        this.repository = repository;
+        clear();
+    }
+
+    /**
+     * Runs the query against the index, building it first if this is the first query.
+     */
+    public ApplicationQueryResult query(ApplicationQuery query) {
+        long started = System.nanoTime();
+        Set<String> stockIds = stockIds(query);
+        long matches;
+        List<RecordRef> picked;
+        lock.lock();
+        try {
+            if (!built) {
+                build();
+            }
+            drain();
+            // Each dimension is the bitmaps of the values it accepts, left un-OR-ed.
+            List<List<RoaringBitmap>> dimensions = new ArrayList<>();
+            if (query.getStatus() != null) {
+                dimensions.add(List.of(byStatus.get(query.getStatus())));
+            }
+            if (stockIds != null) {
+                dimensions.add(stockIds.stream().map(byStock::get).toList());
+            }
+            if (query.getMinInvestorApplications() > 1) {
+                dimensions.add(withApplications(query.getMinInvestorApplications()));
+            }
+            PriceRange price = PriceRange.of(query.getPriceAbove(), query.getPriceAtMost());
+            if (price != null) {
+                dimensions.add(price.isEmpty() ? List.of()
+                        : Arrays.asList(byPriceBand).subList(price.fromBand, price.toBand + 1));
+            }
+            if (query.getAppliedFrom() != null || query.getAppliedTo() != null) {
+                long from = query.getAppliedFrom() == null ? Long.MIN_VALUE : query.getAppliedFrom().toEpochDay();
+                long to = query.getAppliedTo() == null ? Long.MAX_VALUE : query.getAppliedTo().toEpochDay();
+                dimensions.add(from > to ? List.of() : List.copyOf(byApplyDay.subMap(from, true, to, true).values()));
+            }
+            RoaringBitmap matching = intersect(dimensions);
+
+            // Records in the bands a price bound falls into are the only ones checked one by one.
+            RoaringBitmap unsure = price == null || price.isEmpty() ? new RoaringBitmap()
+                    : union(price.edgeBands().stream().map(band -> byPriceBand[band]).toList());
+            matches = matching.cardinality();
+            if (!unsure.isEmpty()) {
+                PrimitiveIterator.OfInt ordinals = RoaringBitmap.and(matching, unsure).iterator();
+                while (ordinals.hasNext()) {
+                    if (!price.contains(listingAt(ordinals.nextInt()).pricePerLot())) {
+                        matches--;
+                    }
+                }
+            }
+            int limit = query.effectiveLimit();
+            picked = new ArrayList<>(Math.min(limit, 64));
+            PrimitiveIterator.OfInt ordinals = matching.iterator();
+            while (ordinals.hasNext() && picked.size() < limit) {
+                int ordinal = ordinals.nextInt();
+                Listing listing = listingAt(ordinal);
+                if (!unsure.contains(ordinal) || price.contains(listing.pricePerLot())) {
+                    picked.add(new RecordRef(listing.stockId(), recordId(ordinal)));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new ApplicationQueryResult(matches, load(picked), System.nanoTime() - started);
+    }
+
+    /**
+     * Number of records indexed so far, not counting queued changes; 0 until the first query.
+     */
+    public long indexedRecords() {
+        lock.lock();
+        try {
+            long total = 0;
+            for (RoaringBitmap bitmap : byStatus.values()) {
+                total += bitmap.cardinality();
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRecordSaved(IPORecord record) {
+        enqueue(new Change(record, true));
+    }
+
+    @Override
+    public void onRecordStatusChanged(IPORecord record, Status previous) {
+        enqueue(new Change(record, false));
+    }
+
+    /**
+     * Drops the listing's records. Archival is rare and already costs a pass over the listing, so
+     * this waits for the lock rather than queueing the records until the next query.
+     */
+    @Override
+    public void onListingArchived(IPOStock stock, Collection<IPORecord> records) {
+        lock.lock();
+        try {
+            if (!built) {
+                return;
+            }
+            drain();
+            for (IPORecord record : records) {
+                remove(record);
+            }
+            byStock.remove(stock.getStockId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the index; the next query rebuilds it from the reseeded repository.
+     */
+    @Override
+    public void onReset() {
+        lock.lock();
+        try {
+            repository.removeListener(this);
+            built = false;
+            changes.clear();
+            backlog.set(0);
+            clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        repository.removeListener(this);
+    }
+
+    /**
+     * The stocks the query restricts to, or {@code null} for all of them. Read before taking the
+     * lock, since it may touch the repository.
+     */
+    private Set<String> stockIds(ApplicationQuery query) {
+        Set<String> stockIds = null;
+        if (query.getStockId() != null) {
+            stockIds = new HashSet<>(Set.of(query.getStockId()));
+        }
+        if (query.getClosingOn() != null) {
+            Set<String> closing = new HashSet<>();
+            for (IPOStock stock : repository.findAllStocks()) {
+                if (stock.getDeadline().toLocalDate().equals(query.getClosingOn())) {
+                    closing.add(stock.getStockId());
+                }
+            }
+            if (stockIds != null) {
+                stockIds.retainAll(closing);
+            } else {
+                stockIds = closing;
+            }
+        }
+        return stockIds;
+    }
+
+    private void enqueue(Change change) {
+        changes.add(change);
+        if (backlog.incrementAndGet() >= DRAIN_BACKLOG && lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Subscribes, then indexes every record already stored. Changes to records the scan has already
+     * seen are queued meanwhile and replay harmlessly afterwards.
+     */
+    private void build() {
+        repository.addListener(this);
+        for (IPOStock stock : repository.findAllStocks()) {
+            Iterator<IPORecord> records = repository.iterateRecordsByStock(stock.getStockId());
+            while (records.hasNext()) {
+                add(records.next());
+            }
+        }
+        built = true;
+    }
+
+    private void drain() {
+        Change change;
+        while ((change = changes.poll()) != null) {
+            backlog.decrementAndGet();
+            if (change.saved) {
+                add(change.record);
+            } else {
+                statusChanged(change.record);
+            }
+        }
+    }
+
+    private void add(IPORecord record) {
+        int ordinal = ordinal(record);
+        int[] page = listingPages.computeIfAbsent(ordinal >> PAGE_BITS, key -> new int[1 << PAGE_BITS]);
+        int slot = ordinal & (1 << PAGE_BITS) - 1;
+        if (page[slot] != 0) {
+            return;
+        }
+        page[slot] = listing(record) + 1;
+        // The current status, not the one at save time: a change made since is queued after this one
+        // and finds the record already where it belongs.
+        Status status = record.getStatus();
+        byStatus.get(status).add(ordinal);
+        byStock.computeIfAbsent(record.getStockId(), key -> new RoaringBitmap()).add(ordinal);
+        byPriceBand[band(record.getPricePerLot())].add(ordinal);
+        byApplyDay.computeIfAbsent(record.getApplyTime().toLocalDate().toEpochDay(), key -> new RoaringBitmap())
+                .add(ordinal);
+
+        InvestorOrdinals investor = investors.computeIfAbsent(record.getInvestorId(), key -> new InvestorOrdinals());
+        investor.add(ordinal);
+        byApplications[investor.bucket()].add(ordinal);
+        if (status != Status.WITHDRAWN) {
+            countApplications(investor, 1);
+        }
+    }
+
+    /**
+     * Moves the record to its current status. Idempotent, since a record indexed after the change
+     * was queued already carries it.
+     */
+    private void statusChanged(IPORecord record) {
+        Integer ordinal = indexedOrdinal(record.getRecordId());
+        Status indexed = ordinal == null ? null : indexedStatus(ordinal);
+        Status current = record.getStatus();
+        if (indexed == null || indexed == current) {
+            return;
+        }
+        byStatus.get(indexed).remove(ordinal);
+        byStatus.get(current).add(ordinal);
+        if (indexed == Status.WITHDRAWN || current == Status.WITHDRAWN) {
+            countApplications(investors.get(record.getInvestorId()), current == Status.WITHDRAWN ? -1 : 1);
+        }
+    }
+
+    private void remove(IPORecord record) {
+        Integer ordinal = indexedOrdinal(record.getRecordId());
+        if (ordinal == null) {
+            return;
+        }
+        if (ordinal < 0) {
+            otherIds.remove(record.getRecordId());
+            otherRecordIds.remove(ordinal);
+        }
+        Status indexed = indexedStatus(ordinal);
+        if (indexed == null) {
+            return;
+        }
+        int[] page = listingPages.get(ordinal >> PAGE_BITS);
+        Listing listing = listings.get(page[ordinal & (1 << PAGE_BITS) - 1] - 1);
+        page[ordinal & (1 << PAGE_BITS) - 1] = 0;
+        byStatus.get(indexed).remove(ordinal);
+        byPriceBand[band(listing.pricePerLot())].remove(ordinal);
+        long day = record.getApplyTime().toLocalDate().toEpochDay();
+        RoaringBitmap applied = byApplyDay.get(day);
+        if (applied != null) {
+            applied.remove(ordinal);
+            if (applied.isEmpty()) {
+                byApplyDay.remove(day);
+            }
+        }
+
+        InvestorOrdinals investor = investors.get(record.getInvestorId());
+        byApplications[investor.bucket()].remove(ordinal);
+        investor.remove(ordinal);
+        if (indexed != Status.WITHDRAWN) {
+            countApplications(investor, -1);
+        }
+        if (investor.count == 0) {
+            investors.remove(record.getInvestorId());
+            frequentInvestors.remove(investor);
+        }
+    }
+
+    /**
+     * Adjusts how many applications the investor counts, moving its records to the new bucket.
+     */
+    private void countApplications(InvestorOrdinals investor, int delta) {
+        int before = investor.bucket();
+        investor.applications += delta;
+        int after = investor.bucket();
+        if (after == before) {
+            return;
+        }
+        for (int i = 0; i < investor.count; i++) {
+            byApplications[before].remove(investor.ordinals[i]);
+            byApplications[after].add(investor.ordinals[i]);
+        }
+        if (after == EXACT_APPLICATIONS && !investor.frequent) {
+            investor.frequent = true;
+            frequentInvestors.add(investor);
+        }
+    }
+
+    /**
+     * The status the record is indexed under, or {@code null} if it is not indexed.
+     */
+    private Status indexedStatus(int ordinal) {
+        for (Map.Entry<Status, RoaringBitmap> status : byStatus.entrySet()) {
+            if (status.getValue().contains(ordinal)) {
+                return status.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records of investors with at least {@code min} applications: whole buckets up to the shared
+     * last one, then investor by investor among those in it.
+     */
+    private List<RoaringBitmap> withApplications(int min) {
+        if (min <= EXACT_APPLICATIONS) {
+            return Arrays.asList(byApplications).subList(min, EXACT_APPLICATIONS + 1);
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        for (InvestorOrdinals investor : frequentInvestors) {
+            if (investor.applications >= min) {
+                for (int i = 0; i < investor.count; i++) {
+                    result.add(investor.ordinals[i]);
+                }
+            }
+        }
+        return List.of(result);
+    }
+
+    private int ordinal(IPORecord record) {
+        String recordId = record.getRecordId();
+        int sequence = sequenceOf(recordId);
+        if (sequence >= 0) {
+            return sequence;
+        }
+        Integer other = otherIds.get(recordId);
+        if (other == null) {
+            other = nextOtherOrdinal++;
+            otherIds.put(recordId, other);
+            otherRecordIds.put(other, recordId);
+        }
+        return other;
+    }
+
+    /**
+     * The record's ordinal if it has been given one, without handing out a new one.
+     */
+    private Integer indexedOrdinal(String recordId) {
+        int sequence = sequenceOf(recordId);
+        return sequence >= 0 ? Integer.valueOf(sequence) : otherIds.get(recordId);
+    }
+
+    private String recordId(int ordinal) {
+        return ordinal >= 0 ? RECORD_PREFIX + ordinal : otherRecordIds.get(ordinal);
+    }
+
+    private int listing(IPORecord record) {
+        Listing listing = new Listing(record.getStockId(), record.getPricePerLot());
+        Integer position = listingPositions.get(listing);
+        if (position == null) {
+            position = listings.size();
+            listings.add(listing);
+            listingPositions.put(listing, position);
+        }
+        return position;
+    }
+
+    private Listing listingAt(int ordinal) {
+        int[] page = listingPages.get(ordinal >> PAGE_BITS);
+        return listings.get(page[ordinal & (1 << PAGE_BITS) - 1] - 1);
+    }
+
+    /**
+     * Loads the picked records in order, reading each listing once and only as far as its last
+     * picked record. Records that left the repository since the query released the lock are skipped.
+     */
+    private List<IPORecord> load(List<RecordRef> picked) {
+        Map<String, Set<String>> wanted = new LinkedHashMap<>();
+        for (RecordRef ref : picked) {
+            wanted.computeIfAbsent(ref.stockId(), key -> new HashSet<>()).add(ref.recordId());
+        }
+        Map<String, IPORecord> found = new HashMap<>(picked.size() * 2);
+        for (Map.Entry<String, Set<String>> listing : wanted.entrySet()) {
+            Set<String> recordIds = listing.getValue();
+            Iterator<IPORecord> records = repository.iterateRecordsByStock(listing.getKey());
+            try {
+                while (!recordIds.isEmpty() && records.hasNext()) {
+                    IPORecord record = records.next();
+                    if (recordIds.remove(record.getRecordId())) {
+                        found.put(record.getRecordId(), record);
+                    }
+                }
+            } finally {
+                release(records);
+            }
+        }
+        List<IPORecord> loaded = new ArrayList<>(picked.size());
+        for (RecordRef ref : picked) {
+            IPORecord record = found.get(ref.recordId());
+            if (record != null) {
+                loaded.add(record);
+            }
+        }
+        return loaded;
+    }
+
+    private static void release(Iterator<IPORecord> records) {
+        if (records instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void clear() {
+        byStatus.clear();
+        for (Status status : Status.values()) {
+            byStatus.put(status, new RoaringBitmap());
+        }
+        byStock.clear();
+        Arrays.setAll(byApplications, i -> new RoaringBitmap());
+        Arrays.setAll(byPriceBand, i -> new RoaringBitmap());
+        byApplyDay.clear();
+        investors.clear();
+        frequentInvestors.clear();
+        listingPages.clear();
+        listings.clear();
+        listingPositions.clear();
+        otherIds.clear();
+        otherRecordIds.clear();
+        nextOtherOrdinal = Integer.MIN_VALUE;
+    }
+
+    /**
+     * The {@code n} of a {@code REC-<n>} id, or -1 for any other id, including one with a leading zero
+     * that {@code n} would not spell back.
+     */
+    static int sequenceOf(String recordId) {
+        if (!recordId.startsWith(RECORD_PREFIX) || recordId.length() == RECORD_PREFIX.length()
+                || recordId.length() > RECORD_PREFIX.length() + 10
+                || recordId.charAt(RECORD_PREFIX.length()) == '0' && recordId.length() > RECORD_PREFIX.length() + 1) {
+            return -1;
+        }
+        long sequence = 0;
+        for (int i = RECORD_PREFIX.length(); i < recordId.length(); i++) {
+            char c = recordId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            sequence = sequence * 10 + (c - '0');
+        }
+        return sequence > Integer.MAX_VALUE ? -1 : (int) sequence;
+    }
+
+    static int band(BigDecimal price) {
+        long minor = price.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+        int i = Arrays.binarySearch(BAND_EDGES, Math.max(0, minor));
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private static RoaringBitmap union(Collection<RoaringBitmap> bitmaps) {
+        List<RoaringBitmap> present = new ArrayList<>(bitmaps.size());
+        for (RoaringBitmap bitmap : bitmaps) {
+            if (bitmap != null && !bitmap.isEmpty()) {
+                present.add(bitmap);
+            }
+        }
+        return present.size() == 1 ? present.get(0) : RoaringBitmap.or(present);
+    }
+
+    /**
+     * Intersects the dimensions smallest first. Only the smallest is OR-ed up front; the running
+     * result is then ANDed with each bitmap of the next dimension and those pieces OR-ed, which costs
+     * in proportion to the result rather than to the large dimensions. With no dimension at all,
+     * every record matches.
+     */
+    private RoaringBitmap intersect(List<List<RoaringBitmap>> dimensions) {
+        if (dimensions.isEmpty()) {
+            return union(byStatus.values());
+        }
+        List<List<RoaringBitmap>> ordered = new ArrayList<>(dimensions);
+        ordered.sort(Comparator.comparingLong(ApplicationIndex::cardinality));
+        RoaringBitmap result = union(ordered.get(0));
+        for (int i = 1; i < ordered.size() && !result.isEmpty(); i++) {
+            List<RoaringBitmap> pieces = new ArrayList<>();
+            for (RoaringBitmap bitmap : ordered.get(i)) {
+                if (bitmap != null) {
+                    pieces.add(RoaringBitmap.and(result, bitmap));
+                }
+            }
+            result = union(pieces);
+        }
+        return result;
+    }
+
+    private static long cardinality(List<RoaringBitmap> dimension) {
+        long cardinality = 0;
+        for (RoaringBitmap bitmap : dimension) {
+            cardinality += bitmap == null ? 0 : bitmap.cardinality();
+        }
+        return cardinality;
+    }
+
+    private static long[] bandEdges() {
+        List<Long> edges = new ArrayList<>();
+        edges.add(0L);
+        for (long decade = 100; decade <= 100_000_000_000L; decade *= 10) {
+            edges.add(decade);
+            edges.add(decade * 2);
+            edges.add(decade * 5);
+        }
+        return edges.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * A price bound translated to the run of bands it covers. The bands the bounds themselves fall
+     * into hold prices on both sides of them.
+     */
+    private static final class PriceRange {
+
+        private final BigDecimal above;
+        private final BigDecimal atMost;
+        private final int fromBand;
+        private final int toBand;
+
+        private PriceRange(BigDecimal above, BigDecimal atMost) {
+            this.above = above == null || above.signum() < 0 ? null : above;
+            this.atMost = atMost;
+            this.fromBand = this.above == null ? 0 : band(this.above);
+            this.toBand = atMost == null ? BAND_EDGES.length - 1 : atMost.signum() < 0 ? -1 : band(atMost);
+        }
+
+        static PriceRange of(BigDecimal above, BigDecimal atMost) {
+            return above == null && atMost == null ? null : new PriceRange(above, atMost);
+        }
+
+        boolean isEmpty() {
+            return toBand < fromBand || above != null && atMost != null && above.compareTo(atMost) >= 0;
+        }
+
+        List<Integer> edgeBands() {
+            List<Integer> bands = new ArrayList<>(2);
+            if (above != null) {
+                bands.add(fromBand);
+            }
+            if (atMost != null && toBand != fromBand) {
+                bands.add(toBand);
+            }
+            return bands;
+        }
+
+        boolean contains(BigDecimal price) {
+            return (above == null || price.compareTo(above) > 0) && (atMost == null || price.compareTo(atMost) <= 0);
+        }
+    }
+
+    /**
+     * An investor's indexed records, and how many of them count as applications: all but the
+     * withdrawn ones.
+     */
+    private static final class InvestorOrdinals {
+
+        private int[] ordinals = new int[2];
+        private int count;
+        private int applications;
+        private boolean frequent;
+
+        void add(int ordinal) {
+            if (count == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, count * 2);
+            }
+            ordinals[count++] = ordinal;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < count; i++) {
+                if (ordinals[i] == ordinal) {
+                    ordinals[i] = ordinals[--count];
+                    return;
+                }
+            }
+        }
+
+        int bucket() {
+            return Math.min(applications, EXACT_APPLICATIONS);
+        }
+    }
+
+    private record Listing(String stockId, BigDecimal pricePerLot) {
+    }
+
+    private record RecordRef(String stockId, String recordId) {
+    }
+
+    private record Change(IPORecord record, boolean saved) {
+    }
+}
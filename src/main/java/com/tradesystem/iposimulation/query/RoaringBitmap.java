@@ -0,0 +1,535 @@
+package com.tradesystem.iposimulation.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A compressed set of {@code int}s in the roaring layout: values are grouped by their high 16 bits,
+ * and each group keeps its low 16 bits as a sorted {@code char[]} while it holds at most 4096 of
+ * them, or as a 65536-bit bitmap once it is denser. Either form costs at most 8 KiB per group, and
+ * operations on two dense groups run a 64-bit word at a time.
+ * <p>
+ * Values are ordered as unsigned. Not thread-safe.
+ */
+public final class RoaringBitmap {
+
+    static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public RoaringBitmap() {
+        this(4);
+    }
+
+    private RoaringBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        int i = search(key);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) value);
+        } else {
+            insert(-i - 1, key, new ArrayContainer().add((char) value));
+        }
+    }
+
+    public void remove(int value) {
+        int i = search((char) (value >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Container container = containers[i].remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            containers[i] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        int i = search((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The values in both bitmaps.
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(1, Math.min(a.size, b.size)));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container both = a.containers[i].and(b.containers[j]);
+                if (both.cardinality() > 0) {
+                    result.append(a.keys[i], both);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The values in {@code a} but not in {@code b}.
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(1, a.size));
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container left = j < b.size && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (left.cardinality() > 0) {
+                result.append(a.keys[i], left);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The values in any of the bitmaps. Groups whose inputs add up to a dense group are OR-ed into
+     * one bitmap in place rather than merged pairwise.
+     */
+    public static RoaringBitmap or(List<RoaringBitmap> bitmaps) {
+        RoaringBitmap result = new RoaringBitmap();
+        int[] positions = new int[bitmaps.size()];
+        while (true) {
+            int key = -1;
+            long total = 0;
+            for (int b = 0; b < bitmaps.size(); b++) {
+                RoaringBitmap bitmap = bitmaps.get(b);
+                if (positions[b] < bitmap.size) {
+                    char candidate = bitmap.keys[positions[b]];
+                    if (key < 0 || candidate < key) {
+                        key = candidate;
+                        total = 0;
+                    }
+                    if (candidate == key) {
+                        total += bitmap.containers[positions[b]].cardinality();
+                    }
+                }
+            }
+            if (key < 0) {
+                return result;
+            }
+            Container union = total > ARRAY_MAX ? new BitmapContainer() : new ArrayContainer();
+            for (int b = 0; b < bitmaps.size(); b++) {
+                RoaringBitmap bitmap = bitmaps.get(b);
+                if (positions[b] < bitmap.size && bitmap.keys[positions[b]] == key) {
+                    union = union.orInPlace(bitmap.containers[positions[b]++]);
+                }
+            }
+            result.append((char) key, union.optimize());
+        }
+    }
+
+    public RoaringBitmap copy() {
+        RoaringBitmap copy = new RoaringBitmap(Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            copy.append(keys[i], containers[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Iterates the values in unsigned order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int group;
+            private int position;
+            // Where a dense group's scan resumes.
+            private int low;
+
+            @Override
+            public boolean hasNext() {
+                while (group < size && position >= containers[group].cardinality()) {
+                    group++;
+                    position = 0;
+                    low = 0;
+                }
+                return group < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Container container = containers[group];
+                int value;
+                if (container instanceof ArrayContainer array) {
+                    value = array.values[position];
+                } else {
+                    value = ((BitmapContainer) container).next(low);
+                    low = value + 1;
+                }
+                position++;
+                return keys[group] << 16 | value;
+            }
+        };
+    }
+
+    private int search(char key) {
+        // The newest group is the common target of appends in ordinal order.
+        if (size > 0 && keys[size - 1] == key) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int i, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        size++;
+    }
+
+    private void append(char key, Container container) {
+        insert(size, key, container);
+    }
+
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container andNot(Container other);
+
+        /**
+         * Adds the other container's values, reusing this one where possible.
+         */
+        abstract Container orInPlace(Container other);
+
+        /**
+         * This container in the cheaper of the two forms.
+         */
+        abstract Container optimize();
+
+        abstract Container copy();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = cardinality > 0 && values[cardinality - 1] < value
+                    ? -cardinality - 1
+                    : Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int n = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[n++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        Container orInPlace(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.copy().orInPlace(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            char[] merged = new char[cardinality + array.cardinality];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || i < cardinality && values[i] < array.values[j]) {
+                    merged[n++] = values[i++];
+                } else if (i == cardinality || array.values[j] < values[i]) {
+                    merged[n++] = array.values[j++];
+                } else {
+                    merged[n++] = values[i++];
+                    j++;
+                }
+            }
+            ArrayContainer union = new ArrayContainer(merged, n);
+            return n > ARRAY_MAX ? union.toBitmap() : union;
+        }
+
+        @Override
+        Container optimize() {
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, cardinality)), cardinality);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.set(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long word = words[value >>> 6];
+            long cleared = word & ~(1L << value);
+            if (cleared != word) {
+                words[value >>> 6] = cleared;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] bits = ((BitmapContainer) other).words;
+            long[] result = new long[WORDS];
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = words[w] & bits[w];
+                count += Long.bitCount(result[w]);
+            }
+            return new BitmapContainer(result, count).optimize();
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            int count = cardinality;
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    char value = array.values[i];
+                    if ((result[value >>> 6] & 1L << value) != 0) {
+                        result[value >>> 6] &= ~(1L << value);
+                        count--;
+                    }
+                }
+            } else {
+                long[] bits = ((BitmapContainer) other).words;
+                count = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] &= ~bits[w];
+                    count += Long.bitCount(result[w]);
+                }
+            }
+            return new BitmapContainer(result, count).optimize();
+        }
+
+        @Override
+        Container orInPlace(Container other) {
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    set(array.values[i]);
+                }
+                return this;
+            }
+            long[] bits = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] |= bits[w];
+                count += Long.bitCount(words[w]);
+            }
+            cardinality = count;
+            return this;
+        }
+
+        @Override
+        Container optimize() {
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        void set(char value) {
+            long word = words[value >>> 6];
+            long marked = word | 1L << value;
+            if (marked != word) {
+                words[value >>> 6] = marked;
+                cardinality++;
+            }
+        }
+
+        /**
+         * The first value at or after {@code from}; there must be one.
+         */
+        int next(int from) {
+            int w = from >>> 6;
+            long word = words[w] & -1L << from;
+            while (word == 0) {
+                word = words[++w];
+            }
+            return w << 6 | Long.numberOfTrailingZeros(word);
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[Math.max(1, cardinality)];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tradesystem.iposimulation.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * What stays on the heap for a drawn listing once its records have moved to a {@link RecordArchive}
+ * segment.
+ */
+public record ArchivedListing(String stockId,
+                              String stockName,
+                              String stockSymbol,
+                              BigDecimal price,
+                              int totalQuantity,
+                              long deadlineEpochMilli,
+                              String issuerName,
+                              long drawnAtMillis,
+                              int records,
+                              int winners,
+                              int losers) {
+}
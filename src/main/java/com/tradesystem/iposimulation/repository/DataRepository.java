@@ -4,128 +4,387 @@ import com.tradesystem.iposimulation.model.Investor;
 import com.tradesystem.iposimulation.model.IPORecord;
 import com.tradesystem.iposimulation.model.IPOStock;
 import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.mvcc.ReadView;
+import com.tradesystem.iposimulation.mvcc.Versions;
+import com.tradesystem.iposimulation.time.IPOClock;
+import com.tradesystem.iposimulation.time.RealIPOClock;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
- * Thread-safe in-memory storage for investors, IPO listings, and application records.
+ * Thread-safe in-memory storage for investors, IPO listings, and application records. The default
+ * {@link IPORepository}; {@code ipo.repository=jdbc} swaps in {@link JdbcDataRepository}.
+ * <p>
+ * A repository can also be forked from a {@link RepositorySnapshot}. The fork copies listings up
+ * front and adopts everything else lazily: a listing's records, an investor, or an investor's view
+ * is copied from the snapshot the first time it is read or written. A record's copy is shared by
+ * every index that adopts it, so callers still get one instance per record.
  */
 @Component
-public class DataRepository {
+@ConditionalOnProperty(name = "ipo.repository", havingValue = "memory", matchIfMissing = true)
+public class DataRepository implements IPORepository {
 
     private final ConcurrentHashMap<String, Investor> investors = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, IPOStock> stocks = new ConcurrentHashMap<>();
-    private final CopyOnWriteArrayList<IPORecord> records = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, ConcurrentLinkedQueue<IPORecord>> recordsByStock = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PendingSet> pendingByStock = new ConcurrentHashMap<>();
+    private final AtomicInteger recordCount = new AtomicInteger();
     private final ConcurrentHashMap<String, AtomicInteger> stockReservations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, InvestorRecordView> investorViews = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> stockNames = new ConcurrentHashMap<>();
+    private final Map<String, String> stockNamesView = Collections.unmodifiableMap(stockNames);
+    private final Map<String, AtomicInteger> reservedLotsView = Collections.unmodifiableMap(stockReservations);
+    private final LongAdder reservationChanges = new LongAdder();
 
     private final AtomicInteger investorSeq = new AtomicInteger(1000);
     private final AtomicInteger stockSeq = new AtomicInteger(2000);
     private final AtomicInteger recordSeq = new AtomicInteger(3000);
 
+    private final CopyOnWriteArrayList<RepositoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final StockDeadlineIndex deadlineIndex = new StockDeadlineIndex(
+            stock -> listeners.forEach(listener -> listener.onSubscriptionClosed(stock)));
+    private final IPOClock clock;
+    private final IPOCatalog catalog;
+    private final ConcurrentHashMap<String, Long> drawnAt = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ArchivedListing> archivedListings = new ConcurrentHashMap<>();
+    private volatile RecordArchive archive;
+    /** Keeps {@link #archiveDrawnBefore} from moving a listing out of the heap while it is being snapshotted. */
+    private final Object archiveLock = new Object();
+    // Fork state: the snapshot this repository was forked from, and the copy of each snapshot record
+    // adopted so far. Unused by a repository that was not forked.
+    private volatile RepositorySnapshot base;
+    private final ConcurrentHashMap<IPORecord, IPORecord> adoptedRecords = new ConcurrentHashMap<>();
+    private volatile boolean investorsAdopted;
+
     public DataRepository() {
-        seedDemoData();
+        this(RealIPOClock.INSTANCE);
     }
 
-    private void seedDemoData() {
-        var investor = new Investor(nextInvestorId(), "Demo Investor", BigDecimal.ZERO);
-        investors.put(investor.getInvestorId(), investor);
+    @Autowired
+    public DataRepository(IPOClock clock) {
+        this(clock, true);
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        saveStock(new IPOStock(nextStockId(), "TSMC", "2330", new BigDecimal("1000"), 10, now.minusMinutes(1), "TSMC"));
-        saveStock(new IPOStock(nextStockId(), "MediaTek", "2454", new BigDecimal("1200"), 5, now.plusDays(2), "MediaTek"));
+    /**
+     * @param seedDemoData whether to start with the demo investor and listings
+     */
+    public DataRepository(IPOClock clock, boolean seedDemoData) {
+        this.clock = clock;
+        this.catalog = new IPOCatalog(deadlineIndex, clock);
+        if (seedDemoData) {
+            seedDemoData();
+        }
+    }
 
-        saveStock(new IPOStock(nextStockId(), "Evergreen", "2603", new BigDecimal("150"), 100, now.plusDays(5), "Evergreen Marine"));
-        saveStock(new IPOStock(nextStockId(), "Yang Ming", "2609", new BigDecimal("120"), 80, now.plusDays(5), "Yang Ming Marine"));
+    /**
+     * Forks a repository from a snapshot. Only the listings are copied here; the rest is adopted on
+     * first use, so forking costs time in the number of listings, not records. Forks of one
+     * snapshot never see each other's changes.
+     */
+    public DataRepository(IPOClock clock, RepositorySnapshot base) {
+        this(clock, false);
+        this.base = base;
+        investorSeq.set(base.investorSeq());
+        stockSeq.set(base.stockSeq());
+        recordSeq.set(base.recordSeq());
+        recordCount.set(base.countRecords());
+        long now = clock.millis();
+        for (IPOStock original : base.stocks()) {
+            IPOStock stock = original.copy();
+            stocks.put(stock.getStockId(), stock);
+            deadlineIndex.add(stock, now);
+            stockReservations.put(stock.getStockId(), new AtomicInteger(base.reservedLots(stock.getStockId())));
+        }
+        stockNames.putAll(base.stockNames());
+        drawnAt.putAll(base.drawnAt());
+        catalog.rebuild();
+    }
 
-        saveStock(new IPOStock(nextStockId(), "Fubon Financial", "2881", new BigDecimal("60"), 500, now.plusDays(7), "Fubon"));
-        saveStock(new IPOStock(nextStockId(), "Mega Financial", "2886", new BigDecimal("40"), 600, now.plusDays(7), "Mega"));
+    @Override
+    public IPOClock clock() {
+        return clock;
+    }
 
-        saveStock(new IPOStock(nextStockId(), "Old Corp", "0000", new BigDecimal("200"), 50, now.minusDays(1), "Legacy Holdings"));
-        saveStock(new IPOStock(nextStockId(), "Urgent Corp", "9999", new BigDecimal("300"), 30, now.plusHours(1), "Urgent Ventures"));
-        saveStock(new IPOStock(nextStockId(), "Penny Stock", "1111", new BigDecimal("10"), 1000, now.plusDays(4), "Penny Inc"));
-        saveStock(new IPOStock(nextStockId(), "Luxury Corp", "8888", new BigDecimal("5000"), 1, now.plusDays(6), "Luxury Holdings"));
+    private void seedDemoData() {
+        DemoData.seed(this);
     }
 
+    @Override
     public String nextInvestorId() {
         return "INV-" + investorSeq.incrementAndGet();
     }
 
+    @Override
     public String nextStockId() {
         return "STK-" + stockSeq.incrementAndGet();
     }
 
+    @Override
     public String nextRecordId() {
         return "REC-" + recordSeq.incrementAndGet();
     }
 
+    @Override
     public Collection<Investor> findAllInvestors() {
+        adoptInvestors();
         return investors.values();
     }
 
+    @Override
     public Optional<Investor> findInvestor(String investorId) {
-        return Optional.ofNullable(investors.get(investorId));
+        Investor investor = investors.get(investorId);
+        RepositorySnapshot snapshot = base;
+        return Optional.ofNullable(investor != null || snapshot == null ? investor : adoptInvestor(snapshot, investorId));
     }
 
+    @Override
     public synchronized Investor saveInvestor(Investor investor) {
         investors.put(investor.getInvestorId(), investor);
+        investorView(investor.getInvestorId()).touch();
         return investor;
     }
 
+    @Override
     public IPOStock saveStock(IPOStock stock) {
-        stocks.put(stock.getStockId(), stock);
+        IPOStock previous = stocks.put(stock.getStockId(), stock);
+        if (previous != null) {
+            deadlineIndex.remove(previous);
+        }
+        deadlineIndex.add(stock, clock.millis());
+        stockNames.put(stock.getStockId(), stock.getStockName());
         stockReservations.putIfAbsent(stock.getStockId(), new AtomicInteger(0));
+        catalog.rebuild();
+        listeners.forEach(listener -> listener.onStockSaved(stock));
         return stock;
     }
 
+    @Override
+    public void markDrawExecuted(IPOStock stock) {
+        stock.markDrawExecuted();
+        drawnAt.put(stock.getStockId(), clock.millis());
+        deadlineIndex.markDrawn(stock);
+        catalog.rebuild();
+        listeners.forEach(listener -> listener.onDrawExecuted(stock));
+    }
+
+    @Override
     public Optional<IPOStock> findStock(String stockId) {
         return Optional.ofNullable(stocks.get(stockId));
     }
 
-    public List<IPOStock> findOpenStocks(LocalDateTime now) {
-        return stocks.values().stream().filter(stock -> stock.isOpen(now)).toList();
+    @Override
+    public List<IPOStock> findOpenStocks(long now) {
+        return deadlineIndex.open(now);
     }
 
+    @Override
+    public List<IPOStock> findClosedStocks(long now) {
+        return deadlineIndex.closed(now);
+    }
+
+    @Override
     public List<IPOStock> findAllStocks() {
         return List.copyOf(stocks.values());
     }
 
+    @Override
+    public Map<String, String> stockNameDictionary() {
+        return stockNamesView;
+    }
+
+    @Override
+    public long catalogVersion() {
+        return catalog.version();
+    }
+
+    @Override
+    public List<IPOStock> findStocksForDisplay() {
+        return catalog.stocks();
+    }
+
+    @Override
     public IPORecord saveRecord(IPORecord record) {
-        records.add(record);
+        stockRecords(record.getStockId()).add(record);
+        if (record.getStatus() == Status.PENDING) {
+            pendingSet(record.getStockId()).add(record);
+        }
+        recordCount.incrementAndGet();
+        investorView(record.getInvestorId()).onSaved(record);
+        listeners.forEach(listener -> listener.onRecordSaved(record));
         return record;
     }
 
+    @Override
+    public void markWon(IPORecord record) {
+        beforeStatusChange(record);
+        Status previous = record.getStatus();
+        record.markWon();
+        statusChanged(record, previous, Status.WON);
+    }
+
+    @Override
+    public void markLost(IPORecord record, boolean escrowHeld) {
+        beforeStatusChange(record);
+        Status previous = record.getStatus();
+        record.markLost(escrowHeld);
+        statusChanged(record, previous, Status.LOST);
+    }
+
+    @Override
+    public void markEscrowReleased(IPORecord record) {
+        record.markEscrowReleased();
+    }
+
+    @Override
+    public void markFailed(IPORecord record, Status failureStatus, String reason) {
+        beforeStatusChange(record);
+        Status previous = record.getStatus();
+        record.markFailed(failureStatus, reason);
+        statusChanged(record, previous, failureStatus);
+    }
+
+    @Override
+    public void markWithdrawn(IPORecord record) {
+        beforeStatusChange(record);
+        Status previous = record.getStatus();
+        record.markWithdrawn();
+        statusChanged(record, previous, Status.WITHDRAWN);
+    }
+
+    /**
+     * In a fork, adopts the record's pending set and investor view while they still reflect the
+     * record's previous status.
+     */
+    private void beforeStatusChange(IPORecord record) {
+        if (base != null) {
+            pendingSet(record.getStockId());
+            investorView(record.getInvestorId());
+        }
+    }
+
+    private void statusChanged(IPORecord record, Status previous, Status current) {
+        if (previous == Status.PENDING && current != Status.PENDING) {
+            PendingSet pending = pendingByStock.get(record.getStockId());
+            if (pending != null) {
+                pending.remove(record);
+            }
+        }
+        investorView(record.getInvestorId()).onStatusChanged(record, previous, current);
+        listeners.forEach(listener -> listener.onRecordStatusChanged(record, previous));
+    }
+
+    @Override
+    public void addListener(RepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(RepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public InvestorRecordView investorView(String investorId) {
+        InvestorRecordView view = investorViews.get(investorId);
+        return view != null ? view : investorViews.computeIfAbsent(investorId, this::adoptView);
+    }
+
+    @Override
     public List<IPORecord> findRecordsByInvestor(String investorId) {
-        return records.stream()
-                .filter(record -> record.getInvestorId().equals(investorId))
-                .collect(Collectors.toList());
+        InvestorRecordView view = existingView(investorId);
+        return view == null ? List.of() : view.allRecords();
     }
 
+    @Override
     public List<IPORecord> findRecordsByStock(String stockId) {
-        return records.stream()
-                .filter(record -> record.getStockId().equals(stockId))
-                .collect(Collectors.toList());
+        return List.copyOf(recordsOfStock(stockId));
     }
 
+    /**
+     * Iterates without copying, so exports of any size run in constant memory; an archived listing's
+     * segment is streamed from disk.
+     */
+    @Override
+    public Iterator<IPORecord> iterateRecordsByStock(String stockId) {
+        if (!recordsByStock.containsKey(stockId) && archivedListings.containsKey(stockId)) {
+            return archive.iterate(stockId);
+        }
+        return recordsOfStock(stockId).iterator();
+    }
+
+    @Override
+    public int countRecords() {
+        return recordCount.get();
+    }
+
+    @Override
+    public int countInvestors() {
+        adoptInvestors();
+        return investors.size();
+    }
+
+    @Override
+    public int countStocks() {
+        return stocks.size();
+    }
+
+    private Collection<IPORecord> recordsOfStock(String stockId) {
+        Collection<IPORecord> stockRecords = recordsByStock.get(stockId);
+        if (stockRecords != null) {
+            return stockRecords;
+        }
+        if (archivedListings.containsKey(stockId)) {
+            return archive.load(stockId);
+        }
+        return base != null && stocks.containsKey(stockId) ? stockRecords(stockId) : List.of();
+    }
+
+    @Override
     public boolean hasRecord(String investorId, String stockId) {
-        return records.stream()
-                .anyMatch(record -> record.getInvestorId().equals(investorId) && record.getStockId().equals(stockId));
+        InvestorRecordView view = existingView(investorId);
+        return view != null && view.hasRecord(stockId);
     }
 
+    @Override
     public List<IPORecord> findPendingByStock(String stockId) {
-        return records.stream()
-                .filter(record -> record.getStockId().equals(stockId) && record.getStatus() == Status.PENDING)
-                .collect(Collectors.toList());
+        PendingSet pending = base != null && stocks.containsKey(stockId)
+                ? pendingSet(stockId) : pendingByStock.get(stockId);
+        return pending == null ? new ArrayList<>() : pending.inArrivalOrder();
     }
 
+    @Override
+    public BigDecimal pendingAmount(String stockId) {
+        RepositorySnapshot snapshot = base;
+        if (snapshot != null && !pendingByStock.containsKey(stockId)) {
+            // No pending record of the listing has changed since the fork.
+            return snapshot.pendingAmount(stockId);
+        }
+        return IPORepository.super.pendingAmount(stockId);
+    }
+
+    @Override
     public boolean reserveStockLots(String stockId, int quantity, int maxLots) {
         stockReservations.putIfAbsent(stockId, new AtomicInteger(0));
         AtomicInteger counter = stockReservations.get(stockId);
@@ -135,24 +394,328 @@ public class DataRepository {
                 return false;
             }
             if (counter.compareAndSet(current, current + quantity)) {
+                reservationChanges.increment();
                 return true;
             }
         }
     }
 
+    @Override
+    public Map<String, ? extends Number> reservedLotsView() {
+        return reservedLotsView;
+    }
+
+    @Override
     public void releaseStockLots(String stockId, int quantity) {
         AtomicInteger counter = stockReservations.get(stockId);
         if (counter == null) {
             return;
         }
         counter.updateAndGet(value -> Math.max(0, value - quantity));
+        reservationChanges.increment();
+    }
+
+    @Override
+    public long reservationVersion() {
+        return reservationChanges.sum();
+    }
+
+    /**
+     * Enables {@link #archiveDrawnBefore(long)}, writing segments to the given archive.
+     */
+    public void attachArchive(RecordArchive archive) {
+        this.archive = archive;
     }
 
+    /**
+     * Moves every listing drawn at or before {@code cutoffMillis} out of the heap: its records go to
+     * a compressed segment and the listing itself is replaced by an {@link ArchivedListing} summary.
+     * Investor views keep paging through archived records, reading them back on demand. A listing
+     * drawn without refunds stays until its losers' escrow is released, since releasing needs the
+     * listing and its records; a later call archives it.
+     *
+     * @return the number of listings archived
+     */
+    public int archiveDrawnBefore(long cutoffMillis) throws IOException {
+        RecordArchive target = archive;
+        if (target == null) {
+            throw new IllegalStateException("No archive attached");
+        }
+        synchronized (archiveLock) {
+            int archivedCount = 0;
+            for (Map.Entry<String, Long> drawn : drawnAt.entrySet()) {
+                if (drawn.getValue() > cutoffMillis) {
+                    continue;
+                }
+                IPOStock stock = stocks.get(drawn.getKey());
+                if (stock != null && holdsEscrow(stock.getStockId())) {
+                    continue;
+                }
+                if (stock != null) {
+                    archive(target, stock, drawn.getValue());
+                    archivedCount++;
+                }
+                drawnAt.remove(drawn.getKey());
+            }
+            if (archivedCount > 0) {
+                catalog.rebuild();
+            }
+            return archivedCount;
+        }
+    }
+
+    private boolean holdsEscrow(String stockId) {
+        for (IPORecord record : recordsOfStock(stockId)) {
+            if (record.isEscrowHeld()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void archive(RecordArchive target, IPOStock stock, long drawnAtMillis) throws IOException {
+        String stockId = stock.getStockId();
+        List<IPORecord> stockRecords = List.copyOf(recordsOfStock(stockId));
+        target.write(stock, stockRecords);
+
+        int winners = 0;
+        for (IPORecord record : stockRecords) {
+            winners += record.getStatus() == Status.WON ? 1 : 0;
+            investorView(record.getInvestorId()).onArchived(record, target);
+        }
+        archivedListings.put(stockId, new ArchivedListing(stockId, stock.getStockName(), stock.getStockSymbol(),
+                stock.getPrice(), stock.getTotalQuantity(), stock.getDeadlineEpochMilli(), stock.getIssuerName(),
+                drawnAtMillis, stockRecords.size(), winners, stockRecords.size() - winners));
+        // The name stays in the dictionary so archived history still renders it.
+        recordsByStock.remove(stockId);
+        pendingByStock.remove(stockId);
+        recordCount.addAndGet(-stockRecords.size());
+        stocks.remove(stockId);
+        deadlineIndex.remove(stock);
+        stockReservations.remove(stockId);
+        listeners.forEach(listener -> listener.onListingArchived(stock, stockRecords));
+    }
+
+    /**
+     * Summaries of listings whose records have been archived.
+     */
+    public Collection<ArchivedListing> findArchivedListings() {
+        return Collections.unmodifiableCollection(archivedListings.values());
+    }
+
+    public Optional<ArchivedListing> findArchivedListing(String stockId) {
+        return Optional.ofNullable(archivedListings.get(stockId));
+    }
+
+    /**
+     * Copies the in-heap data into a {@link RepositorySnapshot} to fork repositories from. Records
+     * and investor funds are copied as of one pinned {@link Versions version}, so the snapshot is
+     * consistent without holding up writers: deposits, registrations and applications carry on
+     * while the copy runs and simply are not part of it. Listings and reserved-lot counters are
+     * not versioned and are read as they are at the time of the copy.
+     */
+    public RepositorySnapshot snapshot() {
+        synchronized (archiveLock) {
+            try (ReadView view = Versions.pin()) {
+                return snapshot(view);
+            }
+        }
+    }
+
+    private RepositorySnapshot snapshot(ReadView view) {
+        RepositorySnapshot from = base;
+        Map<IPORecord, IPORecord> frozen = new HashMap<>();
+        Function<IPORecord, IPORecord> freeze =
+                record -> frozen.computeIfAbsent(adoptedRecords.getOrDefault(record, record), source -> {
+                    IPORecord at = source.asOf(view);
+                    return at == source ? source.copy() : at;
+                });
+
+        List<IPOStock> stockCopies = new ArrayList<>(stocks.size());
+        Map<String, List<IPORecord>> stockRecords = new HashMap<>();
+        Map<String, BigDecimal> pendingAmounts = new HashMap<>();
+        Map<String, Integer> reservedLots = new HashMap<>();
+        int copiedRecords = 0;
+        for (IPOStock stock : stocks.values()) {
+            String stockId = stock.getStockId();
+            stockCopies.add(stock.copy());
+            Collection<IPORecord> source = recordsByStock.get(stockId);
+            if (source == null) {
+                source = from == null ? List.of() : from.recordsOfStock(stockId);
+            }
+            List<IPORecord> copies = new ArrayList<>(source.size());
+            BigDecimal pendingAmount = BigDecimal.ZERO;
+            for (IPORecord record : source) {
+                IPORecord copy = freeze.apply(record);
+                if (copy == null) {
+                    continue;
+                }
+                copies.add(copy);
+                if (copy.getStatus() == Status.PENDING) {
+                    pendingAmount = pendingAmount.add(copy.getAmount());
+                }
+            }
+            copiedRecords += copies.size();
+            stockRecords.put(stockId, copies);
+            pendingAmounts.put(stockId, pendingAmount);
+            AtomicInteger reserved = stockReservations.get(stockId);
+            reservedLots.put(stockId, reserved == null ? 0 : reserved.get());
+        }
+
+        Set<String> investorIds = new HashSet<>(investorViews.keySet());
+        if (from != null) {
+            investorIds.addAll(from.investorIdsWithRecords());
+        }
+        Map<String, List<IPORecord>> investorRecords = new HashMap<>();
+        for (String investorId : investorIds) {
+            InvestorRecordView records = investorViews.get(investorId);
+            Collection<IPORecord> source = records != null ? records.getRecords() : from.recordsOfInvestor(investorId);
+            List<IPORecord> copies = source.stream().map(freeze).filter(Objects::nonNull).toList();
+            if (!copies.isEmpty()) {
+                investorRecords.put(investorId, copies);
+            }
+        }
+
+        Map<String, Investor> investorCopies = new HashMap<>();
+        if (from != null) {
+            from.investors().forEach((investorId, investor) -> investorCopies.put(investorId, copy(investor)));
+        }
+        investors.forEach((investorId, investor) -> {
+            Investor copy = copy(investor, view);
+            if (copy != null) {
+                investorCopies.put(investorId, copy);
+            }
+        });
+
+        return new RepositorySnapshot(clock.millis(), stockCopies, investorCopies, stockRecords, investorRecords,
+                pendingAmounts, reservedLots, Map.copyOf(drawnAt), Map.copyOf(stockNames), copiedRecords,
+                investorSeq.get(), stockSeq.get(), recordSeq.get());
+    }
+
+    private static Investor copy(Investor investor) {
+        Investor copy = new Investor(investor.getInvestorId(), investor.getDisplayName(), investor.getBalance());
+        copy.restoreLockedFunds(investor.getLockedBalance());
+        return copy;
+    }
+
+    /**
+     * The investor's funds as of the view, or {@code null} if it registered after the view was pinned.
+     */
+    private static Investor copy(Investor investor, ReadView view) {
+        Investor.Funds funds = investor.fundsAt(view);
+        if (funds == null) {
+            return null;
+        }
+        Investor copy = new Investor(investor.getInvestorId(), investor.getDisplayName(), funds.balance());
+        copy.restoreLockedFunds(funds.locked());
+        return copy;
+    }
+
+    private IPORecord adopt(IPORecord original) {
+        IPORecord copy = adoptedRecords.get(original);
+        return copy != null ? copy : adoptedRecords.computeIfAbsent(original, IPORecord::copy);
+    }
+
+    private Investor adoptInvestor(RepositorySnapshot snapshot, String investorId) {
+        Investor original = snapshot.investors().get(investorId);
+        if (original == null) {
+            return null;
+        }
+        return investors.computeIfAbsent(investorId, key -> copy(original));
+    }
+
+    private void adoptInvestors() {
+        RepositorySnapshot snapshot = base;
+        if (snapshot == null || investorsAdopted) {
+            return;
+        }
+        for (String investorId : snapshot.investors().keySet()) {
+            adoptInvestor(snapshot, investorId);
+        }
+        investorsAdopted = true;
+    }
+
+    private ConcurrentLinkedQueue<IPORecord> stockRecords(String stockId) {
+        ConcurrentLinkedQueue<IPORecord> stockRecords = recordsByStock.get(stockId);
+        return stockRecords != null ? stockRecords : recordsByStock.computeIfAbsent(stockId, this::adoptStockRecords);
+    }
+
+    private ConcurrentLinkedQueue<IPORecord> adoptStockRecords(String stockId) {
+        ConcurrentLinkedQueue<IPORecord> stockRecords = new ConcurrentLinkedQueue<>();
+        RepositorySnapshot snapshot = base;
+        if (snapshot != null) {
+            for (IPORecord record : snapshot.recordsOfStock(stockId)) {
+                stockRecords.add(adopt(record));
+            }
+        }
+        return stockRecords;
+    }
+
+    private PendingSet pendingSet(String stockId) {
+        PendingSet pending = pendingByStock.get(stockId);
+        return pending != null ? pending : pendingByStock.computeIfAbsent(stockId, this::adoptPending);
+    }
+
+    private PendingSet adoptPending(String stockId) {
+        PendingSet pending = new PendingSet();
+        RepositorySnapshot snapshot = base;
+        if (snapshot != null) {
+            for (IPORecord record : snapshot.recordsOfStock(stockId)) {
+                IPORecord copy = adopt(record);
+                if (copy.getStatus() == Status.PENDING) {
+                    pending.add(copy);
+                }
+            }
+        }
+        return pending;
+    }
+
+    private InvestorRecordView adoptView(String investorId) {
+        InvestorRecordView view = new InvestorRecordView(investorId);
+        RepositorySnapshot snapshot = base;
+        if (snapshot != null) {
+            for (IPORecord record : snapshot.recordsOfInvestor(investorId)) {
+                view.onSaved(adopt(record));
+            }
+        }
+        return view;
+    }
+
+    /**
+     * The investor's view if it exists or, in a fork, can be adopted; never creates an empty one.
+     */
+    private InvestorRecordView existingView(String investorId) {
+        InvestorRecordView view = investorViews.get(investorId);
+        RepositorySnapshot snapshot = base;
+        if (view == null && snapshot != null && snapshot.hasRecordsOfInvestor(investorId)) {
+            view = investorView(investorId);
+        }
+        return view;
+    }
+
+    @Override
     public void reset() {
+        base = null;
+        adoptedRecords.clear();
+        investorsAdopted = false;
         investors.clear();
         stocks.clear();
-        records.clear();
+        deadlineIndex.clear();
+        recordsByStock.clear();
+        pendingByStock.clear();
+        recordCount.set(0);
+        investorViews.clear();
+        stockNames.clear();
         stockReservations.clear();
+        drawnAt.clear();
+        archivedListings.clear();
+        listeners.forEach(RepositoryListener::onReset);
         seedDemoData();
     }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        catalog.close();
+    }
 }
@@ -0,0 +1,35 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The demo investor and listings every backend starts with, with deadlines relative to its clock.
+ */
+final class DemoData {
+
+    private DemoData() {
+    }
+
+    static void seed(IPORepository repository) {
+        repository.saveInvestor(new Investor(repository.nextInvestorId(), "Demo Investor", BigDecimal.ZERO));
+
+        LocalDateTime now = repository.clock().now();
+        repository.saveStock(new IPOStock(repository.nextStockId(), "TSMC", "2330", new BigDecimal("1000"), 10, now.minusMinutes(1), "TSMC"));
+        repository.saveStock(new IPOStock(repository.nextStockId(), "MediaTek", "2454", new BigDecimal("1200"), 5, now.plusDays(2), "MediaTek"));
+
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Evergreen", "2603", new BigDecimal("150"), 100, now.plusDays(5), "Evergreen Marine"));
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Yang Ming", "2609", new BigDecimal("120"), 80, now.plusDays(5), "Yang Ming Marine"));
+
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Fubon Financial", "2881", new BigDecimal("60"), 500, now.plusDays(7), "Fubon"));
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Mega Financial", "2886", new BigDecimal("40"), 600, now.plusDays(7), "Mega"));
+
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Old Corp", "0000", new BigDecimal("200"), 50, now.minusDays(1), "Legacy Holdings"));
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Urgent Corp", "9999", new BigDecimal("300"), 30, now.plusHours(1), "Urgent Ventures"));
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Penny Stock", "1111", new BigDecimal("10"), 1000, now.plusDays(4), "Penny Inc"));
+        repository.saveStock(new IPOStock(repository.nextStockId(), "Luxury Corp", "8888", new BigDecimal("5000"), 1, now.plusDays(6), "Luxury Holdings"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.time.IPOClock;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable, display-ordered snapshot of every IPO listing.
+ * <p>
+ * The snapshot is rebuilt when a listing is published, a draw completes, or the earliest open
+ * deadline passes, and is swapped in with a single volatile write. A rebuild copies the display
+ * order out of the deadline index, {@code O(listings)} without sorting; publishes and draws pay it on
+ * the writing thread. Readers only read the volatile, except the first reader to arrive after a
+ * deadline passed but before the scheduled rebuild fired: it rebuilds, and stale readers racing it
+ * wait for that one rebuild instead of repeating it.
+ */
+public final class IPOCatalog {
+
+    private static final ScheduledThreadPoolExecutor DEADLINES = createScheduler();
+
+    private final StockDeadlineIndex index;
+    private final IPOClock clock;
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Long.MAX_VALUE, 0);
+    private ScheduledFuture<?> pendingDeadline;
+
+    IPOCatalog(StockDeadlineIndex index, IPOClock clock) {
+        this.index = index;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the current display order: open listings first, then closed listings awaiting a draw,
+     * then finished listings, each group ordered by deadline.
+     */
+    public List<IPOStock> stocks() {
+        return current().stocks();
+    }
+
+    /**
+     * Version stamp bumped on every rebuild, i.e. whenever the rendered catalog can change.
+     */
+    public long version() {
+        return current().version();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (clock.millis() > current.validUntil()) {
+            // The scheduled deadline event has not fired yet; do not serve a stale ordering.
+            current = refresh(current);
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds unless another thread already replaced the stale snapshot.
+     */
+    private synchronized Snapshot refresh(Snapshot stale) {
+        return snapshot == stale ? rebuild() : snapshot;
+    }
+
+    synchronized Snapshot rebuild() {
+        long now = clock.millis();
+        // The index keeps every phase bucket sorted by deadline, so no sort is needed here.
+        Snapshot rebuilt = new Snapshot(List.copyOf(index.displayOrder(now)), index.nextDeadline(now),
+                snapshot.version() + 1);
+        snapshot = rebuilt;
+        scheduleDeadline(rebuilt.validUntil());
+        return rebuilt;
+    }
+
+    synchronized void close() {
+        if (pendingDeadline != null) {
+            pendingDeadline.cancel(false);
+            pendingDeadline = null;
+        }
+    }
+
+    private void scheduleDeadline(long validUntil) {
+        close();
+        if (validUntil == Long.MAX_VALUE) {
+            return;
+        }
+        long delay = clock.toRealMillis(Math.max(0, validUntil + 1 - clock.millis()));
+        pendingDeadline = DEADLINES.schedule(this::rebuild, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ipo-catalog-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    record Snapshot(List<IPOStock> stocks, long validUntil, long version) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.time.IPOClock;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage for investors, IPO listings and application records.
+ * <p>
+ * Services mutate the returned model objects in place (balances, record statuses), so an
+ * implementation must hand every caller the same instance per id and persist status changes made
+ * through {@link #markWon}, {@link #markLost}, {@link #markFailed} and {@link #markWithdrawn}. {@link DataRepository} is the
+ * default, in-memory implementation; {@link JdbcDataRepository} is selected with
+ * {@code ipo.repository=jdbc}.
+ */
+public interface IPORepository {
+
+    /**
+     * The clock every deadline and timestamp in this repository is measured against.
+     */
+    IPOClock clock();
+
+    String nextInvestorId();
+
+    String nextStockId();
+
+    String nextRecordId();
+
+    Collection<Investor> findAllInvestors();
+
+    Optional<Investor> findInvestor(String investorId);
+
+    Investor saveInvestor(Investor investor);
+
+    IPOStock saveStock(IPOStock stock);
+
+    void markDrawExecuted(IPOStock stock);
+
+    Optional<IPOStock> findStock(String stockId);
+
+    List<IPOStock> findOpenStocks(long now);
+
+    List<IPOStock> findClosedStocks(long now);
+
+    List<IPOStock> findAllStocks();
+
+    /**
+     * Shared, read-only stockId to display-name dictionary, maintained as listings are saved.
+     */
+    Map<String, String> stockNameDictionary();
+
+    long catalogVersion();
+
+    /**
+     * Returns the pre-sorted display catalog; see {@link IPOCatalog#stocks()}.
+     */
+    List<IPOStock> findStocksForDisplay();
+
+    IPORecord saveRecord(IPORecord record);
+
+    void markWon(IPORecord record);
+
+    default void markLost(IPORecord record) {
+        markLost(record, false);
+    }
+
+    /**
+     * @param escrowHeld whether the draw keeps the subscription money in escrow instead of refunding it;
+     *                   see {@link IPORecord#isEscrowHeld()}
+     */
+    void markLost(IPORecord record, boolean escrowHeld);
+
+    /**
+     * Records that a held losing application's escrow has been returned to the investor.
+     */
+    void markEscrowReleased(IPORecord record);
+
+    void markFailed(IPORecord record, Status failureStatus, String reason);
+
+    /**
+     * Marks a pending application as withdrawn, dropping it from the stock's pending set and freeing
+     * the investor to apply to the stock again.
+     */
+    void markWithdrawn(IPORecord record);
+
+    void addListener(RepositoryListener listener);
+
+    void removeListener(RepositoryListener listener);
+
+    /**
+     * Returns the incrementally maintained view of an investor's applications, creating an empty
+     * one for investors who have not applied yet.
+     */
+    InvestorRecordView investorView(String investorId);
+
+    List<IPORecord> findRecordsByInvestor(String investorId);
+
+    /**
+     * A stock's records in application order.
+     */
+    List<IPORecord> findRecordsByStock(String stockId);
+
+    /**
+     * Iterates a stock's records in application order; weakly consistent with concurrent applications.
+     */
+    Iterator<IPORecord> iterateRecordsByStock(String stockId);
+
+    int countRecords();
+
+    int countInvestors();
+
+    int countStocks();
+
+    boolean hasRecord(String investorId, String stockId);
+
+    List<IPORecord> findPendingByStock(String stockId);
+
+    /**
+     * Total {@link IPORecord#getAmount() amount} of the stock's pending records.
+     */
+    default BigDecimal pendingAmount(String stockId) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (IPORecord record : findPendingByStock(stockId)) {
+            total = total.add(record.getAmount());
+        }
+        return total;
+    }
+
+    boolean reserveStockLots(String stockId, int quantity, int maxLots);
+
+    /**
+     * Read-only view of lots reserved per stock; values are live counters, not copies.
+     */
+    Map<String, ? extends Number> reservedLotsView();
+
+    void releaseStockLots(String stockId, int quantity);
+
+    /**
+     * Advances whenever a value in {@link #reservedLotsView()} changes; listings added or removed move
+     * {@link #catalogVersion()} instead.
+     */
+    long reservationVersion();
+
+    /**
+     * Drops all data and reseeds the demo investor and listings.
+     */
+    void reset();
+
+    void close();
+}
@@ -0,0 +1,323 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.Status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-investor materialized view of application records, maintained incrementally by
+ * {@link IPORepository} on every save and status transition so page renders never rebuild it.
+ * <p>
+ * History is kept in skip lists ordered by (apply epoch-millis, recordId): one over all records and
+ * one per status. A page is a bounded range scan from the cursor, so it costs {@code O(log n + page)}
+ * for any combination of status and date-range filters.
+ * <p>
+ * Records of archived listings leave the skip lists; only their key, stock and final status stay,
+ * in separate indexes, one over all of them and one per final status. Pages merge both in key order and read archived records back from the
+ * {@link RecordArchive} only when a page actually reaches them. Status counts keep including them.
+ */
+public final class InvestorRecordView {
+
+    private final String investorId;
+    private final ConcurrentSkipListMap<HistoryKey, IPORecord> history = new ConcurrentSkipListMap<>();
+    private final Map<Status, ConcurrentSkipListMap<HistoryKey, IPORecord>> historyByStatus = new EnumMap<>(Status.class);
+    private final ConcurrentHashMap<String, IPORecord> recordsByStock = new ConcurrentHashMap<>();
+    private final Set<String> appliedStockIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> appliedStockIdsView = Collections.unmodifiableSet(appliedStockIds);
+    private final Collection<IPORecord> recordsView = Collections.unmodifiableCollection(history.values());
+    private final AtomicIntegerArray statusCounts = new AtomicIntegerArray(Status.values().length);
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentSkipListMap<HistoryKey, ArchivedEntry> archived = new ConcurrentSkipListMap<>();
+    private final Map<Status, ConcurrentSkipListMap<HistoryKey, ArchivedEntry>> archivedByStatus =
+            new EnumMap<>(Status.class);
+    private volatile RecordArchive archive;
+
+    InvestorRecordView(String investorId) {
+        this.investorId = investorId;
+        for (Status status : Status.values()) {
+            historyByStatus.put(status, new ConcurrentSkipListMap<>());
+            archivedByStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    public String getInvestorId() {
+        return investorId;
+    }
+
+    /**
+     * Stocks the investor currently holds a live (pending or won) application for.
+     */
+    public Set<String> getAppliedStockIds() {
+        return appliedStockIdsView;
+    }
+
+    /**
+     * In-memory application history oldest first; a read-only live view, not a copy. Excludes
+     * archived records; see {@link #allRecords()}.
+     */
+    public Collection<IPORecord> getRecords() {
+        return recordsView;
+    }
+
+    /**
+     * Complete history oldest first, reading archived records back from disk.
+     */
+    public List<IPORecord> allRecords() {
+        if (archived.isEmpty()) {
+            return List.copyOf(history.values());
+        }
+        List<IPORecord> records = new ArrayList<>(history.size() + archived.size());
+        iterateAll().forEachRemaining(records::add);
+        return records;
+    }
+
+    /**
+     * Complete history oldest first, merged lazily from the in-memory and archived indexes; archived
+     * records are read back one at a time as the iteration reaches them, so exports run in constant memory.
+     */
+    public Iterator<IPORecord> iterateAll() {
+        Iterator<Map.Entry<HistoryKey, IPORecord>> live = history.entrySet().iterator();
+        Iterator<Map.Entry<HistoryKey, ArchivedEntry>> old = archived.isEmpty() ? null : archived.entrySet().iterator();
+        return new Iterator<>() {
+            private Map.Entry<HistoryKey, IPORecord> nextLive = live.hasNext() ? live.next() : null;
+            private Map.Entry<HistoryKey, ArchivedEntry> nextOld = nextArchived(old);
+
+            @Override
+            public boolean hasNext() {
+                return nextLive != null || nextOld != null;
+            }
+
+            @Override
+            public IPORecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                // Oldest first; on a tie the record is mid-archival and the live copy wins.
+                int order = nextLive == null ? 1 : nextOld == null ? -1 : nextLive.getKey().compareTo(nextOld.getKey());
+                IPORecord record;
+                if (order <= 0) {
+                    record = nextLive.getValue();
+                    nextLive = live.hasNext() ? live.next() : null;
+                    if (order == 0) {
+                        nextOld = nextArchived(old);
+                    }
+                } else {
+                    record = load(nextOld);
+                    nextOld = nextArchived(old);
+                }
+                return record;
+            }
+        };
+    }
+
+    public int getArchivedCount() {
+        return archived.size();
+    }
+
+    /**
+     * Returns one newest-first page of history.
+     *
+     * @param status     only records currently in this status, or {@code null} for all
+     * @param fromMillis inclusive lower bound on apply time
+     * @param toMillis   inclusive upper bound on apply time
+     * @param cursor     {@link HistoryPage#getNextCursor()} of the previous page, or {@code null}
+     * @param size       maximum number of records to return
+     */
+    public HistoryPage page(Status status, long fromMillis, long toMillis, String cursor, int size) {
+        NavigableMap<HistoryKey, IPORecord> range = bound(status == null ? history : historyByStatus.get(status),
+                fromMillis, toMillis, cursor);
+        Iterator<Map.Entry<HistoryKey, IPORecord>> live = range.descendingMap().entrySet().iterator();
+        NavigableMap<HistoryKey, ArchivedEntry> archivedRange = status == null ? archived : archivedByStatus.get(status);
+        Iterator<Map.Entry<HistoryKey, ArchivedEntry>> old = archivedRange.isEmpty() ? null
+                : bound(archivedRange, fromMillis, toMillis, cursor).descendingMap().entrySet().iterator();
+
+        List<IPORecord> records = new ArrayList<>(Math.min(size, 64));
+        Map.Entry<HistoryKey, IPORecord> nextLive = live.hasNext() ? live.next() : null;
+        Map.Entry<HistoryKey, ArchivedEntry> nextOld = nextArchived(old);
+        HistoryKey last = null;
+        while (records.size() < size && (nextLive != null || nextOld != null)) {
+            // Newest first; on a tie the record is mid-archival and the live copy wins.
+            int order = nextLive == null ? -1 : nextOld == null ? 1 : nextLive.getKey().compareTo(nextOld.getKey());
+            if (order >= 0) {
+                records.add(nextLive.getValue());
+                last = nextLive.getKey();
+                nextLive = live.hasNext() ? live.next() : null;
+                if (order == 0) {
+                    nextOld = nextArchived(old);
+                }
+            } else {
+                records.add(load(nextOld));
+                last = nextOld.getKey();
+                nextOld = nextArchived(old);
+            }
+        }
+        String nextCursor = last != null && (nextLive != null || nextOld != null) ? last.encode() : null;
+        return new HistoryPage(Collections.unmodifiableList(records), nextCursor);
+    }
+
+    private static <V> NavigableMap<HistoryKey, V> bound(NavigableMap<HistoryKey, V> range, long fromMillis,
+                                                         long toMillis, String cursor) {
+        if (toMillis != Long.MAX_VALUE) {
+            range = range.headMap(new HistoryKey(toMillis + 1, ""), false);
+        }
+        if (fromMillis != Long.MIN_VALUE) {
+            range = range.tailMap(new HistoryKey(fromMillis, ""), true);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            range = range.headMap(HistoryKey.decode(cursor), false);
+        }
+        return range;
+    }
+
+    private static Map.Entry<HistoryKey, ArchivedEntry> nextArchived(Iterator<Map.Entry<HistoryKey, ArchivedEntry>> old) {
+        return old != null && old.hasNext() ? old.next() : null;
+    }
+
+    private IPORecord load(Map.Entry<HistoryKey, ArchivedEntry> entry) {
+        IPORecord record = archive.find(entry.getValue().stockId(), entry.getKey().recordId());
+        if (record == null) {
+            throw new IllegalStateException("Archived record " + entry.getKey().recordId() + " is missing");
+        }
+        return record;
+    }
+
+    /**
+     * Version stamp bumped after every change to the investor's records or balance.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public boolean hasRecord(String stockId) {
+        return recordsByStock.containsKey(stockId);
+    }
+
+    /**
+     * The investor's current application to the stock, or {@code null}; withdrawn ones do not count.
+     */
+    public IPORecord findRecord(String stockId) {
+        return recordsByStock.get(stockId);
+    }
+
+    public int count(Status status) {
+        return statusCounts.get(status.ordinal());
+    }
+
+    public int getPendingCount() {
+        return count(Status.PENDING);
+    }
+
+    public int getWonCount() {
+        return count(Status.WON);
+    }
+
+    public int getLostCount() {
+        return count(Status.LOST);
+    }
+
+    public int getFailedCount() {
+        return count(Status.FAILED_FUNDS);
+    }
+
+    void onSaved(IPORecord record) {
+        HistoryKey key = HistoryKey.of(record);
+        history.put(key, record);
+        recordsByStock.put(record.getStockId(), record);
+        onStatusChanged(record, null, record.getStatus());
+    }
+
+    void touch() {
+        version.incrementAndGet();
+    }
+
+    void onStatusChanged(IPORecord record, Status previous, Status current) {
+        if (previous == current) {
+            return;
+        }
+        HistoryKey key = HistoryKey.of(record);
+        historyByStatus.get(current).put(key, record);
+        statusCounts.incrementAndGet(current.ordinal());
+        if (previous != null) {
+            historyByStatus.get(previous).remove(key);
+            statusCounts.decrementAndGet(previous.ordinal());
+        }
+        if (isLive(current)) {
+            appliedStockIds.add(record.getStockId());
+        } else {
+            appliedStockIds.remove(record.getStockId());
+        }
+        if (current == Status.WITHDRAWN) {
+            recordsByStock.remove(record.getStockId(), record);
+        }
+        touch();
+    }
+
+    /**
+     * Moves a record of a drawn listing out of the in-memory history; it must already be in the archive.
+     */
+    void onArchived(IPORecord record, RecordArchive archive) {
+        this.archive = archive;
+        HistoryKey key = HistoryKey.of(record);
+        // Index it as archived before dropping the live copy, so concurrent pages never miss it.
+        ArchivedEntry entry = new ArchivedEntry(record.getStockId(), record.getStatus());
+        archivedByStatus.get(record.getStatus()).put(key, entry);
+        archived.put(key, entry);
+        history.remove(key);
+        historyByStatus.get(record.getStatus()).remove(key);
+        recordsByStock.remove(record.getStockId(), record);
+        appliedStockIds.remove(record.getStockId());
+        touch();
+    }
+
+    private static boolean isLive(Status status) {
+        return status == Status.PENDING || status == Status.WON;
+    }
+
+    private record ArchivedEntry(String stockId, Status status) {
+    }
+
+    record HistoryKey(long applyEpochMilli, String recordId) implements Comparable<HistoryKey> {
+
+        static HistoryKey of(IPORecord record) {
+            return new HistoryKey(record.getApplyEpochMilli(), record.getRecordId());
+        }
+
+        String encode() {
+            String raw = applyEpochMilli + ":" + recordId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryKey decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new HistoryKey(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+        }
+
+        @Override
+        public int compareTo(HistoryKey other) {
+            int byTime = Long.compare(applyEpochMilli, other.applyEpochMilli);
+            return byTime != 0 ? byTime : recordId.compareTo(other.recordId);
+        }
+    }
+}
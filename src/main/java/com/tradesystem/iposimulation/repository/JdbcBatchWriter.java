@@ -0,0 +1,292 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind for {@link JdbcDataRepository}: callers enqueue which objects changed and return at
+ * once; a single writer thread drains whatever has accumulated (up to {@code batchSize}) into one
+ * transaction of JDBC batches on statements prepared once at startup. Under load many applications
+ * share a commit; when idle each write commits on its own.
+ * <p>
+ * Column values are read from the live objects when the batch is bound rather than when the change
+ * was enqueued, so concurrent updates to one balance or status always converge on the latest value,
+ * and an object changed several times within a batch is written once.
+ * <p>
+ * A failed batch is rolled back and retried a few times. If it still fails, the writer stops: queued
+ * and later changes are rejected rather than silently dropped, and readers waiting for a flush fail.
+ */
+final class JdbcBatchWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcBatchWriter.class);
+
+    private static final String MERGE_INVESTOR =
+            "MERGE INTO investor (investor_id, display_name, balance) KEY (investor_id) VALUES (?, ?, ?)";
+    private static final String MERGE_STOCK =
+            "MERGE INTO stock (stock_id, stock_name, stock_symbol, price, total_quantity, deadline, issuer_name, "
+                    + "draw_executed) KEY (stock_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_RECORD =
+            "INSERT INTO ipo_record (record_id, investor_id, stock_id, quantity, price_per_lot, apply_time, status, "
+                    + "failure_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_RECORD_STATUS =
+            "UPDATE ipo_record SET status = ?, failure_reason = ?, escrow_held = ? WHERE record_id = ?";
+    private static final Object STOP = new Object();
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_NANOS = 100_000_000L;
+
+    private final Connection connection;
+    private final PreparedStatement mergeInvestor;
+    private final PreparedStatement mergeStock;
+    private final PreparedStatement insertRecord;
+    private final PreparedStatement updateRecordStatus;
+    private final int batchSize;
+
+    private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final Object flushed = new Object();
+    private volatile long committed;
+    private volatile SQLException failure;
+    private final Thread thread;
+
+    JdbcBatchWriter(Connection connection, int batchSize) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.connection = connection;
+        this.batchSize = batchSize;
+        connection.setAutoCommit(false);
+        this.mergeInvestor = connection.prepareStatement(MERGE_INVESTOR);
+        this.mergeStock = connection.prepareStatement(MERGE_STOCK);
+        this.insertRecord = connection.prepareStatement(INSERT_RECORD);
+        this.updateRecordStatus = connection.prepareStatement(UPDATE_RECORD_STATUS);
+        this.thread = new Thread(this::run, "ipo-jdbc-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void investorChanged(Investor investor) {
+        submit(investor);
+    }
+
+    void stockChanged(IPOStock stock) {
+        submit(stock);
+    }
+
+    void recordInserted(IPORecord record) {
+        submit(new Inserted(record));
+    }
+
+    void recordChanged(IPORecord record) {
+        submit(record);
+    }
+
+    private void submit(Object write) {
+        SQLException failed = failure;
+        if (failed != null) {
+            throw new IllegalStateException("JDBC write-behind failed; no further changes are accepted", failed);
+        }
+        submitted.incrementAndGet();
+        queue.add(write);
+    }
+
+    /**
+     * Blocks until everything enqueued before this call is committed; readers that query SQL call
+     * this first so they observe their own writes.
+     *
+     * @throws IllegalStateException if a batch could not be written, even after retries
+     */
+    void awaitFlushed() {
+        long target = submitted.get();
+        if (committed < target) {
+            synchronized (flushed) {
+                while (committed < target) {
+                    try {
+                        flushed.wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted waiting for JDBC writes", ex);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("JDBC write-behind failed", failure);
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            stopping = batch.remove(STOP);
+            if (failure == null) {
+                failure = writeWithRetry(batch);
+            } else if (!batch.isEmpty()) {
+                log.error("Discarding {} changes after an earlier JDBC write failure", batch.size());
+            }
+            synchronized (flushed) {
+                committed += batch.size();
+                flushed.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * @return {@code null} once the batch is committed, or the last error after {@link #MAX_ATTEMPTS}
+     */
+    private SQLException writeWithRetry(List<Object> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return null;
+            } catch (SQLException ex) {
+                rollbackQuietly();
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Failed to write batch of {} changes after {} attempts; rejecting further writes",
+                            batch.size(), attempt, ex);
+                    return ex;
+                }
+                log.warn("Failed to write batch of {} changes (attempt {} of {}): {}", batch.size(), attempt,
+                        MAX_ATTEMPTS, ex.toString());
+                LockSupport.parkNanos(RETRY_BACKOFF_NANOS * attempt);
+            }
+        }
+    }
+
+    private void write(List<Object> batch) throws SQLException {
+        // Model classes use identity equality, so these sets dedupe per object and keep arrival order;
+        // inserts keep their application order in the seq column.
+        Set<Investor> investors = new LinkedHashSet<>();
+        Set<IPOStock> stocks = new LinkedHashSet<>();
+        Set<IPORecord> inserted = new LinkedHashSet<>();
+        Set<IPORecord> changed = new LinkedHashSet<>();
+        for (Object write : batch) {
+            if (write instanceof Investor investor) {
+                investors.add(investor);
+            } else if (write instanceof IPOStock stock) {
+                stocks.add(stock);
+            } else if (write instanceof Inserted insert) {
+                inserted.add(insert.record());
+            } else {
+                changed.add((IPORecord) write);
+            }
+        }
+        // The insert binds the current status, so records created in this batch need no update.
+        changed.removeAll(inserted);
+        for (Investor investor : investors) {
+            mergeInvestor.setString(1, investor.getInvestorId());
+            mergeInvestor.setString(2, investor.getDisplayName());
+            mergeInvestor.setBigDecimal(3, investor.getBalance());
+            mergeInvestor.addBatch();
+        }
+        for (IPOStock stock : stocks) {
+            mergeStock.setString(1, stock.getStockId());
+            mergeStock.setString(2, stock.getStockName());
+            mergeStock.setString(3, stock.getStockSymbol());
+            mergeStock.setBigDecimal(4, stock.getPrice());
+            mergeStock.setInt(5, stock.getTotalQuantity());
+            mergeStock.setObject(6, stock.getDeadline());
+            mergeStock.setString(7, stock.getIssuerName());
+            mergeStock.setBoolean(8, stock.isDrawExecuted());
+            mergeStock.addBatch();
+        }
+        for (IPORecord record : inserted) {
+            insertRecord.setString(1, record.getRecordId());
+            insertRecord.setString(2, record.getInvestorId());
+            insertRecord.setString(3, record.getStockId());
+            insertRecord.setInt(4, record.getQuantity());
+            insertRecord.setBigDecimal(5, record.getPricePerLot());
+            insertRecord.setObject(6, record.getApplyTime());
+            insertRecord.setString(7, record.getStatus().name());
+            setNullableString(insertRecord, 8, record.getFailureReason());
+            insertRecord.addBatch();
+        }
+        for (IPORecord record : changed) {
+            updateRecordStatus.setString(1, record.getStatus().name());
+            setNullableString(updateRecordStatus, 2, record.getFailureReason());
+            updateRecordStatus.setBoolean(3, record.isEscrowHeld());
+            updateRecordStatus.setString(4, record.getRecordId());
+            updateRecordStatus.addBatch();
+        }
+        if (!investors.isEmpty()) {
+            mergeInvestor.executeBatch();
+        }
+        if (!stocks.isEmpty()) {
+            mergeStock.executeBatch();
+        }
+        if (!inserted.isEmpty()) {
+            insertRecord.executeBatch();
+        }
+        if (!changed.isEmpty()) {
+            updateRecordStatus.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void setNullableString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+            mergeInvestor.clearBatch();
+            mergeStock.clearBatch();
+            insertRecord.clearBatch();
+            updateRecordStatus.clearBatch();
+        } catch (SQLException ex) {
+            log.warn("Rollback failed", ex);
+        }
+    }
+
+    /**
+     * Commits everything still queued, then stops the writer and closes its connection.
+     */
+    @Override
+    public void close() {
+        // A sentinel rather than an interrupt: interrupting a thread inside H2 file I/O closes the channel.
+        queue.add(STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.warn("Failed to close JDBC writer connection", ex);
+        }
+    }
+
+    /**
+     * Marks a record as newly created, as opposed to a status change of an existing one.
+     */
+    private record Inserted(IPORecord record) {
+    }
+}
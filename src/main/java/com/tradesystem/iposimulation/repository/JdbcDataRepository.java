@@ -0,0 +1,521 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.time.IPOClock;
+import jakarta.annotation.PreDestroy;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link IPORepository} on an embedded H2 database, selected with {@code ipo.repository=jdbc}.
+ * <p>
+ * Writes go through a {@link JdbcBatchWriter}, so the apply path enqueues and returns while a single
+ * writer commits accumulated changes in JDBC batches. Record finders run as SQL against indexes laid
+ * out for them ({@code db/ipo-schema.sql}) after waiting for pending writes, and resolve rows through
+ * an identity map so every caller shares the instances the services mutate. Lookups by id, the
+ * display catalog, investor views and the duplicate check are served from memory as with
+ * {@link DataRepository}.
+ * <p>
+ * The database adds durability and indexed finders, not capacity: every record stays resident in
+ * the identity map and its investor's view, and SQL only selects which ids to return. Heap use
+ * therefore grows with the record count exactly as with the in-memory backend.
+ * <p>
+ * With a file URL ({@code jdbc:h2:file:...}) the previous run's data is loaded at startup; the demo
+ * data is only seeded into an empty database.
+ */
+@Component
+@ConditionalOnProperty(name = "ipo.repository", havingValue = "jdbc")
+public class JdbcDataRepository implements IPORepository {
+
+    private static final String RECORD_COLUMNS =
+            "record_id, investor_id, stock_id, quantity, price_per_lot, apply_time, status, failure_reason, escrow_held";
+    private static final String FIND_BY_STOCK = "SELECT record_id FROM ipo_record WHERE stock_id = ? ORDER BY seq";
+    private static final String FIND_BY_STOCK_AND_STATUS =
+            "SELECT record_id FROM ipo_record WHERE stock_id = ? AND status = ? ORDER BY seq";
+    private static final String FIND_BY_INVESTOR =
+            "SELECT record_id FROM ipo_record WHERE investor_id = ? ORDER BY seq";
+
+    private final ConcurrentHashMap<String, Investor> investors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, IPOStock> stocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, IPORecord> records = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> stockReservations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, InvestorRecordView> investorViews = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> stockNames = new ConcurrentHashMap<>();
+    private final Map<String, String> stockNamesView = Collections.unmodifiableMap(stockNames);
+    private final Map<String, AtomicInteger> reservedLotsView = Collections.unmodifiableMap(stockReservations);
+    private final LongAdder reservationChanges = new LongAdder();
+
+    private final AtomicInteger investorSeq = new AtomicInteger(1000);
+    private final AtomicInteger stockSeq = new AtomicInteger(2000);
+    private final AtomicInteger recordSeq = new AtomicInteger(3000);
+
+    private final CopyOnWriteArrayList<RepositoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final StockDeadlineIndex deadlineIndex = new StockDeadlineIndex(
+            stock -> listeners.forEach(listener -> listener.onSubscriptionClosed(stock)));
+    private final IPOClock clock;
+    private final IPOCatalog catalog;
+    private final JdbcConnectionPool readers;
+    private final JdbcBatchWriter writer;
+
+    public JdbcDataRepository(IPOClock clock, String url) {
+        this(clock, url, 512, true);
+    }
+
+    @Autowired
+    public JdbcDataRepository(IPOClock clock,
+                              @Value("${ipo.repository.jdbc.url:jdbc:h2:mem:ipo}") String url,
+                              @Value("${ipo.repository.jdbc.batch-size:512}") int batchSize) {
+        this(clock, url, batchSize, true);
+    }
+
+    /**
+     * @param batchSize    most changes committed in one transaction
+     * @param seedDemoData whether to seed the demo investor and listings into an empty database
+     */
+    public JdbcDataRepository(IPOClock clock, String url, int batchSize, boolean seedDemoData) {
+        this.clock = clock;
+        this.catalog = new IPOCatalog(deadlineIndex, clock);
+        try {
+            Connection writerConnection = DriverManager.getConnection(url, "sa", "");
+            createSchema(writerConnection);
+            this.readers = JdbcConnectionPool.create(url, "sa", "");
+            this.writer = new JdbcBatchWriter(writerConnection, batchSize);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot open " + url, ex);
+        }
+        load();
+        if (seedDemoData && investors.isEmpty() && stocks.isEmpty()) {
+            DemoData.seed(this);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        String script;
+        try (InputStream in = JdbcDataRepository.class.getResourceAsStream("/db/ipo-schema.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                String trimmed = sql.replaceAll("(?m)^\\s*--.*$", "").trim();
+                if (!trimmed.isEmpty()) {
+                    statement.execute(trimmed);
+                }
+            }
+        }
+    }
+
+    private void load() {
+        try (Connection connection = readers.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT investor_id, display_name, balance FROM investor")) {
+                while (rs.next()) {
+                    Investor investor = new Investor(rs.getString(1), rs.getString(2), rs.getBigDecimal(3));
+                    investors.put(investor.getInvestorId(), investor);
+                    bumpPast(investorSeq, investor.getInvestorId());
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT stock_id, stock_name, stock_symbol, price, "
+                    + "total_quantity, deadline, issuer_name, draw_executed FROM stock")) {
+                while (rs.next()) {
+                    IPOStock stock = new IPOStock(rs.getString(1), rs.getString(2), rs.getString(3),
+                            rs.getBigDecimal(4), rs.getInt(5), rs.getObject(6, LocalDateTime.class), rs.getString(7));
+                    if (rs.getBoolean(8)) {
+                        stock.markDrawExecuted();
+                    }
+                    index(stock);
+                    bumpPast(stockSeq, stock.getStockId());
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT " + RECORD_COLUMNS + " FROM ipo_record ORDER BY seq")) {
+                while (rs.next()) {
+                    IPORecord record = new IPORecord(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                            rs.getBigDecimal(5), rs.getObject(6, LocalDateTime.class), Status.valueOf(rs.getString(7)));
+                    if (rs.getString(8) != null) {
+                        record.markFailed(record.getStatus(), rs.getString(8));
+                    } else if (record.getStatus() == Status.LOST && rs.getBoolean(9)) {
+                        record.markLost(true);
+                    }
+                    records.put(record.getRecordId(), record);
+                    investorView(record.getInvestorId()).onSaved(record);
+                    if ((record.getStatus() == Status.PENDING || record.isEscrowHeld())
+                            && investors.containsKey(record.getInvestorId())) {
+                        // The stored balance excludes subscriptions still in escrow.
+                        investors.get(record.getInvestorId()).restoreLockedFunds(
+                                record.getPricePerLot().multiply(BigDecimal.valueOf(record.getQuantity())));
+                    }
+                    // A withdrawal released its lots, as the live path does through releaseStockLots.
+                    AtomicInteger reserved = stockReservations.computeIfAbsent(record.getStockId(),
+                            key -> new AtomicInteger());
+                    if (record.getStatus() != Status.WITHDRAWN) {
+                        reserved.addAndGet(record.getQuantity());
+                    }
+                    bumpPast(recordSeq, record.getRecordId());
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot load repository", ex);
+        }
+        catalog.rebuild();
+    }
+
+    private static void bumpPast(AtomicInteger sequence, String id) {
+        int dash = id.lastIndexOf('-');
+        try {
+            int value = Integer.parseInt(id.substring(dash + 1));
+            sequence.accumulateAndGet(value, Math::max);
+        } catch (NumberFormatException ex) {
+            // Ids not minted by this repository, e.g. registered usernames, do not affect the sequence.
+        }
+    }
+
+    @Override
+    public IPOClock clock() {
+        return clock;
+    }
+
+    @Override
+    public String nextInvestorId() {
+        return "INV-" + investorSeq.incrementAndGet();
+    }
+
+    @Override
+    public String nextStockId() {
+        return "STK-" + stockSeq.incrementAndGet();
+    }
+
+    @Override
+    public String nextRecordId() {
+        return "REC-" + recordSeq.incrementAndGet();
+    }
+
+    @Override
+    public Collection<Investor> findAllInvestors() {
+        return investors.values();
+    }
+
+    @Override
+    public Optional<Investor> findInvestor(String investorId) {
+        return Optional.ofNullable(investors.get(investorId));
+    }
+
+    @Override
+    public synchronized Investor saveInvestor(Investor investor) {
+        investors.put(investor.getInvestorId(), investor);
+        writer.investorChanged(investor);
+        investorView(investor.getInvestorId()).touch();
+        return investor;
+    }
+
+    @Override
+    public IPOStock saveStock(IPOStock stock) {
+        index(stock);
+        writer.stockChanged(stock);
+        catalog.rebuild();
+        listeners.forEach(listener -> listener.onStockSaved(stock));
+        return stock;
+    }
+
+    private void index(IPOStock stock) {
+        IPOStock previous = stocks.put(stock.getStockId(), stock);
+        if (previous != null) {
+            deadlineIndex.remove(previous);
+        }
+        deadlineIndex.add(stock, clock.millis());
+        stockNames.put(stock.getStockId(), stock.getStockName());
+        stockReservations.putIfAbsent(stock.getStockId(), new AtomicInteger(0));
+    }
+
+    @Override
+    public void markDrawExecuted(IPOStock stock) {
+        stock.markDrawExecuted();
+        writer.stockChanged(stock);
+        deadlineIndex.markDrawn(stock);
+        catalog.rebuild();
+        listeners.forEach(listener -> listener.onDrawExecuted(stock));
+    }
+
+    @Override
+    public Optional<IPOStock> findStock(String stockId) {
+        return Optional.ofNullable(stocks.get(stockId));
+    }
+
+    @Override
+    public List<IPOStock> findOpenStocks(long now) {
+        return deadlineIndex.open(now);
+    }
+
+    @Override
+    public List<IPOStock> findClosedStocks(long now) {
+        return deadlineIndex.closed(now);
+    }
+
+    @Override
+    public List<IPOStock> findAllStocks() {
+        return List.copyOf(stocks.values());
+    }
+
+    @Override
+    public Map<String, String> stockNameDictionary() {
+        return stockNamesView;
+    }
+
+    @Override
+    public long catalogVersion() {
+        return catalog.version();
+    }
+
+    @Override
+    public List<IPOStock> findStocksForDisplay() {
+        return catalog.stocks();
+    }
+
+    /**
+     * Also persists the applicant's balance, which {@code IPOService.apply} debits just before.
+     */
+    @Override
+    public IPORecord saveRecord(IPORecord record) {
+        records.put(record.getRecordId(), record);
+        writer.recordInserted(record);
+        balanceMayHaveChanged(record);
+        investorView(record.getInvestorId()).onSaved(record);
+        listeners.forEach(listener -> listener.onRecordSaved(record));
+        return record;
+    }
+
+    @Override
+    public void markWon(IPORecord record) {
+        Status previous = record.getStatus();
+        record.markWon();
+        statusChanged(record, previous, Status.WON);
+    }
+
+    /**
+     * Also persists the investor's balance, which a refunding draw credits just before.
+     */
+    @Override
+    public void markLost(IPORecord record, boolean escrowHeld) {
+        Status previous = record.getStatus();
+        record.markLost(escrowHeld);
+        balanceMayHaveChanged(record);
+        statusChanged(record, previous, Status.LOST);
+    }
+
+    @Override
+    public void markEscrowReleased(IPORecord record) {
+        record.markEscrowReleased();
+        writer.recordChanged(record);
+    }
+
+    @Override
+    public void markFailed(IPORecord record, Status failureStatus, String reason) {
+        Status previous = record.getStatus();
+        record.markFailed(failureStatus, reason);
+        balanceMayHaveChanged(record);
+        statusChanged(record, previous, failureStatus);
+    }
+
+    /**
+     * Also persists the investor's balance, which the withdrawal credits just before.
+     */
+    @Override
+    public void markWithdrawn(IPORecord record) {
+        Status previous = record.getStatus();
+        record.markWithdrawn();
+        balanceMayHaveChanged(record);
+        statusChanged(record, previous, Status.WITHDRAWN);
+    }
+
+    private void balanceMayHaveChanged(IPORecord record) {
+        Investor investor = investors.get(record.getInvestorId());
+        if (investor != null) {
+            writer.investorChanged(investor);
+        }
+    }
+
+    private void statusChanged(IPORecord record, Status previous, Status current) {
+        writer.recordChanged(record);
+        investorView(record.getInvestorId()).onStatusChanged(record, previous, current);
+        listeners.forEach(listener -> listener.onRecordStatusChanged(record, previous));
+    }
+
+    @Override
+    public void addListener(RepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(RepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public InvestorRecordView investorView(String investorId) {
+        return investorViews.computeIfAbsent(investorId, InvestorRecordView::new);
+    }
+
+    @Override
+    public List<IPORecord> findRecordsByInvestor(String investorId) {
+        return query(FIND_BY_INVESTOR, investorId, null);
+    }
+
+    @Override
+    public List<IPORecord> findRecordsByStock(String stockId) {
+        return query(FIND_BY_STOCK, stockId, null);
+    }
+
+    /**
+     * Iterates a copy; use the in-memory backend for constant-memory exports.
+     */
+    @Override
+    public Iterator<IPORecord> iterateRecordsByStock(String stockId) {
+        return findRecordsByStock(stockId).iterator();
+    }
+
+    @Override
+    public int countRecords() {
+        return records.size();
+    }
+
+    @Override
+    public int countInvestors() {
+        return investors.size();
+    }
+
+    @Override
+    public int countStocks() {
+        return stocks.size();
+    }
+
+    @Override
+    public boolean hasRecord(String investorId, String stockId) {
+        InvestorRecordView view = investorViews.get(investorId);
+        return view != null && view.hasRecord(stockId);
+    }
+
+    @Override
+    public List<IPORecord> findPendingByStock(String stockId) {
+        return query(FIND_BY_STOCK_AND_STATUS, stockId, Status.PENDING);
+    }
+
+    private List<IPORecord> query(String sql, String key, Status status) {
+        writer.awaitFlushed();
+        // Pooled connections keep H2's per-session parsed-statement cache, so re-preparing is a lookup.
+        try (Connection connection = readers.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, key);
+            if (status != null) {
+                statement.setString(2, status.name());
+            }
+            List<IPORecord> found = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    IPORecord record = records.get(rs.getString(1));
+                    if (record != null) {
+                        found.add(record);
+                    }
+                }
+            }
+            return found;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Query failed: " + sql, ex);
+        }
+    }
+
+    @Override
+    public boolean reserveStockLots(String stockId, int quantity, int maxLots) {
+        AtomicInteger counter = stockReservations.computeIfAbsent(stockId, key -> new AtomicInteger(0));
+        while (true) {
+            int current = counter.get();
+            if (current + quantity > maxLots) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + quantity)) {
+                reservationChanges.increment();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, ? extends Number> reservedLotsView() {
+        return reservedLotsView;
+    }
+
+    @Override
+    public void releaseStockLots(String stockId, int quantity) {
+        AtomicInteger counter = stockReservations.get(stockId);
+        if (counter == null) {
+            return;
+        }
+        counter.updateAndGet(value -> Math.max(0, value - quantity));
+        reservationChanges.increment();
+    }
+
+    @Override
+    public long reservationVersion() {
+        return reservationChanges.sum();
+    }
+
+    @Override
+    public void reset() {
+        writer.awaitFlushed();
+        try (Connection connection = readers.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE ipo_record RESTART IDENTITY");
+            statement.execute("TRUNCATE TABLE stock");
+            statement.execute("TRUNCATE TABLE investor");
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot reset repository", ex);
+        }
+        investors.clear();
+        stocks.clear();
+        deadlineIndex.clear();
+        records.clear();
+        investorViews.clear();
+        stockNames.clear();
+        stockReservations.clear();
+        listeners.forEach(RepositoryListener::onReset);
+        DemoData.seed(this);
+    }
+
+    /**
+     * Commits pending writes and closes the database connections.
+     */
+    @Override
+    @PreDestroy
+    public void close() {
+        catalog.close();
+        writer.close();
+        readers.dispose();
+    }
+}
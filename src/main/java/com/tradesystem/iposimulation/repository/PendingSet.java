@@ -0,0 +1,39 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stock's applications awaiting the draw. Adding and removing are single hash operations, so a
+ * withdrawal or allocation never scans the stock's records; each entry carries its arrival number so
+ * the draw can still see applications in the order they were made.
+ */
+final class PendingSet {
+
+    private final AtomicLong arrivals = new AtomicLong();
+    // IPORecord uses identity equality, so this is keyed per instance.
+    private final ConcurrentHashMap<IPORecord, Long> records = new ConcurrentHashMap<>();
+
+    void add(IPORecord record) {
+        records.put(record, arrivals.getAndIncrement());
+    }
+
+    void remove(IPORecord record) {
+        records.remove(record);
+    }
+
+    List<IPORecord> inArrivalOrder() {
+        List<Map.Entry<IPORecord, Long>> entries = new ArrayList<>(records.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        List<IPORecord> ordered = new ArrayList<>(entries.size());
+        for (Map.Entry<IPORecord, Long> entry : entries) {
+            ordered.add(entry.getKey());
+        }
+        return ordered;
+    }
+}
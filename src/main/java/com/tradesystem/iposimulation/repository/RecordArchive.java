@@ -0,0 +1,225 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed, write-once segment per drawn listing, holding all of its application records:
+ * <pre>
+ * header: "IPOSEG" version:u8 stockId:utf count:i32
+ * record: recordId:utf investorId:utf quantity:i32 pricePerLot:utf applyEpochMillis:i64 status:u8
+ *         hasReason:bool [failureReason:utf]
+ * </pre>
+ * Segments are read back whole and kept in a small LRU cache, so paging through an investor's old
+ * history touches each segment's file once while it stays hot. Exports stream a segment record by
+ * record instead, see {@link #iterate(String)}.
+ */
+public class RecordArchive {
+
+    static final byte[] MAGIC = {'I', 'P', 'O', 'S', 'E', 'G'};
+    static final int VERSION = 1;
+    private static final Status[] STATUSES = Status.values();
+
+    private final Path directory;
+    private final Map<String, Map<String, IPORecord>> cache;
+
+    /**
+     * @param cachedSegments how many decoded segments to keep in memory
+     */
+    public RecordArchive(Path directory, int cachedSegments) {
+        this.directory = directory;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, IPORecord>> eldest) {
+                return size() > cachedSegments;
+            }
+        });
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes the listing's segment; the file only appears once it is complete.
+     */
+    void write(IPOStock stock, Collection<IPORecord> records) throws IOException {
+        Path target = segment(stock.getStockId());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(stock.getStockId());
+            out.writeInt(records.size());
+            for (IPORecord record : records) {
+                out.writeUTF(record.getRecordId());
+                out.writeUTF(record.getInvestorId());
+                out.writeInt(record.getQuantity());
+                out.writeUTF(record.getPricePerLot().toPlainString());
+                out.writeLong(record.getApplyEpochMilli());
+                out.writeByte(record.getStatus().ordinal());
+                out.writeBoolean(record.getFailureReason() != null);
+                if (record.getFailureReason() != null) {
+                    out.writeUTF(record.getFailureReason());
+                }
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The listing's records in application order, read from disk unless the segment is cached.
+     */
+    public Collection<IPORecord> load(String stockId) {
+        return segmentRecords(stockId).values();
+    }
+
+    /**
+     * The listing's records in application order, decoded one at a time from disk unless the segment is
+     * cached; an uncached segment is not added to the cache. The returned iterator is
+     * {@link Closeable} and releases its file once drained or closed.
+     */
+    public Iterator<IPORecord> iterate(String stockId) {
+        Map<String, IPORecord> cached = cache.get(stockId);
+        if (cached != null) {
+            return cached.values().iterator();
+        }
+        try {
+            return new SegmentReader(stockId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read archive segment for " + stockId, ex);
+        }
+    }
+
+    /**
+     * One archived record, or {@code null} if the segment does not contain it.
+     */
+    public IPORecord find(String stockId, String recordId) {
+        return segmentRecords(stockId).get(recordId);
+    }
+
+    private Map<String, IPORecord> segmentRecords(String stockId) {
+        Map<String, IPORecord> records = cache.get(stockId);
+        if (records == null) {
+            records = read(stockId);
+            cache.put(stockId, records);
+        }
+        return records;
+    }
+
+    private Map<String, IPORecord> read(String stockId) {
+        try (SegmentReader segment = new SegmentReader(stockId)) {
+            Map<String, IPORecord> records = new LinkedHashMap<>(segment.count * 4 / 3 + 1);
+            while (segment.hasNext()) {
+                IPORecord record = segment.next();
+                records.put(record.getRecordId(), record);
+            }
+            return Collections.unmodifiableMap(records);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read archive segment for " + stockId, ex);
+        }
+    }
+
+    private Path segment(String stockId) {
+        return directory.resolve(stockId + ".seg.gz");
+    }
+
+    /**
+     * Decodes a segment's records in file order, closing the file after the last one.
+     */
+    private final class SegmentReader implements Iterator<IPORecord>, Closeable {
+
+        private final DataInputStream in;
+        private final String stockId;
+        private final int count;
+        private int read;
+
+        SegmentReader(String stockId) throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(segment(stockId)))));
+            try {
+                byte[] magic = new byte[MAGIC.length];
+                in.readFully(magic);
+                if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+                    throw new IOException("Not an archive segment: " + segment(stockId));
+                }
+                this.stockId = in.readUTF();
+                this.count = in.readInt();
+            } catch (IOException ex) {
+                in.close();
+                throw ex;
+            }
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (read < count) {
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public IPORecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            read++;
+            try {
+                String recordId = in.readUTF();
+                String investorId = in.readUTF();
+                int quantity = in.readInt();
+                BigDecimal price = new BigDecimal(in.readUTF());
+                LocalDateTime applyTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()),
+                        ZoneId.systemDefault());
+                Status status = STATUSES[in.readUnsignedByte()];
+                IPORecord record = new IPORecord(recordId, investorId, stockId, quantity, price, applyTime, status);
+                if (in.readBoolean()) {
+                    record.markFailed(status, in.readUTF());
+                }
+                return record;
+            } catch (IOException ex) {
+                close();
+                throw new UncheckedIOException("Cannot read archive segment for " + stockId, ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
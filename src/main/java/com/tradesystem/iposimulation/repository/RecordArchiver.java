@@ -0,0 +1,70 @@
+package com.tradesystem.iposimulation.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically archives listings drawn more than {@code ipo.archive.retention} ago (engine clock
+ * time) into {@code ipo.archive.directory}. Only the in-memory backend supports archival, so only its
+ * heap is bounded by it. {@link JdbcDataRepository} keeps every record resident as well, and its heap
+ * grows with the record count whatever this setting says.
+ */
+@Component
+@ConditionalOnExpression("${ipo.archive.enabled:false} and '${ipo.repository:memory}' == 'memory'")
+public class RecordArchiver implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordArchiver.class);
+
+    private final DataRepository repository;
+    private final Duration retention;
+    private final ScheduledExecutorService sweeper;
+
+    public RecordArchiver(DataRepository repository,
+                          @Value("${ipo.archive.directory:ipo-archive}") Path directory,
+                          @Value("${ipo.archive.retention:7d}") Duration retention,
+                          @Value("${ipo.archive.cached-segments:64}") int cachedSegments,
+                          @Value("${ipo.archive.sweep-interval-ms:60000}") long sweepIntervalMillis) {
+        this.repository = repository;
+        this.retention = retention;
+        repository.attachArchive(new RecordArchive(directory, cachedSegments));
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ipo-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Archives everything past retention now.
+     *
+     * @return the number of listings archived
+     */
+    public int sweep() {
+        try {
+            int archived = repository.archiveDrawnBefore(repository.clock().millis() - retention.toMillis());
+            if (archived > 0) {
+                log.info("Archived {} drawn listing(s) older than {}", archived, retention);
+            }
+            return archived;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Archive sweep failed", ex);
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+
+import java.util.Collection;
+
+/**
+ * Callback for components that derive state from {@link IPORepository} changes.
+ * <p>
+ * Callbacks run synchronously on the mutating thread, so implementations must be cheap and must
+ * not call back into the repository's write methods.
+ */
+public interface RepositoryListener {
+
+    default void onStockSaved(IPOStock stock) {
+    }
+
+    /**
+     * A listing's deadline passed and it moved to the closed-awaiting-draw bucket.
+     */
+    default void onSubscriptionClosed(IPOStock stock) {
+    }
+
+    default void onDrawExecuted(IPOStock stock) {
+    }
+
+    default void onRecordSaved(IPORecord record) {
+    }
+
+    default void onRecordStatusChanged(IPORecord record, Status previous) {
+    }
+
+    /**
+     * A drawn listing and its records moved out of the heap into the archive. The records stay
+     * readable through investor views and {@link IPORepository#iterateRecordsByStock}.
+     */
+    default void onListingArchived(IPOStock stock, Collection<IPORecord> records) {
+    }
+
+    /**
+     * The repository dropped all its data; the demo data it reseeds follows through the usual callbacks.
+     */
+    default void onReset() {
+    }
+}
@@ -0,0 +1,127 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A frozen copy of a {@link DataRepository}'s in-heap data, taken with {@link DataRepository#snapshot()}
+ * and used as the base of any number of forks; see {@link DataRepository#DataRepository(
+ * com.tradesystem.iposimulation.time.IPOClock, RepositorySnapshot)}.
+ * <p>
+ * Taking a snapshot copies every investor, listing and record once. Nothing mutates those copies
+ * afterwards, so forks share them and copy a listing's records, an investor or an investor's
+ * history only when they first touch it. Records of archived listings are not included.
+ */
+public final class RepositorySnapshot {
+
+    private final long takenAtMillis;
+    private final List<IPOStock> stocks;
+    private final Map<String, Investor> investors;
+    private final Map<String, List<IPORecord>> recordsByStock;
+    private final Map<String, List<IPORecord>> recordsByInvestor;
+    private final Map<String, BigDecimal> pendingAmounts;
+    private final Map<String, Integer> reservedLots;
+    private final Map<String, Long> drawnAt;
+    private final Map<String, String> stockNames;
+    private final int recordCount;
+    private final int investorSeq;
+    private final int stockSeq;
+    private final int recordSeq;
+
+    RepositorySnapshot(long takenAtMillis, List<IPOStock> stocks, Map<String, Investor> investors,
+                       Map<String, List<IPORecord>> recordsByStock, Map<String, List<IPORecord>> recordsByInvestor,
+                       Map<String, BigDecimal> pendingAmounts, Map<String, Integer> reservedLots,
+                       Map<String, Long> drawnAt, Map<String, String> stockNames, int recordCount,
+                       int investorSeq, int stockSeq, int recordSeq) {
+        this.takenAtMillis = takenAtMillis;
+        this.stocks = stocks;
+        this.investors = investors;
+        this.recordsByStock = recordsByStock;
+        this.recordsByInvestor = recordsByInvestor;
+        this.pendingAmounts = pendingAmounts;
+        this.reservedLots = reservedLots;
+        this.drawnAt = drawnAt;
+        this.stockNames = stockNames;
+        this.recordCount = recordCount;
+        this.investorSeq = investorSeq;
+        this.stockSeq = stockSeq;
+        this.recordSeq = recordSeq;
+    }
+
+    /**
+     * Engine time the snapshot was taken at.
+     */
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+
+    public int countRecords() {
+        return recordCount;
+    }
+
+    public int countInvestors() {
+        return investors.size();
+    }
+
+    public int countStocks() {
+        return stocks.size();
+    }
+
+    List<IPOStock> stocks() {
+        return stocks;
+    }
+
+    Map<String, Investor> investors() {
+        return investors;
+    }
+
+    List<IPORecord> recordsOfStock(String stockId) {
+        return recordsByStock.getOrDefault(stockId, List.of());
+    }
+
+    List<IPORecord> recordsOfInvestor(String investorId) {
+        return recordsByInvestor.getOrDefault(investorId, List.of());
+    }
+
+    boolean hasRecordsOfInvestor(String investorId) {
+        return recordsByInvestor.containsKey(investorId);
+    }
+
+    Set<String> investorIdsWithRecords() {
+        return recordsByInvestor.keySet();
+    }
+
+    BigDecimal pendingAmount(String stockId) {
+        return pendingAmounts.getOrDefault(stockId, BigDecimal.ZERO);
+    }
+
+    int reservedLots(String stockId) {
+        return reservedLots.getOrDefault(stockId, 0);
+    }
+
+    Map<String, Long> drawnAt() {
+        return drawnAt;
+    }
+
+    Map<String, String> stockNames() {
+        return stockNames;
+    }
+
+    int investorSeq() {
+        return investorSeq;
+    }
+
+    int stockSeq() {
+        return stockSeq;
+    }
+
+    int recordSeq() {
+        return recordSeq;
+    }
+}
@@ -0,0 +1,143 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Listings bucketed by lifecycle phase and ordered by deadline epoch-millis.
+ * <p>
+ * Listings migrate from {@code open} to {@code closed} lazily: every query first moves the expired
+ * head of the open bucket, which costs {@code O(log n)} per migrated listing. Queries then read a
+ * contiguous range, so listing open or closed stocks is {@code O(log n + k)} regardless of how many
+ * drawn listings have accumulated. Reads are lock-free; the rare structural moves are serialized.
+ */
+public final class StockDeadlineIndex {
+
+    private final ConcurrentSkipListMap<DeadlineKey, IPOStock> open = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<DeadlineKey, IPOStock> closed = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<DeadlineKey, IPOStock> drawn = new ConcurrentSkipListMap<>();
+    private final Consumer<IPOStock> onClosed;
+
+    public StockDeadlineIndex() {
+        this(stock -> {
+        });
+    }
+
+    /**
+     * @param onClosed invoked once per listing as it migrates from open to closed, outside the lock
+     */
+    public StockDeadlineIndex(Consumer<IPOStock> onClosed) {
+        this.onClosed = onClosed;
+    }
+
+    synchronized void add(IPOStock stock, long now) {
+        DeadlineKey key = DeadlineKey.of(stock);
+        if (stock.isDrawExecuted()) {
+            drawn.put(key, stock);
+        } else if (stock.getDeadlineEpochMilli() < now) {
+            closed.put(key, stock);
+        } else {
+            open.put(key, stock);
+        }
+    }
+
+    synchronized void markDrawn(IPOStock stock) {
+        DeadlineKey key = DeadlineKey.of(stock);
+        // Insert before removing so concurrent readers never miss the listing entirely.
+        drawn.put(key, stock);
+        open.remove(key);
+        closed.remove(key);
+    }
+
+    synchronized void remove(IPOStock stock) {
+        DeadlineKey key = DeadlineKey.of(stock);
+        open.remove(key);
+        closed.remove(key);
+        drawn.remove(key);
+    }
+
+    synchronized void clear() {
+        open.clear();
+        closed.clear();
+        drawn.clear();
+    }
+
+    /**
+     * Listings still accepting applications at {@code now}, earliest deadline first.
+     */
+    public List<IPOStock> open(long now) {
+        advance(now);
+        return List.copyOf(open.tailMap(DeadlineKey.lowest(now + 1)).values());
+    }
+
+    /**
+     * Listings whose deadline has passed but whose draw has not run yet, earliest deadline first.
+     */
+    public List<IPOStock> closed(long now) {
+        advance(now);
+        return List.copyOf(closed.values());
+    }
+
+    public List<IPOStock> drawn() {
+        return List.copyOf(drawn.values());
+    }
+
+    /**
+     * All listings in display order: open, then closed, then drawn, each by deadline.
+     */
+    public List<IPOStock> displayOrder(long now) {
+        advance(now);
+        List<IPOStock> ordered = new ArrayList<>(open.size() + closed.size() + drawn.size());
+        ordered.addAll(open.values());
+        ordered.addAll(closed.values());
+        ordered.addAll(drawn.values());
+        return ordered;
+    }
+
+    /**
+     * Deadline of the next open listing to close, or {@link Long#MAX_VALUE} when none is open.
+     */
+    public long nextDeadline(long now) {
+        advance(now);
+        Map.Entry<DeadlineKey, IPOStock> head = open.firstEntry();
+        return head == null ? Long.MAX_VALUE : head.getKey().deadline();
+    }
+
+    private void advance(long now) {
+        Map.Entry<DeadlineKey, IPOStock> head = open.firstEntry();
+        if (head == null || head.getKey().deadline() >= now) {
+            return;
+        }
+        List<IPOStock> migrated = new ArrayList<>();
+        synchronized (this) {
+            while ((head = open.firstEntry()) != null && head.getKey().deadline() < now) {
+                closed.put(head.getKey(), head.getValue());
+                open.remove(head.getKey());
+                migrated.add(head.getValue());
+            }
+        }
+        migrated.forEach(onClosed);
+    }
+
+    record DeadlineKey(long deadline, String stockId) implements Comparable<DeadlineKey> {
+
+        static DeadlineKey of(IPOStock stock) {
+            return new DeadlineKey(stock.getDeadlineEpochMilli(), stock.getStockId());
+        }
+
+        static DeadlineKey lowest(long deadline) {
+            return new DeadlineKey(deadline, "");
+        }
+
+        @Override
+        public int compareTo(DeadlineKey other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : stockId.compareTo(other.stockId);
+        }
+    }
+}
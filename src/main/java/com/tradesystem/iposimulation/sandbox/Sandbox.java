@@ -0,0 +1,114 @@
+package com.tradesystem.iposimulation.sandbox;
+
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.export.RecordExporter;
+import com.tradesystem.iposimulation.query.ApplicationIndex;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named, isolated dataset and the services bound to it. The main sandbox is the application's
+ * own dataset; the others are created or forked through {@link SandboxRegistry}.
+ * <p>
+ * Sandbox services run without metrics, traffic capture, the event log or the cash ledger, which
+ * all describe the main dataset.
+ */
+public final class Sandbox {
+
+    /**
+     * Seeded from the wall clock so generations also differ across restarts, which reset every version counter.
+     */
+    private static final AtomicLong GENERATIONS = new AtomicLong(System.currentTimeMillis());
+
+    private final String name;
+    private final String origin;
+    private final IPORepository repository;
+    private final InvestorService investorService;
+    private final IPOService ipoService;
+    private final RecordExporter exporter;
+    private final JsonResponseWriter jsonWriter;
+    private final ApplicationIndex applicationIndex;
+    private final long generation = GENERATIONS.incrementAndGet();
+
+    Sandbox(String name, String origin, IPORepository repository, InvestorService investorService,
+            IPOService ipoService, RecordExporter exporter, JsonResponseWriter jsonWriter) {
+        this.name = name;
+        this.origin = origin;
+        this.repository = repository;
+        this.investorService = investorService;
+        this.ipoService = ipoService;
+        this.exporter = exporter;
+        this.jsonWriter = jsonWriter;
+        this.applicationIndex = new ApplicationIndex(repository);
+    }
+
+    static Sandbox isolated(String name, String origin, IPORepository repository) {
+        InvestorService investorService = new InvestorService(repository);
+        RecordExporter exporter = new RecordExporter(repository);
+        return new Sandbox(name, origin, repository, investorService, new IPOService(repository, investorService),
+                exporter, new JsonResponseWriter(exporter));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * What the sandbox started from: demo data, or the snapshot it was forked from.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public boolean isMain() {
+        return SandboxRegistry.MAIN.equals(name);
+    }
+
+    public IPORepository repository() {
+        return repository;
+    }
+
+    public InvestorService investorService() {
+        return investorService;
+    }
+
+    public IPOService ipoService() {
+        return ipoService;
+    }
+
+    public RecordExporter exporter() {
+        return exporter;
+    }
+
+    /**
+     * Ad-hoc query indexes over the sandbox's applications, built on the first query. In a fork,
+     * that first query adopts every record of the snapshot.
+     */
+    public ApplicationIndex applicationIndex() {
+        return applicationIndex;
+    }
+
+    /**
+     * JSON writer resolving stock names against this sandbox's listings.
+     */
+    public JsonResponseWriter jsonWriter() {
+        return jsonWriter;
+    }
+
+    /**
+     * {@link IPOService#pageVersionTag}, qualified by the sandbox name and generation: sandboxes reuse
+     * ids and version counters, so neither a session that switches sandbox nor one whose sandbox was
+     * removed and recreated under the same name may revalidate a cached page.
+     */
+    public String pageVersionTag(String investorId) {
+        return "W/\"" + name + "-" + generation + "-" + ipoService.pageVersionTag(investorId).substring(3);
+    }
+
+    void close() {
+        applicationIndex.close();
+        repository.close();
+    }
+}
@@ -0,0 +1,197 @@
+package com.tradesystem.iposimulation.sandbox;
+
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.export.RecordExporter;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.repository.RepositorySnapshot;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.IPOClock;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Named simulation sandboxes in one JVM, so what-if scenarios neither clobber each other nor the
+ * main dataset, and the session attribute that binds a user's requests to one of them.
+ * <p>
+ * A sandbox starts either from fresh demo data or as a fork of a named snapshot. Taking a snapshot
+ * copies the source sandbox once; forking it afterwards copies only the listings, and each fork
+ * copies the rest of the snapshot on first use (see {@link DataRepository#DataRepository(IPOClock,
+ * RepositorySnapshot)}), so one snapshot can seed many scenarios cheaply.
+ */
+@Component
+public class SandboxRegistry {
+
+    public static final String MAIN = "main";
+    static final String SESSION_ATTRIBUTE = "SANDBOX";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,40}");
+
+    private final Sandbox main;
+    private final IPOClock clock;
+    private final ConcurrentHashMap<String, Sandbox> sandboxes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RepositorySnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public SandboxRegistry(IPORepository repository, InvestorService investorService, IPOService ipoService,
+                           RecordExporter exporter, JsonResponseWriter jsonWriter) {
+        this.main = new Sandbox(MAIN, null, repository, investorService, ipoService, exporter, jsonWriter);
+        this.clock = repository.clock();
+        sandboxes.put(MAIN, main);
+    }
+
+    public Sandbox main() {
+        return main;
+    }
+
+    /**
+     * The sandbox the session is bound to; main if none is, or if its sandbox has been removed.
+     */
+    public Sandbox of(HttpSession session) {
+        String name = session == null ? null : (String) session.getAttribute(SESSION_ATTRIBUTE);
+        if (name == null) {
+            return main;
+        }
+        return sandboxes.getOrDefault(name, main);
+    }
+
+    /**
+     * Binds the session's subsequent requests to the sandbox; {@link #MAIN} unbinds it.
+     *
+     * @throws IllegalArgumentException if there is no such sandbox
+     */
+    public Sandbox bind(HttpSession session, String name) {
+        Sandbox sandbox = require(name);
+        if (sandbox.isMain()) {
+            session.removeAttribute(SESSION_ATTRIBUTE);
+        } else {
+            session.setAttribute(SESSION_ATTRIBUTE, name);
+        }
+        return sandbox;
+    }
+
+    public Optional<Sandbox> find(String name) {
+        return Optional.ofNullable(sandboxes.get(name));
+    }
+
+    public List<Sandbox> sandboxes() {
+        List<Sandbox> all = new ArrayList<>(sandboxes.values());
+        all.sort((left, right) -> left.getName().compareTo(right.getName()));
+        return all;
+    }
+
+    public Map<String, RepositorySnapshot> snapshots() {
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * Creates a sandbox seeded with the demo investor and listings.
+     *
+     * @throws IllegalStateException if the name is taken
+     */
+    public Sandbox create(String name) {
+        return register(name, () -> new DataRepository(clock), "demo data");
+    }
+
+    /**
+     * Creates a sandbox as a copy-on-write fork of the snapshot.
+     *
+     * @throws IllegalArgumentException if there is no such snapshot
+     * @throws IllegalStateException    if the name is taken
+     */
+    public Sandbox fork(String snapshotName, String name) {
+        RepositorySnapshot snapshot = snapshots.get(snapshotName);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("No snapshot named " + snapshotName);
+        }
+        return register(name, () -> new DataRepository(clock, snapshot), "snapshot " + snapshotName);
+    }
+
+    /**
+     * Freezes a copy of the sandbox's current data under the snapshot name, to fork sandboxes from.
+     *
+     * @throws IllegalArgumentException if there is no such sandbox
+     * @throws IllegalStateException    if the snapshot name is taken or the sandbox is not in memory
+     */
+    public RepositorySnapshot snapshot(String sandboxName, String snapshotName) {
+        checkName(snapshotName);
+        Sandbox sandbox = require(sandboxName);
+        if (!(sandbox.repository() instanceof DataRepository repository)) {
+            throw new IllegalStateException("Snapshots need the in-memory repository");
+        }
+        if (snapshots.containsKey(snapshotName)) {
+            throw new IllegalStateException("Snapshot " + snapshotName + " already exists");
+        }
+        RepositorySnapshot snapshot = repository.snapshot();
+        if (snapshots.putIfAbsent(snapshotName, snapshot) != null) {
+            throw new IllegalStateException("Snapshot " + snapshotName + " already exists");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the sandbox; sessions bound to it fall back to main.
+     */
+    public boolean remove(String name) {
+        if (MAIN.equals(name)) {
+            throw new IllegalArgumentException("The main sandbox cannot be removed");
+        }
+        Sandbox removed = sandboxes.remove(name);
+        if (removed != null) {
+            removed.close();
+        }
+        return removed != null;
+    }
+
+    /**
+     * Drops the snapshot. Sandboxes already forked from it keep working.
+     */
+    public boolean removeSnapshot(String name) {
+        return snapshots.remove(name) != null;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Sandbox sandbox : sandboxes.values()) {
+            if (!sandbox.isMain()) {
+                sandbox.close();
+            }
+        }
+    }
+
+    private Sandbox register(String name, Supplier<IPORepository> repository, String origin) {
+        checkName(name);
+        if (sandboxes.containsKey(name)) {
+            throw new IllegalStateException("Sandbox " + name + " already exists");
+        }
+        Sandbox sandbox = Sandbox.isolated(name, origin, repository.get());
+        if (sandboxes.putIfAbsent(name, sandbox) != null) {
+            sandbox.close();
+            throw new IllegalStateException("Sandbox " + name + " already exists");
+        }
+        return sandbox;
+    }
+
+    private Sandbox require(String name) {
+        Sandbox sandbox = sandboxes.get(name);
+        if (sandbox == null) {
+            throw new IllegalArgumentException("No sandbox named " + name);
+        }
+        return sandbox;
+    }
+
+    private static void checkName(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Names are 1-40 letters, digits, '-' or '_'");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tradesystem.iposimulation.service;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+
+/**
+ * An application refused by {@link IPOService#apply} for a reason the investor can act on, such as an
+ * insufficient balance or a closed subscription window. Any other exception out of {@code apply} is
+ * counted as {@link ApplyOutcome#ERROR}.
+ */
+public class ApplyRejectedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ApplyOutcome outcome;
+
+    public ApplyRejectedException(ApplyOutcome outcome, String message) {
+        super(message);
+        this.outcome = outcome;
+    }
+
+    public ApplyOutcome getOutcome() {
+        return outcome;
+    }
+}
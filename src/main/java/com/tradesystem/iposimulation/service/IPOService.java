@@ -1,43 +1,91 @@
 package com.tradesystem.iposimulation.service;
 
+import com.tradesystem.iposimulation.capture.TrafficCapture;
 import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
 import com.tradesystem.iposimulation.dto.DrawResult;
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.dto.HistoryQuery;
 import com.tradesystem.iposimulation.dto.IPOApplicationResult;
 import com.tradesystem.iposimulation.dto.PublishIPOForm;
+import com.tradesystem.iposimulation.dto.SubscriptionReport;
+import com.tradesystem.iposimulation.eventlog.DomainEvent;
+import com.tradesystem.iposimulation.eventlog.EventRecorder;
+import com.tradesystem.iposimulation.jfr.ApplyEvent;
+import com.tradesystem.iposimulation.jfr.DrawEvent;
+import com.tradesystem.iposimulation.jfr.RefundBatchEvent;
+import com.tradesystem.iposimulation.ledger.Account;
+import com.tradesystem.iposimulation.ledger.CashLedger;
+import com.tradesystem.iposimulation.ledger.JournalEntry;
+import com.tradesystem.iposimulation.logging.ApplyLog;
+import com.tradesystem.iposimulation.metrics.IPOMetrics;
 import com.tradesystem.iposimulation.model.IPORecord;
 import com.tradesystem.iposimulation.model.IPOStock;
 import com.tradesystem.iposimulation.model.Investor;
 import com.tradesystem.iposimulation.model.Status;
-import com.tradesystem.iposimulation.repository.DataRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.tradesystem.iposimulation.mvcc.ReadView;
+import com.tradesystem.iposimulation.mvcc.Versions;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.repository.InvestorRecordView;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
 public class IPOService {
 
-    private static final Logger log = LoggerFactory.getLogger(IPOService.class);
-
-    private final DataRepository repository;
+    private final IPORepository repository;
     private final InvestorService investorService;
+    private final IPOMetrics metrics;
+    private final TrafficCapture capture;
+    private final ApplyLog applyLog;
+    private final EventRecorder events;
+    private final CashLedger ledger;
+    private final SubscriptionEscrow escrow;
 
     private final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<>();
+    // Per stock: withdrawals share the read side, the draw takes the write side.
+    private final ConcurrentHashMap<String, ReadWriteLock> drawLocks = new ConcurrentHashMap<>();
+
+    public IPOService(IPORepository repository, InvestorService investorService) {
+        this(repository, investorService, IPOServiceHooks.DEFAULT);
+    }
 
-    public IPOService(DataRepository repository, InvestorService investorService) {
+    @Autowired
+    public IPOService(IPORepository repository, InvestorService investorService, IPOServiceHooks hooks) {
         this.repository = repository;
         this.investorService = investorService;
+        this.metrics = hooks.metrics();
+        this.capture = hooks.capture();
+        this.applyLog = hooks.applyLog();
+        this.events = hooks.events();
+        this.ledger = hooks.ledger();
+        this.escrow = new SubscriptionEscrow(repository);
     }
 
     public List<IPOStock> listOpenIPOs() {
-        return repository.findOpenStocks(LocalDateTime.now());
+        return repository.findOpenStocks(repository.clock().millis());
+    }
+
+    public List<IPOStock> listClosedIPOs() {
+        return repository.findClosedStocks(repository.clock().millis());
     }
 
     public List<IPOStock> listAllIPOs() {
@@ -45,47 +93,62 @@ public class IPOService {
     }
 
     public List<IPOStock> listIPOsForDisplay() {
-        LocalDateTime now = LocalDateTime.now();
-        return repository.findAllStocks().stream()
-                .sorted(Comparator
-                        .comparingInt((IPOStock stock) -> ipoStatusOrder(stock, now))
-                        .thenComparing(IPOStock::getDeadline))
-                .toList();
+        return repository.findStocksForDisplay();
     }
 
-    private int ipoStatusOrder(IPOStock stock, LocalDateTime now) {
-        if (!stock.isDrawExecuted() && !stock.isExpired(now)) {
-            return 0; // Available
-        }
-        if (!stock.isDrawExecuted() && stock.isExpired(now)) {
-            return 1; // Ended (deadline passed, draw pending)
+    public IPOApplicationResult apply(ApplyIPOForm form) {
+        capture.apply(form.getInvestorId(), form.getStockId());
+        long started = System.nanoTime();
+        ApplyEvent event = new ApplyEvent();
+        event.begin();
+        ApplyOutcome outcome = null;
+        try {
+            IPOApplicationResult result = submit(form, event);
+            outcome = result.getOutcome();
+            return result;
+        } catch (ApplyRejectedException ex) {
+            outcome = ex.getOutcome();
+            throw ex;
+        } catch (RuntimeException ex) {
+            outcome = ApplyOutcome.ERROR;
+            throw ex;
+        } finally {
+            if (outcome != null) {
+                metrics.applyCompleted(outcome, System.nanoTime() - started);
+                applyLog.completed(outcome, form.getInvestorId(), form.getStockId());
+                if (event.shouldCommit()) {
+                    event.investorId = form.getInvestorId();
+                    event.stockId = form.getStockId();
+                    event.outcome = outcome.tag();
+                    event.commit();
+                }
+            }
         }
-        return 2; // Finished (draw executed)
     }
 
-    public IPOApplicationResult apply(ApplyIPOForm form) {
+    private IPOApplicationResult submit(ApplyIPOForm form, ApplyEvent event) {
         Optional<Investor> investorOpt = investorService.findInvestor(form.getInvestorId());
         if (investorOpt.isEmpty()) {
-            return new IPOApplicationResult(false, "Investor not found", null);
+            return new IPOApplicationResult(ApplyOutcome.NOT_FOUND, "Investor not found", null);
         }
         Optional<IPOStock> stockOpt = repository.findStock(form.getStockId());
         if (stockOpt.isEmpty()) {
-            return new IPOApplicationResult(false, "IPO not found", null);
+            return new IPOApplicationResult(ApplyOutcome.NOT_FOUND, "IPO not found", null);
         }
 
         Investor investor = investorOpt.get();
         IPOStock stock = stockOpt.get();
-        LocalDateTime now = LocalDateTime.now();
+        long now = repository.clock().millis();
 
-        if (stock.getDeadline().isBefore(now)) {
-            throw new RuntimeException("IPO application has ended.");
+        if (stock.getDeadlineEpochMilli() < now) {
+            throw new ApplyRejectedException(ApplyOutcome.EXPIRED, "IPO application has ended.");
         }
 
         if (stock.isExpired(now)) {
-            return new IPOApplicationResult(false, "IPO deadline passed", null);
+            return new IPOApplicationResult(ApplyOutcome.EXPIRED, "IPO deadline passed", null);
         }
         if (repository.hasRecord(investor.getInvestorId(), stock.getStockId())) {
-            return new IPOApplicationResult(false, "Duplicate application detected", null);
+            return new IPOApplicationResult(ApplyOutcome.DUPLICATE, "Duplicate application detected", null);
         }
 
         final int quantity = 1;
@@ -93,29 +156,100 @@ public class IPOService {
 
         BigDecimal totalCost = requiredFunds.multiply(BigDecimal.valueOf(quantity));
         if (investor.getBalance().compareTo(totalCost) < 0) {
-            throw new IllegalStateException("Insufficient balance");
+            throw new ApplyRejectedException(ApplyOutcome.INSUFFICIENT_FUNDS, "Insufficient balance");
         }
 
         String lockKey = investor.getInvestorId() + ":" + stock.getStockId();
         Object mutex = locks.computeIfAbsent(lockKey, key -> new Object());
 
+        long waitStarted = System.nanoTime();
         synchronized (mutex) {
+            long waited = System.nanoTime() - waitStarted;
+            metrics.lockAcquired(waited);
+            event.lockWait = waited;
             // Recheck duplicate and balance after locking
             if (repository.hasRecord(investor.getInvestorId(), stock.getStockId())) {
-                return new IPOApplicationResult(false, "Duplicate application detected", null);
-            }
-            boolean deducted = investor.deductBalance(requiredFunds);
-            if (!deducted) {
-                log.warn("FAILED_FUNDS investor={} stock={}", investor.getInvestorId(), stock.getStockId());
-                throw new IllegalStateException("Insufficient balance");
+                return new IPOApplicationResult(ApplyOutcome.DUPLICATE, "Duplicate application detected", null);
             }
+            // The escrowed funds and the new record become visible to reports together.
+            return Versions.write(() -> place(investor, stock, quantity, requiredFunds));
+        }
+    }
 
-            IPORecord record = createRecord(investor, stock, quantity, Status.PENDING);
-            repository.saveRecord(record);
-            investor.appendRecord(record);
-            log.info("Investor {} applied for {} ({})", investor.getInvestorId(), stock.getStockName(), record.getRecordId());
-            return new IPOApplicationResult(true, "Application submitted", record);
+    private IPOApplicationResult place(Investor investor, IPOStock stock, int quantity, BigDecimal requiredFunds) {
+        if (!investor.lockFunds(requiredFunds)) {
+            throw new ApplyRejectedException(ApplyOutcome.INSUFFICIENT_FUNDS, "Insufficient balance");
         }
+        escrow.deposit(stock.getStockId(), requiredFunds);
+
+        // Lotteries are oversubscribed by design, so the reservation counter tracks demand rather than
+        // capping it; the draw enforces totalQuantity.
+        repository.reserveStockLots(stock.getStockId(), quantity, Integer.MAX_VALUE);
+        IPORecord record = createRecord(investor, stock, quantity, Status.PENDING);
+        repository.saveRecord(record);
+        long at = record.getApplyEpochMilli();
+        events.record(new DomainEvent.Applied(at, record.getRecordId(), investor.getInvestorId(),
+                stock.getStockId(), quantity, stock.getPrice()));
+        events.record(new DomainEvent.Debited(at, investor.getInvestorId(), record.getRecordId(), requiredFunds));
+        ledger.post(JournalEntry.Kind.SUBSCRIPTION, Account.cash(investor.getInvestorId()),
+                Account.escrow(stock.getStockId()), requiredFunds, record.getRecordId());
+        return new IPOApplicationResult(ApplyOutcome.SUCCESS, "Application submitted", record);
+    }
+
+    /**
+     * Withdraws the investor's pending application to the stock before its deadline: the record
+     * leaves the pending set as {@link Status#WITHDRAWN}, its lots and escrow are released, and the
+     * investor may apply again.
+     * <p>
+     * A withdrawal and a draw of the same stock exclude each other through that stock's read-write
+     * lock, so a record is either withdrawn before the draw reads the pending set or found already
+     * drawn; withdrawals from different investors, and all other stocks, proceed in parallel.
+     *
+     * @throws IllegalArgumentException if the stock or a current application to it does not exist
+     * @throws IllegalStateException    if the deadline has passed or the application is already decided
+     */
+    public IPORecord withdraw(String investorId, String stockId) {
+        capture.withdraw(investorId, stockId);
+        IPOStock stock = repository.findStock(stockId)
+                .orElseThrow(() -> new IllegalArgumentException("IPO not found"));
+        Investor investor = investorService.findInvestor(investorId)
+                .orElseThrow(() -> new IllegalArgumentException("Investor not found"));
+        Lock shared = drawLock(stockId).readLock();
+        shared.lock();
+        try {
+            if (stock.isDrawExecuted() || stock.isExpired(repository.clock().millis())) {
+                throw new IllegalStateException("IPO deadline passed");
+            }
+            synchronized (locks.computeIfAbsent(investorId + ":" + stockId, key -> new Object())) {
+                IPORecord record = repository.investorView(investorId).findRecord(stockId);
+                if (record == null) {
+                    throw new IllegalArgumentException("No application to withdraw");
+                }
+                if (record.getStatus() != Status.PENDING) {
+                    throw new IllegalStateException("Application is no longer pending");
+                }
+                BigDecimal amount = SubscriptionEscrow.amountOf(record);
+                Versions.write(() -> {
+                    investor.releaseFunds(amount);
+                    escrow.withdraw(stockId, amount);
+                    // After the release, so the investor's version stamp moves past the balance change.
+                    repository.markWithdrawn(record);
+                });
+                repository.releaseStockLots(stockId, record.getQuantity());
+                ledger.post(JournalEntry.Kind.WITHDRAWAL, Account.escrow(stockId), Account.cash(investorId), amount,
+                        record.getRecordId());
+                events.record(new DomainEvent.Withdrawn(repository.clock().millis(), record.getRecordId(),
+                        investorId, stockId, amount));
+                return record;
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    private ReadWriteLock drawLock(String stockId) {
+        ReadWriteLock lock = drawLocks.get(stockId);
+        return lock != null ? lock : drawLocks.computeIfAbsent(stockId, key -> new ReentrantReadWriteLock());
     }
 
     private IPORecord createRecord(Investor investor, IPOStock stock, int quantity, Status status) {
@@ -125,7 +259,7 @@ public class IPOService {
                 stock.getStockId(),
                 quantity,
                 stock.getPrice(),
-                LocalDateTime.now(),
+                repository.clock().now(),
                 status
         );
     }
@@ -134,6 +268,87 @@ public class IPOService {
         return repository.findRecordsByInvestor(investorId);
     }
 
+    /**
+     * Returns one newest-first page of an investor's history; see {@link InvestorRecordView#page}.
+     * Records show their status at one pinned version, so a page rendered mid-draw never mixes
+     * drawn and undrawn applications.
+     */
+    public HistoryPage getHistoryPage(String investorId, HistoryQuery query) {
+        long from = query.getFrom() == null ? Long.MIN_VALUE : startOfDayMillis(query.getFrom());
+        long to = query.getTo() == null ? Long.MAX_VALUE : startOfDayMillis(query.getTo().plusDays(1)) - 1;
+        try (ReadView view = Versions.pin()) {
+            return repository.investorView(investorId)
+                    .page(query.getStatus(), from, to, query.getCursor(), query.effectiveSize())
+                    .asOf(view);
+        }
+    }
+
+    /**
+     * Aggregates every listing's applications and all investors' cash at one pinned version.
+     * Applications and draws keep running meanwhile; none of them is counted half done.
+     */
+    public SubscriptionReport subscriptionReport() {
+        long started = System.nanoTime();
+        try (ReadView view = Versions.pin()) {
+            List<SubscriptionReport.Listing> listings = new ArrayList<>();
+            for (IPOStock stock : repository.findAllStocks()) {
+                SubscriptionReport.Listing listing = new SubscriptionReport.Listing(stock.getStockId());
+                Iterator<IPORecord> records = repository.iterateRecordsByStock(stock.getStockId());
+                while (records.hasNext()) {
+                    IPORecord record = records.next();
+                    Status status = record.statusAt(view);
+                    if (status != null) {
+                        listing.add(status, record.getQuantity(), record.getAmount());
+                    }
+                }
+                listings.add(listing);
+            }
+            int investors = 0;
+            BigDecimal available = BigDecimal.ZERO;
+            BigDecimal escrowed = BigDecimal.ZERO;
+            for (Investor investor : repository.findAllInvestors()) {
+                Investor.Funds funds = investor.fundsAt(view);
+                if (funds != null) {
+                    investors++;
+                    available = available.add(funds.balance());
+                    escrowed = escrowed.add(funds.locked());
+                }
+            }
+            return new SubscriptionReport(view.version(), investors, available, escrowed, listings,
+                    System.nanoTime() - started);
+        }
+    }
+
+    private static long startOfDayMillis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Weak ETag for an investor's pages: changes whenever the catalog, the demand counters or that
+     * investor's records or balance change. Record views all start at version 0, so the investor id
+     * (URL-encoded to stay a valid entity tag) keeps one investor's tag from matching another's page.
+     */
+    public String pageVersionTag(String investorId) {
+        return "W/\"" + repository.catalogVersion() + "-" + repository.reservationVersion() + "-"
+                + repository.investorView(investorId).getVersion() + "-"
+                + URLEncoder.encode(investorId, StandardCharsets.UTF_8) + "\"";
+    }
+
+    public InvestorRecordView getInvestorView(String investorId) {
+        return repository.investorView(investorId);
+    }
+
+    public Map<String, String> stockNames() {
+        return repository.stockNameDictionary();
+    }
+
+    /**
+     * Lots applied for per stock, as live counters.
+     */
+    public Map<String, ? extends Number> demandByStock() {
+        return repository.reservedLotsView();
+    }
+
     public IPOStock publishIPO(PublishIPOForm form) {
         IPOStock stock = new IPOStock(
                 repository.nextStockId(),
@@ -144,13 +359,32 @@ public class IPOService {
                 form.getDeadline(),
                 form.getIssuerName());
         repository.saveStock(stock);
+        capture.publish(stock);
+        events.record(new DomainEvent.IPOPublished(repository.clock().millis(), stock.getStockId(),
+                stock.getStockName(), stock.getStockSymbol(), stock.getPrice(), stock.getTotalQuantity(),
+                stock.getDeadlineEpochMilli(), stock.getIssuerName()));
         return stock;
     }
 
     public DrawResult executeDraw(String stockId, boolean refundLosers) {
+        capture.draw(stockId, refundLosers);
+        Lock exclusive = drawLock(stockId).writeLock();
+        exclusive.lock();
+        try {
+            // One transaction, so reports see either none or all of the draw's allocations and refunds.
+            return Versions.write(() -> draw(stockId, refundLosers));
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    private DrawResult draw(String stockId, boolean refundLosers) {
+        long started = System.nanoTime();
+        DrawEvent event = new DrawEvent();
+        event.begin();
         IPOStock stock = repository.findStock(stockId)
                 .orElseThrow(() -> new IllegalArgumentException("Stock not found"));
-        if (!stock.isExpired(LocalDateTime.now())) {
+        if (!stock.isExpired(repository.clock().millis())) {
             throw new IllegalStateException("Cannot draw before deadline");
         }
         if (stock.isDrawExecuted()) {
@@ -159,26 +393,138 @@ public class IPOService {
 
         List<IPORecord> pending = repository.findPendingByStock(stockId);
         Collections.shuffle(pending);
+        long selected = System.nanoTime();
+
         int remaining = stock.getTotalQuantity();
         int winners = 0;
-        int losers = 0;
-
+        BigDecimal settledTotal = BigDecimal.ZERO;
+        List<IPORecord> losers = new ArrayList<>();
         for (IPORecord record : pending) {
             if (remaining >= record.getQuantity()) {
-                record.markWon();
+                repository.markWon(record);
+                allocated(record, true);
+                settledTotal = settledTotal.add(settle(stockId, record));
                 winners++;
                 remaining -= record.getQuantity();
             } else {
-                record.markLost();
-                losers++;
-                if (refundLosers) {
-                    investorService.findInvestor(record.getInvestorId())
-                            .ifPresent(inv -> inv.addBalance(record.getPricePerLot().multiply(BigDecimal.valueOf(record.getQuantity()))));
-                }
+                losers.add(record);
             }
         }
+        escrow.withdraw(stockId, settledTotal);
+        long allocated = System.nanoTime();
+
+        if (!losers.isEmpty()) {
+            if (refundLosers) {
+                release(stockId, losers);
+            } else {
+                escrow.hold(stockId, losers);
+            }
+        }
+        // After the release, so each investor's version stamp moves past the balance change.
+        for (IPORecord record : losers) {
+            repository.markLost(record, !refundLosers);
+            allocated(record, false);
+        }
+        repository.markDrawExecuted(stock);
+        events.record(new DomainEvent.DrawCompleted(repository.clock().millis(), stockId, winners, losers.size()));
+        long settled = System.nanoTime();
+
+        metrics.drawCompleted(pending.size(), settled - started);
+        event.end();
+        if (event.shouldCommit()) {
+            event.stockId = stockId;
+            event.pending = pending.size();
+            event.winners = winners;
+            event.losers = losers.size();
+            event.selectTime = selected - started;
+            event.allocateTime = allocated - selected;
+            event.settleTime = settled - allocated;
+            event.commit();
+        }
+        return new DrawResult(stock.getTotalQuantity() - remaining, pending.size(), winners, losers.size());
+    }
+
+    /**
+     * Releases the escrow of losing applications that a draw without refunds left held, e.g. once a
+     * dispute window has passed.
+     *
+     * @return the number of applications released
+     */
+    public int releaseEscrow(String stockId) {
+        IPOStock stock = repository.findStock(stockId)
+                .orElseThrow(() -> new IllegalArgumentException("Stock not found"));
+        if (!stock.isDrawExecuted()) {
+            throw new IllegalStateException("Draw not executed yet");
+        }
+        List<IPORecord> held = escrow.takeHeld(stockId);
+        Versions.write(() -> {
+            for (Investor investor : release(stockId, held)) {
+                // Persists the balance and moves the investor's version stamp, once per investor.
+                repository.saveInvestor(investor);
+            }
+            held.forEach(repository::markEscrowReleased);
+        });
+        return held.size();
+    }
+
+    /**
+     * Subscription money held in the listing's escrow.
+     */
+    public BigDecimal escrowBalance(String stockId) {
+        return escrow.balance(stockId);
+    }
+
+    private BigDecimal settle(String stockId, IPORecord record) {
+        BigDecimal amount = SubscriptionEscrow.amountOf(record);
+        investorService.findInvestor(record.getInvestorId()).ifPresent(investor -> investor.settleFunds(amount));
+        ledger.post(JournalEntry.Kind.SETTLEMENT, Account.escrow(stockId), Account.issuer(stockId), amount,
+                record.getRecordId());
+        return amount;
+    }
+
+    /**
+     * Returns the losers' escrow to their available balances, taking the total out of the listing's
+     * bucket in one step.
+     *
+     * @return the distinct investors credited, in order of their first refund
+     */
+    private Set<Investor> release(String stockId, List<IPORecord> losers) {
+        Set<Investor> credited = new LinkedHashSet<>();
+        if (losers.isEmpty()) {
+            return credited;
+        }
+        RefundBatchEvent event = new RefundBatchEvent();
+        event.begin();
+        BigDecimal total = BigDecimal.ZERO;
+        int refunded = 0;
+        for (IPORecord record : losers) {
+            Optional<Investor> investor = investorService.findInvestor(record.getInvestorId());
+            if (investor.isPresent()) {
+                BigDecimal amount = SubscriptionEscrow.amountOf(record);
+                investor.get().releaseFunds(amount);
+                credited.add(investor.get());
+                ledger.post(JournalEntry.Kind.REFUND, Account.escrow(stockId), Account.cash(record.getInvestorId()),
+                        amount, record.getRecordId());
+                events.record(new DomainEvent.Refunded(repository.clock().millis(), record.getInvestorId(),
+                        record.getRecordId(), amount));
+                total = total.add(amount);
+                refunded++;
+            }
+        }
+        escrow.withdraw(stockId, total);
+        metrics.refunded(refunded);
+        event.end();
+        if (event.shouldCommit()) {
+            event.stockId = stockId;
+            event.count = refunded;
+            event.amount = total.toPlainString();
+            event.commit();
+        }
+        return credited;
+    }
 
-        stock.markDrawExecuted();
-        return new DrawResult(stock.getTotalQuantity() - remaining, pending.size(), winners, losers);
+    private void allocated(IPORecord record, boolean won) {
+        events.record(new DomainEvent.Allocated(repository.clock().millis(), record.getRecordId(),
+                record.getInvestorId(), record.getStockId(), won));
     }
 }
@@ -0,0 +1,47 @@
+package com.tradesystem.iposimulation.service;
+
+import com.tradesystem.iposimulation.capture.TrafficCapture;
+import com.tradesystem.iposimulation.eventlog.EventRecorder;
+import com.tradesystem.iposimulation.ledger.CashLedger;
+import com.tradesystem.iposimulation.logging.ApplyLog;
+import com.tradesystem.iposimulation.metrics.IPOMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * The optional collaborators of an {@link IPOService}: everything it reports to but does not need in
+ * order to accept applications and run draws. Spring injects the configured ones; elsewhere start
+ * from {@link #DEFAULT} and replace what is needed.
+ */
+@Component
+public record IPOServiceHooks(IPOMetrics metrics,
+                              TrafficCapture capture,
+                              ApplyLog applyLog,
+                              EventRecorder events,
+                              CashLedger ledger) {
+
+    /**
+     * No metrics, capture, event log or ledger; one log line per application.
+     */
+    public static final IPOServiceHooks DEFAULT = new IPOServiceHooks(IPOMetrics.NOOP, TrafficCapture.NOOP,
+            ApplyLog.EACH, EventRecorder.NOOP, CashLedger.NOOP);
+
+    public IPOServiceHooks withMetrics(IPOMetrics metrics) {
+        return new IPOServiceHooks(metrics, capture, applyLog, events, ledger);
+    }
+
+    public IPOServiceHooks withCapture(TrafficCapture capture) {
+        return new IPOServiceHooks(metrics, capture, applyLog, events, ledger);
+    }
+
+    public IPOServiceHooks withApplyLog(ApplyLog applyLog) {
+        return new IPOServiceHooks(metrics, capture, applyLog, events, ledger);
+    }
+
+    public IPOServiceHooks withEvents(EventRecorder events) {
+        return new IPOServiceHooks(metrics, capture, applyLog, events, ledger);
+    }
+
+    public IPOServiceHooks withLedger(CashLedger ledger) {
+        return new IPOServiceHooks(metrics, capture, applyLog, events, ledger);
+    }
+}
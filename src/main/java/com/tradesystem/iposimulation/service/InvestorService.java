@@ -1,8 +1,16 @@
 package com.tradesystem.iposimulation.service;
 
+import com.tradesystem.iposimulation.capture.TrafficCapture;
+import com.tradesystem.iposimulation.eventlog.DomainEvent;
+import com.tradesystem.iposimulation.eventlog.EventRecorder;
+import com.tradesystem.iposimulation.ledger.Account;
+import com.tradesystem.iposimulation.ledger.CashLedger;
+import com.tradesystem.iposimulation.ledger.JournalEntry;
 import com.tradesystem.iposimulation.model.Investor;
 import com.tradesystem.iposimulation.model.IPORecord;
-import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.mvcc.Versions;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -13,10 +21,30 @@ import java.util.Optional;
 @Service
 public class InvestorService {
 
-    private final DataRepository repository;
+    private final IPORepository repository;
+    private final TrafficCapture capture;
+    private final EventRecorder events;
+    private final CashLedger ledger;
 
-    public InvestorService(DataRepository repository) {
+    public InvestorService(IPORepository repository) {
+        this(repository, TrafficCapture.NOOP);
+    }
+
+    public InvestorService(IPORepository repository, TrafficCapture capture) {
+        this(repository, capture, EventRecorder.NOOP);
+    }
+
+    public InvestorService(IPORepository repository, TrafficCapture capture, EventRecorder events) {
+        this(repository, capture, events, CashLedger.NOOP);
+    }
+
+    @Autowired
+    public InvestorService(IPORepository repository, TrafficCapture capture, EventRecorder events,
+                           CashLedger ledger) {
         this.repository = repository;
+        this.capture = capture;
+        this.events = events;
+        this.ledger = ledger;
     }
 
     public Collection<Investor> getAllInvestors() {
@@ -28,31 +56,43 @@ public class InvestorService {
     }
 
     public Investor createInvestor(String name, BigDecimal initialBalance) {
-        var investor = new Investor(repository.nextInvestorId(), name, initialBalance);
-        repository.saveInvestor(investor);
+        // Created in a transaction, so reports pinned before it do not count the investor's cash.
+        var investor = Versions.write(() -> repository.saveInvestor(
+                new Investor(repository.nextInvestorId(), name, initialBalance)));
+        registered(investor);
         return investor;
     }
 
     public Investor registerInvestor(String investorId, String displayName, BigDecimal initialBalance) {
+        capture.register(investorId, displayName, initialBalance);
         if (repository.findInvestor(investorId).isPresent()) {
             throw new IllegalArgumentException("Investor already exists");
         }
-        Investor investor = new Investor(investorId, displayName, initialBalance);
-        repository.saveInvestor(investor);
+        Investor investor = Versions.write(() -> repository.saveInvestor(
+                new Investor(investorId, displayName, initialBalance)));
+        registered(investor);
         return investor;
     }
 
     public Investor loginOrCreate(String investorId) {
+        capture.login(investorId);
         return repository.findInvestor(investorId)
                 .orElseGet(() -> {
-                    Investor investor = new Investor(investorId, investorId, BigDecimal.ZERO);
-                    repository.saveInvestor(investor);
+                    Investor investor = Versions.write(() -> repository.saveInvestor(
+                            new Investor(investorId, investorId, BigDecimal.ZERO)));
+                    registered(investor);
                     return investor;
                 });
     }
 
     public void addBalance(String investorId, BigDecimal amount) {
-        repository.findInvestor(investorId).ifPresent(investor -> investor.addBalance(amount));
+        repository.findInvestor(investorId).ifPresent(investor -> {
+            investor.addBalance(amount);
+            repository.saveInvestor(investor);
+            if (amount != null && amount.signum() > 0) {
+                deposited(investorId, amount);
+            }
+        });
     }
 
     public List<IPORecord> history(String investorId) {
@@ -60,6 +100,7 @@ public class InvestorService {
     }
 
     public void deposit(String investorId, BigDecimal amount) {
+        capture.deposit(investorId, amount);
         if (amount == null || amount.signum() <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
@@ -67,5 +108,20 @@ public class InvestorService {
                 .orElseThrow(() -> new IllegalArgumentException("Investor not found"));
         investor.addBalance(amount);
         repository.saveInvestor(investor);
+        deposited(investorId, amount);
+    }
+
+    private void registered(Investor investor) {
+        events.record(new DomainEvent.InvestorRegistered(repository.clock().millis(), investor.getInvestorId(),
+                investor.getDisplayName(), investor.getBalance()));
+        if (investor.getBalance().signum() > 0) {
+            ledger.post(JournalEntry.Kind.OPENING, Account.EXTERNAL, Account.cash(investor.getInvestorId()),
+                    investor.getBalance(), investor.getInvestorId());
+        }
+    }
+
+    private void deposited(String investorId, BigDecimal amount) {
+        events.record(new DomainEvent.Deposited(repository.clock().millis(), investorId, amount));
+        ledger.post(JournalEntry.Kind.DEPOSIT, Account.EXTERNAL, Account.cash(investorId), amount, investorId);
     }
 }
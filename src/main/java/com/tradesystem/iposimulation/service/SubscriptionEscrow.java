@@ -0,0 +1,116 @@
+package com.tradesystem.iposimulation.service;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.repository.RepositoryListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-listing escrow buckets: the total subscription money held for each listing, and which losing
+ * applications are still held after a draw that did not release them. The per-investor side lives on
+ * {@link com.tradesystem.iposimulation.model.Investor#getLockedBalance()}.
+ * <p>
+ * Listings already in the repository at construction start with the total of their pending records
+ * plus the losers still held ({@link IPORecord#isEscrowHeld()}), so a backend that loaded them from
+ * storage, or a fork of a snapshot, resumes with the right escrow. A repository reset empties it.
+ */
+public class SubscriptionEscrow implements RepositoryListener {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public SubscriptionEscrow(IPORepository repository) {
+        for (IPOStock stock : repository.findAllStocks()) {
+            Bucket bucket = new Bucket(repository.pendingAmount(stock.getStockId()));
+            if (stock.isDrawExecuted()) {
+                List<IPORecord> held = new ArrayList<>();
+                for (IPORecord record : repository.findRecordsByStock(stock.getStockId())) {
+                    if (record.isEscrowHeld()) {
+                        held.add(record);
+                        bucket.add(record.getAmount());
+                    }
+                }
+                bucket.hold(held);
+            }
+            buckets.put(stock.getStockId(), bucket);
+        }
+        repository.addListener(this);
+    }
+
+    @Override
+    public void onReset() {
+        buckets.clear();
+    }
+
+    /**
+     * Subscription money currently held for the listing.
+     */
+    public BigDecimal balance(String stockId) {
+        Bucket bucket = buckets.get(stockId);
+        return bucket == null ? BigDecimal.ZERO : bucket.total();
+    }
+
+    void deposit(String stockId, BigDecimal amount) {
+        bucket(stockId).add(amount);
+    }
+
+    /**
+     * Takes a batch out of the bucket in one step, whether settled to the issuer or released.
+     */
+    void withdraw(String stockId, BigDecimal amount) {
+        bucket(stockId).add(amount.negate());
+    }
+
+    void hold(String stockId, List<IPORecord> losers) {
+        bucket(stockId).hold(losers);
+    }
+
+    /**
+     * Removes and returns the losing applications held for the listing.
+     */
+    List<IPORecord> takeHeld(String stockId) {
+        Bucket bucket = buckets.get(stockId);
+        return bucket == null ? List.of() : bucket.takeHeld();
+    }
+
+    private Bucket bucket(String stockId) {
+        Bucket bucket = buckets.get(stockId);
+        return bucket != null ? bucket : buckets.computeIfAbsent(stockId, key -> new Bucket(BigDecimal.ZERO));
+    }
+
+    static BigDecimal amountOf(IPORecord record) {
+        return record.getAmount();
+    }
+
+    private static final class Bucket {
+
+        private BigDecimal total;
+        private List<IPORecord> held = new ArrayList<>();
+
+        Bucket(BigDecimal total) {
+            this.total = total;
+        }
+
+        synchronized BigDecimal total() {
+            return total;
+        }
+
+        synchronized void add(BigDecimal amount) {
+            total = total.add(amount);
+        }
+
+        synchronized void hold(List<IPORecord> losers) {
+            held.addAll(losers);
+        }
+
+        synchronized List<IPORecord> takeHeld() {
+            List<IPORecord> taken = held;
+            held = new ArrayList<>();
+            return taken;
+        }
+    }
+}
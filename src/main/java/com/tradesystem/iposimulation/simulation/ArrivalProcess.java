@@ -0,0 +1,40 @@
+package com.tradesystem.iposimulation.simulation;
+
+import java.util.Random;
+
+/**
+ * How application arrival times are spread over a listing's subscription window.
+ */
+public enum ArrivalProcess {
+
+    /**
+     * Memoryless arrivals at a constant rate: exponential gaps, uniform times across the window.
+     */
+    POISSON {
+        @Override
+        long arrivalOffset(long windowNanos, double burstFraction, Random random) {
+            return (long) (random.nextDouble() * windowNanos);
+        }
+    },
+
+    /**
+     * Deadline rush: {@code 1 - burstFraction} of applications packed into the final
+     * {@code burstFraction} of the window, with density rising towards the deadline; the rest
+     * spread evenly over the earlier part.
+     */
+    BURST {
+        @Override
+        long arrivalOffset(long windowNanos, double burstFraction, Random random) {
+            if (random.nextDouble() < 1 - burstFraction) {
+                double intoBurst = Math.sqrt(random.nextDouble());
+                return (long) (windowNanos * (1 - burstFraction + burstFraction * intoBurst));
+            }
+            return (long) (random.nextDouble() * windowNanos * (1 - burstFraction));
+        }
+    };
+
+    /**
+     * Offset of one arrival from the start of a window of {@code windowNanos}.
+     */
+    abstract long arrivalOffset(long windowNanos, double burstFraction, Random random);
+}
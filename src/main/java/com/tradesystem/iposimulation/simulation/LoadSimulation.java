@@ -0,0 +1,244 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import com.tradesystem.iposimulation.dto.DrawResult;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.service.ApplyRejectedException;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.time.IPOClock;
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: schedules every application up front from the configured arrival
+ * process, replays the schedule through {@link IPOService#apply} on a pool of client threads, runs
+ * every draw once its deadline passes and then checks the money and allocation invariants.
+ * <p>
+ * Response times are measured from each application's scheduled arrival, not from when a client
+ * thread got round to sending it, so a stalled service shows up in the percentiles instead of
+ * silently lowering the offered load.
+ * <p>
+ * Deadlines and arrivals are laid out in the repository's clock time; on an accelerated clock the
+ * whole period plays out {@code rate} times faster in real time.
+ */
+public class LoadSimulation {
+
+    private static final BigDecimal[] PRICES = {
+            new BigDecimal("10"), new BigDecimal("40"), new BigDecimal("120"), new BigDecimal("300"), new BigDecimal("1000")
+    };
+
+    private final IPORepository repository;
+    private final IPOService ipoService;
+    private final SimulationSettings settings;
+
+    public LoadSimulation(IPORepository repository, IPOService ipoService, SimulationSettings settings) {
+        this.repository = repository;
+        this.ipoService = ipoService;
+        this.settings = settings;
+    }
+
+    public SimulationReport run() throws InterruptedException {
+        Random random = new Random(settings.seed());
+        List<Investor> investors = createInvestors();
+        IPOClock clock = repository.clock();
+        long startMillis = clock.millis();
+        long startNanos = System.nanoTime();
+        List<IPOStock> stocks = publishListings(startMillis, random);
+        List<Arrival> schedule = schedule(investors, stocks, startMillis, random);
+
+        Client[] clients = new Client[settings.threads()];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new Client(startNanos, clock.rate());
+        }
+        for (int i = 0; i < schedule.size(); i++) {
+            clients[i % clients.length].arrivals.add(schedule.get(i));
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients.length; i++) {
+            Thread thread = new Thread(clients[i], "sim-client-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long applyNanos = System.nanoTime() - startNanos;
+
+        Histogram serviceTime = new Histogram(3);
+        Histogram responseTime = new Histogram(3);
+        long[] outcomes = new long[ApplyOutcome.values().length];
+        for (Client client : clients) {
+            serviceTime.add(client.serviceTime);
+            responseTime.add(client.responseTime);
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] += client.outcomes[i];
+            }
+        }
+
+        long lastDeadline = stocks.get(stocks.size() - 1).getDeadlineEpochMilli();
+        long untilClosed = clock.toRealMillis(lastDeadline + 1 - clock.millis());
+        if (untilClosed > 0) {
+            Thread.sleep(untilClosed);
+        }
+        Histogram drawTime = new Histogram(3);
+        int winners = 0;
+        int losers = 0;
+        for (IPOStock stock : stocks) {
+            long began = System.nanoTime();
+            DrawResult result = ipoService.executeDraw(stock.getStockId(), true);
+            drawTime.recordValue(System.nanoTime() - began);
+            winners += result.getWinners();
+            losers += result.getLosers();
+        }
+
+        return new SimulationReport(settings, schedule.size(), outcomes, applyNanos,
+                serviceTime, responseTime, drawTime, winners, losers, checkInvariants(investors, stocks));
+    }
+
+    private List<Investor> createInvestors() {
+        List<Investor> investors = new ArrayList<>(settings.investors());
+        for (int i = 0; i < settings.investors(); i++) {
+            Investor investor = new Investor("SIM-INV-" + i, "Simulated " + i, settings.initialBalance());
+            repository.saveInvestor(investor);
+            investors.add(investor);
+        }
+        return investors;
+    }
+
+    private List<IPOStock> publishListings(long startMillis, Random random) {
+        int listings = settings.listings();
+        long expectedDemand = (long) settings.investors() * settings.applicationsPerInvestor() / listings;
+        List<IPOStock> stocks = new ArrayList<>(listings);
+        for (int i = 0; i < listings; i++) {
+            long deadline = startMillis + settings.durationMillis() * (i + 1) / listings;
+            // Supply of a third of expected demand keeps every lottery oversubscribed.
+            int lots = (int) Math.max(1, expectedDemand / 3);
+            IPOStock stock = new IPOStock("SIM-STK-" + i, "Simulated Listing " + i, "SIM" + i,
+                    PRICES[random.nextInt(PRICES.length)], lots,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(deadline), ZoneId.systemDefault()), "Simulation");
+            repository.saveStock(stock);
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+
+    private List<Arrival> schedule(List<Investor> investors, List<IPOStock> stocks, long startMillis, Random random) {
+        List<Arrival> schedule = new ArrayList<>(investors.size() * settings.applicationsPerInvestor());
+        int[] picks = new int[stocks.size()];
+        for (int i = 0; i < picks.length; i++) {
+            picks[i] = i;
+        }
+        for (Investor investor : investors) {
+            // Partial Fisher-Yates: a distinct random subset of listings per investor.
+            for (int i = 0; i < settings.applicationsPerInvestor(); i++) {
+                int j = i + random.nextInt(picks.length - i);
+                int picked = picks[j];
+                picks[j] = picks[i];
+                picks[i] = picked;
+                IPOStock stock = stocks.get(picked);
+                long windowNanos = (stock.getDeadlineEpochMilli() - startMillis) * 1_000_000L;
+                long offset = settings.arrival().arrivalOffset(windowNanos, settings.burstFraction(), random);
+                schedule.add(new Arrival(offset, investor.getInvestorId(), stock.getStockId()));
+            }
+        }
+        schedule.sort(Comparator.comparingLong(Arrival::offsetNanos));
+        return schedule;
+    }
+
+    private List<String> checkInvariants(List<Investor> investors, List<IPOStock> stocks) {
+        List<String> violations = new ArrayList<>();
+        Map<String, BigDecimal> spent = new HashMap<>();
+        for (IPOStock stock : stocks) {
+            int allocated = 0;
+            Set<String> applicants = new HashSet<>();
+            for (IPORecord record : repository.findRecordsByStock(stock.getStockId())) {
+                if (!applicants.add(record.getInvestorId())) {
+                    violations.add("Duplicate application by " + record.getInvestorId() + " for " + stock.getStockId());
+                }
+                if (record.getStatus() == Status.WON) {
+                    allocated += record.getQuantity();
+                    spent.merge(record.getInvestorId(),
+                            record.getPricePerLot().multiply(BigDecimal.valueOf(record.getQuantity())), BigDecimal::add);
+                } else if (record.getStatus() == Status.PENDING) {
+                    violations.add("Record " + record.getRecordId() + " still pending after draw");
+                }
+            }
+            if (allocated > stock.getTotalQuantity()) {
+                violations.add("Oversold " + stock.getStockId() + ": " + allocated + " of " + stock.getTotalQuantity());
+            }
+        }
+        for (Investor investor : investors) {
+            BigDecimal balance = investor.getBalance();
+            BigDecimal expected = settings.initialBalance().subtract(spent.getOrDefault(investor.getInvestorId(), BigDecimal.ZERO));
+            if (balance.signum() < 0) {
+                violations.add("Negative balance for " + investor.getInvestorId() + ": " + balance);
+            } else if (balance.compareTo(expected) != 0) {
+                violations.add("Balance of " + investor.getInvestorId() + " is " + balance + ", expected " + expected);
+            }
+        }
+        return violations;
+    }
+
+    private record Arrival(long offsetNanos, String investorId, String stockId) {
+    }
+
+    private final class Client implements Runnable {
+
+        private final long startNanos;
+        private final double rate;
+        private final List<Arrival> arrivals = new ArrayList<>();
+        private final Histogram serviceTime = new Histogram(3);
+        private final Histogram responseTime = new Histogram(3);
+        private final long[] outcomes = new long[ApplyOutcome.values().length];
+
+        private Client(long startNanos, double rate) {
+            this.startNanos = startNanos;
+            this.rate = rate;
+        }
+
+        @Override
+        public void run() {
+            ApplyIPOForm form = new ApplyIPOForm();
+            for (Arrival arrival : arrivals) {
+                long scheduled = startNanos + (long) (arrival.offsetNanos() / rate);
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long began = System.nanoTime();
+                form.setInvestorId(arrival.investorId());
+                form.setStockId(arrival.stockId());
+                ApplyOutcome outcome;
+                try {
+                    outcome = ipoService.apply(form).getOutcome();
+                } catch (ApplyRejectedException ex) {
+                    outcome = ex.getOutcome();
+                } catch (RuntimeException ex) {
+                    outcome = ApplyOutcome.ERROR;
+                }
+                long finished = System.nanoTime();
+                serviceTime.recordValue(finished - began);
+                responseTime.recordValue(finished - scheduled);
+                outcomes[outcome.ordinal()]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.DrawResult;
+import com.tradesystem.iposimulation.dto.PublishIPOForm;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.IPOServiceHooks;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import com.tradesystem.iposimulation.time.IPOClock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Closed-loop throughput comparison of repository backends: every investor applies to every listing
+ * from {@code threads} client threads as fast as the backend allows, then every listing is drawn with
+ * refunds. Apply-path logging is off so the numbers reflect the repository, not the console.
+ */
+public class RepositoryBenchmark {
+
+    private static final BigDecimal PRICE = new BigDecimal("100");
+
+    private final int investors;
+    private final int listings;
+    private final int threads;
+
+    public RepositoryBenchmark(int investors, int listings, int threads) {
+        this.investors = investors;
+        this.listings = listings;
+        this.threads = threads;
+    }
+
+    /**
+     * @param backend label for the report
+     * @param factory opens an empty repository on the given clock
+     */
+    public Result run(String backend, Function<IPOClock, IPORepository> factory) throws InterruptedException {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        IPORepository repository = factory.apply(clock);
+        InvestorService investorService = new InvestorService(repository);
+        IPOService ipoService = new IPOService(repository, investorService,
+                IPOServiceHooks.DEFAULT.withApplyLog((outcome, investorId, stockId) -> {
+                }));
+
+        List<Investor> applicants = new ArrayList<>(investors);
+        BigDecimal balance = PRICE.multiply(BigDecimal.valueOf(listings));
+        for (int i = 0; i < investors; i++) {
+            applicants.add(investorService.createInvestor("Bench " + i, balance));
+        }
+        List<IPOStock> stocks = new ArrayList<>(listings);
+        for (int i = 0; i < listings; i++) {
+            PublishIPOForm form = new PublishIPOForm();
+            form.setStockName("Bench " + i);
+            form.setStockSymbol("B" + i);
+            form.setPrice(PRICE);
+            form.setTotalQuantity(Math.max(1, investors / 4));
+            form.setDeadline(clock.now().plusDays(1));
+            form.setIssuerName("Bench Issuer");
+            stocks.add(ipoService.publishIPO(form));
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        long applyStarted = System.nanoTime();
+        List<Thread> clients = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            Thread client = new Thread(() -> {
+                for (int i = first; i < applicants.size(); i += threads) {
+                    for (IPOStock stock : stocks) {
+                        ApplyIPOForm form = new ApplyIPOForm();
+                        form.setInvestorId(applicants.get(i).getInvestorId());
+                        form.setStockId(stock.getStockId());
+                        if (ipoService.apply(form).isSuccess()) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }
+            }, "bench-client-" + t);
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        long applyNanos = System.nanoTime() - applyStarted;
+
+        clock.advance(Duration.ofDays(2).toMillis());
+        int drawn = 0;
+        long drawStarted = System.nanoTime();
+        for (IPOStock stock : stocks) {
+            DrawResult result = ipoService.executeDraw(stock.getStockId(), true);
+            drawn += result.getTotalPending();
+        }
+        long drawNanos = System.nanoTime() - drawStarted;
+
+        long closeStarted = System.nanoTime();
+        repository.close();
+        long closeNanos = System.nanoTime() - closeStarted;
+        return new Result(backend, accepted.get(), applyNanos, drawn, drawNanos, closeNanos);
+    }
+
+    /**
+     * One backend's timings. {@code closeNanos} covers committing writes still pending at the end.
+     */
+    public record Result(String backend, int applications, long applyNanos, int drawnRecords, long drawNanos,
+                         long closeNanos) {
+
+        public double applyThroughput() {
+            return applications * 1e9 / Math.max(applyNanos, 1);
+        }
+
+        public double drawThroughput() {
+            return drawnRecords * 1e9 / Math.max(drawNanos, 1);
+        }
+
+        public String format() {
+            return String.format("%-8s apply: %d in %.1f ms (%.0f/s)  draw: %d records in %.1f ms (%.0f/s)  close: %.1f ms",
+                    backend, applications, applyNanos / 1e6, applyThroughput(),
+                    drawnRecords, drawNanos / 1e6, drawThroughput(), closeNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.repository.JdbcDataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Benchmark mode: runs a {@link RepositoryBenchmark} against the in-memory and the embedded JDBC
+ * backends at startup, each on a fresh repository, logs both results and, unless
+ * {@code ipo.benchmark.exit=false}, exits.
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--ipo.benchmark.enabled=true --ipo.benchmark.investors=5000"
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "ipo.benchmark.enabled", havingValue = "true")
+public class RepositoryBenchmarkRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryBenchmarkRunner.class);
+
+    private final ConfigurableApplicationContext context;
+    private final RepositoryBenchmark benchmark;
+    private final int rounds;
+    private final int batchSize;
+    private final boolean exit;
+
+    public RepositoryBenchmarkRunner(ConfigurableApplicationContext context,
+                                     @Value("${ipo.benchmark.investors:2000}") int investors,
+                                     @Value("${ipo.benchmark.listings:10}") int listings,
+                                     @Value("${ipo.benchmark.threads:8}") int threads,
+                                     @Value("${ipo.benchmark.rounds:3}") int rounds,
+                                     @Value("${ipo.repository.jdbc.batch-size:512}") int batchSize,
+                                     @Value("${ipo.benchmark.exit:true}") boolean exit) {
+        this.context = context;
+        this.benchmark = new RepositoryBenchmark(investors, listings, threads);
+        this.rounds = rounds;
+        this.batchSize = batchSize;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        // Earlier rounds warm up the JIT; only the last round of each backend is representative.
+        for (int round = 1; round <= rounds; round++) {
+            int database = round;
+            RepositoryBenchmark.Result memory = benchmark.run("memory", clock -> new DataRepository(clock, false));
+            RepositoryBenchmark.Result jdbc = benchmark.run("jdbc",
+                    clock -> new JdbcDataRepository(clock, "jdbc:h2:mem:benchmark-" + database, batchSize, false));
+            log.info("Round {}/{}{}  {}{}  {}", round, rounds,
+                    System.lineSeparator(), memory.format(), System.lineSeparator(), jdbc.format());
+        }
+        if (exit) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
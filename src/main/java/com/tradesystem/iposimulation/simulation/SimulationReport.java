@@ -0,0 +1,64 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+
+/**
+ * Result of a {@link LoadSimulation} run. Histograms hold nanoseconds.
+ */
+public record SimulationReport(SimulationSettings settings,
+                               int applications,
+                               long[] outcomes,
+                               long applyNanos,
+                               Histogram serviceTime,
+                               Histogram responseTime,
+                               Histogram drawTime,
+                               int winners,
+                               int losers,
+                               List<String> violations) {
+
+    public long count(ApplyOutcome outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+
+    public double throughput() {
+        return applications * 1e9 / Math.max(applyNanos, 1);
+    }
+
+    public boolean isConsistent() {
+        return violations.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Simulation: %d investors, %d listings, %s arrivals over %d ms on %d threads%n",
+                settings.investors(), settings.listings(), settings.arrival(), settings.durationMillis(), settings.threads()));
+        out.append(String.format("Applications: %d in %.1f s (%.0f/s offered over the window)%n",
+                applications, applyNanos / 1e9, throughput()));
+        for (ApplyOutcome outcome : ApplyOutcome.values()) {
+            out.append(String.format("  %-18s %d%n", outcome.tag(), count(outcome)));
+        }
+        appendPercentiles(out, "Apply service time", serviceTime);
+        appendPercentiles(out, "Apply response time", responseTime);
+        appendPercentiles(out, "Draw time", drawTime);
+        out.append(String.format("Draws: %d winners, %d losers%n", winners, losers));
+        if (violations.isEmpty()) {
+            out.append("Invariants: OK (no overspend, no oversell, no duplicate applications)");
+        } else {
+            out.append("Invariants: ").append(violations.size()).append(" violation(s)");
+            violations.stream().limit(20).forEach(v -> out.append(System.lineSeparator()).append("  ").append(v));
+        }
+        return out.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder out, String label, Histogram histogram) {
+        out.append(String.format("%s (us): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n", label,
+                histogram.getValueAtPercentile(50) / 1e3,
+                histogram.getValueAtPercentile(90) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3));
+    }
+}
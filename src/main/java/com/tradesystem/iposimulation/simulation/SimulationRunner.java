@@ -0,0 +1,85 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.metrics.IPOMetrics;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.IPOServiceHooks;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.IPOClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Simulation mode: runs a {@link LoadSimulation} against a fresh repository at startup, logs the
+ * report and, unless {@code ipo.simulation.exit=false}, exits non-zero if an invariant was broken.
+ * Durations are in engine clock time, so with {@code ipo.clock.mode=accelerated} a multi-day period
+ * completes in seconds.
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--ipo.simulation.enabled=true --ipo.simulation.arrival=BURST"
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "ipo.simulation.enabled", havingValue = "true")
+public class SimulationRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationRunner.class);
+
+    private final ConfigurableApplicationContext context;
+    private final IPOMetrics metrics;
+    private final IPOClock clock;
+    private final SimulationSettings settings;
+    private final boolean exit;
+
+    public SimulationRunner(ConfigurableApplicationContext context,
+                            IPOMetrics metrics,
+                            IPOClock clock,
+                            @Value("${ipo.simulation.investors:2000}") int investors,
+                            @Value("${ipo.simulation.listings:20}") int listings,
+                            @Value("${ipo.simulation.applications-per-investor:5}") int applicationsPerInvestor,
+                            @Value("${ipo.simulation.duration-ms:30000}") long durationMillis,
+                            @Value("${ipo.simulation.arrival:POISSON}") ArrivalProcess arrival,
+                            @Value("${ipo.simulation.burst-fraction:0.1}") double burstFraction,
+                            @Value("${ipo.simulation.threads:32}") int threads,
+                            @Value("${ipo.simulation.initial-balance:2000}") BigDecimal initialBalance,
+                            @Value("${ipo.simulation.seed:42}") long seed,
+                            @Value("${ipo.simulation.exit:true}") boolean exit) {
+        this.context = context;
+        this.metrics = metrics;
+        this.clock = clock;
+        this.settings = new SimulationSettings(investors, listings, applicationsPerInvestor, durationMillis,
+                arrival, burstFraction, threads, initialBalance, seed);
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        DataRepository repository = new DataRepository(clock);
+        SimulationReport report;
+        try {
+            InvestorService investorService = new InvestorService(repository);
+            IPOService ipoService = new IPOService(repository, investorService,
+                    IPOServiceHooks.DEFAULT.withMetrics(metrics));
+            log.info("Starting simulation {}", settings);
+            report = new LoadSimulation(repository, ipoService, settings).run();
+        } finally {
+            repository.close();
+        }
+        if (report.isConsistent()) {
+            log.info("{}", report.format());
+        } else {
+            log.error("{}", report.format());
+        }
+        if (exit) {
+            int code = SpringApplication.exit(context, () -> report.isConsistent() ? 0 : 1);
+            System.exit(code);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tradesystem.iposimulation.simulation;
+
+import java.math.BigDecimal;
+
+/**
+ * Shape of one simulated subscription period.
+ *
+ * @param investors                 investors to create
+ * @param listings                  listings to publish; deadlines are staggered evenly over {@code durationMillis}
+ * @param applicationsPerInvestor   distinct listings each investor applies for (capped at {@code listings})
+ * @param durationMillis            time until the last listing closes
+ * @param arrival                   arrival process for applications within each listing's window
+ * @param burstFraction             share of the window treated as the deadline rush for {@link ArrivalProcess#BURST}
+ * @param threads                   client threads issuing applications
+ * @param initialBalance            cash each investor starts with
+ * @param seed                      random seed, so runs are repeatable
+ */
+public record SimulationSettings(int investors,
+                                 int listings,
+                                 int applicationsPerInvestor,
+                                 long durationMillis,
+                                 ArrivalProcess arrival,
+                                 double burstFraction,
+                                 int threads,
+                                 BigDecimal initialBalance,
+                                 long seed) {
+
+    public SimulationSettings {
+        if (investors < 1 || listings < 1 || threads < 1 || durationMillis < 1) {
+            throw new IllegalArgumentException("investors, listings, threads and duration must be positive");
+        }
+        if (burstFraction <= 0 || burstFraction > 1) {
+            throw new IllegalArgumentException("burstFraction must be in (0, 1]");
+        }
+        applicationsPerInvestor = Math.min(Math.max(applicationsPerInvestor, 1), listings);
+    }
+}
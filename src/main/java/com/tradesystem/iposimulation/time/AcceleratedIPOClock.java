@@ -0,0 +1,46 @@
+package com.tradesystem.iposimulation.time;
+
+/**
+ * Virtual time running {@code rate} times faster than real time from a given origin, and able to jump
+ * forward, so a multi-day subscription-to-draw cycle can be simulated in seconds.
+ */
+public final class AcceleratedIPOClock extends IPOClock {
+
+    private final double rate;
+    private final long originMillis;
+    private final long originNanos;
+    private volatile long offsetMillis;
+
+    public AcceleratedIPOClock(double rate) {
+        this(rate, System.currentTimeMillis());
+    }
+
+    public AcceleratedIPOClock(double rate, long originMillis) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Clock rate must be positive");
+        }
+        this.rate = rate;
+        this.originMillis = originMillis;
+        this.originNanos = System.nanoTime();
+    }
+
+    @Override
+    public double rate() {
+        return rate;
+    }
+
+    @Override
+    public long millis() {
+        return originMillis + offsetMillis + (long) ((System.nanoTime() - originNanos) * rate / 1_000_000L);
+    }
+
+    /**
+     * Jumps the clock forward; it never runs backwards.
+     */
+    public synchronized void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Cannot move the clock backwards");
+        }
+        offsetMillis += millis;
+    }
+}
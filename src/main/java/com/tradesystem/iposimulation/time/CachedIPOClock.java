@@ -0,0 +1,40 @@
+package com.tradesystem.iposimulation.time;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * System time sampled by a background thread once per millisecond, so hot-path reads are a single
+ * volatile load. Readers may see a value up to a tick behind the system clock.
+ */
+public final class CachedIPOClock extends IPOClock {
+
+    private static final long TICK_NANOS = 1_000_000L;
+
+    private volatile long millis = System.currentTimeMillis();
+    private volatile boolean running = true;
+    private final Thread ticker;
+
+    public CachedIPOClock() {
+        ticker = new Thread(this::tick, "ipo-clock-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tick() {
+        while (running) {
+            millis = System.currentTimeMillis();
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tradesystem.iposimulation.time;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.validation.ValidationConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the engine clock with {@code ipo.clock.mode}: {@code real} (default), {@code cached}
+ * (1 ms ticks) or {@code accelerated} ({@code ipo.clock.rate} times real time).
+ */
+@Configuration
+public class ClockConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public IPOClock ipoClock(@Value("${ipo.clock.mode:real}") String mode,
+                             @Value("${ipo.clock.rate:60}") double rate) {
+        return switch (mode) {
+            case "real" -> RealIPOClock.INSTANCE;
+            case "cached" -> new CachedIPOClock();
+            case "accelerated" -> new AcceleratedIPOClock(rate);
+            default -> throw new IllegalArgumentException("Unknown ipo.clock.mode " + mode);
+        };
+    }
+
+    /**
+     * Makes {@code @Future}/{@code @Past} validate against the engine clock.
+     */
+    @Bean
+    public ValidationConfigurationCustomizer ipoClockValidation(IPOClock clock) {
+        return configuration -> configuration.clockProvider(() -> clock);
+    }
+}
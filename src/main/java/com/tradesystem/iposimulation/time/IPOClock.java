@@ -0,0 +1,92 @@
+package com.tradesystem.iposimulation.time;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The single source of "now" for the engine. Being a {@link Clock}, it also plugs into
+ * {@code LocalDateTime.now(clock)} and Bean Validation's {@code @Future}.
+ * <p>
+ * {@link #rate()} is how many milliseconds of clock time pass per real millisecond; anything that
+ * sleeps or schedules until a clock instant divides its delay by it.
+ */
+public abstract class IPOClock extends Clock {
+
+    /**
+     * Milliseconds of clock time per real millisecond.
+     */
+    public double rate() {
+        return 1;
+    }
+
+    /**
+     * Real milliseconds to wait for {@code clockMillis} of clock time to pass.
+     */
+    public long toRealMillis(long clockMillis) {
+        return (long) Math.ceil(clockMillis / rate());
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.ofInstant(instant(), getZone());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneId.systemDefault();
+    }
+
+    /**
+     * This clock seen from another zone: it keeps ticking, accelerating and jumping with this one.
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new ZonedView(this, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public abstract long millis();
+
+    /**
+     * Stops any background ticking.
+     */
+    public void close() {
+    }
+
+    private static final class ZonedView extends Clock {
+
+        private final IPOClock source;
+        private final ZoneId zone;
+
+        ZonedView(IPOClock source, ZoneId zone) {
+            this.source = source;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return source.withZone(zone);
+        }
+
+        @Override
+        public long millis() {
+            return source.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.tradesystem.iposimulation.time;
+
+/**
+ * Reads the system clock on every call.
+ */
+public final class RealIPOClock extends IPOClock {
+
+    public static final RealIPOClock INSTANCE = new RealIPOClock();
+
+    private RealIPOClock() {
+    }
+
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,40 @@
+-- Schema for JdbcDataRepository (H2). Indexes mirror the record finders that run as SQL.
+
+CREATE TABLE IF NOT EXISTS investor (
+    investor_id   VARCHAR(64)    PRIMARY KEY,
+    display_name  VARCHAR(255)   NOT NULL,
+    balance       DECIMAL(19, 4) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS stock (
+    stock_id        VARCHAR(64)    PRIMARY KEY,
+    stock_name      VARCHAR(255)   NOT NULL,
+    stock_symbol    VARCHAR(32)    NOT NULL,
+    price           DECIMAL(19, 4) NOT NULL,
+    total_quantity  INT            NOT NULL,
+    deadline        TIMESTAMP      NOT NULL,
+    issuer_name     VARCHAR(255)   NOT NULL,
+    draw_executed   BOOLEAN        NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ipo_record (
+    seq             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    record_id       VARCHAR(64)    NOT NULL UNIQUE,
+    investor_id     VARCHAR(64)    NOT NULL,
+    stock_id        VARCHAR(64)    NOT NULL,
+    quantity        INT            NOT NULL,
+    price_per_lot   DECIMAL(19, 4) NOT NULL,
+    apply_time      TIMESTAMP      NOT NULL,
+    status          VARCHAR(16)    NOT NULL,
+    failure_reason  VARCHAR(255),
+    -- a losing application whose money a draw without refunds left in escrow
+    escrow_held     BOOLEAN        DEFAULT FALSE NOT NULL
+);
+
+ALTER TABLE ipo_record ADD COLUMN IF NOT EXISTS escrow_held BOOLEAN DEFAULT FALSE NOT NULL;
+
+-- findPendingByStock (stock_id, status) and findRecordsByStock (stock_id) in application order
+CREATE INDEX IF NOT EXISTS ipo_record_stock_status ON ipo_record (stock_id, status, seq);
+
+-- findRecordsByInvestor in application order
+CREATE INDEX IF NOT EXISTS ipo_record_investor ON ipo_record (investor_id, seq);
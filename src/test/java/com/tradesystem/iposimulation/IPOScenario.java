@@ -0,0 +1,91 @@
+package com.tradesystem.iposimulation;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.PublishIPOForm;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.service.ApplyRejectedException;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The market most service-level tests start from: listings that close a day from now, investors who apply to them,
+ * and a clock that can be moved past the deadline to draw. Tests wire the services the way they need them (ledger,
+ * event log, sandbox, JDBC) and hand them in.
+ */
+public final class IPOScenario {
+
+    private final AcceleratedIPOClock clock;
+    private final InvestorService investorService;
+    private final IPOService ipoService;
+    private final List<Investor> investors = new ArrayList<>();
+
+    public IPOScenario(AcceleratedIPOClock clock, InvestorService investorService, IPOService ipoService) {
+        this.clock = clock;
+        this.investorService = investorService;
+        this.ipoService = ipoService;
+    }
+
+    public IPOStock publish(String name, String price, int lots) {
+        PublishIPOForm form = new PublishIPOForm();
+        form.setStockName(name);
+        form.setStockSymbol(name.toUpperCase().replace(" ", ""));
+        form.setPrice(new BigDecimal(price));
+        form.setTotalQuantity(lots);
+        form.setDeadline(clock.now().plusDays(1));
+        form.setIssuerName(name + " Holdings");
+        return ipoService.publishIPO(form);
+    }
+
+    public Investor register(String investorId, String balance) {
+        Investor investor = investorService.registerInvestor(investorId, "Investor " + investorId,
+                new BigDecimal(balance));
+        investors.add(investor);
+        return investor;
+    }
+
+    public List<Investor> investors() {
+        return investors;
+    }
+
+    /**
+     * Applies with every registered investor to each listing, skipping those who cannot afford it.
+     */
+    public int applyAll(IPOStock... stocks) {
+        int accepted = 0;
+        for (Investor investor : investors) {
+            for (IPOStock stock : stocks) {
+                accepted += apply(investor.getInvestorId(), stock) ? 1 : 0;
+            }
+        }
+        return accepted;
+    }
+
+    public boolean apply(String investorId, IPOStock stock) {
+        try {
+            return ipoService.apply(form(investorId, stock.getStockId())).isSuccess();
+        } catch (ApplyRejectedException rejected) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the clock past the deadline of every listing published so far.
+     */
+    public void closeSubscriptions() {
+        clock.advance(Duration.ofDays(2).toMillis());
+    }
+
+    public static ApplyIPOForm form(String investorId, String stockId) {
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId(investorId);
+        form.setStockId(stockId);
+        return form;
+    }
+}
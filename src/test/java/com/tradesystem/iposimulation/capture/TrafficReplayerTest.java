@@ -0,0 +1,123 @@
+package com.tradesystem.iposimulation.capture;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import com.tradesystem.iposimulation.dto.PublishIPOForm;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.IPOServiceHooks;
+import com.tradesystem.iposimulation.service.InvestorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficReplayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void codecShouldRoundTripAndStopAtTruncation() throws Exception {
+        List<CapturedOp> ops = List.of(
+                new CapturedOp.Register(5, "alice", "Alice", new BigDecimal("100.50")),
+                new CapturedOp.Deposit(7, "alice", new BigDecimal("1E+3")),
+                new CapturedOp.Publish(9, "STK-1", "One", "ONE", new BigDecimal("10"), 5, 1_700_000_000_000L, "Issuer"),
+                new CapturedOp.Apply(1_000_000_000L, "alice", "STK-1"),
+                new CapturedOp.Login(1_000_000_001L, "alice"),
+                new CapturedOp.Draw(2_000_000_000L, "STK-1", true));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CaptureWriter writer = new CaptureWriter(bytes, 42L)) {
+            for (CapturedOp op : ops) {
+                writer.write(op);
+            }
+        }
+
+        assertThat(readAll(bytes.toByteArray())).containsExactlyElementsOf(ops);
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 2);
+        assertThat(readAll(truncated)).containsExactlyElementsOf(ops.subList(0, ops.size() - 1));
+    }
+
+    @Test
+    void replayAtMaxSpeedShouldReproduceCapturedOutcomes() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        DataRepository live = new DataRepository();
+        TrafficRecorder recorder = new TrafficRecorder(file, 1024, live.clock());
+        InvestorService investors = new InvestorService(live, recorder);
+        IPOService ipoService = new IPOService(live, investors, IPOServiceHooks.DEFAULT.withCapture(recorder));
+
+        PublishIPOForm publish = new PublishIPOForm();
+        publish.setStockName("Replay Corp");
+        publish.setStockSymbol("RPL");
+        publish.setPrice(new BigDecimal("10"));
+        publish.setTotalQuantity(1);
+        publish.setDeadline(LocalDateTime.now().plusNanos(300_000_000));
+        publish.setIssuerName("Issuer");
+        IPOStock stock = ipoService.publishIPO(publish);
+        for (String id : new String[]{"a", "b", "c"}) {
+            investors.registerInvestor(id, id, BigDecimal.ZERO);
+            investors.deposit(id, new BigDecimal("10"));
+            ipoService.apply(form(id, stock.getStockId()));
+        }
+        ipoService.apply(form("a", stock.getStockId()));
+        Thread.sleep(400);
+        investors.registerInvestor("late", "late", new BigDecimal("10"));
+        try {
+            ipoService.apply(form("late", stock.getStockId()));
+        } catch (RuntimeException expected) {
+            // Applying after the deadline is rejected with an exception.
+        }
+        ipoService.executeDraw(stock.getStockId(), true);
+        recorder.close();
+        live.close();
+
+        DataRepository replayed = new DataRepository();
+        ReplayReport report;
+        try (CaptureReader reader = new CaptureReader(Files.newInputStream(file))) {
+            report = new TrafficReplayer(replayed, Double.POSITIVE_INFINITY).replay(reader);
+        }
+
+        assertThat(report.applyOutcomes())
+                .containsEntry(ApplyOutcome.SUCCESS, 3L)
+                .containsEntry(ApplyOutcome.DUPLICATE, 1L)
+                .containsEntry(ApplyOutcome.EXPIRED, 1L);
+        assertThat(report.failures()).doesNotContainKey("draw");
+        assertThat(report.replayNanos()).isLessThan(report.capturedNanos());
+        assertThat(replayed.findRecordsByStock(stock.getStockId()))
+                .extracting(record -> record.getStatus())
+                .containsExactlyInAnyOrder(Status.WON, Status.LOST, Status.LOST);
+        assertThat(replayed.findInvestor("late")).isPresent();
+        replayed.close();
+    }
+
+    private static List<CapturedOp> readAll(byte[] bytes) throws Exception {
+        List<CapturedOp> ops = new ArrayList<>();
+        try (CaptureReader reader = new CaptureReader(new ByteArrayInputStream(bytes))) {
+            assertThat(reader.getStartEpochMillis()).isEqualTo(42L);
+            CapturedOp op;
+            while ((op = reader.next()) != null) {
+                ops.add(op);
+            }
+        }
+        return ops;
+    }
+
+    private static ApplyIPOForm form(String investorId, String stockId) {
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId(investorId);
+        form.setStockId(stockId);
+        return form;
+    }
+}
@@ -1,6 +1,10 @@
 package com.tradesystem.iposimulation.controller;
 
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.export.RecordExporter;
 import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import com.tradesystem.iposimulation.service.IPOService;
 import com.tradesystem.iposimulation.service.InvestorService;
 import jakarta.servlet.http.HttpSession;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,8 +25,11 @@ class AuthControllerTest {
 
     @BeforeEach
     void setUp() {
-        investorService = new TrackingInvestorService(new DataRepository());
-        controller = new AuthController(investorService);
+        DataRepository repository = new DataRepository();
+        investorService = new TrackingInvestorService(repository);
+        RecordExporter exporter = new RecordExporter(repository);
+        controller = new AuthController(new SandboxRegistry(repository, investorService,
+                new IPOService(repository, investorService), exporter, new JsonResponseWriter(exporter)));
     }
 
     @Test
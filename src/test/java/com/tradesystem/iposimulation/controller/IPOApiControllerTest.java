@@ -0,0 +1,149 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.sandbox.SandboxRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IPOApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataRepository repository;
+
+    @Autowired
+    private SandboxRegistry sandboxes;
+
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository.reset();
+        repository.saveStock(new IPOStock("STK-API", "Api Corp", "API",
+                new BigDecimal("100"), 10, LocalDateTime.now().plusDays(1), "Issuer"));
+        session = new MockHttpSession();
+        mockMvc.perform(post("/api/v1/session").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":\"api-user\"}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldDepositApplyAndPageHistory() throws Exception {
+        mockMvc.perform(post("/api/v1/me/deposits").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":500}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(500));
+
+        mockMvc.perform(post("/api/v1/me/applications").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockId\":\"STK-API\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Server-Timing"))
+                .andExpect(jsonPath("$.record.stockId").value("STK-API"))
+                .andExpect(jsonPath("$.record.status").value("PENDING"));
+
+        mockMvc.perform(post("/api/v1/me/applications").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockId\":\"STK-API\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+
+        mockMvc.perform(get("/api/v1/me/applications").session(session).param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void shouldRejectInsufficientFundsAndAnonymousCallers() throws Exception {
+        mockMvc.perform(post("/api/v1/me/applications").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockId\":\"STK-API\"}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/api/v1/me"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/admin/ipos/STK-API/draw").session(session))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void boundSessionShouldApplyInItsForkedSandboxOnly() throws Exception {
+        sandboxes.remove("api-scenario");
+        sandboxes.removeSnapshot("api-base");
+        mockMvc.perform(post("/api/v1/sandboxes/main/snapshots/api-base").session(session))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/sandboxes/api-scenario").session(session))
+                .andExpect(status().isUnauthorized());
+
+        MockHttpSession admin = new MockHttpSession();
+        mockMvc.perform(post("/api/v1/session").session(admin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":\"admin\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/sandboxes/main/snapshots/api-base").session(admin))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.stocks").value(repository.countStocks()));
+        mockMvc.perform(post("/api/v1/sandboxes/api-scenario").param("from", "api-base").session(admin))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Server-Timing"))
+                .andExpect(jsonPath("$.origin").value("snapshot api-base"));
+        mockMvc.perform(put("/api/v1/session/sandbox/api-scenario").session(session))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/me/deposits").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":500}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/me/applications").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockId\":\"STK-API\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.record.stockName").value("Api Corp"));
+        mockMvc.perform(get("/api/v1/sandboxes").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.current").value("api-scenario"));
+
+        assertThat(repository.hasRecord("api-user", "STK-API")).isFalse();
+        assertThat(repository.findInvestor("api-user").orElseThrow().getBalance()).isZero();
+
+        mockMvc.perform(put("/api/v1/session/sandbox/main").session(session))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/me/applications").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records.length()").value(0));
+        sandboxes.remove("api-scenario");
+        sandboxes.removeSnapshot("api-base");
+    }
+
+    @Test
+    void shouldListOpenIPOs() throws Exception {
+        mockMvc.perform(get("/api/v1/ipos").param("state", "open"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.stockId == 'STK-API')].state").value("OPEN"));
+    }
+}
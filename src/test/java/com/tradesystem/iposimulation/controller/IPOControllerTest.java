@@ -0,0 +1,177 @@
+package com.tradesystem.iposimulation.controller;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IPOControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataRepository repository;
+
+    @Autowired
+    private IPOService ipoService;
+
+    @Autowired
+    private InvestorService investorService;
+
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() {
+        repository.reset();
+        session = new MockHttpSession();
+        session.setAttribute("CURRENT_USER", "viewer");
+        investorService.loginOrCreate("viewer");
+        investorService.deposit("viewer", new BigDecimal("10000"));
+    }
+
+    @Test
+    void listPageShouldExposeMaintainedViewOfAppliedStocks() throws Exception {
+        IPOStock stock = new IPOStock("STK-VIEW", "View Corp", "VIEW",
+                new BigDecimal("100"), 10, LocalDateTime.now().plusDays(1), "Issuer");
+        repository.saveStock(stock);
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId("viewer");
+        form.setStockId(stock.getStockId());
+        ipoService.apply(form);
+
+        var result = mockMvc.perform(get("/ipo/list").session(session))
+                .andExpect(status().isOk())
+                .andExpect(view().name("ipo/list"))
+                .andExpect(model().attributeExists("recordCounts", "stockNames"))
+                .andExpect(content().string(containsString("Pending: 1")))
+                .andReturn();
+
+        @SuppressWarnings("unchecked")
+        Set<String> applied = (Set<String>) result.getModelAndView().getModel().get("appliedStockIds");
+        assertThat(applied).containsExactly("STK-VIEW");
+    }
+
+    @Test
+    void recordsPageShouldRenderFilteredPageWithNextLink() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            IPOStock stock = new IPOStock("STK-PG" + i, "Paged " + i, "PG" + i,
+                    new BigDecimal("10"), 10, LocalDateTime.now().plusDays(1), "Issuer");
+            repository.saveStock(stock);
+            ApplyIPOForm form = new ApplyIPOForm();
+            form.setInvestorId("viewer");
+            form.setStockId(stock.getStockId());
+            ipoService.apply(form);
+        }
+
+        mockMvc.perform(get("/ipo/records").param("size", "2").param("status", "PENDING").session(session))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Older")))
+                .andExpect(content().string(containsString("Paged 2")));
+    }
+
+    @Test
+    void listPageShouldAnswerNotModifiedUntilInvestorStateChanges() throws Exception {
+        String etag = mockMvc.perform(get("/ipo/list").session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/ipo/list").session(session).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        investorService.deposit("viewer", new BigDecimal("5"));
+
+        mockMvc.perform(get("/ipo/list").session(session).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listPageTagShouldNotMatchAnotherInvestorOrOutlastDemandChanges() throws Exception {
+        IPOStock stock = repository.saveStock(new IPOStock("STK-TAG", "Tag Corp", "TAG",
+                new BigDecimal("100"), 10, LocalDateTime.now().plusDays(1), "Issuer"));
+        MockHttpSession other = new MockHttpSession();
+        other.setAttribute("CURRENT_USER", "other");
+        investorService.loginOrCreate("other");
+        investorService.deposit("other", new BigDecimal("10000"));
+        String etag = mockMvc.perform(get("/ipo/list").session(session))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/ipo/list").session(session).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/ipo/list").session(other).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId("other");
+        form.setStockId(stock.getStockId());
+        ipoService.apply(form);
+
+        mockMvc.perform(get("/ipo/list").session(session).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void stylesheetShouldBeServedFromContentHashedUrl() throws Exception {
+        String page = mockMvc.perform(get("/ipo/list").session(session))
+                .andExpect(content().string(matchesPattern("(?s).*/css/main-[0-9a-f]{32}\\.css.*")))
+                .andReturn().getResponse().getContentAsString();
+        Matcher hashed = Pattern.compile("/css/main-[0-9a-f]{32}\\.css").matcher(page);
+        assertThat(hashed.find()).isTrue();
+
+        mockMvc.perform(get(hashed.group()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public"));
+        mockMvc.perform(get("/css/main.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Cache-Control"));
+    }
+
+    @Test
+    void historyExportShouldStreamCsv() throws Exception {
+        IPOStock stock = new IPOStock("STK-CSV", "Csv Corp", "CSV",
+                new BigDecimal("10"), 10, LocalDateTime.now().plusDays(1), "Issuer");
+        repository.saveStock(stock);
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId("viewer");
+        form.setStockId(stock.getStockId());
+        ipoService.apply(form);
+
+        var async = mockMvc.perform(get("/ipo/records/export.csv").session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("viewer-history.csv")))
+                .andExpect(content().string(containsString(",viewer,STK-CSV,Csv Corp,1,10,PENDING,")));
+    }
+}
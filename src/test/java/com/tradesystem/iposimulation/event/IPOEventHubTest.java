@@ -0,0 +1,119 @@
+package com.tradesystem.iposimulation.event;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IPOEventHubTest {
+
+    private DataRepository repository;
+    private IPOEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DataRepository();
+        // Long demand interval: the test flushes explicitly.
+        hub = new IPOEventHub(repository, 4, 60_000, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.close();
+    }
+
+    @Test
+    void shouldCoalesceDemandAndRouteDrawResultsToTheirInvestor() throws Exception {
+        RecordingSink alice = new RecordingSink();
+        RecordingSink bob = new RecordingSink();
+        hub.subscribe("alice", alice);
+        hub.subscribe("bob", bob);
+
+        IPOStock stock = new IPOStock("STK-EV", "Event Corp", "EVT", BigDecimal.TEN, 1,
+                LocalDateTime.now().plusDays(1), "Issuer");
+        repository.saveStock(stock);
+        IPORecord record = null;
+        for (int i = 0; i < 3; i++) {
+            repository.reserveStockLots(stock.getStockId(), 1, Integer.MAX_VALUE);
+            record = repository.saveRecord(new IPORecord("REC-EV" + i, "alice", stock.getStockId(), 1,
+                    BigDecimal.TEN, LocalDateTime.now(), Status.PENDING));
+        }
+        hub.flushDemand();
+        repository.markWon(record);
+
+        alice.await(3);
+        bob.await(2);
+        assertThat(alice.types()).containsExactly(IPOEvent.PUBLISHED, IPOEvent.DEMAND, IPOEvent.DRAW_RESULT);
+        assertThat(alice.events.get(1).data()).containsEntry("lots", 3);
+        assertThat(bob.types()).containsExactly(IPOEvent.PUBLISHED, IPOEvent.DEMAND);
+    }
+
+    @Test
+    void shouldReplaceBacklogWithResyncForSlowConsumer() throws Exception {
+        RecordingSink slow = new RecordingSink();
+        slow.gate = new CountDownLatch(1);
+        IPOEventHub.Subscription subscription = hub.subscribe("slow", slow);
+
+        for (int i = 0; i < 10; i++) {
+            repository.saveStock(new IPOStock("STK-SLOW" + i, "Slow " + i, "SL" + i, BigDecimal.TEN, 1,
+                    LocalDateTime.now().plusDays(1), "Issuer"));
+        }
+        slow.gate.countDown();
+
+        slow.awaitType(IPOEvent.RESYNC);
+        assertThat(subscription.getOverflows()).isPositive();
+        assertThat(slow.events.size()).isLessThan(10);
+    }
+
+    private static class RecordingSink implements EventSink {
+
+        private final List<IPOEvent> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+
+        @Override
+        public void send(IPOEvent event) {
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        List<String> types() {
+            return events.stream().map(IPOEvent::type).toList();
+        }
+
+        void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        void awaitType(String type) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!types().contains(type) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
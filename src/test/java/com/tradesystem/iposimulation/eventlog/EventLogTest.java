@@ -0,0 +1,103 @@
+package com.tradesystem.iposimulation.eventlog;
+
+import com.tradesystem.iposimulation.IPOScenario;
+import com.tradesystem.iposimulation.capture.TrafficCapture;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.IPOServiceHooks;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EventLogTest {
+
+    @Test
+    void rebuiltProjectionsShouldMatchLiveState() throws InterruptedException {
+        EventLog log = new EventLog();
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        DataRepository repository = new DataRepository(clock, false);
+        InvestorService investorService = new InvestorService(repository, TrafficCapture.NOOP, log);
+        IPOService ipoService = new IPOService(repository, investorService, IPOServiceHooks.DEFAULT.withEvents(log));
+
+        IPOScenario scenario = new IPOScenario(clock, investorService, ipoService);
+        for (int i = 0; i < 40; i++) {
+            Investor investor = scenario.register("INV-" + i, "100");
+            investorService.deposit(investor.getInvestorId(), new BigDecimal(i * 10 + 10));
+        }
+        List<IPOStock> stocks = List.of(scenario.publish("Event 5", "100", 5), scenario.publish("Event 3", "100", 3),
+                scenario.publish("Event 2", "100", 2));
+        // Poorer investors run out of cash; no event is recorded for them.
+        scenario.applyAll(stocks.toArray(IPOStock[]::new));
+        scenario.closeSubscriptions();
+        ipoService.executeDraw(stocks.get(0).getStockId(), true);
+        ipoService.executeDraw(stocks.get(1).getStockId(), false);
+
+        BalanceProjection balances = new BalanceProjection();
+        PendingProjection pending = new PendingProjection();
+        HistoryProjection histories = new HistoryProjection();
+        assertThat(log.rebuild(balances, 4)).isEqualTo(log.size());
+        log.rebuild(pending, 4);
+        log.rebuild(histories, 4);
+
+        for (Investor investor : scenario.investors()) {
+            assertThat(balances.balance(investor.getInvestorId())).isEqualByComparingTo(investor.getBalance());
+            assertThat(histories.history(investor.getInvestorId()))
+                    .extracting(HistoryProjection.Entry::recordId, HistoryProjection.Entry::status)
+                    .containsExactlyElementsOf(repository.findRecordsByInvestor(investor.getInvestorId()).stream()
+                            .map(record -> tuple(record.getRecordId(), record.getStatus()))
+                            .toList());
+        }
+        for (IPOStock stock : stocks) {
+            assertThat(pending.pending(stock.getStockId())).containsExactlyElementsOf(
+                    repository.findPendingByStock(stock.getStockId()).stream().map(IPORecord::getRecordId).toList());
+            assertThat(pending.isDrawn(stock.getStockId())).isEqualTo(stock.isDrawExecuted());
+        }
+
+        BalanceProjection sequential = new BalanceProjection();
+        log.replay(sequential);
+        assertThat(sequential.balances()).isEqualTo(balances.balances());
+    }
+
+    @Test
+    void parallelRebuildShouldKeepLogOrderWithinEachPartition() throws InterruptedException {
+        EventLog log = new EventLog();
+        int records = 200_000;
+        for (int i = 0; i < records; i++) {
+            String investorId = "INV-" + (i % 997);
+            log.append(new DomainEvent.Applied(i, "REC-" + i, investorId, "STK-1", 1, BigDecimal.TEN));
+            if (i >= 10) {
+                int decided = i - 10;
+                log.append(new DomainEvent.Allocated(i, "REC-" + decided, "INV-" + (decided % 997), "STK-1",
+                        decided % 3 == 0));
+            }
+        }
+
+        HistoryProjection histories = new HistoryProjection();
+        log.rebuild(histories, 8);
+
+        long pendingCount = 0;
+        long wonCount = 0;
+        for (int investor = 0; investor < 997; investor++) {
+            for (HistoryProjection.Entry entry : histories.history("INV-" + investor)) {
+                int sequence = Integer.parseInt(entry.recordId().substring(4));
+                Status expected = sequence >= records - 10 ? Status.PENDING
+                        : sequence % 3 == 0 ? Status.WON : Status.LOST;
+                assertThat(entry.status()).as(entry.recordId()).isEqualTo(expected);
+                pendingCount += entry.status() == Status.PENDING ? 1 : 0;
+                wonCount += entry.status() == Status.WON ? 1 : 0;
+            }
+        }
+        assertThat(pendingCount).isEqualTo(10);
+        assertThat(wonCount).isEqualTo((records - 10 + 2) / 3);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tradesystem.iposimulation.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordExporterTest {
+
+    private DataRepository repository;
+    private RecordExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DataRepository();
+        exporter = new RecordExporter(repository);
+        repository.saveStock(new IPOStock("STK-EXP", "Export, Inc", "EXP", new BigDecimal("12.50"), 1,
+                LocalDateTime.of(2030, 1, 1, 12, 0), "Issuer"));
+        for (int i = 0; i < 3; i++) {
+            repository.saveRecord(new IPORecord("REC-X" + i, "INV-" + i, "STK-EXP", 1, new BigDecimal("12.50"),
+                    LocalDateTime.of(2029, 12, 31, 9, i), Status.PENDING));
+        }
+        repository.markWon(repository.findRecordsByStock("STK-EXP").get(1));
+    }
+
+    @Test
+    void shouldWriteCsvWithQuotedNames() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.writeCsv(repository.iterateRecordsByStock("STK-EXP"), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).hasSize(4);
+        assertThat(lines[2]).isEqualTo("REC-X1,INV-1,STK-EXP,\"Export, Inc\",1,12.50,WON,2029-12-31T09:01");
+    }
+
+    @Test
+    void shouldWriteJsonArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeJson(repository.iterateRecordsByStock("STK-EXP"), out);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(json).hasSize(3);
+        assertThat(json.get(1).get("status").asText()).isEqualTo("WON");
+        assertThat(json.get(0).get("pricePerLot").decimalValue()).isEqualByComparingTo("12.50");
+    }
+}
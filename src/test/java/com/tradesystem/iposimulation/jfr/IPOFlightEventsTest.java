@@ -0,0 +1,87 @@
+package com.tradesystem.iposimulation.jfr;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IPOFlightEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldEmitApplyDrawAndRefundEvents() throws Exception {
+        DataRepository repository = new DataRepository();
+        repository.reset();
+        InvestorService investorService = new InvestorService(repository);
+        IPOService ipoService = new IPOService(repository, investorService);
+        repository.saveStock(new IPOStock("STK-JFR", "Jfr Corp", "JFR",
+                new BigDecimal("10"), 1, LocalDateTime.now().plusDays(1), "Issuer"));
+
+        Path file = tempDir.resolve("ipo.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ApplyEvent.class);
+            recording.enable(DrawEvent.class);
+            recording.enable(RefundBatchEvent.class);
+            recording.start();
+
+            for (String id : new String[]{"a", "b"}) {
+                investorService.registerInvestor(id, id, new BigDecimal("10"));
+                ApplyIPOForm form = new ApplyIPOForm();
+                form.setInvestorId(id);
+                form.setStockId("STK-JFR");
+                ipoService.apply(form);
+            }
+            repository.saveStock(new IPOStock("STK-JFR", "Jfr Corp", "JFR",
+                    new BigDecimal("10"), 1, LocalDateTime.now().minusMinutes(1), "Issuer"));
+            ipoService.executeDraw("STK-JFR", true);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("tradesystem.ipo.Apply"))
+                .hasSize(2)
+                .allSatisfy(e -> assertThat(e.getString("outcome")).isEqualTo("success"));
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("tradesystem.ipo.Draw"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getInt("pending")).isEqualTo(2);
+                    assertThat(e.getInt("winners")).isEqualTo(1);
+                });
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("tradesystem.ipo.RefundBatch"))
+                .singleElement()
+                .satisfies(e -> assertThat(e.getString("amount")).isEqualTo("10"));
+    }
+
+    @Test
+    void shippedProfileShouldParseAndEnableBusinessEvents() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/ipo.jfc"), StandardCharsets.UTF_8)) {
+            Configuration configuration = Configuration.create(reader);
+            assertThat(configuration.getSettings())
+                    .containsEntry("tradesystem.ipo.Apply#enabled", "true")
+                    .containsEntry("tradesystem.ipo.Draw#enabled", "true")
+                    .containsEntry("tradesystem.ipo.RefundBatch#enabled", "true");
+        }
+    }
+}
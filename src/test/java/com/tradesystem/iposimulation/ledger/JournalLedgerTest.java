@@ -0,0 +1,149 @@
+package com.tradesystem.iposimulation.ledger;
+
+import com.tradesystem.iposimulation.IPOScenario;
+import com.tradesystem.iposimulation.capture.TrafficCapture;
+import com.tradesystem.iposimulation.eventlog.EventRecorder;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.IPOServiceHooks;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class JournalLedgerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void runningTotalsShouldTrackEveryBalanceAndReplayFromTheJournal() throws Exception {
+        Path file = directory.resolve("ledger.journal");
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        DataRepository repository = new DataRepository(clock, false);
+        try (JournalLedger ledger = new JournalLedger(clock, file, 64, false)) {
+            InvestorService investorService = new InvestorService(repository, TrafficCapture.NOOP,
+                    EventRecorder.NOOP, ledger);
+            IPOService ipoService = new IPOService(repository, investorService,
+                    IPOServiceHooks.DEFAULT.withLedger(ledger));
+
+            IPOScenario scenario = new IPOScenario(clock, investorService, ipoService);
+            for (int i = 0; i < 30; i++) {
+                Investor investor = scenario.register("INV-" + i, "100");
+                investorService.deposit(investor.getInvestorId(), new BigDecimal("150"));
+            }
+            IPOStock refunded = scenario.publish("Ledger 4", "100", 4);
+            IPOStock kept = scenario.publish("Ledger 6", "100", 6);
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            for (Investor investor : scenario.investors()) {
+                for (IPOStock stock : List.of(refunded, kept)) {
+                    pool.execute(() -> scenario.apply(investor.getInvestorId(), stock));
+                }
+            }
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            scenario.closeSubscriptions();
+            ipoService.executeDraw(refunded.getStockId(), true);
+            ipoService.executeDraw(kept.getStockId(), false);
+
+            for (Investor investor : scenario.investors()) {
+                assertThat(ledger.balance(Account.cash(investor.getInvestorId())))
+                        .isEqualByComparingTo(investor.getBalance());
+            }
+            assertThat(ledger.balance(Account.EXTERNAL)).isEqualByComparingTo("-7500");
+            assertThat(ledger.balance(Account.escrow(refunded.getStockId()))).isZero();
+            assertThat(ledger.balance(Account.issuer(refunded.getStockId()))).isEqualByComparingTo("400");
+            assertThat(ledger.balance(Account.escrow(kept.getStockId()))).isEqualByComparingTo("2400");
+            assertThat(ledger.balance(Account.issuer(kept.getStockId()))).isEqualByComparingTo("600");
+            assertThat(ledger.balances().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add)).isZero();
+
+            ledger.awaitCommitted();
+            assertThat(ledger.getCommittedBatches()).isPositive();
+            Map<Account, BigDecimal> replayed = JournalReader.balances(file);
+            assertThat(replayed.keySet()).isEqualTo(ledger.balances().keySet());
+            replayed.forEach((account, total) -> assertThat(total).isEqualByComparingTo(ledger.balance(account)));
+
+            List<Long> sequences = new ArrayList<>();
+            JournalReader.forEach(file, entry -> sequences.add(entry.sequence()));
+            // 30 openings, 30 deposits, 60 subscriptions, 10 settlements and 26 refunds
+            assertThat(sequences).hasSize(156).isSorted().startsWith(1L).endsWith(156L);
+        }
+    }
+
+    @Test
+    void shouldOpenWithWhatInvestorsAlreadyHold() throws Exception {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        DataRepository repository = new DataRepository(clock, false);
+        // State from before the ledger started, as a file-backed JDBC repository loads it.
+        InvestorService unjournaled = new InvestorService(repository);
+        IPOScenario before = new IPOScenario(clock, unjournaled, new IPOService(repository, unjournaled));
+        IPOStock stock = before.publish("Ledger 1", "100", 1);
+        for (int i = 0; i < 3; i++) {
+            before.register("held-" + i, "250");
+        }
+        before.applyAll(stock);
+
+        try (JournalLedger ledger = new JournalLedger(clock, directory.resolve("opened.journal"), 8, false)) {
+            ledger.openFrom(repository);
+            IPOService ipoService = new IPOService(repository,
+                    new InvestorService(repository, TrafficCapture.NOOP, EventRecorder.NOOP, ledger),
+                    IPOServiceHooks.DEFAULT.withLedger(ledger));
+            assertThat(ledger.balance(Account.escrow(stock.getStockId()))).isEqualByComparingTo("300");
+            before.closeSubscriptions();
+            ipoService.executeDraw(stock.getStockId(), true);
+
+            for (Investor investor : before.investors()) {
+                assertThat(ledger.balance(Account.cash(investor.getInvestorId())))
+                        .isEqualByComparingTo(investor.getBalance());
+            }
+            assertThat(ledger.balance(Account.EXTERNAL)).isEqualByComparingTo("-750");
+            assertThat(ledger.balance(Account.escrow(stock.getStockId()))).isZero();
+            assertThat(ledger.balance(Account.issuer(stock.getStockId()))).isEqualByComparingTo("100");
+        }
+        repository.close();
+    }
+
+    @Test
+    void shouldRejectEmptyPostings() throws Exception {
+        try (JournalLedger ledger = new JournalLedger(new AcceleratedIPOClock(1),
+                directory.resolve("empty.journal"), 8, true)) {
+            assertThatThrownBy(() -> ledger.post(JournalEntry.Kind.DEPOSIT, Account.EXTERNAL, Account.cash("INV-1"),
+                    BigDecimal.ZERO, "INV-1")).isInstanceOf(IllegalArgumentException.class);
+            assertThat(Account.parse(Account.escrow("STK-1:A").toString())).isEqualTo(Account.escrow("STK-1:A"));
+        }
+    }
+
+    @Test
+    void shouldRejectPostingsOnceAJournalBatchKeepsFailing() throws Exception {
+        Path full = Path.of("/dev/full");
+        assumeTrue(Files.isWritable(full), "needs /dev/full to fail every write");
+        try (JournalLedger ledger = new JournalLedger(new AcceleratedIPOClock(1), full, 8, false)) {
+            ledger.post(JournalEntry.Kind.DEPOSIT, Account.EXTERNAL, Account.cash("INV-1"), BigDecimal.TEN, "INV-1");
+
+            assertThatThrownBy(ledger::awaitCommitted)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Journal write failed");
+            assertThatThrownBy(() -> ledger.post(JournalEntry.Kind.DEPOSIT, Account.EXTERNAL, Account.cash("INV-1"),
+                    BigDecimal.TEN, "INV-1"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("no further postings are accepted");
+            assertThat(ledger.balance(Account.cash("INV-1"))).isEqualByComparingTo("10");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradesystem.iposimulation.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplyLogTest {
+
+    private final Logger logger = (Logger) ApplyLog.LOG;
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    void attach() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void aggregateModeShouldLogOneSummaryPerStockPerWindow() {
+        AggregatingApplyLog log = new AggregatingApplyLog(60_000);
+        try {
+            for (int i = 0; i < 3; i++) {
+                log.completed(ApplyOutcome.SUCCESS, "INV-" + i, "STK-A");
+            }
+            log.completed(ApplyOutcome.DUPLICATE, "INV-0", "STK-A");
+            log.completed(ApplyOutcome.INSUFFICIENT_FUNDS, "INV-9", "STK-B");
+            assertThat(appender.list).isEmpty();
+
+            log.flush();
+            assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactlyInAnyOrder(
+                    "Applications stock=STK-A window=60000ms total=4 success=3 duplicate=1",
+                    "Applications stock=STK-B window=60000ms total=1 insufficient_funds=1");
+
+            log.flush();
+            assertThat(appender.list).hasSize(2);
+        } finally {
+            log.close();
+        }
+    }
+
+    @Test
+    void sampleModeShouldLogOneInNPerOutcome() {
+        SampledApplyLog log = new SampledApplyLog(10);
+        for (int i = 0; i < 100; i++) {
+            log.completed(ApplyOutcome.SUCCESS, "INV-" + i, "STK-A");
+        }
+        log.completed(ApplyOutcome.EXPIRED, "INV-0", "STK-A");
+
+        assertThat(appender.list).hasSize(11);
+        assertThat(appender.list.get(appender.list.size() - 1).getFormattedMessage()).contains("outcome=expired");
+    }
+}
@@ -0,0 +1,105 @@
+package com.tradesystem.iposimulation.metrics;
+
+import com.tradesystem.iposimulation.dto.ApplyIPOForm;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.IPOServiceHooks;
+import com.tradesystem.iposimulation.service.InvestorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MicrometerIPOMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private DataRepository repository;
+    private InvestorService investorService;
+    private IPOService ipoService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        repository = new DataRepository();
+        repository.reset();
+        investorService = new InvestorService(repository);
+        ipoService = new IPOService(repository, investorService,
+                IPOServiceHooks.DEFAULT.withMetrics(new MicrometerIPOMetrics(registry, repository)));
+    }
+
+    @Test
+    void shouldTimeApplicationsByOutcome() {
+        repository.saveStock(new IPOStock("STK-M", "Metric Corp", "MET",
+                new BigDecimal("100"), 1, LocalDateTime.now().plusDays(1), "Issuer"));
+        investorService.registerInvestor("rich", "Rich", new BigDecimal("1000"));
+        investorService.registerInvestor("poor", "Poor", BigDecimal.ZERO);
+
+        ipoService.apply(form("rich", "STK-M"));
+        ipoService.apply(form("rich", "STK-M"));
+        assertThatThrownBy(() -> ipoService.apply(form("poor", "STK-M")))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("ipo.apply").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ipo.apply").tag("outcome", "duplicate").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ipo.apply").tag("outcome", "insufficient_funds").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ipo.apply.lock.wait").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ipo.repository.size").tag("entity", "records").gauge().value())
+                .isEqualTo(repository.countRecords());
+    }
+
+    @Test
+    void shouldTagUnexpectedFailuresAsErrors() {
+        DataRepository failing = new DataRepository() {
+            @Override
+            public IPORecord saveRecord(IPORecord record) {
+                throw new IllegalStateException("JDBC write-behind failed");
+            }
+        };
+        failing.reset();
+        InvestorService investors = new InvestorService(failing);
+        IPOService service = new IPOService(failing, investors,
+                IPOServiceHooks.DEFAULT.withMetrics(new MicrometerIPOMetrics(registry, failing)));
+        failing.saveStock(new IPOStock("STK-E", "Error Corp", "ERR",
+                new BigDecimal("100"), 1, LocalDateTime.now().plusDays(1), "Issuer"));
+        investors.registerInvestor("rich", "Rich", new BigDecimal("1000"));
+
+        assertThatThrownBy(() -> service.apply(form("rich", "STK-E")))
+                .hasMessage("JDBC write-behind failed");
+
+        assertThat(registry.get("ipo.apply").tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ipo.apply").tag("outcome", "insufficient_funds").timer().count()).isZero();
+        failing.close();
+    }
+
+    @Test
+    void shouldRecordDrawDurationAndRefunds() {
+        repository.saveStock(new IPOStock("STK-D", "Draw Corp", "DRW",
+                new BigDecimal("10"), 1, LocalDateTime.now().plusDays(1), "Issuer"));
+        for (String id : new String[]{"a", "b", "c"}) {
+            investorService.registerInvestor(id, id, new BigDecimal("10"));
+            ipoService.apply(form(id, "STK-D"));
+        }
+        repository.saveStock(new IPOStock("STK-D", "Draw Corp", "DRW",
+                new BigDecimal("10"), 1, LocalDateTime.now().minusMinutes(1), "Issuer"));
+
+        ipoService.executeDraw("STK-D", true);
+
+        assertThat(registry.get("ipo.draw").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ipo.draw.records").counter().count()).isEqualTo(3);
+        assertThat(registry.get("ipo.refunds").counter().count()).isEqualTo(2);
+    }
+
+    private static ApplyIPOForm form(String investorId, String stockId) {
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId(investorId);
+        form.setStockId(stockId);
+        return form;
+    }
+}
@@ -0,0 +1,71 @@
+package com.tradesystem.iposimulation.mvcc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VersionsTest {
+
+    @Test
+    void readersShouldSeeATransactionWhollyOrNotAtAll() {
+        VersionedValue<String> value = VersionedValue.existing("before");
+        VersionedTotal<Integer> total = VersionedTotal.existing(100, Integer::sum);
+
+        try (ReadView before = Versions.pin()) {
+            VersionedValue<String> created = Versions.write(() -> {
+                value.set("draft");
+                value.set("after");
+                total.add(-30);
+                VersionedValue<String> fresh = new VersionedValue<>("new");
+                try (ReadView during = Versions.pin()) {
+                    assertThat(value.at(during)).isEqualTo("before");
+                    assertThat(total.at(during)).isEqualTo(100);
+                    assertThat(fresh.at(during)).isNull();
+                }
+                return fresh;
+            });
+            total.add(5);
+
+            try (ReadView after = Versions.pin()) {
+                assertThat(value.at(after)).isEqualTo("after");
+                assertThat(total.at(after)).isEqualTo(75);
+                assertThat(created.at(after)).isEqualTo("new");
+            }
+            assertThat(value.latest()).isEqualTo("after");
+            assertThat(value.at(before)).isEqualTo("before");
+            assertThat(total.at(before)).isEqualTo(100);
+            assertThat(created.at(before)).isNull();
+        }
+    }
+
+    @Test
+    void versionsShouldBeReclaimedOnceTheLastReaderLetsGo() {
+        VersionedValue<Integer> value = VersionedValue.existing(0);
+        VersionedTotal<Integer> total = VersionedTotal.existing(0, Integer::sum);
+        ReadView oldest = Versions.pin();
+        for (int i = 1; i <= 5; i++) {
+            value.set(i);
+            total.add(1);
+        }
+        ReadView newer = Versions.pin();
+        value.set(6);
+        total.add(1);
+
+        assertThat(value.depth()).isEqualTo(7);
+        assertThat(total.depth()).isEqualTo(6);
+        assertThat(value.at(oldest)).isZero();
+        assertThat(total.at(newer)).isEqualTo(5);
+
+        oldest.close();
+        assertThat(value.depth()).isEqualTo(2);
+        assertThat(total.depth()).isEqualTo(1);
+        assertThat(value.at(newer)).isEqualTo(5);
+        assertThat(total.at(newer)).isEqualTo(5);
+
+        newer.close();
+        assertThat(value.depth()).isEqualTo(1);
+        assertThat(total.depth()).isZero();
+        assertThatThrownBy(() -> value.at(newer)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,201 @@
+package com.tradesystem.iposimulation.query;
+
+import com.tradesystem.iposimulation.dto.ApplicationQuery;
+import com.tradesystem.iposimulation.dto.ApplicationQueryResult;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.repository.RecordArchive;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 5, 6, 9, 0);
+    private static final LocalDate CLOSING_DAY = BASE.toLocalDate().plusDays(3);
+    private static final String[] PRICES = {"100.00", "250.00", "500.00", "500.01", "800.00", "2000.00"};
+
+    private DataRepository repository;
+    private ApplicationIndex index;
+    private final List<IPORecord> records = new ArrayList<>();
+    private final Map<String, Integer> applicationsPerInvestor = new HashMap<>();
+    private int recordSeq;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DataRepository(new AcceleratedIPOClock(1), false);
+        index = new ApplicationIndex(repository);
+        for (int s = 0; s < PRICES.length; s++) {
+            LocalDateTime deadline = CLOSING_DAY.atTime(s % 2 == 0 ? 12 : 23, 0).plusDays(s / 4);
+            repository.saveStock(new IPOStock("STK-Q" + s, "Listing " + s, "Q" + s, new BigDecimal(PRICES[s]), 10,
+                    deadline, "Issuer"));
+        }
+        for (int i = 0; i < 300; i++) {
+            for (int s = 0; s <= i % PRICES.length; s++) {
+                apply("INV-Q" + i, s, BASE.plusHours(i % 72));
+            }
+        }
+    }
+
+    @Test
+    void shouldAnswerCombinedFiltersLikeAScanWhileRecordsKeepChanging() {
+        ApplicationQuery pendingClosingSoonOver500 = new ApplicationQuery();
+        pendingClosingSoonOver500.setStatus(Status.PENDING);
+        pendingClosingSoonOver500.setClosingOn(CLOSING_DAY);
+        pendingClosingSoonOver500.setPriceAbove(new BigDecimal("500"));
+        pendingClosingSoonOver500.setMinInvestorApplications(4);
+
+        assertMatchesScan(pendingClosingSoonOver500);
+
+        // Changes after the build are picked up by the next query.
+        for (IPORecord record : repository.findRecordsByStock("STK-Q2")) {
+            if (record.getInvestorId().hashCode() % 3 == 0) {
+                repository.markWon(record);
+            } else {
+                repository.markLost(record);
+            }
+        }
+        withdraw(repository.findRecordsByStock("STK-Q4").get(0));
+        for (int i = 0; i < 50; i++) {
+            apply("INV-Q" + i, 5, BASE.plusDays(2));
+        }
+        apply("LEGACY-7", "INV-LEGACY", 3, BASE.plusDays(1));
+
+        assertMatchesScan(pendingClosingSoonOver500);
+        ApplicationQuery wonOnListing = new ApplicationQuery();
+        wonOnListing.setStatus(Status.WON);
+        wonOnListing.setStockId("STK-Q2");
+        assertMatchesScan(wonOnListing);
+
+        ApplicationQuery priceRange = new ApplicationQuery();
+        priceRange.setPriceAbove(new BigDecimal("249.99"));
+        priceRange.setPriceAtMost(new BigDecimal("500.00"));
+        priceRange.setAppliedFrom(BASE.toLocalDate().plusDays(1));
+        priceRange.setAppliedTo(BASE.toLocalDate().plusDays(2));
+        assertMatchesScan(priceRange);
+
+        ApplicationQuery everything = new ApplicationQuery();
+        everything.setLimit(5);
+        ApplicationQueryResult all = index.query(everything);
+        assertThat(all.getMatches()).isEqualTo(records.size());
+        assertThat(all.getRecords()).hasSize(5);
+        assertThat(index.indexedRecords()).isEqualTo(records.size());
+
+        ApplicationQuery nothing = new ApplicationQuery();
+        nothing.setPriceAbove(new BigDecimal("800"));
+        nothing.setPriceAtMost(new BigDecimal("800"));
+        assertThat(index.query(nothing).getMatches()).isZero();
+    }
+
+    @Test
+    void shouldFindInvestorsBeyondTheExactApplicationBuckets() {
+        for (int n = 0; n < ApplicationIndex.EXACT_APPLICATIONS + 4; n++) {
+            apply("INV-HEAVY", n % PRICES.length, BASE.plusMinutes(n));
+        }
+        ApplicationQuery heavy = new ApplicationQuery();
+        heavy.setMinInvestorApplications(ApplicationIndex.EXACT_APPLICATIONS + 2);
+
+        ApplicationQueryResult result = index.query(heavy);
+
+        assertThat(result.getMatches()).isEqualTo(ApplicationIndex.EXACT_APPLICATIONS + 4);
+        assertThat(result.getRecords()).extracting(IPORecord::getInvestorId).containsOnly("INV-HEAVY");
+        heavy.setMinInvestorApplications(6);
+        assertMatchesScan(heavy);
+    }
+
+    @Test
+    void shouldRebuildAfterTheRepositoryIsReset() {
+        assertThat(index.query(new ApplicationQuery()).getMatches()).isEqualTo(records.size());
+
+        repository.reset();
+
+        assertThat(index.query(new ApplicationQuery()).getMatches()).isEqualTo(repository.countRecords());
+    }
+
+    @Test
+    void shouldDropArchivedListingsAndStopCountingWithdrawnApplications(@TempDir Path directory) throws IOException {
+        ApplicationQuery fiveOrMore = new ApplicationQuery();
+        fiveOrMore.setMinInvestorApplications(5);
+        assertMatchesScan(fiveOrMore);
+
+        repository.attachArchive(new RecordArchive(directory, 0));
+        repository.markDrawExecuted(repository.findStock("STK-Q5").orElseThrow());
+        assertThat(repository.archiveDrawnBefore(Long.MAX_VALUE)).isEqualTo(1);
+        Set<String> archivedInvestors = new HashSet<>();
+        records.removeIf(record -> {
+            boolean archived = record.getStockId().equals("STK-Q5");
+            if (archived) {
+                archivedInvestors.add(record.getInvestorId());
+                applicationsPerInvestor.merge(record.getInvestorId(), -1, Integer::sum);
+            }
+            return archived;
+        });
+        // Investors who applied to every listing drop from six applications to four.
+        for (IPORecord record : repository.findRecordsByStock("STK-Q4")) {
+            if (archivedInvestors.contains(record.getInvestorId())) {
+                withdraw(record);
+            }
+        }
+
+        assertMatchesScan(fiveOrMore);
+        assertThat(index.query(fiveOrMore).getRecords())
+                .allSatisfy(record -> assertThat(applicationsPerInvestor.get(record.getInvestorId())).isEqualTo(5));
+        assertThat(index.query(new ApplicationQuery()).getMatches()).isEqualTo(records.size());
+        assertThat(index.indexedRecords()).isEqualTo(records.size());
+    }
+
+    private void assertMatchesScan(ApplicationQuery query) {
+        Predicate<IPORecord> filter = record -> (query.getStatus() == null || record.getStatus() == query.getStatus())
+                && (query.getStockId() == null || record.getStockId().equals(query.getStockId()))
+                && (query.getClosingOn() == null || repository.findStock(record.getStockId()).orElseThrow()
+                        .getDeadline().toLocalDate().equals(query.getClosingOn()))
+                && (query.getPriceAbove() == null || record.getPricePerLot().compareTo(query.getPriceAbove()) > 0)
+                && (query.getPriceAtMost() == null || record.getPricePerLot().compareTo(query.getPriceAtMost()) <= 0)
+                && applicationsPerInvestor.get(record.getInvestorId()) >= query.getMinInvestorApplications()
+                && (query.getAppliedFrom() == null || !record.getApplyTime().toLocalDate().isBefore(query.getAppliedFrom()))
+                && (query.getAppliedTo() == null || !record.getApplyTime().toLocalDate().isAfter(query.getAppliedTo()));
+        List<IPORecord> expected = records.stream().filter(filter).toList();
+        query.setLimit(ApplicationQuery.MAX_LIMIT);
+
+        ApplicationQueryResult result = index.query(query);
+
+        assertThat(expected).isNotEmpty();
+        assertThat(result.getMatches()).isEqualTo(expected.size());
+        assertThat(result.getRecords()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private void withdraw(IPORecord record) {
+        repository.markWithdrawn(record);
+        applicationsPerInvestor.merge(record.getInvestorId(), -1, Integer::sum);
+    }
+
+    private void apply(String investorId, int stock, LocalDateTime at) {
+        apply("REC-" + ++recordSeq, investorId, stock, at);
+    }
+
+    private void apply(String recordId, String investorId, int stock, LocalDateTime at) {
+        IPORecord record = new IPORecord(recordId, investorId, "STK-Q" + stock, 1, new BigDecimal(PRICES[stock]), at,
+                Status.PENDING);
+        repository.saveRecord(record);
+        records.add(record);
+        applicationsPerInvestor.merge(investorId, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,81 @@
+package com.tradesystem.iposimulation.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoaringBitmapTest {
+
+    @Test
+    void shouldMatchASortedSetThroughSparseAndDenseGroups() {
+        Random random = new Random(42);
+        RoaringBitmap[] bitmaps = new RoaringBitmap[3];
+        List<TreeSet<Integer>> expected = new ArrayList<>();
+        for (int b = 0; b < bitmaps.length; b++) {
+            bitmaps[b] = new RoaringBitmap();
+            TreeSet<Integer> set = new TreeSet<>(Integer::compareUnsigned);
+            // Group 0 ends up dense, group 1 sparse, and a few values land in the unsigned upper half.
+            for (int i = 0; i < 20_000; i++) {
+                int value = switch (i % 4) {
+                    case 0, 1 -> random.nextInt(1 << 16);
+                    case 2 -> (1 << 16) + random.nextInt(1 << 16) / (b + 1) * 7 % (1 << 16);
+                    default -> random.nextInt(100) == 0 ? Integer.MIN_VALUE + random.nextInt(50) : random.nextInt(1 << 16);
+                };
+                bitmaps[b].add(value);
+                set.add(value);
+            }
+            for (int i = 0; i < 15_000; i++) {
+                int value = random.nextInt(1 << 16);
+                bitmaps[b].remove(value);
+                set.remove(value);
+            }
+            expected.add(set);
+            assertThat(values(bitmaps[b])).containsExactlyElementsOf(set);
+            assertThat(bitmaps[b].cardinality()).isEqualTo(set.size());
+        }
+
+        TreeSet<Integer> and = new TreeSet<>(expected.get(0));
+        and.retainAll(expected.get(1));
+        TreeSet<Integer> andNot = new TreeSet<>(expected.get(0));
+        andNot.removeAll(expected.get(1));
+        TreeSet<Integer> or = new TreeSet<>(Integer::compareUnsigned);
+        expected.forEach(or::addAll);
+
+        assertThat(values(RoaringBitmap.and(bitmaps[0], bitmaps[1]))).containsExactlyElementsOf(and);
+        assertThat(values(RoaringBitmap.andNot(bitmaps[0], bitmaps[1]))).containsExactlyElementsOf(andNot);
+        assertThat(values(RoaringBitmap.or(List.of(bitmaps)))).containsExactlyElementsOf(or);
+        assertThat(bitmaps[0].contains(and.first())).isTrue();
+        assertThat(bitmaps[1].contains(andNot.first())).isFalse();
+    }
+
+    @Test
+    void shouldDropGroupsThatBecomeEmpty() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 3);
+        }
+        RoaringBitmap copy = bitmap.copy();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.remove(i * 3);
+        }
+
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.iterator().hasNext()).isFalse();
+        assertThat(copy.cardinality()).isEqualTo(10_000);
+    }
+
+    private static List<Integer> values(RoaringBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = bitmap.iterator();
+        while (iterator.hasNext()) {
+            values.add(iterator.nextInt());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IPOCatalogTest {
+
+    private DataRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DataRepository();
+    }
+
+    @Test
+    void shouldOrderOpenThenEndedThenFinishedByDeadline() {
+        LocalDateTime now = LocalDateTime.now();
+        IPOStock finished = saveStock("STK-FIN", now.minusDays(3));
+        IPOStock endedLate = saveStock("STK-END2", now.minusHours(1));
+        IPOStock endedEarly = saveStock("STK-END1", now.minusDays(2));
+        IPOStock openLate = saveStock("STK-OPEN2", now.plusDays(2));
+        IPOStock openSoon = saveStock("STK-OPEN1", now.plusHours(1));
+        repository.markDrawExecuted(finished);
+
+        List<IPOStock> catalog = repository.findStocksForDisplay().stream()
+                .filter(stock -> stock.getStockName().startsWith("Catalog"))
+                .toList();
+
+        assertThat(catalog).containsExactly(openSoon, openLate, endedEarly, endedLate, finished);
+    }
+
+    @Test
+    void shouldServeSameSnapshotUntilSomethingChanges() {
+        List<IPOStock> first = repository.findStocksForDisplay();
+
+        assertThat(repository.findStocksForDisplay()).isSameAs(first);
+
+        saveStock("STK-NEW", LocalDateTime.now().plusDays(1));
+        assertThat(repository.findStocksForDisplay()).isNotSameAs(first).hasSize(first.size() + 1);
+    }
+
+    @Test
+    void shouldMoveListingToEndedOnceDeadlineCrosses() throws InterruptedException {
+        IPOStock closing = saveStock("STK-CLOSING", LocalDateTime.now().plusNanos(200_000_000));
+        List<IPOStock> before = repository.findStocksForDisplay();
+        assertThat(before.get(0)).isSameAs(closing);
+
+        Thread.sleep(400);
+
+        List<IPOStock> after = repository.findStocksForDisplay();
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.get(0)).isNotSameAs(closing);
+    }
+
+    private IPOStock saveStock(String id, LocalDateTime deadline) {
+        IPOStock stock = new IPOStock(id, "Catalog " + id, id.substring(4), new BigDecimal("10.00"), 10, deadline, "Issuer");
+        repository.saveStock(stock);
+        return stock;
+    }
+}
@@ -0,0 +1,72 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvestorRecordViewTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 3, 1, 9, 0);
+
+    private DataRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DataRepository();
+        for (int i = 0; i < 25; i++) {
+            repository.saveRecord(new IPORecord(String.format("REC-%03d", i), "INV-PAGE", "STK-" + i, 1,
+                    BigDecimal.TEN, BASE.plusHours(i), Status.PENDING));
+        }
+    }
+
+    @Test
+    void shouldWalkHistoryNewestFirstWithCursor() {
+        InvestorRecordView view = repository.investorView("INV-PAGE");
+
+        HistoryPage first = view.page(null, Long.MIN_VALUE, Long.MAX_VALUE, null, 10);
+        HistoryPage second = view.page(null, Long.MIN_VALUE, Long.MAX_VALUE, first.getNextCursor(), 10);
+        HistoryPage third = view.page(null, Long.MIN_VALUE, Long.MAX_VALUE, second.getNextCursor(), 10);
+
+        assertThat(first.getRecords()).extracting(IPORecord::getRecordId).startsWith("REC-024", "REC-023");
+        assertThat(second.getRecords()).extracting(IPORecord::getRecordId).startsWith("REC-014");
+        assertThat(third.getRecords()).hasSize(5).last().extracting(IPORecord::getRecordId).isEqualTo("REC-000");
+        assertThat(third.isHasNext()).isFalse();
+    }
+
+    @Test
+    void shouldFilterByCurrentStatusAndDateRange() {
+        IPORecord won = repository.findRecordsByInvestor("INV-PAGE").get(3);
+        repository.markWon(won);
+        InvestorRecordView view = repository.investorView("INV-PAGE");
+
+        HistoryPage wonPage = view.page(Status.WON, Long.MIN_VALUE, Long.MAX_VALUE, null, 10);
+        HistoryPage ranged = view.page(Status.PENDING, millis(BASE.plusHours(2)), millis(BASE.plusHours(5)), null, 10);
+
+        assertThat(wonPage.getRecords()).containsExactly(won);
+        assertThat(ranged.getRecords()).extracting(IPORecord::getRecordId)
+                .containsExactly("REC-005", "REC-004", "REC-002");
+        assertThat(view.getPendingCount()).isEqualTo(24);
+        assertThat(view.getWonCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        InvestorRecordView view = repository.investorView("INV-PAGE");
+
+        assertThatThrownBy(() -> view.page(null, Long.MIN_VALUE, Long.MAX_VALUE, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
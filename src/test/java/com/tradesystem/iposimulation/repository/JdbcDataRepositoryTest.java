@@ -0,0 +1,143 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.IPOScenario;
+import com.tradesystem.iposimulation.dto.DrawResult;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcDataRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldPersistApplicationsAndDrawAcrossRestart() {
+        String url = "jdbc:h2:file:" + directory.resolve("ipo").toAbsolutePath();
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+
+        JdbcDataRepository repository = new JdbcDataRepository(clock, url, 4, false);
+        InvestorService investorService = new InvestorService(repository);
+        IPOService ipoService = new IPOService(repository, investorService);
+        IPOScenario scenario = new IPOScenario(clock, investorService, ipoService);
+        IPOStock stock = scenario.publish("Jdbc", "100", 2);
+        for (int i = 0; i < 6; i++) {
+            scenario.register("inv-" + i, "100");
+        }
+        scenario.applyAll(stock);
+        ipoService.withdraw("inv-5", stock.getStockId());
+        assertThat(repository.findPendingByStock(stock.getStockId())).hasSize(5);
+
+        scenario.closeSubscriptions();
+        DrawResult result = ipoService.executeDraw(stock.getStockId(), true);
+        assertThat(result.getWinners()).isEqualTo(2);
+        repository.close();
+
+        JdbcDataRepository reopened = new JdbcDataRepository(clock, url, 4, false);
+        try {
+            assertThat(reopened.findStock(stock.getStockId())).get().extracting(IPOStock::isDrawExecuted)
+                    .isEqualTo(true);
+            assertThat(reopened.findPendingByStock(stock.getStockId())).isEmpty();
+            List<IPORecord> records = reopened.findRecordsByStock(stock.getStockId());
+            assertThat(records).extracting(IPORecord::getInvestorId)
+                    .containsExactly("inv-0", "inv-1", "inv-2", "inv-3", "inv-4", "inv-5");
+            assertThat(records).filteredOn(record -> record.getStatus() == Status.WON).hasSize(2);
+            for (IPORecord record : records) {
+                BigDecimal expected = record.getStatus() == Status.WON ? BigDecimal.ZERO : new BigDecimal("100");
+                assertThat(reopened.findInvestor(record.getInvestorId()).orElseThrow().getBalance())
+                        .isEqualByComparingTo(expected);
+            }
+            assertThat(reopened.hasRecord("inv-0", stock.getStockId())).isTrue();
+            assertThat(reopened.reservedLotsView().get(stock.getStockId()).intValue()).isEqualTo(5);
+            assertThat(reopened.nextRecordId()).isNotIn(records.stream().map(IPORecord::getRecordId).toList());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void shouldKeepHeldEscrowAcrossRestart() {
+        String url = "jdbc:h2:file:" + directory.resolve("held").toAbsolutePath();
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+
+        JdbcDataRepository repository = new JdbcDataRepository(clock, url, 4, false);
+        InvestorService investorService = new InvestorService(repository);
+        IPOService ipoService = new IPOService(repository, investorService);
+        IPOScenario scenario = new IPOScenario(clock, investorService, ipoService);
+        IPOStock stock = scenario.publish("Held", "100", 1);
+        for (int i = 0; i < 3; i++) {
+            scenario.register("held-" + i, "100");
+        }
+        scenario.applyAll(stock);
+        scenario.closeSubscriptions();
+        ipoService.executeDraw(stock.getStockId(), false);
+        repository.close();
+
+        JdbcDataRepository reopened = new JdbcDataRepository(clock, url, 4, false);
+        try {
+            IPOService restarted = new IPOService(reopened, new InvestorService(reopened));
+            assertThat(restarted.escrowBalance(stock.getStockId())).isEqualByComparingTo("200");
+            assertThat(restarted.releaseEscrow(stock.getStockId())).isEqualTo(2);
+            assertThat(restarted.escrowBalance(stock.getStockId())).isZero();
+            for (IPORecord record : reopened.findRecordsByStock(stock.getStockId())) {
+                assertThat(reopened.findInvestor(record.getInvestorId()).orElseThrow().getBalance())
+                        .isEqualByComparingTo(record.getStatus() == Status.WON ? "0" : "100");
+                assertThat(record.isEscrowHeld()).isFalse();
+            }
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void shouldReturnSharedInstancesFromSqlFinders() {
+        JdbcDataRepository repository = new JdbcDataRepository(new AcceleratedIPOClock(1), "jdbc:h2:mem:jdbc-test");
+        try {
+            String investorId = repository.findAllInvestors().iterator().next().getInvestorId();
+            IPOStock stock = repository.findOpenStocks(repository.clock().millis()).get(0);
+            IPORecord record = repository.saveRecord(new IPORecord(repository.nextRecordId(), investorId,
+                    stock.getStockId(), 1, stock.getPrice(), repository.clock().now(), Status.PENDING));
+
+            assertThat(repository.findRecordsByInvestor(investorId)).singleElement().isSameAs(record);
+
+            repository.markLost(record);
+            assertThat(repository.findPendingByStock(stock.getStockId())).isEmpty();
+            assertThat(repository.findRecordsByStock(stock.getStockId())).singleElement().isSameAs(record);
+        } finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void shouldRejectFurtherWritesOnceABatchKeepsFailing() {
+        JdbcDataRepository repository = new JdbcDataRepository(new AcceleratedIPOClock(1), "jdbc:h2:mem:jdbc-fail");
+        try {
+            String investorId = repository.findAllInvestors().iterator().next().getInvestorId();
+            IPOStock stock = repository.findOpenStocks(repository.clock().millis()).get(0);
+            // Longer than the record_id column, so every attempt at the batch fails.
+            repository.saveRecord(new IPORecord("REC-" + "9".repeat(64), investorId, stock.getStockId(), 1,
+                    stock.getPrice(), repository.clock().now(), Status.PENDING));
+
+            assertThatThrownBy(() -> repository.findRecordsByStock(stock.getStockId()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("JDBC write-behind failed");
+            assertThatThrownBy(() -> repository.saveStock(stock))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("no further changes are accepted");
+        } finally {
+            repository.close();
+        }
+    }
+}
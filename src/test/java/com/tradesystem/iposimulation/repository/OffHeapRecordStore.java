@@ -0,0 +1,275 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.Status;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application records in fixed-width slots of direct {@link ByteBuffer}s, so tens of millions of
+ * records add no objects for the GC to trace. Slot layout, 48 bytes:
+ * <pre>
+ *  0 recordSeq:i64   8 applyEpochMillis:i64   16 priceMinorUnits:i64   24 nextInStock:i64
+ * 32 investorKey:i32 36 stockKey:i32          40 quantity:i32          44 status:u8   45 padding
+ * </pre>
+ * Investor and stock ids are dictionary-encoded to {@code int} keys. Each stock's records form a
+ * chain through {@code nextInStock} in application order, so a draw walks its own slots without any
+ * per-record index on the heap, and writes each outcome in place as a single status byte.
+ * <p>
+ * Record ids must be the repository's {@code REC-<n>} form; prices are stored in minor units (cents).
+ * Appends are serialized; a stock's draw must not overlap appends to the same stock. Memory is
+ * returned when the store becomes unreachable, as with any direct buffer.
+ * <p>
+ * The repositories do not use it; it is the off-heap side of {@code RecordStoreBenchmark}.
+ */
+public class OffHeapRecordStore {
+
+    static final int SLOT_BYTES = 48;
+    private static final int SLOTS_PER_CHUNK = 1 << 18;
+    private static final int RECORD_SEQ = 0;
+    private static final int APPLY_MILLIS = 8;
+    private static final int PRICE_MINOR = 16;
+    private static final int NEXT_IN_STOCK = 24;
+    private static final int INVESTOR_KEY = 32;
+    private static final int STOCK_KEY = 36;
+    private static final int QUANTITY = 40;
+    private static final int STATUS = 44;
+    private static final long NONE = -1;
+    private static final String RECORD_PREFIX = "REC-";
+    private static final Status[] STATUSES = Status.values();
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final KeyDictionary investors = new KeyDictionary();
+    private final KeyDictionary stocks = new KeyDictionary();
+    private long[] stockHeads = new long[64];
+    private long[] stockTails = new long[64];
+    private int[] stockCounts = new int[64];
+    private volatile long size;
+
+    /**
+     * Appends a record and returns its slot.
+     */
+    public synchronized long append(String recordId, String investorId, String stockId, int quantity,
+                                    BigDecimal pricePerLot, long applyEpochMillis, Status status) {
+        long slot = size;
+        int chunk = (int) (slot / SLOTS_PER_CHUNK);
+        if (chunk == chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_BYTES).order(ByteOrder.nativeOrder()));
+        }
+        ByteBuffer buffer = chunks.get(chunk);
+        int base = (int) (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+        int stockKey = stocks.key(stockId);
+        buffer.putLong(base + RECORD_SEQ, parseRecordSeq(recordId));
+        buffer.putLong(base + APPLY_MILLIS, applyEpochMillis);
+        buffer.putLong(base + PRICE_MINOR, pricePerLot.movePointRight(2).longValueExact());
+        buffer.putLong(base + NEXT_IN_STOCK, NONE);
+        buffer.putInt(base + INVESTOR_KEY, investors.key(investorId));
+        buffer.putInt(base + STOCK_KEY, stockKey);
+        buffer.putInt(base + QUANTITY, quantity);
+        buffer.put(base + STATUS, (byte) status.ordinal());
+        link(stockKey, slot);
+        size = slot + 1;
+        return slot;
+    }
+
+    public long append(IPORecord record) {
+        return append(record.getRecordId(), record.getInvestorId(), record.getStockId(), record.getQuantity(),
+                record.getPricePerLot(), record.getApplyEpochMilli(), record.getStatus());
+    }
+
+    private void link(int stockKey, long slot) {
+        if (stockKey >= stockHeads.length) {
+            int grown = Math.max(stockKey + 1, stockHeads.length * 2);
+            stockHeads = Arrays.copyOf(stockHeads, grown);
+            stockTails = Arrays.copyOf(stockTails, grown);
+            stockCounts = Arrays.copyOf(stockCounts, grown);
+        }
+        if (stockCounts[stockKey] == 0) {
+            stockHeads[stockKey] = slot;
+        } else {
+            long tail = stockTails[stockKey];
+            buffer(tail).putLong(offset(tail) + NEXT_IN_STOCK, slot);
+        }
+        stockTails[stockKey] = slot;
+        stockCounts[stockKey]++;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Direct memory reserved by the store, including unused slots in the last chunk.
+     */
+    public long allocatedBytes() {
+        synchronized (this) {
+            return (long) chunks.size() * SLOTS_PER_CHUNK * SLOT_BYTES;
+        }
+    }
+
+    public Status status(long slot) {
+        return STATUSES[buffer(slot).get(offset(slot) + STATUS)];
+    }
+
+    /**
+     * Overwrites the slot's status byte in place.
+     */
+    public void setStatus(long slot, Status status) {
+        buffer(slot).put(offset(slot) + STATUS, (byte) status.ordinal());
+    }
+
+    public int quantity(long slot) {
+        return buffer(slot).getInt(offset(slot) + QUANTITY);
+    }
+
+    public String investorId(long slot) {
+        return investors.id(buffer(slot).getInt(offset(slot) + INVESTOR_KEY));
+    }
+
+    public String stockId(long slot) {
+        return stocks.id(buffer(slot).getInt(offset(slot) + STOCK_KEY));
+    }
+
+    /**
+     * Slots of the stock's records in application order, optionally only those in one status.
+     */
+    public long[] slotsOf(String stockId, Status status) {
+        int stockKey = stocks.existingKey(stockId);
+        if (stockKey < 0) {
+            return new long[0];
+        }
+        long head;
+        int count;
+        synchronized (this) {
+            if (stockKey >= stockCounts.length || stockCounts[stockKey] == 0) {
+                return new long[0];
+            }
+            head = stockHeads[stockKey];
+            count = stockCounts[stockKey];
+        }
+        long[] slots = new long[count];
+        int found = 0;
+        long slot = head;
+        for (int i = 0; i < count; i++) {
+            ByteBuffer buffer = buffer(slot);
+            int base = offset(slot);
+            if (status == null || buffer.get(base + STATUS) == status.ordinal()) {
+                slots[found++] = slot;
+            }
+            slot = buffer.getLong(base + NEXT_IN_STOCK);
+        }
+        return found == count ? slots : Arrays.copyOf(slots, found);
+    }
+
+    /**
+     * Draws a stock entirely in place: pending slots are shuffled, then marked WON while lots last
+     * and LOST otherwise.
+     *
+     * @return the number of winning applications
+     */
+    public int draw(String stockId, int totalLots, Random random) {
+        long[] pending = slotsOf(stockId, Status.PENDING);
+        for (int i = pending.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = pending[i];
+            pending[i] = pending[j];
+            pending[j] = swap;
+        }
+        int remaining = totalLots;
+        int winners = 0;
+        for (long slot : pending) {
+            int quantity = quantity(slot);
+            if (remaining >= quantity) {
+                setStatus(slot, Status.WON);
+                remaining -= quantity;
+                winners++;
+            } else {
+                setStatus(slot, Status.LOST);
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Builds an on-heap copy of the slot, e.g. for rendering.
+     */
+    public IPORecord materialize(long slot) {
+        ByteBuffer buffer = buffer(slot);
+        int base = offset(slot);
+        LocalDateTime applyTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(base + APPLY_MILLIS)),
+                ZoneId.systemDefault());
+        return new IPORecord(RECORD_PREFIX + buffer.getLong(base + RECORD_SEQ),
+                investors.id(buffer.getInt(base + INVESTOR_KEY)),
+                stocks.id(buffer.getInt(base + STOCK_KEY)),
+                buffer.getInt(base + QUANTITY),
+                BigDecimal.valueOf(buffer.getLong(base + PRICE_MINOR), 2),
+                applyTime,
+                STATUSES[buffer.get(base + STATUS)]);
+    }
+
+    private ByteBuffer buffer(long slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("Slot " + slot);
+        }
+        return chunks.get((int) (slot / SLOTS_PER_CHUNK));
+    }
+
+    private static int offset(long slot) {
+        return (int) (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+    }
+
+    private static long parseRecordSeq(String recordId) {
+        if (!recordId.startsWith(RECORD_PREFIX)) {
+            throw new IllegalArgumentException("Unsupported record id " + recordId);
+        }
+        return Long.parseLong(recordId, RECORD_PREFIX.length(), recordId.length(), 10);
+    }
+
+    /**
+     * Interns ids to dense {@code int} keys; one entry per distinct investor or stock, not per record.
+     */
+    private static final class KeyDictionary {
+
+        private final ConcurrentHashMap<String, Integer> keys = new ConcurrentHashMap<>();
+        private volatile String[] ids = new String[64];
+        private int count;
+
+        int key(String id) {
+            Integer key = keys.get(id);
+            if (key != null) {
+                return key;
+            }
+            synchronized (this) {
+                key = keys.get(id);
+                if (key == null) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count] = id;
+                    key = count++;
+                    keys.put(id, key);
+                }
+                return key;
+            }
+        }
+
+        int existingKey(String id) {
+            Integer key = keys.get(id);
+            return key == null ? -1 : key;
+        }
+
+        String id(int key) {
+            return ids[key];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.simulation.RecordStoreBenchmark;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapRecordStoreTest {
+
+    @Test
+    void materializeShouldRoundTripEveryColumn() {
+        OffHeapRecordStore store = new OffHeapRecordStore();
+        LocalDateTime applyTime = LocalDateTime.of(2024, 5, 1, 9, 30, 15);
+        IPORecord original = new IPORecord("REC-1042", "INV-7", "STK-3", 2, new BigDecimal("12.34"), applyTime,
+                Status.PENDING);
+
+        long slot = store.append(original);
+        IPORecord copy = store.materialize(slot);
+
+        assertThat(copy.getRecordId()).isEqualTo("REC-1042");
+        assertThat(copy.getInvestorId()).isEqualTo("INV-7");
+        assertThat(copy.getStockId()).isEqualTo("STK-3");
+        assertThat(copy.getQuantity()).isEqualTo(2);
+        assertThat(copy.getPricePerLot()).isEqualByComparingTo("12.34");
+        assertThat(copy.getApplyTime()).isEqualTo(applyTime);
+        assertThat(copy.getStatus()).isEqualTo(Status.PENDING);
+    }
+
+    @Test
+    void drawShouldRewriteOnlyThatStocksPendingSlots() {
+        OffHeapRecordStore store = new OffHeapRecordStore();
+        for (int i = 0; i < 300_000; i++) {
+            store.append("REC-" + i, "INV-" + (i % 50), "STK-" + (i % 3), 1, BigDecimal.TEN, i, Status.PENDING);
+        }
+        store.setStatus(1, Status.FAILED_FUNDS);
+
+        int winners = store.draw("STK-1", 1_000, new Random(7));
+
+        assertThat(winners).isEqualTo(1_000);
+        assertThat(store.slotsOf("STK-1", Status.WON)).hasSize(1_000);
+        assertThat(store.slotsOf("STK-1", Status.LOST)).hasSize(100_000 - 1_000 - 1);
+        assertThat(store.status(1)).isEqualTo(Status.FAILED_FUNDS);
+        assertThat(store.slotsOf("STK-0", Status.PENDING)).hasSize(100_000);
+        assertThat(store.slotsOf("STK-2", null)).startsWith(2L, 5L, 8L);
+        assertThat(store.stockId(4)).isEqualTo("STK-1");
+        assertThat(store.investorId(4)).isEqualTo("INV-4");
+        assertThat(store.allocatedBytes()).isGreaterThanOrEqualTo(300_000L * OffHeapRecordStore.SLOT_BYTES);
+    }
+
+    @Test
+    void shouldRejectForeignIdsAndUnknownSlots() {
+        OffHeapRecordStore store = new OffHeapRecordStore();
+
+        assertThatThrownBy(() -> store.append("X-1", "INV-1", "STK-1", 1, BigDecimal.ONE, 0, Status.PENDING))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.status(0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(store.slotsOf("STK-1", null)).isEmpty();
+    }
+
+    @Test
+    void benchmarkShouldDrawTheSameWinnersOnBothSides() {
+        RecordStoreBenchmark benchmark = new RecordStoreBenchmark(40_000, 4);
+
+        RecordStoreBenchmark.Result onHeap = benchmark.runOnHeap();
+        RecordStoreBenchmark.Result offHeap = benchmark.runOffHeap();
+
+        assertThat(onHeap.winners()).isEqualTo(offHeap.winners()).isEqualTo(10_000);
+        assertThat(offHeap.directBytes()).isPositive();
+        assertThat(offHeap.format()).startsWith("off-heap");
+    }
+}
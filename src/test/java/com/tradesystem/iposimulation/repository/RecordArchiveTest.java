@@ -0,0 +1,129 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.IPOScenario;
+import com.tradesystem.iposimulation.dto.HistoryPage;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+    private DataRepository repository;
+    private IPOService ipoService;
+    private IPOScenario scenario;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DataRepository(clock, false);
+        repository.attachArchive(new RecordArchive(directory, 2));
+        InvestorService investorService = new InvestorService(repository);
+        ipoService = new IPOService(repository, investorService);
+        scenario = new IPOScenario(clock, investorService, ipoService);
+        for (int i = 0; i < 6; i++) {
+            scenario.register("inv-" + i, "1000");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void shouldMoveDrawnListingToDiskAndPageItBackIn() throws IOException {
+        IPOStock early = scenario.publish("Early", "100", 2);
+        IPOStock late = scenario.publish("Late", "100", 2);
+        scenario.applyAll(early, late);
+        List<String> historyBefore = ids(repository.investorView("inv-0").allRecords());
+
+        scenario.closeSubscriptions();
+        ipoService.executeDraw(early.getStockId(), true);
+        assertThat(repository.archiveDrawnBefore(clock.millis() - Duration.ofDays(1).toMillis())).isZero();
+        clock.advance(Duration.ofDays(1).toMillis());
+        assertThat(repository.archiveDrawnBefore(clock.millis() - Duration.ofDays(1).toMillis())).isEqualTo(1);
+
+        assertThat(repository.findStock(early.getStockId())).isEmpty();
+        assertThat(repository.findStock(late.getStockId())).isPresent();
+        assertThat(repository.countRecords()).isEqualTo(6);
+        assertThat(Files.exists(directory.resolve(early.getStockId() + ".seg.gz"))).isTrue();
+        ArchivedListing summary = repository.findArchivedListing(early.getStockId()).orElseThrow();
+        assertThat(summary.records()).isEqualTo(6);
+        assertThat(summary.winners()).isEqualTo(2);
+        assertThat(summary.losers()).isEqualTo(4);
+
+        InvestorRecordView view = repository.investorView("inv-0");
+        assertThat(view.getRecords()).hasSize(1);
+        assertThat(view.getArchivedCount()).isEqualTo(1);
+        assertThat(ids(view.allRecords())).isEqualTo(historyBefore);
+        List<IPORecord> streamed = new ArrayList<>();
+        view.iterateAll().forEachRemaining(streamed::add);
+        assertThat(ids(streamed)).isEqualTo(historyBefore);
+        List<IPORecord> segment = new ArrayList<>();
+        repository.iterateRecordsByStock(early.getStockId()).forEachRemaining(segment::add);
+        assertThat(ids(segment)).isEqualTo(ids(repository.findRecordsByStock(early.getStockId())));
+        List<IPORecord> uncached = new ArrayList<>();
+        new RecordArchive(directory, 0).iterate(early.getStockId()).forEachRemaining(uncached::add);
+        assertThat(ids(uncached)).isEqualTo(ids(segment));
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            HistoryPage page = view.page(null, Long.MIN_VALUE, Long.MAX_VALUE, cursor, 1);
+            paged.addAll(ids(page.getRecords()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<String> newestFirst = new ArrayList<>(historyBefore);
+        Collections.reverse(newestFirst);
+        assertThat(paged).containsExactlyElementsOf(newestFirst);
+
+        IPORecord archived = repository.findRecordsByStock(early.getStockId()).stream()
+                .filter(record -> record.getInvestorId().equals("inv-0")).findFirst().orElseThrow();
+        HistoryPage filtered = view.page(archived.getStatus(), Long.MIN_VALUE, Long.MAX_VALUE, null, 10);
+        assertThat(ids(filtered.getRecords())).containsExactly(archived.getRecordId());
+        assertThat(filtered.isHasNext()).isFalse();
+        assertThat(view.count(archived.getStatus())).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepListingWithHeldEscrowUntilItIsReleased() throws IOException {
+        IPOStock held = scenario.publish("Held", "100", 2);
+        scenario.applyAll(held);
+        scenario.closeSubscriptions();
+        ipoService.executeDraw(held.getStockId(), false);
+        clock.advance(Duration.ofDays(2).toMillis());
+
+        assertThat(repository.archiveDrawnBefore(clock.millis())).isZero();
+        assertThat(repository.findStock(held.getStockId())).isPresent();
+
+        assertThat(ipoService.releaseEscrow(held.getStockId())).isEqualTo(4);
+        assertThat(repository.archiveDrawnBefore(clock.millis())).isEqualTo(1);
+        for (int i = 0; i < 6; i++) {
+            assertThat(repository.findInvestor("inv-" + i).orElseThrow().getLockedBalance()).isZero();
+        }
+        assertThat(repository.findRecordsByStock(held.getStockId())).noneMatch(IPORecord::isEscrowHeld);
+    }
+
+    private static List<String> ids(List<IPORecord> records) {
+        return records.stream().map(IPORecord::getRecordId).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.tradesystem.iposimulation.repository;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockDeadlineIndexTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+    private final StockDeadlineIndex index = new StockDeadlineIndex();
+
+    @Test
+    void shouldMigrateListingsFromOpenToClosedAsTimePasses() {
+        IPOStock first = stock("STK-A", base.plusHours(1));
+        IPOStock second = stock("STK-B", base.plusHours(2));
+        index.add(first, millis(base));
+        index.add(second, millis(base));
+
+        assertThat(index.open(millis(base))).containsExactly(first, second);
+        assertThat(index.closed(millis(base))).isEmpty();
+
+        long afterFirst = millis(base.plusMinutes(90));
+        assertThat(index.open(afterFirst)).containsExactly(second);
+        assertThat(index.closed(afterFirst)).containsExactly(first);
+        assertThat(index.nextDeadline(afterFirst)).isEqualTo(second.getDeadlineEpochMilli());
+    }
+
+    @Test
+    void shouldMoveDrawnListingsOutOfTheClosedBucket() {
+        IPOStock closed = stock("STK-C", base.minusHours(1));
+        index.add(closed, millis(base));
+        assertThat(index.closed(millis(base))).containsExactly(closed);
+
+        closed.markDrawExecuted();
+        index.markDrawn(closed);
+
+        assertThat(index.closed(millis(base))).isEmpty();
+        assertThat(index.drawn()).containsExactly(closed);
+        assertThat(index.displayOrder(millis(base))).containsExactly(closed);
+    }
+
+    private IPOStock stock(String id, LocalDateTime deadline) {
+        return new IPOStock(id, id, id, new BigDecimal("10"), 10, deadline, "Issuer");
+    }
+
+    private long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
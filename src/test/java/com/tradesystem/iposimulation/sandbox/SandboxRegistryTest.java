@@ -0,0 +1,127 @@
+package com.tradesystem.iposimulation.sandbox;
+
+import com.tradesystem.iposimulation.IPOScenario;
+import com.tradesystem.iposimulation.export.JsonResponseWriter;
+import com.tradesystem.iposimulation.export.RecordExporter;
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.model.Investor;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.repository.IPORepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SandboxRegistryTest {
+
+    private AcceleratedIPOClock clock;
+    private DataRepository repository;
+    private SandboxRegistry registry;
+    private String forkId;
+    private String otherId;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AcceleratedIPOClock(1);
+        repository = new DataRepository(clock, false);
+        InvestorService investorService = new InvestorService(repository);
+        IPOService ipoService = new IPOService(repository, investorService);
+        RecordExporter exporter = new RecordExporter(repository);
+        registry = new SandboxRegistry(repository, investorService, ipoService, exporter,
+                new JsonResponseWriter(exporter));
+        IPOScenario scenario = new IPOScenario(clock, investorService, ipoService);
+        IPOStock forked = scenario.publish("Fork", "10.00", 2);
+        forkId = forked.getStockId();
+        otherId = scenario.publish("Other", "5.00", 100).getStockId();
+        for (int i = 0; i < 5; i++) {
+            scenario.register("INV-" + i, "100.00");
+        }
+        assertThat(scenario.applyAll(forked)).isEqualTo(5);
+    }
+
+    @Test
+    void forksShouldIsolateScenariosFromEachOtherAndFromTheirSource() {
+        registry.snapshot(SandboxRegistry.MAIN, "base");
+        Sandbox withdrawn = registry.fork("base", "withdrawn");
+        Sandbox drawn = registry.fork("base", "drawn");
+
+        withdrawn.ipoService().withdraw("INV-0", forkId);
+        clock.advance(Duration.ofDays(2).toMillis());
+        drawn.ipoService().executeDraw(forkId, true);
+
+        IPORepository forked = withdrawn.repository();
+        assertThat(balance(withdrawn, "INV-0")).isEqualByComparingTo("100.00");
+        assertThat(forked.findPendingByStock(forkId)).hasSize(4);
+        assertThat(withdrawn.ipoService().escrowBalance(forkId)).isEqualByComparingTo("40.00");
+        IPORecord record = forked.investorView("INV-1").findRecord(forkId);
+        assertThat(forked.findRecordsByStock(forkId)).contains(record);
+        assertThat(forked.findRecordsByInvestor("INV-1")).containsExactly(record);
+
+        assertThat(drawn.repository().findStock(forkId).orElseThrow().isDrawExecuted()).isTrue();
+        assertThat(drawn.repository().findRecordsByStock(forkId)).extracting(IPORecord::getStatus)
+                .containsOnly(Status.WON, Status.LOST)
+                .filteredOn(status -> status == Status.WON).hasSize(2);
+        assertThat(drawn.ipoService().escrowBalance(forkId)).isZero();
+        assertThat(forked.findStock(forkId).orElseThrow().isDrawExecuted()).isFalse();
+
+        assertThat(repository.findPendingByStock(forkId)).hasSize(5);
+        assertThat(registry.main().ipoService().escrowBalance(forkId)).isEqualByComparingTo("50.00");
+        assertThat(balance(registry.main(), "INV-0")).isEqualByComparingTo("90.00");
+    }
+
+    @Test
+    void snapshotOfAForkShouldIncludeWhatItHasNotTouchedYet() {
+        registry.snapshot(SandboxRegistry.MAIN, "base");
+        Sandbox first = registry.fork("base", "first");
+        first.repository().saveInvestor(new Investor("INV-NEW", "Newcomer", new BigDecimal("50.00")));
+        assertThat(first.ipoService().apply(IPOScenario.form("INV-NEW", otherId)).isSuccess()).isTrue();
+
+        registry.snapshot("first", "second-base");
+        Sandbox second = registry.fork("second-base", "second");
+
+        IPORepository forked = second.repository();
+        assertThat(forked.countRecords()).isEqualTo(6);
+        assertThat(forked.countInvestors()).isEqualTo(6);
+        assertThat(forked.findPendingByStock(forkId)).hasSize(5);
+        assertThat(forked.hasRecord("INV-NEW", otherId)).isTrue();
+        assertThat(balance(second, "INV-NEW")).isEqualByComparingTo("45.00");
+        assertThat(second.ipoService().escrowBalance(otherId)).isEqualByComparingTo("5.00");
+        assertThat(forked.nextRecordId()).isEqualTo(first.repository().nextRecordId());
+    }
+
+    @Test
+    void sessionsShouldFollowTheirBoundSandboxAndFallBackToMain() {
+        Sandbox scenario = registry.create("scenario");
+        MockHttpSession session = new MockHttpSession();
+
+        assertThat(registry.of(session)).isSameAs(registry.main());
+        registry.bind(session, "scenario");
+        assertThat(registry.of(session)).isSameAs(scenario);
+        assertThat(scenario.repository().countStocks()).isPositive();
+        String tag = scenario.pageVersionTag("INV-0");
+        assertThat(tag).startsWith("W/\"scenario-");
+
+        assertThat(registry.remove("scenario")).isTrue();
+        assertThat(registry.create("scenario").pageVersionTag("INV-0")).isNotEqualTo(tag);
+        assertThat(registry.remove("scenario")).isTrue();
+        assertThat(registry.of(session)).isSameAs(registry.main());
+        assertThatThrownBy(() -> registry.bind(session, "scenario")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.remove(SandboxRegistry.MAIN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.create("bad name")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.fork("missing", "other")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BigDecimal balance(Sandbox sandbox, String investorId) {
+        return sandbox.investorService().findInvestor(investorId).orElseThrow().getBalance();
+    }
+}
@@ -2,15 +2,27 @@ package com.tradesystem.iposimulation.service;
 
 import com.tradesystem.iposimulation.dto.ApplyIPOForm;
 import com.tradesystem.iposimulation.dto.IPOApplicationResult;
+import com.tradesystem.iposimulation.dto.SubscriptionReport;
+import com.tradesystem.iposimulation.model.IPORecord;
 import com.tradesystem.iposimulation.model.IPOStock;
 import com.tradesystem.iposimulation.model.Investor;
 import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.mvcc.ReadView;
+import com.tradesystem.iposimulation.mvcc.Versions;
 import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.time.AcceleratedIPOClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -66,6 +78,208 @@ class IPOServiceTest {
         assertThat(investor.getBalance()).isEqualByComparingTo("5.00");
     }
 
+    @Test
+    void drawShouldSettleWinnersAndHoldOrReleaseLosersEscrow() {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        repository = new DataRepository(clock, false);
+        investorService = new InvestorService(repository);
+        ipoService = new IPOService(repository, investorService);
+        List<Investor> investors = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            investors.add(createInvestor("INV-E" + i, new BigDecimal("100.00")));
+        }
+        IPOStock released = new IPOStock("STK-REL", "Released", "REL", new BigDecimal("30.00"), 2,
+                clock.now().plusDays(1), "Issuer");
+        IPOStock held = new IPOStock("STK-HLD", "Held", "HLD", new BigDecimal("20.00"), 1,
+                clock.now().plusDays(1), "Issuer");
+        repository.saveStock(released);
+        repository.saveStock(held);
+        for (Investor investor : investors) {
+            for (IPOStock stock : List.of(released, held)) {
+                ApplyIPOForm form = new ApplyIPOForm();
+                form.setInvestorId(investor.getInvestorId());
+                form.setStockId(stock.getStockId());
+                assertThat(ipoService.apply(form).isSuccess()).isTrue();
+            }
+        }
+        assertThat(investors.get(0).getBalance()).isEqualByComparingTo("50.00");
+        assertThat(investors.get(0).getLockedBalance()).isEqualByComparingTo("50.00");
+        assertThat(ipoService.escrowBalance("STK-REL")).isEqualByComparingTo("180.00");
+
+        clock.advance(Duration.ofDays(2).toMillis());
+        ipoService.executeDraw("STK-REL", true);
+        ipoService.executeDraw("STK-HLD", false);
+
+        assertThat(ipoService.escrowBalance("STK-REL")).isZero();
+        assertThat(ipoService.escrowBalance("STK-HLD")).isEqualByComparingTo("100.00");
+        assertThat(investors).allSatisfy(investor -> assertThat(investor.getLockedBalance())
+                .isEqualByComparingTo(repository.findRecordsByInvestor(investor.getInvestorId()).stream()
+                        .anyMatch(r -> r.getStockId().equals("STK-HLD") && r.getStatus() == Status.LOST)
+                        ? "20.00" : "0"));
+
+        // A service built later rebuilds the held losers from the records.
+        IPOService rebuilt = new IPOService(repository, investorService);
+        assertThat(rebuilt.escrowBalance("STK-HLD")).isEqualByComparingTo("100.00");
+        assertThat(rebuilt.releaseEscrow("STK-HLD")).isEqualTo(5);
+        assertThat(rebuilt.releaseEscrow("STK-HLD")).isZero();
+        assertThat(rebuilt.escrowBalance("STK-HLD")).isZero();
+        assertThat(repository.findRecordsByStock("STK-HLD")).noneMatch(IPORecord::isEscrowHeld);
+        BigDecimal available = investors.stream().map(Investor::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(investors).allSatisfy(investor -> assertThat(investor.getLockedBalance()).isZero());
+        assertThat(available).isEqualByComparingTo("520.00");
+
+        repository.reset();
+        assertThat(ipoService.escrowBalance("STK-REL")).isZero();
+        assertThat(ipoService.escrowBalance("STK-HLD")).isZero();
+    }
+
+    @Test
+    void withdrawShouldRefundReleaseLotsAndAllowReapplying() {
+        Investor investor = createInvestor("INV-WD", new BigDecimal("100.00"));
+        IPOStock stock = createOpenStock("STK-WD", new BigDecimal("40.00"), 10);
+        ApplyIPOForm form = new ApplyIPOForm();
+        form.setInvestorId(investor.getInvestorId());
+        form.setStockId(stock.getStockId());
+        IPORecord first = ipoService.apply(form).getRecord();
+
+        IPORecord withdrawn = ipoService.withdraw("INV-WD", "STK-WD");
+
+        assertThat(withdrawn).isSameAs(first);
+        assertThat(first.getStatus()).isEqualTo(Status.WITHDRAWN);
+        assertThat(investor.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(investor.getLockedBalance()).isZero();
+        assertThat(ipoService.escrowBalance("STK-WD")).isZero();
+        assertThat(repository.findPendingByStock("STK-WD")).isEmpty();
+        assertThat(repository.reservedLotsView().get("STK-WD").intValue()).isZero();
+        assertThatThrownBy(() -> ipoService.withdraw("INV-WD", "STK-WD"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        IPOApplicationResult again = ipoService.apply(form);
+
+        assertThat(again.isSuccess()).isTrue();
+        assertThat(repository.findPendingByStock("STK-WD")).containsExactly(again.getRecord());
+        assertThat(repository.findRecordsByInvestor("INV-WD")).hasSize(2);
+        assertThat(investor.getBalance()).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void withdrawShouldRaceTheDrawWithoutLosingMoney() throws Exception {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        repository = new DataRepository(clock, false);
+        investorService = new InvestorService(repository);
+        ipoService = new IPOService(repository, investorService);
+        IPOStock stock = new IPOStock("STK-RACE", "Race", "RAC", new BigDecimal("10.00"), 50,
+                clock.now().plusDays(1), "Issuer");
+        repository.saveStock(stock);
+        List<Investor> investors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Investor investor = createInvestor("INV-R" + i, new BigDecimal("10.00"));
+            investors.add(investor);
+            ApplyIPOForm form = new ApplyIPOForm();
+            form.setInvestorId(investor.getInvestorId());
+            form.setStockId(stock.getStockId());
+            ipoService.apply(form);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> withdrawals = new ArrayList<>();
+        for (Investor investor : investors) {
+            withdrawals.add(pool.submit(() -> {
+                start.await();
+                try {
+                    ipoService.withdraw(investor.getInvestorId(), "STK-RACE");
+                } catch (IllegalStateException drawnFirst) {
+                    // The draw won the race for this record.
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        clock.advance(Duration.ofDays(2).toMillis());
+        ipoService.executeDraw("STK-RACE", true);
+        for (Future<?> withdrawal : withdrawals) {
+            withdrawal.get();
+        }
+        pool.shutdown();
+
+        assertThatThrownBy(() -> ipoService.withdraw("INV-R199", "STK-RACE"))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.findPendingByStock("STK-RACE")).isEmpty();
+        assertThat(ipoService.escrowBalance("STK-RACE")).isZero();
+        assertThat(investors).allSatisfy(investor -> {
+            Status status = repository.findRecordsByInvestor(investor.getInvestorId()).get(0).getStatus();
+            assertThat(investor.getLockedBalance()).isZero();
+            assertThat(investor.getBalance()).isEqualByComparingTo(status == Status.WON ? "0" : "10.00");
+        });
+    }
+
+    @Test
+    void subscriptionReportShouldNeverSeeADrawHalfDone() throws Exception {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        repository = new DataRepository(clock, false);
+        investorService = new InvestorService(repository);
+        ipoService = new IPOService(repository, investorService);
+        List<IPOStock> stocks = new ArrayList<>();
+        for (int s = 0; s < 20; s++) {
+            IPOStock stock = new IPOStock("STK-M" + s, "Listing " + s, "M" + s, new BigDecimal("10.00"), 5,
+                    clock.now().plusDays(1), "Issuer");
+            repository.saveStock(stock);
+            stocks.add(stock);
+        }
+        for (int i = 0; i < 300; i++) {
+            Investor investor = createInvestor("INV-M" + i, new BigDecimal("300.00"));
+            for (IPOStock stock : stocks) {
+                ApplyIPOForm form = new ApplyIPOForm();
+                form.setInvestorId(investor.getInvestorId());
+                form.setStockId(stock.getStockId());
+                ipoService.apply(form);
+            }
+        }
+        IPORecord sample = repository.findRecordsByStock("STK-M0").get(0);
+        clock.advance(Duration.ofDays(2).toMillis());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> draws;
+        try (ReadView beforeDraws = Versions.pin()) {
+            draws = pool.submit(() -> stocks.forEach(stock -> ipoService.executeDraw(stock.getStockId(), true)));
+            int reports = 0;
+            while (!draws.isDone() || reports == 0) {
+                SubscriptionReport report = ipoService.subscriptionReport();
+                BigDecimal pending = BigDecimal.ZERO;
+                BigDecimal won = BigDecimal.ZERO;
+                for (SubscriptionReport.Listing listing : report.getListings()) {
+                    assertThat(listing.count(Status.PENDING)).isIn(0, 300);
+                    pending = pending.add(listing.amount(Status.PENDING));
+                    won = won.add(listing.amount(Status.WON));
+                }
+                assertThat(report.getEscrowedCash()).isEqualByComparingTo(pending);
+                assertThat(report.getAvailableCash().add(report.getEscrowedCash()).add(won))
+                        .isEqualByComparingTo("90000.00");
+                reports++;
+            }
+            draws.get();
+
+            assertThat(sample.getStatus()).isIn(Status.WON, Status.LOST);
+            assertThat(sample.statusAt(beforeDraws)).isEqualTo(Status.PENDING);
+            assertThat(sample.asOf(beforeDraws).getStatus()).isEqualTo(Status.PENDING);
+            Investor investor = repository.findInvestor(sample.getInvestorId()).orElseThrow();
+            assertThat(investor.fundsAt(beforeDraws).locked()).isEqualByComparingTo("200.00");
+            assertThat(investor.getLockedBalance()).isZero();
+        } finally {
+            pool.shutdown();
+        }
+
+        SubscriptionReport after = ipoService.subscriptionReport();
+        assertThat(after.getListings()).allSatisfy(listing -> {
+            assertThat(listing.count(Status.WON)).isEqualTo(5);
+            assertThat(listing.count(Status.LOST)).isEqualTo(295);
+        });
+        assertThat(after.getEscrowedCash()).isZero();
+        assertThat(after.getInvestors()).isEqualTo(300);
+    }
+
     private Investor createInvestor(String id, BigDecimal balance) {
         Investor investor = new Investor(id, "Investor " + id, balance);
         repository.saveInvestor(investor);
@@ -0,0 +1,49 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.dto.ApplyOutcome;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadSimulationTest {
+
+    @Test
+    void burstRunShouldKeepInvariants() throws Exception {
+        DataRepository repository = new DataRepository();
+        IPOService ipoService = new IPOService(repository, new InvestorService(repository));
+        // Balance covers a few applications only, so some are rejected for funds.
+        SimulationSettings settings = new SimulationSettings(60, 4, 3, 600, ArrivalProcess.BURST, 0.3, 8,
+                new BigDecimal("500"), 7);
+
+        SimulationReport report = new LoadSimulation(repository, ipoService, settings).run();
+
+        assertThat(report.violations()).isEmpty();
+        assertThat(report.applications()).isEqualTo(180);
+        assertThat(Arrays.stream(report.outcomes()).sum()).isEqualTo(180);
+        assertThat(report.count(ApplyOutcome.SUCCESS)).isPositive();
+        assertThat(report.responseTime().getTotalCount()).isEqualTo(180);
+        assertThat(report.winners() + report.losers()).isEqualTo(report.count(ApplyOutcome.SUCCESS));
+        assertThat(report.format()).contains("Invariants: OK");
+        repository.close();
+    }
+
+    @Test
+    void burstArrivalsShouldConcentrateBeforeTheDeadline() {
+        Random random = new Random(1);
+        long window = 1_000_000;
+        int late = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (ArrivalProcess.BURST.arrivalOffset(window, 0.1, random) >= window * 0.9) {
+                late++;
+            }
+        }
+        assertThat(late).isBetween(8_800, 9_200);
+    }
+}
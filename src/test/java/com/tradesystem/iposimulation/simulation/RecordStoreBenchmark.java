@@ -0,0 +1,176 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.model.IPORecord;
+import com.tradesystem.iposimulation.model.Status;
+import com.tradesystem.iposimulation.repository.OffHeapRecordStore;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Memory comparison of holding application records as {@link IPORecord} objects versus in an
+ * {@link OffHeapRecordStore}: each side loads {@code records} pending applications spread over
+ * {@code listings} stocks, draws every stock, and reports the collector time spent and the heap and
+ * direct memory still in use afterwards. Run each side in a fresh JVM for the cleanest GC figures:
+ * <pre>
+ * mvn -P record-store-benchmark verify -DskipTests [-Drecord-store.side=on-heap|off-heap]
+ * </pre>
+ */
+public class RecordStoreBenchmark {
+
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+    private static final int INVESTORS = 100_000;
+
+    private final int records;
+    private final int listings;
+
+    public RecordStoreBenchmark(int records, int listings) {
+        this.records = records;
+        this.listings = listings;
+    }
+
+    /**
+     * Arguments: record count, listing count and side ({@code both}, {@code on-heap} or {@code off-heap}).
+     */
+    public static void main(String[] args) {
+        RecordStoreBenchmark benchmark = new RecordStoreBenchmark(
+                args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000,
+                args.length > 1 ? Integer.parseInt(args[1]) : 200);
+        String side = args.length > 2 ? args[2] : "both";
+        if (!"off-heap".equals(side)) {
+            System.out.println(benchmark.runOnHeap().format());
+        }
+        if (!"on-heap".equals(side)) {
+            System.out.println(benchmark.runOffHeap().format());
+        }
+    }
+
+    public Result runOnHeap() {
+        Snapshot before = Snapshot.before();
+        long started = System.nanoTime();
+        List<List<IPORecord>> byStock = new ArrayList<>(listings);
+        for (int s = 0; s < listings; s++) {
+            byStock.add(new ArrayList<>(records / listings + 1));
+        }
+        LocalDateTime applyTime = LocalDateTime.now();
+        for (int i = 0; i < records; i++) {
+            int stock = i % listings;
+            byStock.get(stock).add(new IPORecord("REC-" + i, "INV-" + (i % INVESTORS), "STK-" + stock, 1, PRICE,
+                    applyTime, Status.PENDING));
+        }
+        Random random = new Random(42);
+        int winners = 0;
+        for (List<IPORecord> stockRecords : byStock) {
+            List<IPORecord> pending = new ArrayList<>(stockRecords);
+            Collections.shuffle(pending, random);
+            int lots = pending.size() / 4;
+            for (IPORecord record : pending) {
+                if (lots >= record.getQuantity()) {
+                    record.markWon();
+                    lots -= record.getQuantity();
+                    winners++;
+                } else {
+                    record.markLost();
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        Result result = Snapshot.after("on-heap", before, elapsed, winners);
+        Reference.reachabilityFence(byStock);
+        return result;
+    }
+
+    public Result runOffHeap() {
+        Snapshot before = Snapshot.before();
+        long started = System.nanoTime();
+        OffHeapRecordStore store = new OffHeapRecordStore();
+        long applyMillis = System.currentTimeMillis();
+        for (int i = 0; i < records; i++) {
+            store.append("REC-" + i, "INV-" + (i % INVESTORS), "STK-" + (i % listings), 1, PRICE, applyMillis,
+                    Status.PENDING);
+        }
+        Random random = new Random(42);
+        int winners = 0;
+        for (int s = 0; s < listings; s++) {
+            winners += store.draw("STK-" + s, (records / listings) / 4, random);
+        }
+        long elapsed = System.nanoTime() - started;
+        Result result = Snapshot.after("off-heap", before, elapsed, winners);
+        Reference.reachabilityFence(store);
+        return result;
+    }
+
+    /**
+     * GC and memory figures for one side. Heap and direct bytes are measured after a full collection
+     * while the records are still reachable, so they are the retained cost of holding them.
+     */
+    public record Result(String store, long elapsedNanos, int winners, long gcCount, long gcMillis,
+                         long heapBytes, long directBytes) {
+
+        public String format() {
+            return String.format("%-8s load+draw: %.0f ms  winners: %d  gc: %d collections, %d ms  "
+                            + "retained heap: %d MiB  direct: %d MiB",
+                    store, elapsedNanos / 1e6, winners, gcCount, gcMillis, heapBytes >> 20, directBytes >> 20);
+        }
+    }
+
+    private record Snapshot(long gcCount, long gcMillis, long heapBytes, long directBytes) {
+
+        /**
+         * Settles the heap first, so the explicit collection is not counted against the run.
+         */
+        static Snapshot before() {
+            System.gc();
+            long heap = heapUsed();
+            return new Snapshot(collections(), collectionMillis(), heap, directUsed());
+        }
+
+        /**
+         * Reads the collectors before settling the heap, for the same reason.
+         */
+        static Result after(String store, Snapshot before, long elapsedNanos, int winners) {
+            long count = collections();
+            long millis = collectionMillis();
+            System.gc();
+            return new Result(store, elapsedNanos, winners, count - before.gcCount, millis - before.gcMillis,
+                    heapUsed() - before.heapBytes, directUsed() - before.directBytes);
+        }
+
+        private static long collections() {
+            long count = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, collector.getCollectionCount());
+            }
+            return count;
+        }
+
+        private static long collectionMillis() {
+            long millis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(0, collector.getCollectionTime());
+            }
+            return millis;
+        }
+
+        private static long heapUsed() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private static long directUsed() {
+            for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+                if ("direct".equals(pool.getName())) {
+                    return pool.getMemoryUsed();
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tradesystem.iposimulation.simulation;
+
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.repository.JdbcDataRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryBenchmarkTest {
+
+    @Test
+    void bothBackendsShouldProcessTheSameWorkload() throws InterruptedException {
+        RepositoryBenchmark benchmark = new RepositoryBenchmark(200, 3, 4);
+
+        RepositoryBenchmark.Result memory = benchmark.run("memory", clock -> new DataRepository(clock, false));
+        RepositoryBenchmark.Result jdbc = benchmark.run("jdbc",
+                clock -> new JdbcDataRepository(clock, "jdbc:h2:mem:benchmark-test", 64, false));
+
+        assertThat(memory.applications()).isEqualTo(600);
+        assertThat(jdbc.applications()).isEqualTo(memory.applications());
+        assertThat(jdbc.drawnRecords()).isEqualTo(memory.drawnRecords()).isEqualTo(600);
+        assertThat(jdbc.format()).startsWith("jdbc").contains("apply: 600");
+    }
+}
@@ -0,0 +1,84 @@
+package com.tradesystem.iposimulation.time;
+
+import com.tradesystem.iposimulation.model.IPOStock;
+import com.tradesystem.iposimulation.repository.DataRepository;
+import com.tradesystem.iposimulation.service.IPOService;
+import com.tradesystem.iposimulation.service.InvestorService;
+import com.tradesystem.iposimulation.simulation.ArrivalProcess;
+import com.tradesystem.iposimulation.simulation.LoadSimulation;
+import com.tradesystem.iposimulation.simulation.SimulationReport;
+import com.tradesystem.iposimulation.simulation.SimulationSettings;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IPOClockTest {
+
+    @Test
+    void acceleratedClockShouldRunFasterAndJumpForward() throws Exception {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1000, 0);
+        Thread.sleep(20);
+        assertThat(clock.millis()).isGreaterThanOrEqualTo(20_000);
+        assertThat(clock.toRealMillis(60_000)).isEqualTo(60);
+
+        long before = clock.millis();
+        Clock utc = clock.withZone(ZoneOffset.UTC);
+        clock.advance(Duration.ofDays(1).toMillis());
+        assertThat(clock.millis() - before).isGreaterThanOrEqualTo(Duration.ofDays(1).toMillis());
+        assertThat(utc.getZone()).isEqualTo(ZoneOffset.UTC);
+        assertThat(utc.millis() - before).isGreaterThanOrEqualTo(Duration.ofDays(1).toMillis());
+        assertThatThrownBy(() -> clock.advance(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cachedClockShouldTrackSystemTime() throws Exception {
+        CachedIPOClock clock = new CachedIPOClock();
+        try {
+            Thread.sleep(10);
+            assertThat(Math.abs(clock.millis() - System.currentTimeMillis())).isLessThan(50);
+        } finally {
+            clock.close();
+        }
+    }
+
+    @Test
+    void servicesShouldExpireListingsOnTheRepositoryClock() {
+        AcceleratedIPOClock clock = new AcceleratedIPOClock(1);
+        DataRepository repository = new DataRepository(clock);
+        IPOService ipoService = new IPOService(repository, new InvestorService(repository));
+        repository.saveStock(new IPOStock("STK-CLK", "Clock Corp", "CLK", new BigDecimal("10"), 1,
+                clock.now().plusDays(2), "Issuer"));
+
+        assertThat(ipoService.listOpenIPOs()).extracting(IPOStock::getStockId).contains("STK-CLK");
+        clock.advance(Duration.ofDays(3).toMillis());
+        assertThat(ipoService.listOpenIPOs()).extracting(IPOStock::getStockId).doesNotContain("STK-CLK");
+        assertThat(ipoService.listIPOsForDisplay()).filteredOn(stock -> stock.getStockId().equals("STK-CLK"))
+                .singleElement()
+                .satisfies(stock -> assertThat(stock.isExpired(clock.millis())).isTrue());
+        assertThat(ipoService.executeDraw("STK-CLK", false).getTotalPending()).isZero();
+        repository.close();
+    }
+
+    @Test
+    void acceleratedClockShouldCompressAMultiDaySimulation() throws Exception {
+        long twoDays = Duration.ofDays(2).toMillis();
+        DataRepository repository = new DataRepository(new AcceleratedIPOClock(twoDays / 400.0));
+        IPOService ipoService = new IPOService(repository, new InvestorService(repository));
+        SimulationSettings settings = new SimulationSettings(40, 3, 2, twoDays, ArrivalProcess.POISSON, 0.1, 4,
+                new BigDecimal("1000"), 3);
+
+        long started = System.nanoTime();
+        SimulationReport report = new LoadSimulation(repository, ipoService, settings).run();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(report.violations()).isEmpty();
+        assertThat(report.winners()).isPositive();
+        repository.close();
+    }
+}